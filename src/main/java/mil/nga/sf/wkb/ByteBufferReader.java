@@ -0,0 +1,208 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Byte Reader backed by a {@link ByteBuffer}, reading values directly from the
+ * buffer without copying or allocating (heap, direct, and memory mapped
+ * buffers)
+ *
+ * @since 2.2.4
+ */
+public class ByteBufferReader extends ByteReader {
+
+	/**
+	 * Byte buffer
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Buffer position when created
+	 */
+	private final int start;
+
+	/**
+	 * Constructor, reads from the current position to the limit of the buffer
+	 * without modifying the provided buffer
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public ByteBufferReader(ByteBuffer buffer) {
+		this(buffer, ByteReader.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor, reads from the current position to the limit of the buffer
+	 * without modifying the provided buffer
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public ByteBufferReader(ByteBuffer buffer, ByteOrder byteOrder) {
+		super((InputStream) null, byteOrder);
+		this.buffer = buffer.duplicate().order(byteOrder);
+		this.start = this.buffer.position();
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            byte offset
+	 * @param length
+	 *            number of bytes
+	 */
+	public ByteBufferReader(byte[] bytes, int offset, int length) {
+		this(ByteBuffer.wrap(bytes, offset, length));
+	}
+
+	/**
+	 * Get the byte buffer, positioned at the next byte to read
+	 *
+	 * @return byte buffer
+	 */
+	public ByteBuffer getByteBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Get the number of remaining bytes
+	 *
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return buffer.remaining();
+	}
+
+	/**
+	 * Determine if there are remaining bytes
+	 *
+	 * @return true if remaining bytes
+	 */
+	public boolean hasRemaining() {
+		return buffer.hasRemaining();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Buffer backed readers do not hold an input stream and always return null
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Returns the backing array when the buffer is an array backed buffer
+	 * spanning the entire array, null otherwise
+	 */
+	@Override
+	public byte[] getBytes() {
+		byte[] bytes = null;
+		if (buffer.hasArray() && buffer.arrayOffset() == 0
+				&& buffer.capacity() == buffer.array().length) {
+			bytes = buffer.array();
+		}
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNextByte() {
+		return buffer.position() - start;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void setByteOrder(ByteOrder byteOrder) {
+		super.setByteOrder(byteOrder);
+		buffer.order(byteOrder);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] readBytes(int num) throws IOException {
+		verifyRemainingBytes(num);
+		byte[] bytes = new byte[num];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		verifyRemainingBytes(1);
+		return buffer.get();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		verifyRemainingBytes(4);
+		return buffer.getInt();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		return readInt() & 0xffffffffL;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		verifyRemainingBytes(8);
+		return buffer.getDouble();
+	}
+
+	/**
+	 * Verify with the remaining bytes that there are enough remaining to read
+	 * the provided amount
+	 *
+	 * @param bytesToRead
+	 *            number of bytes to read
+	 */
+	private void verifyRemainingBytes(int bytesToRead) {
+		if (buffer.remaining() < bytesToRead) {
+			throw new SFException("No more remaining bytes to read. Total: "
+					+ (buffer.limit() - start) + ", Read: " + getNextByte()
+					+ ", Attempted to Read: " + bytesToRead);
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Compact lossless geometry reader, reading geometries written by
+ * {@link CompactGeometryWriter}. Geometries are read with the same types and
+ * filtering as {@link GeometryReader}.
+ *
+ * @since 2.2.4
+ */
+public class CompactGeometryReader {
+
+	/**
+	 * Read a geometry from compact bytes
+	 *
+	 * @param bytes
+	 *            compact bytes
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static Geometry readGeometry(byte[] bytes) throws IOException {
+		return readGeometry(bytes, null, null);
+	}
+
+	/**
+	 * Read a geometry from compact bytes
+	 *
+	 * @param bytes
+	 *            compact bytes
+	 * @param filter
+	 *            geometry filter
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static Geometry readGeometry(byte[] bytes, GeometryFilter filter)
+			throws IOException {
+		return readGeometry(bytes, filter, null);
+	}
+
+	/**
+	 * Read a geometry from compact bytes
+	 *
+	 * @param bytes
+	 *            compact bytes
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static <T extends Geometry> T readGeometry(byte[] bytes,
+			GeometryFilter filter, Class<T> expectedType) throws IOException {
+		T geometry = null;
+		CompactGeometryReader reader = new CompactGeometryReader(bytes);
+		try {
+			geometry = reader.read(filter, expectedType);
+		} finally {
+			reader.close();
+		}
+		return geometry;
+	}
+
+	/**
+	 * Geometry reader
+	 */
+	private final Decoder decoder;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            compact bytes
+	 */
+	public CompactGeometryReader(byte[] bytes) {
+		this(new ByteReader(bytes));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param reader
+	 *            byte reader
+	 */
+	public CompactGeometryReader(ByteReader reader) {
+		this.decoder = new Decoder(reader);
+	}
+
+	/**
+	 * Get the byte reader
+	 *
+	 * @return byte reader
+	 */
+	public ByteReader getByteReader() {
+		return decoder.getByteReader();
+	}
+
+	/**
+	 * Close the byte reader
+	 */
+	public void close() {
+		decoder.close();
+	}
+
+	/**
+	 * Read a geometry from the byte reader
+	 *
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read() throws IOException {
+		return read(null, null);
+	}
+
+	/**
+	 * Read a geometry from the byte reader
+	 *
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public <T extends Geometry> T read(GeometryFilter filter,
+			Class<T> expectedType) throws IOException {
+		return decoder.read(filter, expectedType);
+	}
+
+	/**
+	 * Geometry reader decoding variable length integer geometry codes and
+	 * counts and XOR encoded double coordinates
+	 */
+	private static class Decoder extends GeometryReader {
+
+		/**
+		 * Previous x, y, z, and m value bits
+		 */
+		private final long[] previous = new long[4];
+
+		/**
+		 * Geometry nesting depth
+		 */
+		private int depth = 0;
+
+		/**
+		 * Constructor
+		 *
+		 * @param reader
+		 *            byte reader
+		 */
+		private Decoder(ByteReader reader) {
+			super(reader);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public <T extends Geometry> T read(GeometryFilter filter,
+				GeometryType containingType, Class<T> expectedType)
+				throws IOException {
+			if (depth == 0) {
+				for (int i = 0; i < previous.length; i++) {
+					previous[i] = 0;
+				}
+			}
+			depth++;
+			try {
+				return super.read(filter, containingType, expectedType);
+			} finally {
+				depth--;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public GeometryTypeInfo readGeometryType() throws IOException {
+			return getGeometryTypeInfo(Varint.readUnsigned(getByteReader()));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int readCount() throws IOException {
+			return Varint.readCount(getByteReader());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public Point readPoint(boolean hasZ, boolean hasM) throws IOException {
+
+			double x = readValue(0);
+			double y = readValue(1);
+
+			Point point = new Point(hasZ, hasM, x, y);
+
+			if (hasZ) {
+				point.setZ(readValue(2));
+			}
+
+			if (hasM) {
+				point.setM(readValue(3));
+			}
+
+			return point;
+		}
+
+		/**
+		 * Read the next XOR encoded value of the dimension
+		 *
+		 * @param dimension
+		 *            dimension index
+		 * @return value
+		 * @throws IOException
+		 *             upon failure to read
+		 */
+		private double readValue(int dimension) throws IOException {
+			previous[dimension] = XorDoubles.read(getByteReader(),
+					previous[dimension]);
+			return Double.longBitsToDouble(previous[dimension]);
+		}
+
+	}
+
+}
@@ -0,0 +1,196 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Compact lossless geometry writer. Geometries are written with the same
+ * structure and geometry type codes as well-known binary, with variable length
+ * integer geometry codes and counts and each coordinate dimension XOR encoded
+ * against the previous coordinate in the geometry. Full double precision is
+ * retained. Read with {@link CompactGeometryReader}.
+ *
+ * @since 2.2.4
+ */
+public class CompactGeometryWriter {
+
+	/**
+	 * Write a geometry to compact bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return compact bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static byte[] writeGeometry(Geometry geometry) throws IOException {
+		byte[] bytes = null;
+		CompactGeometryWriter writer = new CompactGeometryWriter();
+		try {
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Geometry writer
+	 */
+	private final Encoder encoder;
+
+	/**
+	 * Constructor
+	 */
+	public CompactGeometryWriter() {
+		this(new ByteWriter());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param writer
+	 *            byte writer
+	 */
+	public CompactGeometryWriter(ByteWriter writer) {
+		this.encoder = new Encoder(writer);
+	}
+
+	/**
+	 * Get the byte writer
+	 *
+	 * @return byte writer
+	 */
+	public ByteWriter getByteWriter() {
+		return encoder.getByteWriter();
+	}
+
+	/**
+	 * Get the written bytes
+	 *
+	 * @return written bytes
+	 */
+	public byte[] getBytes() {
+		return encoder.getBytes();
+	}
+
+	/**
+	 * Close the byte writer
+	 */
+	public void close() {
+		encoder.close();
+	}
+
+	/**
+	 * Write a geometry to the byte writer
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void write(Geometry geometry) throws IOException {
+		encoder.write(geometry);
+	}
+
+	/**
+	 * Geometry writer encoding geometry codes and counts as variable length
+	 * integers and coordinates as XOR encoded doubles
+	 */
+	private static class Encoder extends GeometryWriter {
+
+		/**
+		 * Previous x, y, z, and m value bits
+		 */
+		private final long[] previous = new long[4];
+
+		/**
+		 * Geometry nesting depth
+		 */
+		private int depth = 0;
+
+		/**
+		 * Constructor
+		 *
+		 * @param writer
+		 *            byte writer
+		 */
+		private Encoder(ByteWriter writer) {
+			super(writer);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void write(Geometry geometry) throws IOException {
+			if (depth == 0) {
+				for (int i = 0; i < previous.length; i++) {
+					previous[i] = 0;
+				}
+			}
+			depth++;
+			try {
+				super.write(geometry);
+			} finally {
+				depth--;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeGeometryType(Geometry geometry) throws IOException {
+			Varint.writeUnsigned(getByteWriter(),
+					GeometryCodes.getWKBCode(geometry));
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeCount(int count) throws IOException {
+			Varint.writeUnsigned(getByteWriter(), count);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeXY(Point point) throws IOException {
+			previous[0] = XorDoubles.write(getByteWriter(), previous[0],
+					point.getX());
+			previous[1] = XorDoubles.write(getByteWriter(), previous[1],
+					point.getY());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeZ(Point point) throws IOException {
+			if (point.hasZ()) {
+				previous[2] = XorDoubles.write(getByteWriter(), previous[2],
+						point.getZ());
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeM(Point point) throws IOException {
+			if (point.hasM()) {
+				previous[3] = XorDoubles.write(getByteWriter(), previous[3],
+						point.getM());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Decimal text writing of coordinate values for the text transcoders
+ *
+ * @since 2.2.4
+ */
+final class DecimalText {
+
+	/**
+	 * Get the rounding scale for a maximum number of fraction digits
+	 *
+	 * @param maximumFractionDigits
+	 *            maximum fraction digits, negative for the shortest round
+	 *            trip text
+	 * @return 10 to the maximum fraction digits, or NaN for the shortest round
+	 *         trip text
+	 */
+	static double scale(int maximumFractionDigits) {
+		return maximumFractionDigits < 0 ? Double.NaN
+				: Math.pow(10, maximumFractionDigits);
+	}
+
+	/**
+	 * Append a value as plain decimal text without trailing zeros. Values too
+	 * large to scale are written unrounded, as they have no fraction digits.
+	 *
+	 * @param out
+	 *            appendable
+	 * @param value
+	 *            value
+	 * @param scale
+	 *            rounding scale, or NaN for the shortest round trip text
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	static void append(Appendable out, double value, double scale)
+			throws IOException {
+		if (!Double.isNaN(scale)) {
+			double scaled = value * scale;
+			if (Double.isFinite(scaled)) {
+				value = Math.rint(scaled) / scale + 0.0;
+			}
+		}
+		String text = Double.toString(value);
+		if (text.indexOf('E') >= 0) {
+			text = BigDecimal.valueOf(value).stripTrailingZeros()
+					.toPlainString();
+		} else if (text.endsWith(".0")) {
+			text = text.substring(0, text.length() - 2);
+		}
+		out.append(text);
+	}
+
+	/**
+	 * Constructor
+	 */
+	private DecimalText() {
+	}
+
+}
@@ -0,0 +1,132 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.Point;
+
+/**
+ * Geometry writer accumulating the x, y, z, and m ranges of the written
+ * coordinates, for formats with an envelope header computed in the same pass
+ * as the geometry
+ *
+ * @since 2.2.4
+ */
+class EnvelopeGeometryWriter extends GeometryWriter {
+
+	/**
+	 * X dimension index
+	 */
+	static final int X = 0;
+
+	/**
+	 * Y dimension index
+	 */
+	static final int Y = 1;
+
+	/**
+	 * Z dimension index
+	 */
+	static final int Z = 2;
+
+	/**
+	 * M dimension index
+	 */
+	static final int M = 3;
+
+	/**
+	 * Minimum x, y, z, and m values
+	 */
+	private final double[] min = new double[4];
+
+	/**
+	 * Maximum x, y, z, and m values
+	 */
+	private final double[] max = new double[4];
+
+	/**
+	 * Constructor
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 */
+	EnvelopeGeometryWriter(ByteOrder byteOrder) {
+		super(byteOrder);
+		for (int i = 0; i < min.length; i++) {
+			min[i] = Double.POSITIVE_INFINITY;
+			max[i] = Double.NEGATIVE_INFINITY;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeXY(Point point) throws IOException {
+		super.writeXY(point);
+		expand(X, point.getX());
+		expand(Y, point.getY());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeZ(Point point) throws IOException {
+		super.writeZ(point);
+		if (point.hasZ() && point.getZ() != null) {
+			expand(Z, point.getZ());
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeM(Point point) throws IOException {
+		super.writeM(point);
+		if (point.hasM() && point.getM() != null) {
+			expand(M, point.getM());
+		}
+	}
+
+	/**
+	 * Expand the range of the dimension, ignoring NaN values
+	 *
+	 * @param dimension
+	 *            dimension index
+	 * @param value
+	 *            value
+	 */
+	void expand(int dimension, double value) {
+		if (value < min[dimension]) {
+			min[dimension] = value;
+		}
+		if (value > max[dimension]) {
+			max[dimension] = value;
+		}
+	}
+
+	/**
+	 * Get the minimum value of the dimension
+	 *
+	 * @param dimension
+	 *            dimension index
+	 * @return minimum value, NaN when no values were written
+	 */
+	double getMin(int dimension) {
+		return min[dimension] <= max[dimension] ? min[dimension] : Double.NaN;
+	}
+
+	/**
+	 * Get the maximum value of the dimension
+	 *
+	 * @param dimension
+	 *            dimension index
+	 * @return maximum value, NaN when no values were written
+	 */
+	double getMax(int dimension) {
+		return min[dimension] <= max[dimension] ? max[dimension] : Double.NaN;
+	}
+
+}
@@ -0,0 +1,736 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Streaming GeoJSON geometry parser reporting geometries to a
+ * {@link GeometryHandler} without building geometries or a JSON tree. Paired
+ * with a {@link WKBGeometryHandler}, GeoJSON is encoded directly to
+ * well-known binary with list counts back-patched as each list ends.
+ * <p>
+ * Geometry objects and Features are parsed as a single geometry, where a
+ * Feature with a null geometry reports no geometry. FeatureCollections are
+ * parsed with {@link #parseFeatures(ByteOrder)} into well-known binary per
+ * feature. Members are accepted in any order, z values are determined from
+ * the first position of each top level geometry, and unknown members such as
+ * "bbox" and "properties" are skipped.
+ *
+ * @since 2.2.4
+ */
+public class GeoJSONParser extends TextParser {
+
+	/**
+	 * Encode a GeoJSON geometry or Feature to well-known binary using the
+	 * default byte order
+	 *
+	 * @param json
+	 *            GeoJSON
+	 * @return well-known binary, or null for a Feature with a null geometry
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence json) throws IOException {
+		return toWKB(json, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Encode a GeoJSON geometry or Feature to well-known binary
+	 *
+	 * @param json
+	 *            GeoJSON
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary, or null for a Feature with a null geometry
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence json, ByteOrder byteOrder)
+			throws IOException {
+		return toWKB(json, 0, json.length(), byteOrder);
+	}
+
+	/**
+	 * Encode a range of GeoJSON geometry or Feature to well-known binary
+	 *
+	 * @param json
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary, or null for a Feature with a null geometry
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence json, int start, int end,
+			ByteOrder byteOrder) throws IOException {
+		WKBGeometryHandler handler = new WKBGeometryHandler(byteOrder,
+				(end - start) / 2);
+		new GeoJSONParser(json, start, end).parse(handler);
+		return handler.size() > 0 ? handler.getBytes() : null;
+	}
+
+	/**
+	 * Encode the features of GeoJSON to well-known binary using the default
+	 * byte order
+	 *
+	 * @param json
+	 *            GeoJSON
+	 * @return well-known binary per feature
+	 * @throws IOException
+	 *             upon failure to encode
+	 * @see #parseFeatures(ByteOrder)
+	 */
+	public static List<byte[]> toFeatureWKB(CharSequence json)
+			throws IOException {
+		return toFeatureWKB(json, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Encode the features of GeoJSON to well-known binary
+	 *
+	 * @param json
+	 *            GeoJSON
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary per feature
+	 * @throws IOException
+	 *             upon failure to encode
+	 * @see #parseFeatures(ByteOrder)
+	 */
+	public static List<byte[]> toFeatureWKB(CharSequence json,
+			ByteOrder byteOrder) throws IOException {
+		return toFeatureWKB(json, 0, json.length(), byteOrder);
+	}
+
+	/**
+	 * Encode the features of a range of GeoJSON to well-known binary
+	 *
+	 * @param json
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary per feature
+	 * @throws IOException
+	 *             upon failure to encode
+	 * @see #parseFeatures(ByteOrder)
+	 */
+	public static List<byte[]> toFeatureWKB(CharSequence json, int start,
+			int end, ByteOrder byteOrder) throws IOException {
+		return new GeoJSONParser(json, start, end).parseFeatures(byteOrder);
+	}
+
+	/**
+	 * GeoJSON type of a Feature
+	 */
+	private static final String FEATURE = "Feature";
+
+	/**
+	 * GeoJSON type of a FeatureCollection
+	 */
+	private static final String FEATURE_COLLECTION = "FeatureCollection";
+
+	/**
+	 * GeoJSON geometry type names, indexed with {@link #TYPES}
+	 */
+	private static final String[] TYPE_NAMES = { "Point", "LineString",
+			"Polygon", "MultiPoint", "MultiLineString", "MultiPolygon",
+			"GeometryCollection" };
+
+	/**
+	 * Geometry types, indexed with {@link #TYPE_NAMES}
+	 */
+	private static final GeometryType[] TYPES = { GeometryType.POINT,
+			GeometryType.LINESTRING, GeometryType.POLYGON,
+			GeometryType.MULTIPOINT, GeometryType.MULTILINESTRING,
+			GeometryType.MULTIPOLYGON, GeometryType.GEOMETRYCOLLECTION };
+
+	/**
+	 * Constructor
+	 *
+	 * @param json
+	 *            GeoJSON
+	 */
+	public GeoJSONParser(CharSequence json) {
+		this(json, 0, json.length());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param json
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 */
+	public GeoJSONParser(CharSequence json, int start, int end) {
+		super(json, start, end);
+	}
+
+	/**
+	 * Parse the GeoJSON geometry or Feature, reporting the geometry to the
+	 * handler. A Feature with a null geometry reports no geometry. A
+	 * FeatureCollection or trailing text other than whitespace is an error.
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void parse(GeometryHandler handler) throws IOException {
+		skipWhitespace();
+		if (peekType() == FEATURE_COLLECTION) {
+			throw error("FeatureCollection is not a single geometry, "
+					+ "parse the features");
+		}
+		parseObject(handler);
+		finish();
+	}
+
+	/**
+	 * Parse the GeoJSON features to well-known binary, one entry per feature
+	 * in order. A FeatureCollection parses to an entry for each of its
+	 * features and a geometry or Feature parses to a single entry. Features
+	 * with a null geometry have a null entry. Trailing text other than
+	 * whitespace is an error.
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary per feature
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public List<byte[]> parseFeatures(ByteOrder byteOrder) throws IOException {
+		List<byte[]> features = new ArrayList<>();
+		WKBGeometryHandler handler = new WKBGeometryHandler(byteOrder);
+		skipWhitespace();
+		if (peekType() == FEATURE_COLLECTION) {
+			int member = findMember("features");
+			if (member < 0) {
+				throw error("FeatureCollection has no features member");
+			}
+			position = member;
+			expect('[');
+			skipWhitespace();
+			if (!skip(']')) {
+				do {
+					features.add(parseFeature(handler));
+				} while (nextItem(']'));
+			}
+			finishObject();
+		} else {
+			features.add(parseFeature(handler));
+		}
+		finish();
+		return features;
+	}
+
+	/**
+	 * Parse a geometry or Feature to well-known binary
+	 *
+	 * @param handler
+	 *            reusable well-known binary handler
+	 * @return well-known binary, or null for a Feature with a null geometry
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	private byte[] parseFeature(WKBGeometryHandler handler)
+			throws IOException {
+		handler.reset();
+		parseObject(handler);
+		return handler.size() > 0 ? handler.getBytes() : null;
+	}
+
+	/**
+	 * Check that only whitespace follows the parsed GeoJSON
+	 */
+	private void finish() {
+		skipWhitespace();
+		if (position < end) {
+			throw error("Unexpected trailing text");
+		}
+	}
+
+	/**
+	 * Parse a GeoJSON geometry or Feature object
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parseObject(GeometryHandler handler) throws IOException {
+		skipWhitespace();
+		String type = peekType();
+		if (type == FEATURE) {
+			int geometry = findMember("geometry");
+			if (geometry < 0) {
+				throw error("Feature has no geometry member");
+			}
+			position = geometry;
+			if (!skipLiteral("null")) {
+				parseGeometry(handler, null, false);
+			}
+			finishObject();
+		} else {
+			parseGeometry(handler, null, false);
+		}
+	}
+
+	/**
+	 * Parse a geometry object
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param containingType
+	 *            containing geometry collection type or null for a top level
+	 *            geometry
+	 * @param parentZ
+	 *            containing geometry has z values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parseGeometry(GeometryHandler handler,
+			GeometryType containingType, boolean parentZ) throws IOException {
+
+		skipWhitespace();
+		GeometryType geometryType = geometryType(peekType());
+		boolean hasZ = containingType == null ? peekDimensions() > 2
+				: parentZ;
+
+		String member = geometryType == GeometryType.GEOMETRYCOLLECTION
+				? "geometries"
+				: "coordinates";
+		int value = findMember(member);
+		if (value < 0) {
+			throw error("Geometry has no " + member + " member");
+		}
+		position = value;
+
+		handler.startGeometry(geometryType, hasZ, false, containingType);
+		if (geometryType == GeometryType.GEOMETRYCOLLECTION) {
+			if (startList(handler)) {
+				do {
+					parseGeometry(handler, geometryType, hasZ);
+				} while (nextItem(']'));
+			}
+			handler.endList();
+		} else {
+			parseCoordinates(handler, geometryType, hasZ);
+		}
+		handler.endGeometry();
+
+		finishObject();
+	}
+
+	/**
+	 * Parse the coordinates of a geometry
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parseCoordinates(GeometryHandler handler,
+			GeometryType geometryType, boolean hasZ) throws IOException {
+
+		switch (geometryType) {
+		case POINT:
+			parsePosition(handler, hasZ, true);
+			break;
+		case LINESTRING:
+			parsePositions(handler, hasZ);
+			break;
+		case POLYGON:
+			if (startList(handler)) {
+				do {
+					parsePositions(handler, hasZ);
+				} while (nextItem(']'));
+			}
+			handler.endList();
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+			GeometryType memberType = geometryType == GeometryType.MULTIPOINT
+					? GeometryType.POINT
+					: geometryType == GeometryType.MULTILINESTRING
+							? GeometryType.LINESTRING
+							: GeometryType.POLYGON;
+			if (startList(handler)) {
+				do {
+					handler.startGeometry(memberType, hasZ, false,
+							geometryType);
+					parseCoordinates(handler, memberType, hasZ);
+					handler.endGeometry();
+				} while (nextItem(']'));
+			}
+			handler.endList();
+			break;
+		default:
+			throw error("Unexpected Geometry Type of " + geometryType.name());
+		}
+	}
+
+	/**
+	 * Parse an array of positions
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parsePositions(GeometryHandler handler, boolean hasZ)
+			throws IOException {
+		if (startList(handler)) {
+			do {
+				parsePosition(handler, hasZ, false);
+			} while (nextItem(']'));
+		}
+		handler.endList();
+	}
+
+	/**
+	 * Parse a position. Values beyond the dimensions are ignored and a missing
+	 * z value is reported as NaN.
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z values
+	 * @param allowEmpty
+	 *            true to allow an empty position as an empty point
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parsePosition(GeometryHandler handler, boolean hasZ,
+			boolean allowEmpty) throws IOException {
+		expect('[');
+		skipWhitespace();
+		if (allowEmpty && skip(']')) {
+			handler.point(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+			return;
+		}
+		double x = parseNumber();
+		expect(',');
+		double y = parseNumber();
+		double z = Double.NaN;
+		int values = 2;
+		while (nextItem(']')) {
+			double value = parseNumber();
+			if (values++ == 2) {
+				z = value;
+			}
+		}
+		handler.point(x, y, hasZ ? z : Double.NaN, Double.NaN);
+	}
+
+	/**
+	 * Start a list, reporting an empty list for an empty array
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @return true if the list has items to parse
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private boolean startList(GeometryHandler handler) throws IOException {
+		expect('[');
+		skipWhitespace();
+		boolean items = !skip(']');
+		handler.startList(items ? -1 : 0);
+		return items;
+	}
+
+	/**
+	 * Determine the number of values in the first position of the geometry
+	 * object at the current position without moving it
+	 *
+	 * @return dimensions, 2 when there are no positions
+	 */
+	private int peekDimensions() {
+		int start = position;
+		int dimensions = 2;
+		if (geometryType(peekType()) == GeometryType.GEOMETRYCOLLECTION) {
+			int geometries = findMember("geometries");
+			if (geometries >= 0) {
+				position = geometries;
+				expect('[');
+				skipWhitespace();
+				if (!skip(']')) {
+					do {
+						skipWhitespace();
+						dimensions = peekDimensions();
+						skipValue();
+					} while (dimensions == 2 && nextItem(']'));
+				}
+			}
+		} else {
+			int coordinates = findMember("coordinates");
+			if (coordinates >= 0) {
+				position = coordinates;
+				do {
+					skipWhitespace();
+				} while (skip('['));
+				if (position < end && text.charAt(position) != ']') {
+					dimensions = 0;
+					do {
+						parseNumber();
+						dimensions++;
+						skipWhitespace();
+					} while (skip(','));
+				}
+			}
+		}
+		position = start;
+		return dimensions;
+	}
+
+	/**
+	 * Peek the "type" member value of the object at the current position
+	 * without moving it
+	 *
+	 * @return type name constant, or null if not a known type
+	 */
+	private String peekType() {
+		int start = position;
+		int type = findMember("type");
+		if (type < 0) {
+			throw error("Object has no type member");
+		}
+		position = type;
+		String name = null;
+		if (matchString(FEATURE)) {
+			name = FEATURE;
+		} else if (matchString(FEATURE_COLLECTION)) {
+			name = FEATURE_COLLECTION;
+		} else {
+			for (String typeName : TYPE_NAMES) {
+				if (matchString(typeName)) {
+					name = typeName;
+					break;
+				}
+			}
+		}
+		if (name == null) {
+			throw error("Unsupported GeoJSON type");
+		}
+		position = start;
+		return name;
+	}
+
+	/**
+	 * Get the geometry type of a GeoJSON type name constant
+	 *
+	 * @param typeName
+	 *            type name constant
+	 * @return geometry type
+	 */
+	private GeometryType geometryType(String typeName) {
+		for (int i = 0; i < TYPE_NAMES.length; i++) {
+			if (TYPE_NAMES[i] == typeName) {
+				return TYPES[i];
+			}
+		}
+		throw error("Expected a geometry type, found " + typeName);
+	}
+
+	/**
+	 * Find the value position of a member of the object at the current
+	 * position without moving it
+	 *
+	 * @param name
+	 *            member name
+	 * @return value position or -1 if not found
+	 */
+	private int findMember(String name) {
+		int start = position;
+		int value = -1;
+		expect('{');
+		skipWhitespace();
+		if (!skip('}')) {
+			do {
+				skipWhitespace();
+				boolean match = matchString(name);
+				if (!match) {
+					skipString();
+				}
+				expect(':');
+				skipWhitespace();
+				if (match) {
+					value = position;
+					break;
+				}
+				skipValue();
+			} while (nextItem('}'));
+		}
+		position = start;
+		return value;
+	}
+
+	/**
+	 * Move past the remaining members of the object after a member value, to
+	 * the end of the object
+	 */
+	private void finishObject() {
+		while (nextItem('}')) {
+			skipWhitespace();
+			skipString();
+			expect(':');
+			skipValue();
+		}
+	}
+
+	/**
+	 * Move past the list separator or the list end
+	 *
+	 * @param close
+	 *            closing character of the list
+	 * @return true if another item follows
+	 */
+	private boolean nextItem(char close) {
+		skipWhitespace();
+		if (position < end) {
+			char c = text.charAt(position++);
+			if (c == ',') {
+				return true;
+			} else if (c == close) {
+				return false;
+			}
+			position--;
+		}
+		throw error("Expected ',' or '" + close + "'");
+	}
+
+	/**
+	 * Move past the character if next
+	 *
+	 * @param c
+	 *            character
+	 * @return true if skipped
+	 */
+	private boolean skip(char c) {
+		boolean match = position < end && text.charAt(position) == c;
+		if (match) {
+			position++;
+		}
+		return match;
+	}
+
+	/**
+	 * Move past a literal if next
+	 *
+	 * @param literal
+	 *            literal
+	 * @return true if skipped
+	 */
+	private boolean skipLiteral(String literal) {
+		skipWhitespace();
+		int literalEnd = position + literal.length();
+		if (literalEnd > end) {
+			return false;
+		}
+		for (int i = 0; i < literal.length(); i++) {
+			if (text.charAt(position + i) != literal.charAt(i)) {
+				return false;
+			}
+		}
+		position = literalEnd;
+		return true;
+	}
+
+	/**
+	 * Move past a string if it matches the unescaped value
+	 *
+	 * @param value
+	 *            string value
+	 * @return true if matched
+	 */
+	private boolean matchString(String value) {
+		skipWhitespace();
+		int stringEnd = position + value.length() + 2;
+		if (stringEnd > end || text.charAt(position) != '"'
+				|| text.charAt(stringEnd - 1) != '"') {
+			return false;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			if (text.charAt(position + 1 + i) != value.charAt(i)) {
+				return false;
+			}
+		}
+		position = stringEnd;
+		return true;
+	}
+
+	/**
+	 * Move past a string
+	 */
+	private void skipString() {
+		expect('"');
+		while (position < end) {
+			char c = text.charAt(position++);
+			if (c == '"') {
+				return;
+			} else if (c == '\\') {
+				position++;
+			}
+		}
+		throw error("Unterminated string");
+	}
+
+	/**
+	 * Move past a JSON value
+	 */
+	private void skipValue() {
+		skipWhitespace();
+		if (position >= end) {
+			throw error("Expected a value");
+		}
+		char c = text.charAt(position);
+		if (c == '"') {
+			skipString();
+		} else if (c == '{' || c == '[') {
+			int nesting = 0;
+			while (position < end) {
+				c = text.charAt(position);
+				if (c == '"') {
+					skipString();
+					continue;
+				}
+				position++;
+				if (c == '{' || c == '[') {
+					nesting++;
+				} else if (c == '}' || c == ']') {
+					if (--nesting == 0) {
+						return;
+					}
+				}
+			}
+			throw error("Unterminated value");
+		} else if (!skipLiteral("true") && !skipLiteral("false")
+				&& !skipLiteral("null")) {
+			parseNumber();
+		}
+	}
+
+}
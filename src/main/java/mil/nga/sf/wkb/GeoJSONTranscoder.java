@@ -0,0 +1,650 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary to GeoJSON geometry transcoder. Geometries are traversed
+ * with {@link GeometryReader#traverse(GeometryHandler)} and written as
+ * GeoJSON geometry objects to an {@link Appendable} in a single streaming
+ * pass, without building geometries.
+ * <p>
+ * Types without a GeoJSON equivalent are written as their nearest GeoJSON
+ * type: triangles as polygons, polyhedral surfaces and TINs as multi
+ * polygons, compound curves as line strings, curve polygons as polygons,
+ * multi curves as multi line strings, and multi surfaces as multi polygons.
+ * Circular strings are linearized into segments, or rejected when
+ * linearization is disabled. M values are not written, and empty points
+ * within multi points are omitted.
+ *
+ * @since 2.2.4
+ */
+public class GeoJSONTranscoder {
+
+	/**
+	 * Default number of linearized segments per quarter circle
+	 */
+	public static final int DEFAULT_SEGMENTS_PER_QUADRANT = 32;
+
+	/**
+	 * Transcode well-known binary to GeoJSON
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return GeoJSON geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static String toGeoJSON(byte[] bytes) throws IOException {
+		StringBuilder json = new StringBuilder();
+		new GeoJSONTranscoder().write(bytes, json);
+		return json.toString();
+	}
+
+	/**
+	 * Maximum number of fraction digits, negative for the shortest round trip
+	 * text
+	 */
+	private int maximumFractionDigits = -1;
+
+	/**
+	 * Linearize circular strings, false to reject them
+	 */
+	private boolean linearizeCurves = true;
+
+	/**
+	 * Linearized segments per quarter circle
+	 */
+	private int segmentsPerQuadrant = DEFAULT_SEGMENTS_PER_QUADRANT;
+
+	/**
+	 * Constructor, writing the shortest round trip text of numbers
+	 */
+	public GeoJSONTranscoder() {
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maximumFractionDigits
+	 *            maximum number of fraction digits, negative for the shortest
+	 *            round trip text
+	 */
+	public GeoJSONTranscoder(int maximumFractionDigits) {
+		setMaximumFractionDigits(maximumFractionDigits);
+	}
+
+	/**
+	 * Get the maximum number of fraction digits
+	 *
+	 * @return maximum fraction digits, negative for the shortest round trip
+	 *         text
+	 */
+	public int getMaximumFractionDigits() {
+		return maximumFractionDigits;
+	}
+
+	/**
+	 * Set the maximum number of fraction digits. Values are rounded half even
+	 * to the digits and written without trailing zeros.
+	 *
+	 * @param maximumFractionDigits
+	 *            maximum fraction digits, negative for the shortest round
+	 *            trip text
+	 */
+	public void setMaximumFractionDigits(int maximumFractionDigits) {
+		this.maximumFractionDigits = maximumFractionDigits;
+	}
+
+	/**
+	 * Is linearizing circular strings enabled
+	 *
+	 * @return true if circular strings are linearized, false if rejected
+	 */
+	public boolean isLinearizeCurves() {
+		return linearizeCurves;
+	}
+
+	/**
+	 * Set whether circular strings are linearized or rejected with an
+	 * {@link SFException}. Curve types containing only line strings are
+	 * always written exactly.
+	 *
+	 * @param linearizeCurves
+	 *            true to linearize, false to reject
+	 */
+	public void setLinearizeCurves(boolean linearizeCurves) {
+		this.linearizeCurves = linearizeCurves;
+	}
+
+	/**
+	 * Get the number of linearized segments per quarter circle
+	 *
+	 * @return segments per quadrant
+	 */
+	public int getSegmentsPerQuadrant() {
+		return segmentsPerQuadrant;
+	}
+
+	/**
+	 * Set the number of linearized segments per quarter circle
+	 *
+	 * @param segmentsPerQuadrant
+	 *            segments per quadrant
+	 */
+	public void setSegmentsPerQuadrant(int segmentsPerQuadrant) {
+		if (segmentsPerQuadrant < 1) {
+			throw new SFException(
+					"Segments per quadrant must be positive: "
+							+ segmentsPerQuadrant);
+		}
+		this.segmentsPerQuadrant = segmentsPerQuadrant;
+	}
+
+	/**
+	 * Transcode well-known binary to GeoJSON
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(byte[] bytes, Appendable appendable)
+			throws IOException {
+		write(new ByteReader(bytes), appendable);
+	}
+
+	/**
+	 * Transcode the next well-known binary geometry to GeoJSON
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(ByteReader reader, Appendable appendable)
+			throws IOException {
+		write(new GeometryReader(reader), appendable);
+	}
+
+	/**
+	 * Transcode the next well-known binary geometry to GeoJSON
+	 *
+	 * @param reader
+	 *            geometry reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(GeometryReader reader, Appendable appendable)
+			throws IOException {
+		reader.traverse(new JSONHandler(appendable, this));
+	}
+
+	/**
+	 * Get the GeoJSON type name of a geometry type
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @return GeoJSON type
+	 */
+	private static String geoJSONType(GeometryType geometryType) {
+		String type;
+		switch (geometryType) {
+		case POINT:
+			type = "Point";
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+		case COMPOUNDCURVE:
+			type = "LineString";
+			break;
+		case POLYGON:
+		case TRIANGLE:
+		case CURVEPOLYGON:
+			type = "Polygon";
+			break;
+		case MULTIPOINT:
+			type = "MultiPoint";
+			break;
+		case MULTILINESTRING:
+		case MULTICURVE:
+			type = "MultiLineString";
+			break;
+		case MULTIPOLYGON:
+		case MULTISURFACE:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			type = "MultiPolygon";
+			break;
+		case GEOMETRYCOLLECTION:
+			type = "GeometryCollection";
+			break;
+		default:
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+		return type;
+	}
+
+	/**
+	 * Geometry handler writing GeoJSON
+	 */
+	private static class JSONHandler implements GeometryHandler {
+
+		/**
+		 * Appendable
+		 */
+		private final Appendable out;
+
+		/**
+		 * Rounding scale, 10 to the maximum fraction digits, or NaN for the
+		 * shortest round trip text
+		 */
+		private final double scale;
+
+		/**
+		 * Linearize circular strings, false to reject them
+		 */
+		private final boolean linearizeCurves;
+
+		/**
+		 * Maximum linearized segment angle in radians
+		 */
+		private final double segmentAngle;
+
+		/**
+		 * Geometry types of geometry frames, null for list frames
+		 */
+		private GeometryType[] types = new GeometryType[16];
+
+		/**
+		 * Frame flags: geometry frames written as GeoJSON objects, or list
+		 * frames written as JSON arrays
+		 */
+		private boolean[] written = new boolean[16];
+
+		/**
+		 * Compound curve members after the first, whose first point repeats
+		 * the previous end point
+		 */
+		private boolean[] joined = new boolean[16];
+
+		/**
+		 * Geometries, lists, or points started in each frame
+		 */
+		private int[] started = new int[16];
+
+		/**
+		 * JSON array elements written in each frame
+		 */
+		private int[] elements = new int[16];
+
+		/**
+		 * Has z values by frame
+		 */
+		private boolean[] hasZ = new boolean[16];
+
+		/**
+		 * Number of open frames
+		 */
+		private int depth = 0;
+
+		/**
+		 * Circular string arc start and mid points
+		 */
+		private double startX, startY, startZ, midX, midY, midZ;
+
+		/**
+		 * Constructor
+		 *
+		 * @param out
+		 *            appendable
+		 * @param transcoder
+		 *            transcoder settings
+		 */
+		private JSONHandler(Appendable out, GeoJSONTranscoder transcoder) {
+			this.out = out;
+			this.scale = DecimalText.scale(transcoder.maximumFractionDigits);
+			this.linearizeCurves = transcoder.linearizeCurves;
+			this.segmentAngle = Math.PI / 2 / transcoder.segmentsPerQuadrant;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startGeometry(GeometryType geometryType, boolean hasZ,
+				boolean hasM, GeometryType containingType)
+				throws IOException {
+
+			if (geometryType == GeometryType.CIRCULARSTRING
+					&& !linearizeCurves) {
+				throw new SFException(
+						"Circular strings are not supported in GeoJSON without linearization");
+			}
+
+			boolean object = containingType == null
+					|| containingType == GeometryType.GEOMETRYCOLLECTION;
+			boolean join = containingType == GeometryType.COMPOUNDCURVE
+					&& depth > 0 && started[depth - 1] > 0;
+			if (depth > 0) {
+				started[depth - 1]++;
+			}
+			if (object) {
+				element();
+				out.append("{\"type\":\"");
+				out.append(geoJSONType(geometryType));
+				out.append(geometryType == GeometryType.GEOMETRYCOLLECTION
+						? "\",\"geometries\":"
+						: "\",\"coordinates\":");
+			}
+			push(geometryType, object, hasZ);
+			joined[depth - 1] = join;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startList(int count) throws IOException {
+			boolean array = types[depth - 1] == null || !isCompoundMember();
+			started[depth - 1]++;
+			if (array) {
+				element();
+				out.append('[');
+			}
+			push(null, array, hasZ[depth - 1]);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void point(double x, double y, double z, double m)
+				throws IOException {
+			int index = started[depth - 1]++;
+			GeometryType type = types[depth - 1];
+			if (type == GeometryType.POINT) {
+				boolean empty = Double.isNaN(x) && Double.isNaN(y);
+				if (written[depth - 1]) {
+					if (empty) {
+						out.append("[]");
+					} else {
+						position(x, y, z);
+					}
+				} else if (!empty) {
+					element();
+					position(x, y, z);
+				}
+			} else if (types[depth - 2] == GeometryType.CIRCULARSTRING) {
+				arcPoint(index, x, y, z);
+			} else if (index > 0 || !joined[depth - 2]) {
+				element();
+				position(x, y, z);
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endList() throws IOException {
+			if (types[depth - 2] == GeometryType.CIRCULARSTRING
+					&& started[depth - 1] > 1
+					&& started[depth - 1] % 2 == 0) {
+				// Incomplete arc, end with a straight segment
+				element();
+				position(midX, midY, midZ);
+			}
+			depth--;
+			if (written[depth]) {
+				out.append(']');
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endGeometry() throws IOException {
+			depth--;
+			if (written[depth]) {
+				out.append('}');
+			}
+		}
+
+		/**
+		 * Determine if the current geometry frame is a member of a compound
+		 * curve, whose points are written into the compound curve array
+		 *
+		 * @return true if a compound curve member
+		 */
+		private boolean isCompoundMember() {
+			return depth > 2
+					&& types[depth - 3] == GeometryType.COMPOUNDCURVE;
+		}
+
+		/**
+		 * Handle a circular string point, writing linearized arcs
+		 *
+		 * @param index
+		 *            point index within the circular string
+		 * @param x
+		 *            x value
+		 * @param y
+		 *            y value
+		 * @param z
+		 *            z value
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void arcPoint(int index, double x, double y, double z)
+				throws IOException {
+			if (index == 0) {
+				if (!joined[depth - 2]) {
+					element();
+					position(x, y, z);
+				}
+			} else if (index % 2 == 1) {
+				midX = x;
+				midY = y;
+				midZ = z;
+				return;
+			} else {
+				arc(x, y, z);
+			}
+			startX = x;
+			startY = y;
+			startZ = z;
+		}
+
+		/**
+		 * Write the linearized arc from the start point through the mid point
+		 * to the end point, excluding the start point
+		 *
+		 * @param endX
+		 *            end x value
+		 * @param endY
+		 *            end y value
+		 * @param endZ
+		 *            end z value
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void arc(double endX, double endY, double endZ)
+				throws IOException {
+
+			double centerX;
+			double centerY;
+			double startAngle;
+			double sweep;
+			double midSweep;
+
+			if (startX == endX && startY == endY) {
+				// Full circle through the mid point
+				centerX = (startX + midX) / 2;
+				centerY = (startY + midY) / 2;
+				startAngle = Math.atan2(startY - centerY, startX - centerX);
+				sweep = 2 * Math.PI;
+				midSweep = Math.PI;
+			} else {
+				double d = 2 * (startX * (midY - endY) + midX * (endY - startY)
+						+ endX * (startY - midY));
+				double start2 = startX * startX + startY * startY;
+				double mid2 = midX * midX + midY * midY;
+				double end2 = endX * endX + endY * endY;
+				centerX = (start2 * (midY - endY) + mid2 * (endY - startY)
+						+ end2 * (startY - midY)) / d;
+				centerY = (start2 * (endX - midX) + mid2 * (startX - endX)
+						+ end2 * (midX - startX)) / d;
+				if (d == 0 || Double.isInfinite(centerX)
+						|| Double.isInfinite(centerY)) {
+					// Collinear, write straight segments
+					element();
+					position(midX, midY, midZ);
+					element();
+					position(endX, endY, endZ);
+					return;
+				}
+				startAngle = Math.atan2(startY - centerY, startX - centerX);
+				sweep = sweep(startAngle,
+						Math.atan2(endY - centerY, endX - centerX), d > 0);
+				midSweep = sweep(startAngle,
+						Math.atan2(midY - centerY, midX - centerX), d > 0);
+			}
+
+			double radius = Math.hypot(startX - centerX, startY - centerY);
+			int segments = Math.max(1,
+					(int) Math.ceil(Math.abs(sweep) / segmentAngle));
+			for (int i = 1; i < segments; i++) {
+				double angle = sweep * i / segments;
+				double z = Double.NaN;
+				if (hasZ[depth - 1]) {
+					z = Math.abs(angle) <= Math.abs(midSweep)
+							? startZ + (midZ - startZ) * angle / midSweep
+							: midZ + (endZ - midZ) * (angle - midSweep)
+									/ (sweep - midSweep);
+				}
+				element();
+				position(centerX + radius * Math.cos(startAngle + angle),
+						centerY + radius * Math.sin(startAngle + angle), z);
+			}
+			element();
+			position(endX, endY, endZ);
+		}
+
+		/**
+		 * Get the signed sweep from a start angle to an angle in a direction
+		 *
+		 * @param startAngle
+		 *            start angle
+		 * @param angle
+		 *            angle
+		 * @param counterClockwise
+		 *            true for counter clockwise, false for clockwise
+		 * @return sweep, positive counter clockwise
+		 */
+		private static double sweep(double startAngle, double angle,
+				boolean counterClockwise) {
+			double sweep = counterClockwise ? angle - startAngle
+					: startAngle - angle;
+			if (sweep < 0) {
+				sweep += 2 * Math.PI;
+			}
+			return counterClockwise ? sweep : -sweep;
+		}
+
+		/**
+		 * Push a frame
+		 *
+		 * @param type
+		 *            geometry type of a geometry frame, null for a list frame
+		 * @param frameWritten
+		 *            true if written as a GeoJSON object or JSON array
+		 * @param frameHasZ
+		 *            has z values
+		 */
+		private void push(GeometryType type, boolean frameWritten,
+				boolean frameHasZ) {
+			if (depth == types.length) {
+				int length = depth * 2;
+				types = Arrays.copyOf(types, length);
+				written = Arrays.copyOf(written, length);
+				joined = Arrays.copyOf(joined, length);
+				started = Arrays.copyOf(started, length);
+				elements = Arrays.copyOf(elements, length);
+				hasZ = Arrays.copyOf(hasZ, length);
+			}
+			types[depth] = type;
+			written[depth] = frameWritten;
+			joined[depth] = false;
+			started[depth] = 0;
+			elements[depth] = 0;
+			hasZ[depth] = frameHasZ;
+			depth++;
+		}
+
+		/**
+		 * Write the separator before an element of the nearest written JSON
+		 * array, if not the value of a GeoJSON object
+		 *
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void element() throws IOException {
+			for (int i = depth - 1; i >= 0; i--) {
+				if (written[i]) {
+					if (types[i] == null && elements[i]++ > 0) {
+						out.append(',');
+					}
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Write a position
+		 *
+		 * @param x
+		 *            x value
+		 * @param y
+		 *            y value
+		 * @param z
+		 *            z value
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void position(double x, double y, double z)
+				throws IOException {
+			if (!Double.isFinite(x) || !Double.isFinite(y)) {
+				throw new SFException(
+						"GeoJSON positions require finite coordinates. x: "
+								+ x + ", y: " + y);
+			}
+			out.append('[');
+			DecimalText.append(out, x, scale);
+			out.append(',');
+			DecimalText.append(out, y, scale);
+			if (hasZ[depth - 1] && Double.isFinite(z)) {
+				out.append(',');
+				DecimalText.append(out, z, scale);
+			}
+			out.append(']');
+		}
+
+	}
+
+}
@@ -0,0 +1,131 @@
+package mil.nga.sf.wkb;
+
+import java.nio.charset.StandardCharsets;
+
+import mil.nga.sf.util.SFException;
+
+/**
+ * GeoPackage binary geometry header constants. A GeoPackage geometry blob is
+ * a header followed by a well-known binary geometry.
+ *
+ * <pre>
+ * header: magic "GP" | version (1 byte) | flags (1 byte) | srs id (int)
+ *         | envelope (0, 4, 6, or 8 doubles)
+ * flags:  reserved (bits 7-6) | extended type (bit 5) | empty (bit 4)
+ *         | envelope indicator (bits 3-1) | byte order (bit 0)
+ * </pre>
+ *
+ * The srs id and envelope values are written in the flags byte order,
+ * 0 for big endian and 1 for little endian. The envelope indicator is
+ * {@link #ENVELOPE_NONE}, {@link #ENVELOPE_XY}, {@link #ENVELOPE_XYZ},
+ * {@link #ENVELOPE_XYM}, or {@link #ENVELOPE_XYZM}, with envelope values
+ * ordered minX, maxX, minY, maxY, [minZ, maxZ], [minM, maxM].
+ *
+ * @since 2.2.4
+ */
+public class GeoPackageGeometry {
+
+	/**
+	 * Magic bytes
+	 */
+	public static final byte[] MAGIC = "GP"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Format version
+	 */
+	public static final byte VERSION = 0;
+
+	/**
+	 * Header size in bytes excluding the envelope
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * Byte order flag, set for little endian
+	 */
+	public static final int FLAG_LITTLE_ENDIAN = 0x01;
+
+	/**
+	 * Envelope indicator flag mask
+	 */
+	public static final int FLAG_ENVELOPE_MASK = 0x0E;
+
+	/**
+	 * Empty geometry flag
+	 */
+	public static final int FLAG_EMPTY = 0x10;
+
+	/**
+	 * Extended GeoPackage geometry type flag
+	 */
+	public static final int FLAG_EXTENDED = 0x20;
+
+	/**
+	 * No envelope
+	 */
+	public static final int ENVELOPE_NONE = 0;
+
+	/**
+	 * X and y envelope
+	 */
+	public static final int ENVELOPE_XY = 1;
+
+	/**
+	 * X, y, and z envelope
+	 */
+	public static final int ENVELOPE_XYZ = 2;
+
+	/**
+	 * X, y, and m envelope
+	 */
+	public static final int ENVELOPE_XYM = 3;
+
+	/**
+	 * X, y, z, and m envelope
+	 */
+	public static final int ENVELOPE_XYZM = 4;
+
+	/**
+	 * Get the envelope indicator from the flags
+	 *
+	 * @param flags
+	 *            flags
+	 * @return envelope indicator
+	 */
+	public static int envelopeIndicator(int flags) {
+		return (flags & FLAG_ENVELOPE_MASK) >> 1;
+	}
+
+	/**
+	 * Envelope size in bytes
+	 *
+	 * @param envelopeIndicator
+	 *            envelope indicator
+	 * @return envelope size
+	 */
+	public static int envelopeSize(int envelopeIndicator) {
+		int size;
+		switch (envelopeIndicator) {
+		case ENVELOPE_NONE:
+			size = 0;
+			break;
+		case ENVELOPE_XY:
+			size = 4 * 8;
+			break;
+		case ENVELOPE_XYZ:
+		case ENVELOPE_XYM:
+			size = 6 * 8;
+			break;
+		case ENVELOPE_XYZM:
+			size = 8 * 8;
+			break;
+		default:
+			throw new SFException(
+					"Invalid GeoPackage envelope indicator: "
+							+ envelopeIndicator);
+		}
+		return size;
+	}
+
+}
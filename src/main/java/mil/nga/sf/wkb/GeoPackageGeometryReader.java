@@ -0,0 +1,303 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * GeoPackage binary geometry reader. The header is parsed on construction,
+ * exposing the srs id and envelope without decoding the geometry. The
+ * well-known binary geometry is decoded in place from the buffer by
+ * {@link GeometryReader} without copying.
+ *
+ * @since 2.2.4
+ */
+public class GeoPackageGeometryReader {
+
+	/**
+	 * Read a geometry from GeoPackage geometry bytes
+	 *
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static Geometry readGeometry(byte[] bytes) throws IOException {
+		return new GeoPackageGeometryReader(bytes).read();
+	}
+
+	/**
+	 * Read the header envelope from GeoPackage geometry bytes without decoding
+	 * the geometry
+	 *
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @return envelope or null when not included in the header
+	 */
+	public static GeometryEnvelope readEnvelope(byte[] bytes) {
+		return new GeoPackageGeometryReader(bytes).getEnvelope();
+	}
+
+	/**
+	 * Read a geometry and srs id from GeoPackage geometry bytes
+	 *
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 * @return SRID geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static SRIDGeometry readSRIDGeometry(byte[] bytes)
+			throws IOException {
+		GeoPackageGeometryReader reader = new GeoPackageGeometryReader(bytes);
+		return new SRIDGeometry(reader.read(), reader.getSrsId());
+	}
+
+	/**
+	 * Geometry bytes, positioned at the start of the header
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Version
+	 */
+	private final byte version;
+
+	/**
+	 * Flags
+	 */
+	private final int flags;
+
+	/**
+	 * Spatial reference system id
+	 */
+	private final int srsId;
+
+	/**
+	 * Header envelope
+	 */
+	private final GeometryEnvelope envelope;
+
+	/**
+	 * Header size in bytes, including the envelope
+	 */
+	private final int headerSize;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            GeoPackage geometry bytes
+	 */
+	public GeoPackageGeometryReader(byte[] bytes) {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Constructor, reads from the current position to the limit of the buffer
+	 * without modifying the provided buffer
+	 *
+	 * @param buffer
+	 *            GeoPackage geometry byte buffer
+	 */
+	public GeoPackageGeometryReader(ByteBuffer buffer) {
+
+		this.buffer = buffer.duplicate();
+		int start = this.buffer.position();
+
+		if (this.buffer.remaining() < GeoPackageGeometry.HEADER_SIZE
+				|| this.buffer.get(start) != GeoPackageGeometry.MAGIC[0]
+				|| this.buffer.get(start + 1) != GeoPackageGeometry.MAGIC[1]) {
+			throw new SFException("Not a GeoPackage geometry");
+		}
+
+		version = this.buffer.get(start + 2);
+		flags = this.buffer.get(start + 3) & 0xFF;
+		this.buffer.order((flags & GeoPackageGeometry.FLAG_LITTLE_ENDIAN) != 0
+				? ByteOrder.LITTLE_ENDIAN
+				: ByteOrder.BIG_ENDIAN);
+		srsId = this.buffer.getInt(start + 4);
+
+		int envelopeIndicator = GeoPackageGeometry.envelopeIndicator(flags);
+		headerSize = GeoPackageGeometry.HEADER_SIZE
+				+ GeoPackageGeometry.envelopeSize(envelopeIndicator);
+		if (this.buffer.remaining() < headerSize) {
+			throw new SFException(
+					"GeoPackage geometry header is truncated. Size: "
+							+ this.buffer.remaining() + ", Header Size: "
+							+ headerSize);
+		}
+		envelope = readEnvelope(envelopeIndicator,
+				start + GeoPackageGeometry.HEADER_SIZE);
+	}
+
+	/**
+	 * Read the envelope values following the header
+	 *
+	 * @param envelopeIndicator
+	 *            envelope indicator
+	 * @param offset
+	 *            envelope offset
+	 * @return envelope or null
+	 */
+	private GeometryEnvelope readEnvelope(int envelopeIndicator, int offset) {
+
+		GeometryEnvelope envelope = null;
+
+		if (envelopeIndicator != GeoPackageGeometry.ENVELOPE_NONE) {
+
+			boolean hasZ = envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZ
+					|| envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZM;
+			boolean hasM = envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYM
+					|| envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZM;
+
+			envelope = new GeometryEnvelope(hasZ, hasM);
+			envelope.setMinX(buffer.getDouble(offset));
+			envelope.setMaxX(buffer.getDouble(offset + 8));
+			envelope.setMinY(buffer.getDouble(offset + 16));
+			envelope.setMaxY(buffer.getDouble(offset + 24));
+			offset += 32;
+			if (hasZ) {
+				envelope.setMinZ(buffer.getDouble(offset));
+				envelope.setMaxZ(buffer.getDouble(offset + 8));
+				offset += 16;
+			}
+			if (hasM) {
+				envelope.setMinM(buffer.getDouble(offset));
+				envelope.setMaxM(buffer.getDouble(offset + 8));
+			}
+		}
+
+		return envelope;
+	}
+
+	/**
+	 * Get the version
+	 *
+	 * @return version
+	 */
+	public byte getVersion() {
+		return version;
+	}
+
+	/**
+	 * Get the flags
+	 *
+	 * @return flags
+	 */
+	public int getFlags() {
+		return flags;
+	}
+
+	/**
+	 * Get the header byte order
+	 *
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * Get the spatial reference system id
+	 *
+	 * @return srs id
+	 */
+	public int getSrsId() {
+		return srsId;
+	}
+
+	/**
+	 * Is the geometry flagged as empty
+	 *
+	 * @return true if empty
+	 */
+	public boolean isEmpty() {
+		return (flags & GeoPackageGeometry.FLAG_EMPTY) != 0;
+	}
+
+	/**
+	 * Is the geometry an extended GeoPackage geometry type
+	 *
+	 * @return true if extended
+	 */
+	public boolean isExtended() {
+		return (flags & GeoPackageGeometry.FLAG_EXTENDED) != 0;
+	}
+
+	/**
+	 * Get the envelope indicator, see {@link GeoPackageGeometry}
+	 *
+	 * @return envelope indicator
+	 */
+	public int getEnvelopeIndicator() {
+		return GeoPackageGeometry.envelopeIndicator(flags);
+	}
+
+	/**
+	 * Get the header envelope without decoding the geometry
+	 *
+	 * @return envelope or null when not included in the header
+	 */
+	public GeometryEnvelope getEnvelope() {
+		return envelope;
+	}
+
+	/**
+	 * Get the header size in bytes, the offset of the well-known binary
+	 * geometry
+	 *
+	 * @return header size
+	 */
+	public int getHeaderSize() {
+		return headerSize;
+	}
+
+	/**
+	 * Get the well-known binary geometry bytes, sharing the underlying bytes
+	 *
+	 * @return well-known binary byte buffer
+	 */
+	public ByteBuffer getWkbBuffer() {
+		ByteBuffer wkb = buffer.duplicate();
+		wkb.position(buffer.position() + headerSize);
+		return wkb.slice();
+	}
+
+	/**
+	 * Read the geometry
+	 *
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read() throws IOException {
+		return read(null, null);
+	}
+
+	/**
+	 * Read the geometry
+	 *
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public <T extends Geometry> T read(GeometryFilter filter,
+			Class<T> expectedType) throws IOException {
+		return GeometryReader.readGeometry(
+				new ByteBufferReader(getWkbBuffer()), filter, expectedType);
+	}
+
+}
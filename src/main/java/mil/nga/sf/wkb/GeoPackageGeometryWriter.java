@@ -0,0 +1,182 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * GeoPackage binary geometry writer. The header envelope is computed from the
+ * coordinates as they are written by {@link GeometryWriter}, in the same pass
+ * as the well-known binary geometry.
+ *
+ * @since 2.2.4
+ */
+public class GeoPackageGeometryWriter {
+
+	/**
+	 * Write a geometry to GeoPackage geometry bytes with an envelope
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param srsId
+	 *            spatial reference system id
+	 * @return GeoPackage geometry bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int srsId)
+			throws IOException {
+		return new GeoPackageGeometryWriter().write(geometry, srsId);
+	}
+
+	/**
+	 * Byte order
+	 */
+	private final ByteOrder byteOrder;
+
+	/**
+	 * Include the envelope in the header flag
+	 */
+	private boolean includeEnvelope = true;
+
+	/**
+	 * Constructor
+	 */
+	public GeoPackageGeometryWriter() {
+		this(ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param byteOrder
+	 *            byte order of the header and geometry
+	 */
+	public GeoPackageGeometryWriter(ByteOrder byteOrder) {
+		this.byteOrder = byteOrder;
+	}
+
+	/**
+	 * Get the byte order
+	 *
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	/**
+	 * Is the envelope included in the header
+	 *
+	 * @return true if included
+	 */
+	public boolean isIncludeEnvelope() {
+		return includeEnvelope;
+	}
+
+	/**
+	 * Set whether the envelope is included in the header. Envelopes include z
+	 * and m ranges when the geometry has z and m values. Empty geometries are
+	 * written without an envelope.
+	 *
+	 * @param includeEnvelope
+	 *            true to include the envelope
+	 */
+	public void setIncludeEnvelope(boolean includeEnvelope) {
+		this.includeEnvelope = includeEnvelope;
+	}
+
+	/**
+	 * Write a geometry to GeoPackage geometry bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param srsId
+	 *            spatial reference system id
+	 * @return GeoPackage geometry bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public byte[] write(Geometry geometry, int srsId) throws IOException {
+
+		boolean empty = geometry.isEmpty();
+
+		int envelopeIndicator = GeoPackageGeometry.ENVELOPE_NONE;
+		if (includeEnvelope && !empty) {
+			if (geometry.hasZ()) {
+				envelopeIndicator = geometry.hasM()
+						? GeoPackageGeometry.ENVELOPE_XYZM
+						: GeoPackageGeometry.ENVELOPE_XYZ;
+			} else {
+				envelopeIndicator = geometry.hasM()
+						? GeoPackageGeometry.ENVELOPE_XYM
+						: GeoPackageGeometry.ENVELOPE_XY;
+			}
+		}
+
+		int flags = envelopeIndicator << 1;
+		if (byteOrder == ByteOrder.LITTLE_ENDIAN) {
+			flags |= GeoPackageGeometry.FLAG_LITTLE_ENDIAN;
+		}
+		if (empty) {
+			flags |= GeoPackageGeometry.FLAG_EMPTY;
+		}
+
+		EnvelopeGeometryWriter encoder = new EnvelopeGeometryWriter(byteOrder);
+		byte[] bytes;
+		try {
+			ByteWriter writer = encoder.getByteWriter();
+			writer.getOutputStream().write(GeoPackageGeometry.MAGIC);
+			writer.writeByte(GeoPackageGeometry.VERSION);
+			writer.writeByte((byte) flags);
+			writer.writeInt(srsId);
+
+			// Reserve the envelope, filled in once the geometry is written
+			int envelopeSize = GeoPackageGeometry
+					.envelopeSize(envelopeIndicator);
+			writer.getOutputStream().write(new byte[envelopeSize]);
+
+			encoder.write(geometry);
+			bytes = encoder.getBytes();
+		} finally {
+			encoder.close();
+		}
+
+		if (envelopeIndicator != GeoPackageGeometry.ENVELOPE_NONE) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes).order(byteOrder);
+			buffer.position(GeoPackageGeometry.HEADER_SIZE);
+			putRange(buffer, encoder, EnvelopeGeometryWriter.X);
+			putRange(buffer, encoder, EnvelopeGeometryWriter.Y);
+			if (envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZ
+					|| envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZM) {
+				putRange(buffer, encoder, EnvelopeGeometryWriter.Z);
+			}
+			if (envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYM
+					|| envelopeIndicator == GeoPackageGeometry.ENVELOPE_XYZM) {
+				putRange(buffer, encoder, EnvelopeGeometryWriter.M);
+			}
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Put the minimum and maximum of the dimension
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 * @param encoder
+	 *            envelope geometry writer
+	 * @param dimension
+	 *            dimension index
+	 */
+	private static void putRange(ByteBuffer buffer,
+			EnvelopeGeometryWriter encoder, int dimension) {
+		buffer.putDouble(encoder.getMin(dimension));
+		buffer.putDouble(encoder.getMax(dimension));
+	}
+
+}
@@ -0,0 +1,75 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Block compressed geometry container file format constants. Length prefixed
+ * well-known binary geometry records are grouped into blocks which are each
+ * compressed with raw deflate, followed by a footer index of block offsets.
+ * Random access to a record inflates only the block containing it.
+ *
+ * <pre>
+ * header:  magic "WKBZ" | version (1 byte) | reserved (3 bytes)
+ * blocks:  compressed length (int) | uncompressed length (int)
+ *          | deflated records (compressed length bytes)
+ * records: length (int) | well-known binary geometry (length bytes)
+ * index:   per block, offset (long) | first record index (long)
+ * trailer: index offset (long) | block count (long) | record count (long)
+ *          | block size (int) | magic "WKBZ"
+ * </pre>
+ *
+ * Container framing values are written little endian, the well-known binary
+ * records specify their own byte order.
+ *
+ * @since 2.2.4
+ */
+public class GeometryBlockContainer {
+
+	/**
+	 * Magic bytes
+	 */
+	public static final byte[] MAGIC = "WKBZ"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Format version
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * Framing byte order
+	 */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/**
+	 * Header size in bytes
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * Block header size in bytes
+	 */
+	public static final int BLOCK_HEADER_SIZE = 8;
+
+	/**
+	 * Record length prefix size in bytes
+	 */
+	public static final int RECORD_PREFIX_SIZE = 4;
+
+	/**
+	 * Index entry size in bytes
+	 */
+	public static final int INDEX_ENTRY_SIZE = 16;
+
+	/**
+	 * Trailer size in bytes
+	 */
+	public static final int TRAILER_SIZE = 32;
+
+	/**
+	 * Default target uncompressed block size in bytes
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+
+}
@@ -0,0 +1,383 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Block compressed geometry container reader. Random access to a record reads
+ * and inflates only the block containing it, retaining the most recently
+ * inflated block for subsequent reads of neighboring records. Reads are thread
+ * safe. See {@link GeometryBlockContainer} for the file format.
+ *
+ * @since 2.2.4
+ */
+public class GeometryBlockContainerReader implements Closeable {
+
+	/**
+	 * File channel
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Record count
+	 */
+	private final long count;
+
+	/**
+	 * Block offsets
+	 */
+	private final long[] blockOffsets;
+
+	/**
+	 * Block first record indices
+	 */
+	private final long[] blockFirstRecords;
+
+	/**
+	 * Most recently inflated block
+	 */
+	private final AtomicReference<InflatedBlock> lastBlock = new AtomicReference<>();
+
+	/**
+	 * Constructor
+	 *
+	 * @param file
+	 *            container file
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public GeometryBlockContainerReader(Path file) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+
+			long size = channel.size();
+			if (size < GeometryBlockContainer.HEADER_SIZE
+					+ GeometryBlockContainer.TRAILER_SIZE) {
+				throw new SFException(
+						"File is too small to be a geometry block container: "
+								+ file);
+			}
+
+			ByteBuffer trailer = readFully(GeometryBlockContainer.TRAILER_SIZE,
+					size - GeometryBlockContainer.TRAILER_SIZE);
+			long indexOffset = trailer.getLong();
+			long blockCount = trailer.getLong();
+			count = trailer.getLong();
+			trailer.getInt();
+			verifyMagic(trailer, file);
+
+			ByteBuffer header = readFully(GeometryBlockContainer.HEADER_SIZE,
+					0);
+			verifyMagic(header, file);
+			byte version = header.get();
+			if (version > GeometryBlockContainer.VERSION) {
+				throw new SFException(
+						"Unsupported geometry block container version: "
+								+ version);
+			}
+
+			if (blockCount > Integer.MAX_VALUE
+					/ GeometryBlockContainer.INDEX_ENTRY_SIZE
+					|| indexOffset < GeometryBlockContainer.HEADER_SIZE
+					|| indexOffset + blockCount
+							* GeometryBlockContainer.INDEX_ENTRY_SIZE != size
+									- GeometryBlockContainer.TRAILER_SIZE) {
+				throw new SFException(
+						"Invalid geometry block container index: " + file);
+			}
+
+			ByteBuffer index = readFully(
+					(int) blockCount * GeometryBlockContainer.INDEX_ENTRY_SIZE,
+					indexOffset);
+			blockOffsets = new long[(int) blockCount];
+			blockFirstRecords = new long[(int) blockCount];
+			for (int i = 0; i < blockCount; i++) {
+				blockOffsets[i] = index.getLong();
+				blockFirstRecords[i] = index.getLong();
+			}
+
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Get the number of records
+	 *
+	 * @return record count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Get the number of compressed blocks
+	 *
+	 * @return block count
+	 */
+	public int getBlockCount() {
+		return blockOffsets.length;
+	}
+
+	/**
+	 * Read the geometry record
+	 *
+	 * @param index
+	 *            record index
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read(long index) throws IOException {
+		return read(index, null);
+	}
+
+	/**
+	 * Read the geometry record
+	 *
+	 * @param index
+	 *            record index
+	 * @param filter
+	 *            geometry filter
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read(long index, GeometryFilter filter)
+			throws IOException {
+		return GeometryReader.readGeometry(
+				new ByteBufferReader(readBuffer(index)), filter);
+	}
+
+	/**
+	 * Read the well-known binary record as a read only view of the inflated
+	 * block
+	 *
+	 * @param index
+	 *            record index
+	 * @return well-known binary buffer
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public ByteBuffer readBuffer(long index) throws IOException {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException(
+					"Record index " + index + " out of range, count: " + count);
+		}
+		int blockIndex = Arrays.binarySearch(blockFirstRecords, index);
+		if (blockIndex < 0) {
+			blockIndex = -blockIndex - 2;
+		}
+		InflatedBlock block = inflatedBlock(blockIndex);
+		int record = (int) (index - blockFirstRecords[blockIndex]);
+		int position = block.recordOffsets[record];
+		int length = block.data.getInt(position);
+		ByteBuffer buffer = block.data.duplicate();
+		buffer.position(position + GeometryBlockContainer.RECORD_PREFIX_SIZE);
+		buffer.limit(position + GeometryBlockContainer.RECORD_PREFIX_SIZE
+				+ length);
+		return buffer.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Read the well-known binary record bytes
+	 *
+	 * @param index
+	 *            record index
+	 * @return well-known binary bytes
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public byte[] readBytes(long index) throws IOException {
+		ByteBuffer buffer = readBuffer(index);
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Close the container file
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Get the inflated block, reading and inflating when not the most recently
+	 * inflated block
+	 *
+	 * @param blockIndex
+	 *            block index
+	 * @return inflated block
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private InflatedBlock inflatedBlock(int blockIndex) throws IOException {
+		InflatedBlock block = lastBlock.get();
+		if (block == null || block.index != blockIndex) {
+			block = inflate(blockIndex);
+			lastBlock.set(block);
+		}
+		return block;
+	}
+
+	/**
+	 * Read and inflate the block
+	 *
+	 * @param blockIndex
+	 *            block index
+	 * @return inflated block
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private InflatedBlock inflate(int blockIndex) throws IOException {
+
+		long offset = blockOffsets[blockIndex];
+		ByteBuffer blockHeader = readFully(
+				GeometryBlockContainer.BLOCK_HEADER_SIZE, offset);
+		int compressedLength = blockHeader.getInt();
+		int uncompressedLength = blockHeader.getInt();
+		ByteBuffer compressed = readFully(compressedLength,
+				offset + GeometryBlockContainer.BLOCK_HEADER_SIZE);
+
+		byte[] data = new byte[uncompressedLength];
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(compressed.array(), 0, compressedLength);
+			int length = 0;
+			while (length < uncompressedLength && !inflater.finished()) {
+				int inflated = inflater.inflate(data, length,
+						uncompressedLength - length);
+				if (inflated == 0 && inflater.needsInput()) {
+					break;
+				}
+				length += inflated;
+			}
+			if (length != uncompressedLength) {
+				throw new SFException(
+						"Truncated geometry block " + blockIndex + ", expected "
+								+ uncompressedLength + " bytes, inflated "
+								+ length);
+			}
+		} catch (DataFormatException e) {
+			throw new SFException(
+					"Failed to inflate geometry block " + blockIndex, e);
+		} finally {
+			inflater.end();
+		}
+
+		long nextFirstRecord = blockIndex + 1 < blockFirstRecords.length
+				? blockFirstRecords[blockIndex + 1]
+				: count;
+		int records = (int) (nextFirstRecord - blockFirstRecords[blockIndex]);
+		ByteBuffer buffer = ByteBuffer.wrap(data)
+				.order(GeometryBlockContainer.BYTE_ORDER);
+		int[] recordOffsets = new int[records];
+		int position = 0;
+		for (int i = 0; i < records; i++) {
+			recordOffsets[i] = position;
+			position += GeometryBlockContainer.RECORD_PREFIX_SIZE
+					+ buffer.getInt(position);
+		}
+
+		return new InflatedBlock(blockIndex, buffer, recordOffsets);
+	}
+
+	/**
+	 * Read bytes from the file at the position
+	 *
+	 * @param length
+	 *            number of bytes
+	 * @param position
+	 *            file position
+	 * @return buffer flipped for reading
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private ByteBuffer readFully(int length, long position)
+			throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(length)
+				.order(GeometryBlockContainer.BYTE_ORDER);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new SFException(
+						"Unexpected end of geometry block container");
+			}
+			position += read;
+		}
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Verify the magic bytes at the buffer position
+	 *
+	 * @param buffer
+	 *            buffer
+	 * @param file
+	 *            container file
+	 */
+	private static void verifyMagic(ByteBuffer buffer, Path file) {
+		for (byte magic : GeometryBlockContainer.MAGIC) {
+			if (buffer.get() != magic) {
+				throw new SFException(
+						"Not a geometry block container file: " + file);
+			}
+		}
+	}
+
+	/**
+	 * Inflated block
+	 */
+	private static class InflatedBlock {
+
+		/**
+		 * Block index
+		 */
+		private final int index;
+
+		/**
+		 * Inflated records
+		 */
+		private final ByteBuffer data;
+
+		/**
+		 * Record offsets within the inflated records
+		 */
+		private final int[] recordOffsets;
+
+		/**
+		 * Constructor
+		 *
+		 * @param index
+		 *            block index
+		 * @param data
+		 *            inflated records
+		 * @param recordOffsets
+		 *            record offsets
+		 */
+		private InflatedBlock(int index, ByteBuffer data,
+				int[] recordOffsets) {
+			this.index = index;
+			this.data = data;
+			this.recordOffsets = recordOffsets;
+		}
+
+	}
+
+}
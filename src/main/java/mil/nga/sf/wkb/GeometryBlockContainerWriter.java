@@ -0,0 +1,470 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Block compressed geometry container writer. Records are grouped into blocks
+ * of the target block size which are deflated in parallel by a pool of
+ * background threads and written in order, followed by a footer block index
+ * upon close. See {@link GeometryBlockContainer} for the file format.
+ *
+ * @since 2.2.4
+ */
+public class GeometryBlockContainerWriter implements Closeable {
+
+	/**
+	 * File channel
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Well-known binary byte order
+	 */
+	private final ByteOrder byteOrder;
+
+	/**
+	 * Target uncompressed block size
+	 */
+	private final int blockSize;
+
+	/**
+	 * Deflate compression level
+	 */
+	private final int level;
+
+	/**
+	 * Compression executor
+	 */
+	private final ExecutorService compressExecutor;
+
+	/**
+	 * Maximum number of blocks compressing at once
+	 */
+	private final int maxPending;
+
+	/**
+	 * Compressing blocks in write order
+	 */
+	private final Deque<Future<CompressedBlock>> pending = new ArrayDeque<>();
+
+	/**
+	 * Current uncompressed block
+	 */
+	private ByteBuffer block;
+
+	/**
+	 * First record index of the current block
+	 */
+	private long blockFirstRecord = 0;
+
+	/**
+	 * File position of the next block
+	 */
+	private long position = GeometryBlockContainer.HEADER_SIZE;
+
+	/**
+	 * Block offsets
+	 */
+	private long[] blockOffsets = new long[256];
+
+	/**
+	 * Block first record indices
+	 */
+	private long[] blockFirstRecords = new long[256];
+
+	/**
+	 * Number of written blocks
+	 */
+	private int blockCount = 0;
+
+	/**
+	 * Number of records
+	 */
+	private long count = 0;
+
+	/**
+	 * Closed flag
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Constructor, creates or replaces the container file using the default
+	 * block size and a compression thread per available processor
+	 *
+	 * @param file
+	 *            container file
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryBlockContainerWriter(Path file) throws IOException {
+		this(file, GeometryBlockContainer.DEFAULT_BLOCK_SIZE);
+	}
+
+	/**
+	 * Constructor, creates or replaces the container file using a compression
+	 * thread per available processor
+	 *
+	 * @param file
+	 *            container file
+	 * @param blockSize
+	 *            target uncompressed block size
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryBlockContainerWriter(Path file, int blockSize)
+			throws IOException {
+		this(file, blockSize, Deflater.DEFAULT_COMPRESSION,
+				Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor, creates or replaces the container file
+	 *
+	 * @param file
+	 *            container file
+	 * @param blockSize
+	 *            target uncompressed block size
+	 * @param level
+	 *            deflate compression level
+	 * @param threads
+	 *            number of compression threads
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryBlockContainerWriter(Path file, int blockSize, int level,
+			int threads) throws IOException {
+		this(file, blockSize, level, threads, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor, creates or replaces the container file
+	 *
+	 * @param file
+	 *            container file
+	 * @param blockSize
+	 *            target uncompressed block size
+	 * @param level
+	 *            deflate compression level
+	 * @param threads
+	 *            number of compression threads
+	 * @param byteOrder
+	 *            byte order of written geometries
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryBlockContainerWriter(Path file, int blockSize, int level,
+			int threads, ByteOrder byteOrder) throws IOException {
+		if (blockSize < 1) {
+			throw new IllegalArgumentException(
+					"Block size must be at least 1: " + blockSize);
+		}
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Compression threads must be at least 1: " + threads);
+		}
+		this.blockSize = blockSize;
+		this.level = level;
+		this.byteOrder = byteOrder;
+		this.maxPending = threads * 2;
+		this.block = ByteBuffer.allocate(blockSize)
+				.order(GeometryBlockContainer.BYTE_ORDER);
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.compressExecutor = Executors.newFixedThreadPool(threads,
+				GeometryExecutors.newThreadFactory("wkb-compress"));
+
+		ByteBuffer header = ByteBuffer
+				.allocate(GeometryBlockContainer.HEADER_SIZE)
+				.order(GeometryBlockContainer.BYTE_ORDER);
+		header.put(GeometryBlockContainer.MAGIC);
+		header.put(GeometryBlockContainer.VERSION);
+		header.flip();
+		writeFully(header, 0);
+	}
+
+	/**
+	 * Get the number of records written
+	 *
+	 * @return record count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Write a geometry record
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return record index
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public long write(Geometry geometry) throws IOException {
+		return write(GeometryWriter.writeGeometry(geometry, byteOrder));
+	}
+
+	/**
+	 * Write a well-known binary geometry record
+	 *
+	 * @param bytes
+	 *            well-known binary geometry
+	 * @return record index
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public long write(byte[] bytes) throws IOException {
+		if (closed) {
+			throw new IOException("Geometry block container writer is closed");
+		}
+
+		int length = GeometryBlockContainer.RECORD_PREFIX_SIZE + bytes.length;
+		if (block.position() > 0 && block.remaining() < length) {
+			submitBlock();
+		}
+		if (block.remaining() < length) {
+			block = ByteBuffer.allocate(length)
+					.order(GeometryBlockContainer.BYTE_ORDER);
+		}
+		block.putInt(bytes.length);
+		block.put(bytes);
+
+		long index = count++;
+		if (!block.hasRemaining()) {
+			submitBlock();
+		}
+		return index;
+	}
+
+	/**
+	 * Compress and write the remaining records, then write the footer index and
+	 * trailer and close the file
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			try {
+				if (block.position() > 0) {
+					submitBlock();
+				}
+				while (!pending.isEmpty()) {
+					writeBlock(pending.removeFirst());
+				}
+
+				long indexOffset = position;
+				ByteBuffer index = ByteBuffer
+						.allocate(blockCount
+								* GeometryBlockContainer.INDEX_ENTRY_SIZE
+								+ GeometryBlockContainer.TRAILER_SIZE)
+						.order(GeometryBlockContainer.BYTE_ORDER);
+				for (int i = 0; i < blockCount; i++) {
+					index.putLong(blockOffsets[i]);
+					index.putLong(blockFirstRecords[i]);
+				}
+				index.putLong(indexOffset);
+				index.putLong(blockCount);
+				index.putLong(count);
+				index.putInt(blockSize);
+				index.put(GeometryBlockContainer.MAGIC);
+				index.flip();
+				writeFully(index, indexOffset);
+			} finally {
+				compressExecutor.shutdownNow();
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Submit the current block for compression, writing completed blocks when
+	 * the maximum number of pending blocks is reached
+	 *
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void submitBlock() throws IOException {
+		block.flip();
+		final byte[] records = Arrays.copyOf(block.array(), block.limit());
+		final long firstRecord = blockFirstRecord;
+		pending.addLast(
+				compressExecutor.submit(new Callable<CompressedBlock>() {
+					@Override
+					public CompressedBlock call() throws Exception {
+						return compress(records, firstRecord);
+					}
+				}));
+		if (block.capacity() == blockSize) {
+			block.clear();
+		} else {
+			block = ByteBuffer.allocate(blockSize)
+					.order(GeometryBlockContainer.BYTE_ORDER);
+		}
+		blockFirstRecord = count;
+
+		while (pending.size() >= maxPending
+				|| (!pending.isEmpty() && pending.peekFirst().isDone())) {
+			writeBlock(pending.removeFirst());
+		}
+	}
+
+	/**
+	 * Wait for the block compression and write the block
+	 *
+	 * @param future
+	 *            compressed block future
+	 * @throws IOException
+	 *             upon failure to compress or write
+	 */
+	private void writeBlock(Future<CompressedBlock> future)
+			throws IOException {
+		CompressedBlock compressed;
+		try {
+			compressed = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException(
+					"Interrupted waiting for block compression");
+		} catch (ExecutionException e) {
+			throw new SFException("Failed to compress geometry block",
+					e.getCause());
+		}
+
+		if (blockCount == blockOffsets.length) {
+			blockOffsets = Arrays.copyOf(blockOffsets, blockCount * 2);
+			blockFirstRecords = Arrays.copyOf(blockFirstRecords,
+					blockCount * 2);
+		}
+		blockOffsets[blockCount] = position;
+		blockFirstRecords[blockCount] = compressed.firstRecord;
+		blockCount++;
+
+		ByteBuffer blockHeader = ByteBuffer
+				.allocate(GeometryBlockContainer.BLOCK_HEADER_SIZE)
+				.order(GeometryBlockContainer.BYTE_ORDER);
+		blockHeader.putInt(compressed.length);
+		blockHeader.putInt(compressed.uncompressedLength);
+		blockHeader.flip();
+		writeFully(blockHeader, position);
+		position += GeometryBlockContainer.BLOCK_HEADER_SIZE;
+		writeFully(ByteBuffer.wrap(compressed.data, 0, compressed.length),
+				position);
+		position += compressed.length;
+	}
+
+	/**
+	 * Deflate the block records
+	 *
+	 * @param records
+	 *            uncompressed block records
+	 * @param firstRecord
+	 *            first record index
+	 * @return compressed block
+	 */
+	private CompressedBlock compress(byte[] records, long firstRecord) {
+		Deflater deflater = new Deflater(level, true);
+		try {
+			deflater.setInput(records);
+			deflater.finish();
+			byte[] data = new byte[records.length + (records.length >> 8)
+					+ 64];
+			int length = 0;
+			while (!deflater.finished()) {
+				if (length == data.length) {
+					data = Arrays.copyOf(data, data.length * 2);
+				}
+				length += deflater.deflate(data, length, data.length - length);
+			}
+			return new CompressedBlock(data, length, records.length,
+					firstRecord);
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Write the buffer to the file at the position
+	 *
+	 * @param buffer
+	 *            buffer
+	 * @param position
+	 *            file position
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeFully(ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Compressed block
+	 */
+	private static class CompressedBlock {
+
+		/**
+		 * Compressed data
+		 */
+		private final byte[] data;
+
+		/**
+		 * Compressed length
+		 */
+		private final int length;
+
+		/**
+		 * Uncompressed length
+		 */
+		private final int uncompressedLength;
+
+		/**
+		 * First record index
+		 */
+		private final long firstRecord;
+
+		/**
+		 * Constructor
+		 *
+		 * @param data
+		 *            compressed data
+		 * @param length
+		 *            compressed length
+		 * @param uncompressedLength
+		 *            uncompressed length
+		 * @param firstRecord
+		 *            first record index
+		 */
+		private CompressedBlock(byte[] data, int length,
+				int uncompressedLength, long firstRecord) {
+			this.data = data;
+			this.length = length;
+			this.uncompressedLength = uncompressedLength;
+			this.firstRecord = firstRecord;
+		}
+
+	}
+
+}
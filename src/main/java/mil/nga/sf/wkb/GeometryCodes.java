@@ -15,6 +15,50 @@ import mil.nga.sf.util.SFException;
  */
 public class GeometryCodes {
 
+	/**
+	 * Geometry type code flag indicating coordinates are written as IEEE 754
+	 * single precision floats (float32) instead of doubles. Values are rounded
+	 * to the nearest float, a relative error of at most 2^-24 of the value.
+	 * For longitude and latitude degrees the error is at most 7.63e-6 degrees,
+	 * under one meter.
+	 * 
+	 * @since 2.2.4
+	 */
+	public static final int FLOAT32_FLAG = 0x08000000;
+
+	/**
+	 * Geometry type code flag indicating x and y coordinates are written as
+	 * int32 fixed point values relative to an origin and scale, see
+	 * {@link GeometryWriter#setFixedPoint(double, double, double)}
+	 * 
+	 * @since 2.2.4
+	 */
+	public static final int FIXED_POINT_FLAG = 0x04000000;
+
+	/**
+	 * Extended well-known binary (PostGIS EWKB) geometry type code flag
+	 * indicating z values, also the 2.5D flag
+	 * 
+	 * @since 2.2.4
+	 */
+	public static final int EWKB_Z_FLAG = 0x80000000;
+
+	/**
+	 * Extended well-known binary (PostGIS EWKB) geometry type code flag
+	 * indicating m values
+	 * 
+	 * @since 2.2.4
+	 */
+	public static final int EWKB_M_FLAG = 0x40000000;
+
+	/**
+	 * Extended well-known binary (PostGIS EWKB) geometry type code flag
+	 * indicating an int32 SRID follows the geometry type code
+	 * 
+	 * @since 2.2.4
+	 */
+	public static final int EWKB_SRID_FLAG = 0x20000000;
+
 	/**
 	 * Get the geometry code from the geometry
 	 * 
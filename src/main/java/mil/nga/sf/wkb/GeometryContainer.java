@@ -0,0 +1,81 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Geometry container file format constants. A geometry container is a file of
+ * length prefixed well-known binary geometry records followed by a footer
+ * index of record offsets, supporting constant time random access to any
+ * record.
+ *
+ * <pre>
+ * header:  magic "WKBC" | version (1 byte) | flags (1 byte) | reserved (2 bytes)
+ * records: length (int) | well-known binary geometry (length bytes)
+ * index:   per record, offset (long) [| minX | minY | maxX | maxY (doubles)]
+ * trailer: index offset (long) | record count (long)
+ *          | max record length (int) | flags (int) | magic "WKBC"
+ * </pre>
+ *
+ * Container framing values are written little endian, the well-known binary
+ * records specify their own byte order. Appending leaves the previous index
+ * and trailer unreferenced between the previous and new records, as records
+ * are only located through the index offsets. Envelope values are included in the
+ * index when the {@link #FLAG_ENVELOPES} flag is set.
+ *
+ * @since 2.2.4
+ */
+public class GeometryContainer {
+
+	/**
+	 * Magic bytes
+	 */
+	public static final byte[] MAGIC = "WKBC"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Format version
+	 */
+	public static final byte VERSION = 1;
+
+	/**
+	 * Framing byte order
+	 */
+	public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+	/**
+	 * Header size in bytes
+	 */
+	public static final int HEADER_SIZE = 8;
+
+	/**
+	 * Trailer size in bytes
+	 */
+	public static final int TRAILER_SIZE = 28;
+
+	/**
+	 * Record length prefix size in bytes
+	 */
+	public static final int RECORD_PREFIX_SIZE = 4;
+
+	/**
+	 * Flag indicating per record envelopes are included in the index
+	 */
+	public static final int FLAG_ENVELOPES = 1;
+
+	/**
+	 * Index entry size in bytes
+	 *
+	 * @param flags
+	 *            container flags
+	 * @return index entry size
+	 */
+	public static int indexEntrySize(int flags) {
+		int size = 8;
+		if ((flags & FLAG_ENVELOPES) != 0) {
+			size += 4 * 8;
+		}
+		return size;
+	}
+
+}
@@ -0,0 +1,381 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * Geometry container reader, memory mapping the container file for constant
+ * time random access to records. Records are decoded directly from the mapped
+ * file without copying. Reads are thread safe, and {@link #stream(boolean)}
+ * splits on record boundaries from the offset index for parallel decoding.
+ * See {@link GeometryContainer} for the file format.
+ *
+ * @since 2.2.4
+ */
+public class GeometryContainerReader implements Closeable {
+
+	/**
+	 * Maximum mapped segment stride, records starting within a segment stride
+	 * are contained in the segment
+	 */
+	private static final long SEGMENT_STRIDE = 1L << 30;
+
+	/**
+	 * File channel
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Record count
+	 */
+	private final long count;
+
+	/**
+	 * Container flags
+	 */
+	private final int flags;
+
+	/**
+	 * Index offset
+	 */
+	private final long indexOffset;
+
+	/**
+	 * Max record length
+	 */
+	private final int maxRecordLength;
+
+	/**
+	 * Index entry size
+	 */
+	private final int indexEntrySize;
+
+	/**
+	 * Index entries per mapped index segment
+	 */
+	private final long indexEntriesPerSegment;
+
+	/**
+	 * Mapped record segments, segment i starting at the header offset plus i
+	 * segment strides and extending by the max record size beyond the next
+	 * stride
+	 */
+	private final MappedByteBuffer[] recordSegments;
+
+	/**
+	 * Mapped index segments
+	 */
+	private final MappedByteBuffer[] indexSegments;
+
+	/**
+	 * Constructor
+	 *
+	 * @param file
+	 *            container file
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public GeometryContainerReader(Path file) throws IOException {
+		this.channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+
+			long size = channel.size();
+			if (size < GeometryContainer.HEADER_SIZE
+					+ GeometryContainer.TRAILER_SIZE) {
+				throw new SFException(
+						"File is too small to be a geometry container: "
+								+ file);
+			}
+
+			ByteBuffer trailer = ByteBuffer
+					.allocate(GeometryContainer.TRAILER_SIZE)
+					.order(GeometryContainer.BYTE_ORDER);
+			readFully(trailer, size - GeometryContainer.TRAILER_SIZE);
+			trailer.flip();
+			indexOffset = trailer.getLong();
+			count = trailer.getLong();
+			maxRecordLength = trailer.getInt();
+			flags = trailer.getInt();
+			verifyMagic(trailer, file);
+
+			ByteBuffer header = ByteBuffer
+					.allocate(GeometryContainer.HEADER_SIZE)
+					.order(GeometryContainer.BYTE_ORDER);
+			readFully(header, 0);
+			header.flip();
+			verifyMagic(header, file);
+			byte version = header.get();
+			if (version > GeometryContainer.VERSION) {
+				throw new SFException(
+						"Unsupported geometry container version: " + version);
+			}
+
+			indexEntrySize = GeometryContainer.indexEntrySize(flags);
+			if (indexOffset < GeometryContainer.HEADER_SIZE
+					|| indexOffset + count * indexEntrySize != size
+							- GeometryContainer.TRAILER_SIZE) {
+				throw new SFException(
+						"Invalid geometry container index: " + file);
+			}
+
+			// Map the records in overlapping segments so that every record
+			// is fully contained within the segment its offset falls in
+			long recordsLength = indexOffset - GeometryContainer.HEADER_SIZE;
+			int recordSegmentCount = (int) Math.max(1,
+					(recordsLength + SEGMENT_STRIDE - 1) / SEGMENT_STRIDE);
+			recordSegments = new MappedByteBuffer[recordSegmentCount];
+			for (int i = 0; i < recordSegmentCount; i++) {
+				long start = GeometryContainer.HEADER_SIZE
+						+ i * SEGMENT_STRIDE;
+				long end = Math.min(indexOffset, start + SEGMENT_STRIDE
+						+ GeometryContainer.RECORD_PREFIX_SIZE
+						+ maxRecordLength);
+				recordSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						start, end - start);
+			}
+
+			// Map the index in segments of whole index entries
+			indexEntriesPerSegment = SEGMENT_STRIDE / indexEntrySize;
+			int indexSegmentCount = (int) Math.max(1,
+					(count + indexEntriesPerSegment - 1)
+							/ indexEntriesPerSegment);
+			indexSegments = new MappedByteBuffer[indexSegmentCount];
+			for (int i = 0; i < indexSegmentCount; i++) {
+				long firstEntry = i * indexEntriesPerSegment;
+				long entries = Math.min(indexEntriesPerSegment,
+						count - firstEntry);
+				indexSegments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						indexOffset + firstEntry * indexEntrySize,
+						entries * indexEntrySize);
+				indexSegments[i].order(GeometryContainer.BYTE_ORDER);
+			}
+
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Get the number of records
+	 *
+	 * @return record count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Does the container index include record envelopes
+	 *
+	 * @return true if envelopes
+	 */
+	public boolean hasEnvelopes() {
+		return (flags & GeometryContainer.FLAG_ENVELOPES) != 0;
+	}
+
+	/**
+	 * Read the geometry record
+	 *
+	 * @param index
+	 *            record index
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read(long index) throws IOException {
+		return read(index, null);
+	}
+
+	/**
+	 * Read the geometry record
+	 *
+	 * @param index
+	 *            record index
+	 * @param filter
+	 *            geometry filter
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read(long index, GeometryFilter filter)
+			throws IOException {
+		return GeometryReader.readGeometry(
+				new ByteBufferReader(readBuffer(index)), filter);
+	}
+
+	/**
+	 * Read the well-known binary record as a read only view of the mapped file
+	 *
+	 * @param index
+	 *            record index
+	 * @return well-known binary buffer
+	 */
+	public ByteBuffer readBuffer(long index) {
+		long offset = getOffset(index);
+		long relative = offset - GeometryContainer.HEADER_SIZE;
+		ByteBuffer segment = recordSegments[(int) (relative / SEGMENT_STRIDE)];
+		int position = (int) (relative % SEGMENT_STRIDE);
+		int length = segment.duplicate().order(GeometryContainer.BYTE_ORDER)
+				.getInt(position);
+		ByteBuffer record = segment.duplicate();
+		record.position(position + GeometryContainer.RECORD_PREFIX_SIZE);
+		record.limit(position + GeometryContainer.RECORD_PREFIX_SIZE + length);
+		return record.slice().asReadOnlyBuffer();
+	}
+
+	/**
+	 * Read the well-known binary record bytes
+	 *
+	 * @param index
+	 *            record index
+	 * @return well-known binary bytes
+	 */
+	public byte[] readBytes(long index) {
+		ByteBuffer buffer = readBuffer(index);
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Get a spliterator over all records, splitting on record boundaries from
+	 * the offset index
+	 *
+	 * @return geometry spliterator
+	 */
+	public Spliterator<Geometry> spliterator() {
+		return new GeometryContainerSpliterator(this, 0, count);
+	}
+
+	/**
+	 * Stream all records in order
+	 *
+	 * @param parallel
+	 *            true to decode records in parallel
+	 * @return geometry stream
+	 */
+	public Stream<Geometry> stream(boolean parallel) {
+		return StreamSupport.stream(spliterator(), parallel);
+	}
+
+	/**
+	 * Get the record envelope from the index without reading the record
+	 *
+	 * @param index
+	 *            record index
+	 * @return envelope, null if the container does not have envelopes or the
+	 *         geometry is empty
+	 */
+	public GeometryEnvelope getEnvelope(long index) {
+		GeometryEnvelope envelope = null;
+		if (hasEnvelopes()) {
+			ByteBuffer segment = indexSegment(index);
+			int position = indexPosition(index) + 8;
+			double minX = segment.getDouble(position);
+			if (!Double.isNaN(minX)) {
+				envelope = new GeometryEnvelope(minX,
+						segment.getDouble(position + 8),
+						segment.getDouble(position + 16),
+						segment.getDouble(position + 24));
+			}
+		}
+		return envelope;
+	}
+
+	/**
+	 * Get the file offset of the record
+	 *
+	 * @param index
+	 *            record index
+	 * @return record offset
+	 */
+	public long getOffset(long index) {
+		return indexSegment(index).getLong(indexPosition(index));
+	}
+
+	/**
+	 * Close the container file
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * Get the index segment containing the index entry
+	 *
+	 * @param index
+	 *            record index
+	 * @return index segment
+	 */
+	private ByteBuffer indexSegment(long index) {
+		if (index < 0 || index >= count) {
+			throw new IndexOutOfBoundsException(
+					"Record index " + index + " out of range, count: " + count);
+		}
+		return indexSegments[(int) (index / indexEntriesPerSegment)];
+	}
+
+	/**
+	 * Get the position of the index entry within its index segment
+	 *
+	 * @param index
+	 *            record index
+	 * @return index entry position
+	 */
+	private int indexPosition(long index) {
+		return (int) (index % indexEntriesPerSegment) * indexEntrySize;
+	}
+
+	/**
+	 * Read from the file at the position until the buffer is full
+	 *
+	 * @param buffer
+	 *            buffer
+	 * @param position
+	 *            file position
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readFully(ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new SFException("Unexpected end of geometry container");
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Verify the magic bytes at the buffer position
+	 *
+	 * @param buffer
+	 *            buffer
+	 * @param file
+	 *            container file
+	 */
+	private static void verifyMagic(ByteBuffer buffer, Path file) {
+		for (byte magic : GeometryContainer.MAGIC) {
+			if (buffer.get() != magic) {
+				throw new SFException("Not a geometry container file: " + file);
+			}
+		}
+	}
+
+}
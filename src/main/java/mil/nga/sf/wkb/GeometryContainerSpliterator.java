@@ -0,0 +1,124 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Geometry container spliterator over a range of record indices, splitting on
+ * record boundaries taken from the container offset index
+ *
+ * @since 2.2.4
+ */
+class GeometryContainerSpliterator implements Spliterator<Geometry> {
+
+	/**
+	 * Minimum number of records to split
+	 */
+	private static final long MIN_SPLIT = 64;
+
+	/**
+	 * Container reader
+	 */
+	private final GeometryContainerReader reader;
+
+	/**
+	 * Current record index
+	 */
+	private long index;
+
+	/**
+	 * Exclusive end record index
+	 */
+	private final long end;
+
+	/**
+	 * Constructor
+	 *
+	 * @param reader
+	 *            container reader
+	 * @param index
+	 *            first record index
+	 * @param end
+	 *            exclusive end record index
+	 */
+	GeometryContainerSpliterator(GeometryContainerReader reader, long index,
+			long end) {
+		this.reader = reader;
+		this.index = index;
+		this.end = end;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super Geometry> action) {
+		boolean advanced = index < end;
+		if (advanced) {
+			action.accept(read(index++));
+		}
+		return advanced;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super Geometry> action) {
+		while (index < end) {
+			action.accept(read(index++));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Spliterator<Geometry> trySplit() {
+		Spliterator<Geometry> split = null;
+		long remaining = end - index;
+		if (remaining >= MIN_SPLIT) {
+			long middle = index + remaining / 2;
+			split = new GeometryContainerSpliterator(reader, index, middle);
+			index = middle;
+		}
+		return split;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long estimateSize() {
+		return end - index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+	}
+
+	/**
+	 * Read the geometry record
+	 *
+	 * @param recordIndex
+	 *            record index
+	 * @return geometry
+	 */
+	private Geometry read(long recordIndex) {
+		try {
+			return reader.read(recordIndex);
+		} catch (IOException e) {
+			throw new SFException(
+					"Failed to read geometry record " + recordIndex, e);
+		}
+	}
+
+}
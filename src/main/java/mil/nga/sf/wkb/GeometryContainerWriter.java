@@ -0,0 +1,521 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Geometry container writer, writing length prefixed well-known binary records
+ * followed by a footer offset index upon close. Existing containers may be
+ * opened for append with {@link #append(Path)}, writing new records after the
+ * previous trailer and a new index and trailer upon close, leaving the
+ * previous index unreferenced. The existing container bytes are not modified,
+ * so an append failing to write or close truncates the file back to the
+ * original container. A process terminating before close leaves the original
+ * container bytes followed by partial new records without a trailer. See
+ * {@link GeometryContainer} for the file format.
+ *
+ * @since 2.2.4
+ */
+public class GeometryContainerWriter implements Closeable {
+
+	/**
+	 * Write buffer size
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Container file
+	 */
+	private final Path file;
+
+	/**
+	 * File channel
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * Original file size when appending, -1 when creating
+	 */
+	private final long appendSize;
+
+	/**
+	 * Container flags
+	 */
+	private final int flags;
+
+	/**
+	 * Well-known binary byte order
+	 */
+	private final ByteOrder byteOrder;
+
+	/**
+	 * Write buffer
+	 */
+	private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE)
+			.order(GeometryContainer.BYTE_ORDER);
+
+	/**
+	 * File position of the next write
+	 */
+	private long position;
+
+	/**
+	 * File position of the buffered bytes
+	 */
+	private long written;
+
+	/**
+	 * Record offsets
+	 */
+	private long[] offsets = new long[1024];
+
+	/**
+	 * Record envelopes, min x, min y, max x, max y per record
+	 */
+	private double[] envelopes;
+
+	/**
+	 * Number of records
+	 */
+	private int count = 0;
+
+	/**
+	 * Max record length
+	 */
+	private int maxRecordLength = 0;
+
+	/**
+	 * Closed flag
+	 */
+	private boolean closed = false;
+
+	/**
+	 * Failed to write flag
+	 */
+	private boolean failed = false;
+
+	/**
+	 * Constructor, creates or replaces the container file without envelopes
+	 *
+	 * @param file
+	 *            container file
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryContainerWriter(Path file) throws IOException {
+		this(file, false);
+	}
+
+	/**
+	 * Constructor, creates or replaces the container file
+	 *
+	 * @param file
+	 *            container file
+	 * @param envelopes
+	 *            true to include per record envelopes in the index
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryContainerWriter(Path file, boolean envelopes)
+			throws IOException {
+		this(file, envelopes, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor, creates or replaces the container file
+	 *
+	 * @param file
+	 *            container file
+	 * @param envelopes
+	 *            true to include per record envelopes in the index
+	 * @param byteOrder
+	 *            byte order of written geometries
+	 * @throws IOException
+	 *             upon failure to create the file
+	 */
+	public GeometryContainerWriter(Path file, boolean envelopes,
+			ByteOrder byteOrder) throws IOException {
+		this.file = file;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		this.appendSize = -1;
+		this.flags = envelopes ? GeometryContainer.FLAG_ENVELOPES : 0;
+		this.byteOrder = byteOrder;
+		if (envelopes) {
+			this.envelopes = new double[offsets.length * 4];
+		}
+		buffer.put(GeometryContainer.MAGIC);
+		buffer.put(GeometryContainer.VERSION);
+		buffer.put((byte) flags);
+		buffer.putShort((short) 0);
+		position = GeometryContainer.HEADER_SIZE;
+	}
+
+	/**
+	 * Constructor, opens an existing container file for append
+	 *
+	 * @param file
+	 *            container file
+	 * @param channel
+	 *            read and write file channel
+	 * @param byteOrder
+	 *            byte order of written geometries
+	 * @throws IOException
+	 *             upon failure to read the existing index
+	 */
+	private GeometryContainerWriter(Path file, FileChannel channel,
+			ByteOrder byteOrder) throws IOException {
+		this.file = file;
+		this.channel = channel;
+		this.byteOrder = byteOrder;
+
+		long size = channel.size();
+		appendSize = size;
+		if (size < GeometryContainer.HEADER_SIZE
+				+ GeometryContainer.TRAILER_SIZE) {
+			throw new SFException(
+					"File is too small to be a geometry container");
+		}
+		ByteBuffer trailer = ByteBuffer
+				.allocate(GeometryContainer.TRAILER_SIZE)
+				.order(GeometryContainer.BYTE_ORDER);
+		readFully(trailer, size - GeometryContainer.TRAILER_SIZE);
+		long indexOffset = trailer.getLong();
+		long existingCount = trailer.getLong();
+		maxRecordLength = trailer.getInt();
+		flags = trailer.getInt();
+		for (byte magic : GeometryContainer.MAGIC) {
+			if (trailer.get() != magic) {
+				throw new SFException("Not a geometry container file");
+			}
+		}
+
+		int indexEntrySize = GeometryContainer.indexEntrySize(flags);
+		if (existingCount > Integer.MAX_VALUE / 4
+				|| indexOffset < GeometryContainer.HEADER_SIZE
+				|| indexOffset + existingCount * indexEntrySize != size
+						- GeometryContainer.TRAILER_SIZE) {
+			throw new SFException("Invalid geometry container index");
+		}
+		count = (int) existingCount;
+		offsets = new long[Math.max(offsets.length,
+				Integer.highestOneBit(Math.max(count, 1)) * 2)];
+		if ((flags & GeometryContainer.FLAG_ENVELOPES) != 0) {
+			envelopes = new double[offsets.length * 4];
+		}
+
+		ByteBuffer index = ByteBuffer.allocate(BUFFER_SIZE)
+				.order(GeometryContainer.BYTE_ORDER);
+		long indexPosition = indexOffset;
+		int entriesPerRead = BUFFER_SIZE / indexEntrySize;
+		for (int i = 0; i < count; i += entriesPerRead) {
+			int entries = Math.min(entriesPerRead, count - i);
+			index.clear();
+			index.limit(entries * indexEntrySize);
+			readFully(index, indexPosition);
+			indexPosition += entries * indexEntrySize;
+			for (int j = i; j < i + entries; j++) {
+				offsets[j] = index.getLong();
+				if (envelopes != null) {
+					for (int k = j * 4; k < j * 4 + 4; k++) {
+						envelopes[k] = index.getDouble();
+					}
+				}
+			}
+		}
+
+		// New records follow the previous trailer, which remains intact
+		position = size;
+		written = size;
+	}
+
+	/**
+	 * Open an existing container file to append records, preserving the
+	 * existing container flags
+	 *
+	 * @param file
+	 *            existing container file
+	 * @return container writer
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public static GeometryContainerWriter append(Path file)
+			throws IOException {
+		return append(file, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Open an existing container file to append records, preserving the
+	 * existing container flags
+	 *
+	 * @param file
+	 *            existing container file
+	 * @param byteOrder
+	 *            byte order of written geometries
+	 * @return container writer
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public static GeometryContainerWriter append(Path file,
+			ByteOrder byteOrder) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		try {
+			return new GeometryContainerWriter(file, channel, byteOrder);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Get the number of records written
+	 *
+	 * @return record count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Is the container writing envelopes
+	 *
+	 * @return true if writing envelopes
+	 */
+	public boolean hasEnvelopes() {
+		return envelopes != null;
+	}
+
+	/**
+	 * Write a geometry record
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return record index
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public long write(Geometry geometry) throws IOException {
+		GeometryEnvelope envelope = null;
+		if (hasEnvelopes()) {
+			envelope = geometry.getEnvelope();
+		}
+		return write(GeometryWriter.writeGeometry(geometry, byteOrder),
+				envelope);
+	}
+
+	/**
+	 * Write a well-known binary geometry record. When writing envelopes, the
+	 * geometry is decoded to build the envelope.
+	 *
+	 * @param bytes
+	 *            well-known binary geometry
+	 * @return record index
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public long write(byte[] bytes) throws IOException {
+		GeometryEnvelope envelope = null;
+		if (hasEnvelopes()) {
+			envelope = GeometryReader.readGeometry(bytes).getEnvelope();
+		}
+		return write(bytes, envelope);
+	}
+
+	/**
+	 * Write a well-known binary geometry record
+	 *
+	 * @param bytes
+	 *            well-known binary geometry
+	 * @param envelope
+	 *            geometry envelope, ignored when not writing envelopes
+	 * @return record index
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public long write(byte[] bytes, GeometryEnvelope envelope)
+			throws IOException {
+		if (closed) {
+			throw new IOException("Geometry container writer is closed");
+		}
+		if (failed) {
+			throw new IOException(
+					"Geometry container writer failed a previous write");
+		}
+
+		int index = count;
+		if (index == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+			if (envelopes != null) {
+				envelopes = Arrays.copyOf(envelopes, offsets.length * 4);
+			}
+		}
+		offsets[index] = position;
+		if (envelopes != null) {
+			int envelopeIndex = index * 4;
+			if (envelope != null) {
+				envelopes[envelopeIndex] = envelope.getMinX();
+				envelopes[envelopeIndex + 1] = envelope.getMinY();
+				envelopes[envelopeIndex + 2] = envelope.getMaxX();
+				envelopes[envelopeIndex + 3] = envelope.getMaxY();
+			} else {
+				Arrays.fill(envelopes, envelopeIndex, envelopeIndex + 4,
+						Double.NaN);
+			}
+		}
+
+		try {
+			ensureRemaining(GeometryContainer.RECORD_PREFIX_SIZE);
+			buffer.putInt(bytes.length);
+			put(bytes);
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			throw e;
+		}
+
+		position += GeometryContainer.RECORD_PREFIX_SIZE + bytes.length;
+		maxRecordLength = Math.max(maxRecordLength, bytes.length);
+		count++;
+
+		return index;
+	}
+
+	/**
+	 * Write the footer index and trailer and close the file. After a failed
+	 * write, or upon failure to write the index, an appended file is
+	 * truncated back to the original container and a created file is left
+	 * without an index.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (!closed) {
+			closed = true;
+			try {
+				if (!failed) {
+					writeIndex();
+				}
+			} catch (IOException | RuntimeException e) {
+				failed = true;
+				throw e;
+			} finally {
+				channel.close();
+				if (failed && appendSize >= 0) {
+					try (FileChannel restore = FileChannel.open(file,
+							StandardOpenOption.WRITE)) {
+						restore.truncate(appendSize);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Write the footer index and trailer
+	 *
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeIndex() throws IOException {
+		long indexOffset = position;
+		for (int i = 0; i < count; i++) {
+			ensureRemaining(GeometryContainer.indexEntrySize(flags));
+			buffer.putLong(offsets[i]);
+			if (envelopes != null) {
+				for (int j = i * 4; j < i * 4 + 4; j++) {
+					buffer.putDouble(envelopes[j]);
+				}
+			}
+		}
+		ensureRemaining(GeometryContainer.TRAILER_SIZE);
+		buffer.putLong(indexOffset);
+		buffer.putLong(count);
+		buffer.putInt(maxRecordLength);
+		buffer.putInt(flags);
+		buffer.put(GeometryContainer.MAGIC);
+		flush();
+	}
+
+	/**
+	 * Put bytes into the write buffer, flushing as needed
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void put(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			int length = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	/**
+	 * Ensure the write buffer has the remaining space, flushing as needed
+	 *
+	 * @param length
+	 *            required length
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void ensureRemaining(int length) throws IOException {
+		if (buffer.remaining() < length) {
+			flush();
+		}
+	}
+
+	/**
+	 * Flush the write buffer to the file
+	 *
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer, written);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Read from the file at the position until the buffer is full, then flip
+	 * the buffer for reading
+	 *
+	 * @param buffer
+	 *            buffer
+	 * @param position
+	 *            file position
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void readFully(ByteBuffer buffer, long position)
+			throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new SFException("Unexpected end of geometry container");
+			}
+			position += read;
+		}
+		buffer.flip();
+	}
+
+}
@@ -0,0 +1,192 @@
+package mil.nga.sf.wkb;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Thread and executor utilities for concurrent geometry reading and writing.
+ * Virtual threads are used when running on a Java runtime supporting them
+ * (Java 21+), falling back to daemon platform threads on earlier runtimes.
+ *
+ * @since 2.2.4
+ */
+public class GeometryExecutors {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger logger = Logger
+			.getLogger(GeometryExecutors.class.getName());
+
+	/**
+	 * Thread.ofVirtual method, null when virtual threads are not supported
+	 */
+	private static final Method OF_VIRTUAL;
+
+	/**
+	 * Thread.Builder.name(String, long) method
+	 */
+	private static final Method BUILDER_NAME;
+
+	/**
+	 * Thread.Builder.factory() method
+	 */
+	private static final Method BUILDER_FACTORY;
+
+	/**
+	 * Executors.newVirtualThreadPerTaskExecutor method
+	 */
+	private static final Method NEW_VIRTUAL_EXECUTOR;
+
+	/**
+	 * Default asynchronous read and write executor
+	 */
+	private static final AtomicReference<Executor> defaultExecutor = new AtomicReference<>();
+
+	static {
+		Method ofVirtual = null;
+		Method builderName = null;
+		Method builderFactory = null;
+		Method newVirtualExecutor = null;
+		// Virtual threads are final as of Java 21, preview only before
+		if (Runtime.version().feature() >= 21) {
+			try {
+				ofVirtual = Thread.class.getMethod("ofVirtual");
+				Class<?> builder = Class.forName("java.lang.Thread$Builder");
+				builderName = builder.getMethod("name", String.class,
+						long.class);
+				builderFactory = builder.getMethod("factory");
+				newVirtualExecutor = Executors.class
+						.getMethod("newVirtualThreadPerTaskExecutor");
+			} catch (ReflectiveOperationException e) {
+				ofVirtual = null;
+			}
+		}
+		OF_VIRTUAL = ofVirtual;
+		BUILDER_NAME = builderName;
+		BUILDER_FACTORY = builderFactory;
+		NEW_VIRTUAL_EXECUTOR = OF_VIRTUAL != null ? newVirtualExecutor : null;
+	}
+
+	/**
+	 * Determine if virtual threads are supported by the Java runtime
+	 *
+	 * @return true if virtual threads are supported
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return OF_VIRTUAL != null;
+	}
+
+	/**
+	 * Create a thread factory, creating virtual threads when supported and
+	 * daemon platform threads otherwise
+	 *
+	 * @param name
+	 *            thread name prefix
+	 * @return thread factory
+	 */
+	public static ThreadFactory newThreadFactory(String name) {
+		ThreadFactory threadFactory = null;
+		if (isVirtualThreadSupported()) {
+			try {
+				Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null),
+						name + "-", 0L);
+				threadFactory = (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+			} catch (ReflectiveOperationException e) {
+				logger.log(Level.WARNING,
+						"Failed to create virtual thread factory", e);
+			}
+		}
+		if (threadFactory == null) {
+			threadFactory = newPlatformThreadFactory(name);
+		}
+		return threadFactory;
+	}
+
+	/**
+	 * Create a thread factory of daemon platform threads
+	 *
+	 * @param name
+	 *            thread name prefix
+	 * @return thread factory
+	 */
+	public static ThreadFactory newPlatformThreadFactory(String name) {
+		final AtomicLong count = new AtomicLong();
+		return new ThreadFactory() {
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable,
+						name + "-" + count.getAndIncrement());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+
+	/**
+	 * Get the default executor used by asynchronous geometry reads and writes.
+	 * Unless set, a virtual thread per task executor is lazily created when
+	 * virtual threads are supported, otherwise the common fork join pool is
+	 * used.
+	 *
+	 * @return default executor
+	 */
+	public static Executor getDefaultExecutor() {
+		Executor executor = defaultExecutor.get();
+		if (executor == null) {
+			Executor created = newDefaultExecutor();
+			if (defaultExecutor.compareAndSet(null, created)) {
+				executor = created;
+			} else {
+				if (created instanceof ExecutorService) {
+					((ExecutorService) created).shutdown();
+				}
+				executor = defaultExecutor.get();
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * Set the default executor used by asynchronous geometry reads and writes.
+	 * The previous executor is not shut down.
+	 *
+	 * @param executor
+	 *            executor, null to restore the default executor
+	 */
+	public static void setDefaultExecutor(Executor executor) {
+		defaultExecutor.set(executor);
+	}
+
+	/**
+	 * Create a new default executor, a virtual thread per task executor when
+	 * supported or the common fork join pool
+	 *
+	 * @return executor
+	 */
+	private static Executor newDefaultExecutor() {
+		Executor executor = null;
+		if (NEW_VIRTUAL_EXECUTOR != null) {
+			try {
+				executor = (Executor) NEW_VIRTUAL_EXECUTOR.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				logger.log(Level.WARNING,
+						"Failed to create virtual thread per task executor",
+						e);
+			}
+		}
+		if (executor == null) {
+			executor = ForkJoinPool.commonPool();
+		}
+		return executor;
+	}
+
+}
@@ -0,0 +1,85 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.GeometryType;
+
+/**
+ * Geometry event handler for streaming traversal of well-known binary without
+ * building geometries, see {@link GeometryReader#traverse(GeometryHandler)}.
+ * Each geometry is reported as a start event, its body, and an end event:
+ *
+ * <pre>
+ * point:                  point
+ * line string, curve:     list of points
+ * polygon, triangle:      list of rings, each a list of points
+ * multi, collection, ...: list of geometries
+ * </pre>
+ *
+ * @since 2.2.4
+ */
+public interface GeometryHandler {
+
+	/**
+	 * Start a geometry
+	 *
+	 * @param geometryType
+	 *            geometry type as encoded, including multi curve and multi
+	 *            surface
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @param containingType
+	 *            containing geometry type or null for the top level geometry
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void startGeometry(GeometryType geometryType, boolean hasZ,
+			boolean hasM, GeometryType containingType) throws IOException;
+
+	/**
+	 * Start a list of points, rings, or geometries
+	 *
+	 * @param count
+	 *            number of items in the list, or -1 when the count is not
+	 *            known until the list ends
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void startList(int count) throws IOException;
+
+	/**
+	 * Handle a point
+	 *
+	 * @param x
+	 *            x value
+	 * @param y
+	 *            y value
+	 * @param z
+	 *            z value, NaN when the geometry does not have z values
+	 * @param m
+	 *            m value, NaN when the geometry does not have m values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void point(double x, double y, double z, double m)
+			throws IOException;
+
+	/**
+	 * End the current list
+	 *
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void endList() throws IOException;
+
+	/**
+	 * End the current geometry
+	 *
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void endGeometry() throws IOException;
+
+}
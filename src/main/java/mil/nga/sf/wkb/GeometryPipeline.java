@@ -0,0 +1,334 @@
+package mil.nga.sf.wkb;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Read-ahead geometry decode pipeline. A reader thread splits raw well-known
+ * binary records from a stream of concatenated geometries while a pool of
+ * background threads decodes them with {@link GeometryReader}. Decoded
+ * geometries are returned in stream order. The number of records read ahead
+ * of the consumer is bounded by the pipeline capacity.
+ *
+ * Threads are virtual threads when supported by the Java runtime, see
+ * {@link GeometryExecutors}.
+ *
+ * @since 2.2.4
+ */
+public class GeometryPipeline implements Iterator<Geometry>, Closeable {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger logger = Logger
+			.getLogger(GeometryPipeline.class.getName());
+
+	/**
+	 * Default read-ahead capacity per decode thread
+	 */
+	public static final int DEFAULT_CAPACITY_PER_THREAD = 64;
+
+	/**
+	 * End of records marker
+	 */
+	private static final Future<Geometry> END = CompletableFuture
+			.completedFuture(null);
+
+	/**
+	 * Record reader
+	 */
+	private final GeometryRecordReader recordReader;
+
+	/**
+	 * Decode executor
+	 */
+	private final ExecutorService decodeExecutor;
+
+	/**
+	 * Read-ahead queue of decoded or decoding geometries in stream order
+	 */
+	private final BlockingQueue<Future<Geometry>> queue;
+
+	/**
+	 * Reader thread
+	 */
+	private final Thread readerThread;
+
+	/**
+	 * Next geometry future to return
+	 */
+	private Future<Geometry> next;
+
+	/**
+	 * Closed flag
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructor, using a decode thread per available processor
+	 *
+	 * @param inputStream
+	 *            input stream of concatenated well-known binary geometries
+	 */
+	public GeometryPipeline(InputStream inputStream) {
+		this(inputStream, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStream
+	 *            input stream of concatenated well-known binary geometries
+	 * @param threads
+	 *            number of decode threads
+	 */
+	public GeometryPipeline(InputStream inputStream, int threads) {
+		this(inputStream, threads, threads * DEFAULT_CAPACITY_PER_THREAD);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStream
+	 *            input stream of concatenated well-known binary geometries
+	 * @param threads
+	 *            number of decode threads
+	 * @param capacity
+	 *            maximum number of geometries read ahead of the consumer
+	 */
+	public GeometryPipeline(InputStream inputStream, int threads,
+			int capacity) {
+		this(new GeometryRecordReader(inputStream), threads, capacity);
+	}
+
+	/**
+	 * Constructor, using a decode thread per available processor
+	 *
+	 * @param file
+	 *            file of concatenated well-known binary geometries
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public GeometryPipeline(Path file) throws IOException {
+		this(Files.newInputStream(file));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param file
+	 *            file of concatenated well-known binary geometries
+	 * @param threads
+	 *            number of decode threads
+	 * @throws IOException
+	 *             upon failure to open the file
+	 */
+	public GeometryPipeline(Path file, int threads) throws IOException {
+		this(Files.newInputStream(file), threads);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param recordReader
+	 *            record reader
+	 * @param threads
+	 *            number of decode threads
+	 * @param capacity
+	 *            maximum number of geometries read ahead of the consumer
+	 */
+	public GeometryPipeline(GeometryRecordReader recordReader, int threads,
+			int capacity) {
+		if (threads < 1) {
+			throw new IllegalArgumentException(
+					"Decode threads must be at least 1: " + threads);
+		}
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be at least 1: " + capacity);
+		}
+		this.recordReader = recordReader;
+		this.queue = new ArrayBlockingQueue<>(capacity);
+		this.decodeExecutor = Executors.newFixedThreadPool(threads,
+				GeometryExecutors.newThreadFactory("wkb-decode"));
+		this.readerThread = GeometryExecutors.newThreadFactory("wkb-read")
+				.newThread(new Runnable() {
+					@Override
+					public void run() {
+						readRecords();
+					}
+				});
+		this.readerThread.start();
+	}
+
+	/**
+	 * Read the next geometry, blocking until decoded
+	 *
+	 * @return geometry or null when no more geometries
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read() throws IOException {
+		Geometry geometry = null;
+		if (hasNextFuture()) {
+			Future<Geometry> future = next;
+			next = null;
+			try {
+				geometry = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(
+						"Interrupted waiting for decoded geometry");
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof IOException) {
+					throw (IOException) cause;
+				} else if (cause instanceof RuntimeException) {
+					throw (RuntimeException) cause;
+				}
+				throw new SFException("Failed to decode geometry", cause);
+			}
+		}
+		return geometry;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean hasNext() {
+		try {
+			return hasNextFuture();
+		} catch (InterruptedIOException e) {
+			throw new SFException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Geometry next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException("No more geometries");
+		}
+		try {
+			return read();
+		} catch (IOException e) {
+			throw new SFException("Failed to read geometry", e);
+		}
+	}
+
+	/**
+	 * Close the pipeline, stopping the background threads and closing the
+	 * input. A consumer waiting for a geometry is woken with the end of the
+	 * records.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		readerThread.interrupt();
+		decodeExecutor.shutdownNow();
+		do {
+			queue.clear();
+		} while (!queue.offer(END));
+		try {
+			recordReader.close();
+		} catch (IOException e) {
+			logger.log(Level.WARNING, "Failed to close geometry record reader",
+					e);
+		}
+	}
+
+	/**
+	 * Determine if there is a next geometry, taking the next future from the
+	 * queue
+	 *
+	 * @return true if a next geometry
+	 * @throws InterruptedIOException
+	 *             upon interruption
+	 */
+	private boolean hasNextFuture() throws InterruptedIOException {
+		if (next == null) {
+			if (closed) {
+				return false;
+			}
+			try {
+				next = queue.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException(
+						"Interrupted waiting for geometry record");
+			}
+		}
+		return next != END;
+	}
+
+	/**
+	 * Read records, submitting each for decoding, until the end of the input
+	 */
+	private void readRecords() {
+		try {
+			byte[] record;
+			while (!closed && (record = recordReader.readRecord()) != null) {
+				queue.put(decodeExecutor.submit(decoder(record)));
+			}
+			if (!closed) {
+				queue.put(END);
+			}
+		} catch (InterruptedException e) {
+			// Closed
+		} catch (Exception e) {
+			if (!closed) {
+				CompletableFuture<Geometry> failed = new CompletableFuture<>();
+				failed.completeExceptionally(e);
+				try {
+					queue.put(failed);
+					queue.put(END);
+				} catch (InterruptedException ie) {
+					// Closed
+				}
+			}
+		} finally {
+			decodeExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Create a record decoder
+	 *
+	 * @param record
+	 *            well-known binary record
+	 * @return decoder
+	 */
+	private static Callable<Geometry> decoder(final byte[] record) {
+		return new Callable<Geometry>() {
+			@Override
+			public Geometry call() throws Exception {
+				return GeometryReader.readGeometry(
+						new ByteBufferReader(ByteBuffer.wrap(record)));
+			}
+		};
+	}
+
+}
@@ -0,0 +1,424 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import mil.nga.sf.Geometry;
+
+/**
+ * Reactive Streams publisher of geometries decoded from concatenated
+ * well-known binary. Geometries are only decoded as requested by the
+ * subscriber, so slow subscribers throttle decoding. The publisher supports a
+ * single subscriber as the source can only be consumed once.
+ *
+ * Decoding is performed on the thread calling {@link Flow.Subscription#request}
+ * unless an executor is provided, in which case decoding is offloaded to the
+ * executor.
+ *
+ * @since 2.2.4
+ */
+public class GeometryPublisher implements Flow.Publisher<Geometry> {
+
+	/**
+	 * Logger
+	 */
+	private static final Logger logger = Logger
+			.getLogger(GeometryPublisher.class.getName());
+
+	/**
+	 * Byte buffer source
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Stream record reader source
+	 */
+	private final GeometryRecordReader recordReader;
+
+	/**
+	 * Decoding executor, null to decode on the requesting thread
+	 */
+	private final Executor executor;
+
+	/**
+	 * Subscribed flag
+	 */
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            concatenated geometry bytes
+	 */
+	public GeometryPublisher(byte[] bytes) {
+		this(bytes, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            concatenated geometry bytes
+	 * @param executor
+	 *            decoding executor
+	 */
+	public GeometryPublisher(byte[] bytes, Executor executor) {
+		this(ByteBuffer.wrap(bytes), executor);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param buffer
+	 *            concatenated geometry buffer, such as a memory mapped file,
+	 *            read from the current position to the limit
+	 */
+	public GeometryPublisher(ByteBuffer buffer) {
+		this(buffer, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param buffer
+	 *            concatenated geometry buffer, such as a memory mapped file,
+	 *            read from the current position to the limit
+	 * @param executor
+	 *            decoding executor
+	 */
+	public GeometryPublisher(ByteBuffer buffer, Executor executor) {
+		this(buffer, null, executor);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStream
+	 *            concatenated geometry input stream, closed upon completion,
+	 *            error, or cancellation
+	 */
+	public GeometryPublisher(InputStream inputStream) {
+		this(inputStream, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStream
+	 *            concatenated geometry input stream, closed upon completion,
+	 *            error, or cancellation
+	 * @param executor
+	 *            decoding executor
+	 */
+	public GeometryPublisher(InputStream inputStream, Executor executor) {
+		this(null, new GeometryRecordReader(inputStream), executor);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param channel
+	 *            concatenated geometry channel, closed upon completion, error,
+	 *            or cancellation
+	 */
+	public GeometryPublisher(ReadableByteChannel channel) {
+		this(channel, null);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param channel
+	 *            concatenated geometry channel, closed upon completion, error,
+	 *            or cancellation
+	 * @param executor
+	 *            decoding executor
+	 */
+	public GeometryPublisher(ReadableByteChannel channel, Executor executor) {
+		this(null, new GeometryRecordReader(channel), executor);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param buffer
+	 *            byte buffer source
+	 * @param recordReader
+	 *            stream record reader source
+	 * @param executor
+	 *            decoding executor
+	 */
+	private GeometryPublisher(ByteBuffer buffer,
+			GeometryRecordReader recordReader, Executor executor) {
+		this.buffer = buffer;
+		this.recordReader = recordReader;
+		this.executor = executor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void subscribe(Flow.Subscriber<? super Geometry> subscriber) {
+		Objects.requireNonNull(subscriber, "Subscriber is required");
+		if (subscribed.compareAndSet(false, true)) {
+			subscriber.onSubscribe(new GeometrySubscription(subscriber));
+		} else {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				@Override
+				public void request(long n) {
+				}
+
+				@Override
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException(
+					"Geometry Publisher only supports a single subscriber"));
+		}
+	}
+
+	/**
+	 * Geometry subscription, decoding geometries as requested
+	 */
+	private class GeometrySubscription implements Flow.Subscription, Runnable {
+
+		/**
+		 * Subscriber
+		 */
+		private final Flow.Subscriber<? super Geometry> subscriber;
+
+		/**
+		 * Outstanding requested geometries
+		 */
+		private final AtomicLong requested = new AtomicLong();
+
+		/**
+		 * Work in progress counter, ensuring a single draining thread
+		 */
+		private final AtomicInteger wip = new AtomicInteger();
+
+		/**
+		 * Byte buffer reader when reading from a buffer
+		 */
+		private final ByteBufferReader bufferReader;
+
+		/**
+		 * Cancelled flag
+		 */
+		private volatile boolean cancelled = false;
+
+		/**
+		 * Invalid request error
+		 */
+		private volatile Throwable requestError;
+
+		/**
+		 * Constructor
+		 *
+		 * @param subscriber
+		 *            subscriber
+		 */
+		GeometrySubscription(Flow.Subscriber<? super Geometry> subscriber) {
+			this.subscriber = subscriber;
+			this.bufferReader = buffer != null ? new ByteBufferReader(buffer)
+					: null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				requestError = new IllegalArgumentException(
+						"Requested geometries must be positive: " + n);
+			} else {
+				long current;
+				long updated;
+				do {
+					current = requested.get();
+					if (current == Long.MAX_VALUE) {
+						break;
+					}
+					updated = current + n;
+					if (updated < 0) {
+						updated = Long.MAX_VALUE;
+					}
+				} while (!requested.compareAndSet(current, updated));
+			}
+			schedule();
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		/**
+		 * Schedule draining when not already in progress
+		 */
+		private void schedule() {
+			if (wip.getAndIncrement() == 0) {
+				if (executor != null) {
+					try {
+						executor.execute(this);
+					} catch (RuntimeException e) {
+						closeSource();
+						subscriber.onError(e);
+					}
+				} else {
+					run();
+				}
+			}
+		}
+
+		/**
+		 * Drain the requested geometries. The work in progress counter is
+		 * intentionally left non-zero upon termination so that no further
+		 * draining occurs.
+		 */
+		@Override
+		public void run() {
+			int missed = 1;
+			do {
+
+				long request = requested.get();
+				long emitted = 0;
+
+				while (true) {
+
+					if (cancelled) {
+						closeSource();
+						return;
+					}
+
+					Throwable error = requestError;
+					if (error != null) {
+						cancelled = true;
+						closeSource();
+						subscriber.onError(error);
+						return;
+					}
+
+					boolean exhausted;
+					try {
+						exhausted = emitted == request && !hasNext();
+					} catch (Exception e) {
+						cancelled = true;
+						closeSource();
+						subscriber.onError(e);
+						return;
+					}
+					if (exhausted) {
+						cancelled = true;
+						closeSource();
+						subscriber.onComplete();
+						return;
+					}
+
+					if (emitted == request) {
+						break;
+					}
+
+					Geometry geometry;
+					try {
+						geometry = next();
+					} catch (Exception e) {
+						cancelled = true;
+						closeSource();
+						subscriber.onError(e);
+						return;
+					}
+
+					if (geometry == null) {
+						cancelled = true;
+						closeSource();
+						subscriber.onComplete();
+						return;
+					}
+
+					subscriber.onNext(geometry);
+					emitted++;
+				}
+
+				if (emitted != 0 && request != Long.MAX_VALUE) {
+					requested.addAndGet(-emitted);
+				}
+
+				missed = wip.addAndGet(-missed);
+			} while (missed != 0);
+		}
+
+		/**
+		 * Determine if there is another geometry to decode
+		 *
+		 * @return true if another geometry
+		 * @throws IOException
+		 *             upon failure to read
+		 */
+		private boolean hasNext() throws IOException {
+			boolean hasNext;
+			if (bufferReader != null) {
+				hasNext = bufferReader.hasRemaining();
+			} else {
+				hasNext = recordReader.hasRecord();
+			}
+			return hasNext;
+		}
+
+		/**
+		 * Decode the next geometry
+		 *
+		 * @return geometry or null when no more geometries
+		 * @throws IOException
+		 *             upon failure to read
+		 */
+		private Geometry next() throws IOException {
+			Geometry geometry = null;
+			if (bufferReader != null) {
+				if (bufferReader.hasRemaining()) {
+					geometry = GeometryReader.readGeometry(bufferReader);
+				}
+			} else {
+				ByteBuffer record = recordReader.readRecordBuffer();
+				if (record != null) {
+					geometry = GeometryReader
+							.readGeometry(new ByteBufferReader(record));
+				}
+			}
+			return geometry;
+		}
+
+		/**
+		 * Close the source
+		 */
+		private void closeSource() {
+			if (recordReader != null) {
+				try {
+					recordReader.close();
+				} catch (IOException e) {
+					logger.log(Level.WARNING,
+							"Failed to close geometry record reader", e);
+				}
+			}
+		}
+
+	}
+
+}
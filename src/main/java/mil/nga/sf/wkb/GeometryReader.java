@@ -1,7 +1,11 @@
 package mil.nga.sf.wkb;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
@@ -30,11 +34,6 @@ import mil.nga.sf.util.filter.GeometryFilter;
  */
 public class GeometryReader {
 
-	/**
-	 * 2.5D bit
-	 */
-	private static final long WKB25D = Long.decode("0x80000000");
-
 	/**
 	 * Read a geometry from well-known bytes
 	 * 
@@ -113,11 +112,197 @@ public class GeometryReader {
 		return geometry;
 	}
 
+	/**
+	 * Read a geometry and extended well-known binary (PostGIS EWKB) SRID from
+	 * well-known bytes
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return SRID geometry, with a null SRID when not included
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.2.4
+	 */
+	public static SRIDGeometry readSRIDGeometry(byte[] bytes)
+			throws IOException {
+		SRIDGeometry geometry = null;
+		GeometryReader reader = new GeometryReader(bytes);
+		try {
+			Geometry read = reader.read();
+			geometry = new SRIDGeometry(read, reader.getSrid());
+		} finally {
+			reader.close();
+		}
+		return geometry;
+	}
+
+	/**
+	 * Read a geometry from hex well-known binary, including hex extended
+	 * well-known binary (PostGIS HEXEWKB), decoding the hex as it is read
+	 * 
+	 * @param hex
+	 *            hex characters
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.2.4
+	 */
+	public static Geometry readHex(CharSequence hex) throws IOException {
+		return readHex(hex, 0, hex.length());
+	}
+
+	/**
+	 * Read a geometry from a range of hex well-known binary, including hex
+	 * extended well-known binary (PostGIS HEXEWKB), decoding the hex as it is
+	 * read. Characters following the geometry within the range are an error.
+	 * 
+	 * @param hex
+	 *            hex characters
+	 * @param start
+	 *            start character index
+	 * @param end
+	 *            end character index, exclusive
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.2.4
+	 */
+	public static Geometry readHex(CharSequence hex, int start, int end)
+			throws IOException {
+		return readHexSRIDGeometry(hex, start, end).getGeometry();
+	}
+
+	/**
+	 * Read a geometry and extended well-known binary (PostGIS EWKB) SRID from
+	 * a range of hex well-known binary. Characters following the geometry
+	 * within the range are an error.
+	 * 
+	 * @param hex
+	 *            hex characters
+	 * @param start
+	 *            start character index
+	 * @param end
+	 *            end character index, exclusive
+	 * @return SRID geometry, with a null SRID when not included
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.2.4
+	 */
+	public static SRIDGeometry readHexSRIDGeometry(CharSequence hex,
+			int start, int end) throws IOException {
+		HexByteReader hexReader = new HexByteReader(hex, start, end);
+		GeometryReader reader = new GeometryReader(hexReader);
+		Geometry geometry = reader.read();
+		if (hexReader.hasRemaining()) {
+			throw new SFException(
+					"Unexpected hex characters following the geometry: "
+							+ hexReader.remaining() * 2);
+		}
+		return new SRIDGeometry(geometry, reader.getSrid());
+	}
+
+	/**
+	 * Asynchronously read a geometry from well-known bytes using the
+	 * {@link GeometryExecutors#getDefaultExecutor()}
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @return geometry future
+	 * @since 2.2.4
+	 */
+	public static CompletableFuture<Geometry> readGeometryAsync(byte[] bytes) {
+		return readGeometryAsync(bytes, GeometryExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * Asynchronously read a geometry from well-known bytes
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param executor
+	 *            executor
+	 * @return geometry future
+	 * @since 2.2.4
+	 */
+	public static CompletableFuture<Geometry> readGeometryAsync(byte[] bytes,
+			Executor executor) {
+		return readGeometryAsync(bytes, null, Geometry.class, executor);
+	}
+
+	/**
+	 * Asynchronously read a geometry from well-known bytes
+	 * 
+	 * @param bytes
+	 *            geometry bytes
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param executor
+	 *            executor
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry future, completed exceptionally upon failure to read
+	 * @since 2.2.4
+	 */
+	public static <T extends Geometry> CompletableFuture<T> readGeometryAsync(
+			final byte[] bytes, final GeometryFilter filter,
+			final Class<T> expectedType, Executor executor) {
+		final CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						future.complete(GeometryReader.readGeometry(
+								new ByteBufferReader(ByteBuffer.wrap(bytes)),
+								filter, expectedType));
+					} catch (Throwable e) {
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	/**
 	 * Byte Reader
 	 */
 	private ByteReader reader;
 
+	/**
+	 * Float32 coordinates flag of the geometry being read
+	 */
+	private boolean float32 = false;
+
+	/**
+	 * Fixed point x and y coordinates flag of the geometry being read
+	 */
+	private boolean fixedPoint = false;
+
+	/**
+	 * Fixed point origin x
+	 */
+	private double fixedPointOriginX = 0.0;
+
+	/**
+	 * Fixed point origin y
+	 */
+	private double fixedPointOriginY = 0.0;
+
+	/**
+	 * Fixed point scale, units per coordinate unit
+	 */
+	private double fixedPointScale = Double.NaN;
+
+	/**
+	 * Extended well-known binary SRID of the last geometry read
+	 */
+	private Integer srid = null;
+
 	/**
 	 * Constructor
 	 * 
@@ -159,6 +344,38 @@ public class GeometryReader {
 		reader.close();
 	}
 
+	/**
+	 * Set the origin and scale used to restore fixed point x and y coordinates,
+	 * see {@link GeometryWriter#setFixedPoint(double, double, double)}
+	 * 
+	 * @param originX
+	 *            origin x
+	 * @param originY
+	 *            origin y
+	 * @param scale
+	 *            fixed point units per coordinate unit
+	 * @since 2.2.4
+	 */
+	public void setFixedPoint(double originX, double originY, double scale) {
+		if (!(scale > 0) || Double.isInfinite(scale)) {
+			throw new SFException("Invalid fixed point scale: " + scale);
+		}
+		this.fixedPointOriginX = originX;
+		this.fixedPointOriginY = originY;
+		this.fixedPointScale = scale;
+	}
+
+	/**
+	 * Get the extended well-known binary (PostGIS EWKB) SRID of the last
+	 * geometry read, see {@link GeometryCodes#EWKB_SRID_FLAG}
+	 * 
+	 * @return SRID or null when not included
+	 * @since 2.2.4
+	 */
+	public Integer getSrid() {
+		return srid;
+	}
+
 	/**
 	 * Read a geometry from the byte reader
 	 * 
@@ -241,9 +458,11 @@ public class GeometryReader {
 			throws IOException {
 
 		ByteOrder originalByteOrder = reader.getByteOrder();
+		boolean originalFloat32 = float32;
+		boolean originalFixedPoint = fixedPoint;
 
 		// Read the byte order and geometry type
-		GeometryTypeInfo geometryTypeInfo = readGeometryType();
+		GeometryTypeInfo geometryTypeInfo = readHeader(containingType);
 
 		GeometryType geometryType = geometryTypeInfo.getGeometryType();
 		boolean hasZ = geometryTypeInfo.hasZ();
@@ -320,8 +539,10 @@ public class GeometryReader {
 					+ geometry.getClass().getSimpleName());
 		}
 
-		// Restore the byte order
+		// Restore the byte order and coordinate type
 		reader.setByteOrder(originalByteOrder);
+		float32 = originalFloat32;
+		fixedPoint = originalFixedPoint;
 
 		@SuppressWarnings("unchecked")
 		T result = (T) geometry;
@@ -329,6 +550,169 @@ public class GeometryReader {
 		return result;
 	}
 
+	/**
+	 * Traverse a geometry from the byte reader, reporting the structure and
+	 * point values to the handler without building geometries. Point values
+	 * are read directly as well-known binary values.
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to read or handle
+	 * @since 2.2.4
+	 */
+	public void traverse(GeometryHandler handler) throws IOException {
+		traverse(handler, null);
+	}
+
+	/**
+	 * Traverse a geometry from the byte reader
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @param containingType
+	 *            containing geometry type
+	 * @throws IOException
+	 *             upon failure to read or handle
+	 */
+	private void traverse(GeometryHandler handler,
+			GeometryType containingType) throws IOException {
+
+		ByteOrder originalByteOrder = reader.getByteOrder();
+		boolean originalFloat32 = float32;
+		boolean originalFixedPoint = fixedPoint;
+
+		GeometryTypeInfo geometryTypeInfo = readHeader(containingType);
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		boolean hasZ = geometryTypeInfo.hasZ();
+		boolean hasM = geometryTypeInfo.hasM();
+
+		handler.startGeometry(geometryType, hasZ, hasM, containingType);
+
+		switch (geometryType) {
+		case POINT:
+			traversePoint(handler, hasZ, hasM);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			traversePoints(handler, hasZ, hasM);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = readCount();
+			handler.startList(numRings);
+			for (int i = 0; i < numRings; i++) {
+				traversePoints(handler, hasZ, hasM);
+			}
+			handler.endList();
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numGeometries = readCount();
+			handler.startList(numGeometries);
+			for (int i = 0; i < numGeometries; i++) {
+				traverse(handler, geometryType);
+			}
+			handler.endList();
+			break;
+		default:
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+		handler.endGeometry();
+
+		// Restore the byte order and coordinate type
+		reader.setByteOrder(originalByteOrder);
+		float32 = originalFloat32;
+		fixedPoint = originalFixedPoint;
+	}
+
+	/**
+	 * Traverse a list of points
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @throws IOException
+	 *             upon failure to read or handle
+	 */
+	private void traversePoints(GeometryHandler handler, boolean hasZ,
+			boolean hasM) throws IOException {
+		int numPoints = readCount();
+		handler.startList(numPoints);
+		for (int i = 0; i < numPoints; i++) {
+			traversePoint(handler, hasZ, hasM);
+		}
+		handler.endList();
+	}
+
+	/**
+	 * Traverse a point
+	 * 
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @throws IOException
+	 *             upon failure to read or handle
+	 */
+	private void traversePoint(GeometryHandler handler, boolean hasZ,
+			boolean hasM) throws IOException {
+		double x = readX();
+		double y = readY();
+		double z = hasZ ? readCoordinate() : Double.NaN;
+		double m = hasM ? readCoordinate() : Double.NaN;
+		handler.point(x, y, z, m);
+	}
+
+	/**
+	 * Read the byte order, geometry type, and extended SRID of a geometry,
+	 * updating the coordinate type of the geometry being read
+	 * 
+	 * @param containingType
+	 *            containing geometry type or null for the top level geometry
+	 * @return geometry type info
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private GeometryTypeInfo readHeader(GeometryType containingType)
+			throws IOException {
+
+		if (containingType == null) {
+			srid = null;
+		}
+
+		GeometryTypeInfo geometryTypeInfo = readGeometryType();
+		if (geometryTypeInfo.hasSrid()) {
+			int geometrySrid = reader.readInt();
+			if (containingType == null) {
+				srid = geometrySrid;
+			}
+		}
+		float32 = geometryTypeInfo.isFloat32();
+		fixedPoint = geometryTypeInfo.isFixedPoint();
+		if (fixedPoint && Double.isNaN(fixedPointScale)) {
+			throw new SFException(
+					"Fixed point geometry requires the fixed point origin and scale");
+		}
+
+		return geometryTypeInfo;
+	}
+
 	/**
 	 * Read the geometry type info
 	 * 
@@ -348,12 +732,50 @@ public class GeometryReader {
 		// Read the geometry type unsigned integer
 		long unsignedGeometryTypeCode = reader.readUnsignedInt();
 
-		// Check for 2.5D geometry types
-		boolean hasZ = false;
-		if (unsignedGeometryTypeCode > WKB25D) {
-			hasZ = true;
-			unsignedGeometryTypeCode -= WKB25D;
-		}
+		return getGeometryTypeInfo(unsignedGeometryTypeCode);
+	}
+
+	/**
+	 * Read a count of points, rings, or geometries
+	 * 
+	 * @return count
+	 * @throws IOException
+	 *             upon failure to read
+	 * @since 2.2.4
+	 */
+	public int readCount() throws IOException {
+		return reader.readInt();
+	}
+
+	/**
+	 * Get the geometry type info from the unsigned geometry type code
+	 *
+	 * @param unsignedGeometryTypeCode
+	 *            unsigned geometry type code
+	 * @return geometry type info
+	 * @since 2.2.4
+	 */
+	public static GeometryTypeInfo getGeometryTypeInfo(
+			long unsignedGeometryTypeCode) {
+
+		// Check for float32 and fixed point coordinates
+		boolean float32 = (unsignedGeometryTypeCode
+				& GeometryCodes.FLOAT32_FLAG) != 0;
+		boolean fixedPoint = (unsignedGeometryTypeCode
+				& GeometryCodes.FIXED_POINT_FLAG) != 0;
+		unsignedGeometryTypeCode &= ~(GeometryCodes.FLOAT32_FLAG
+				| GeometryCodes.FIXED_POINT_FLAG);
+
+		// Check for extended (EWKB) z, m, and SRID flags, including 2.5D
+		// geometry types
+		boolean hasZ = (unsignedGeometryTypeCode
+				& GeometryCodes.EWKB_Z_FLAG) != 0;
+		boolean hasM = (unsignedGeometryTypeCode
+				& GeometryCodes.EWKB_M_FLAG) != 0;
+		boolean hasSrid = (unsignedGeometryTypeCode
+				& GeometryCodes.EWKB_SRID_FLAG) != 0;
+		unsignedGeometryTypeCode &= ~(GeometryCodes.EWKB_Z_FLAG
+				| GeometryCodes.EWKB_M_FLAG | GeometryCodes.EWKB_SRID_FLAG);
 
 		int geometryTypeCode = (int) unsignedGeometryTypeCode;
 
@@ -366,10 +788,12 @@ public class GeometryReader {
 		if (!hasZ) {
 			hasZ = GeometryCodes.hasZ(geometryTypeCode);
 		}
-		boolean hasM = GeometryCodes.hasM(geometryTypeCode);
+		if (!hasM) {
+			hasM = GeometryCodes.hasM(geometryTypeCode);
+		}
 
 		GeometryTypeInfo geometryInfo = new GeometryTypeInfo(geometryTypeCode,
-				geometryType, hasZ, hasM);
+				geometryType, hasZ, hasM, float32, fixedPoint, hasSrid);
 
 		return geometryInfo;
 	}
@@ -388,24 +812,75 @@ public class GeometryReader {
 	 */
 	public Point readPoint(boolean hasZ, boolean hasM) throws IOException {
 
-		double x = reader.readDouble();
-		double y = reader.readDouble();
+		double x = readX();
+		double y = readY();
 
 		Point point = new Point(hasZ, hasM, x, y);
 
 		if (hasZ) {
-			double z = reader.readDouble();
+			double z = readCoordinate();
 			point.setZ(z);
 		}
 
 		if (hasM) {
-			double m = reader.readDouble();
+			double m = readCoordinate();
 			point.setM(m);
 		}
 
 		return point;
 	}
 
+	/**
+	 * Read an x coordinate value as a fixed point, double, or float32 value
+	 * 
+	 * @return x value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private double readX() throws IOException {
+		double x;
+		if (fixedPoint) {
+			x = fixedPointOriginX + reader.readInt() / fixedPointScale;
+		} else {
+			x = readCoordinate();
+		}
+		return x;
+	}
+
+	/**
+	 * Read a y coordinate value as a fixed point, double, or float32 value
+	 * 
+	 * @return y value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private double readY() throws IOException {
+		double y;
+		if (fixedPoint) {
+			y = fixedPointOriginY + reader.readInt() / fixedPointScale;
+		} else {
+			y = readCoordinate();
+		}
+		return y;
+	}
+
+	/**
+	 * Read a coordinate value as a double or float32 value
+	 * 
+	 * @return coordinate value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private double readCoordinate() throws IOException {
+		double value;
+		if (float32) {
+			value = Float.intBitsToFloat(reader.readInt());
+		} else {
+			value = reader.readDouble();
+		}
+		return value;
+	}
+
 	/**
 	 * Read a Line String
 	 * 
@@ -443,7 +918,7 @@ public class GeometryReader {
 
 		LineString lineString = new LineString(hasZ, hasM);
 
-		int numPoints = reader.readInt();
+		int numPoints = readCount();
 
 		for (int i = 0; i < numPoints; i++) {
 			Point point = readPoint(hasZ, hasM);
@@ -491,7 +966,7 @@ public class GeometryReader {
 
 		Polygon polygon = new Polygon(hasZ, hasM);
 
-		int numRings = reader.readInt();
+		int numRings = readCount();
 
 		for (int i = 0; i < numRings; i++) {
 			LineString ring = readLineString(filter, hasZ, hasM);
@@ -540,7 +1015,7 @@ public class GeometryReader {
 
 		MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
 
-		int numPoints = reader.readInt();
+		int numPoints = readCount();
 
 		for (int i = 0; i < numPoints; i++) {
 			Point point = read(filter, GeometryType.MULTIPOINT, Point.class);
@@ -589,7 +1064,7 @@ public class GeometryReader {
 
 		MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
 
-		int numLineStrings = reader.readInt();
+		int numLineStrings = readCount();
 
 		for (int i = 0; i < numLineStrings; i++) {
 			LineString lineString = read(filter, GeometryType.MULTILINESTRING,
@@ -639,7 +1114,7 @@ public class GeometryReader {
 
 		MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
 
-		int numPolygons = reader.readInt();
+		int numPolygons = readCount();
 
 		for (int i = 0; i < numPolygons; i++) {
 			Polygon polygon = read(filter, GeometryType.MULTIPOLYGON,
@@ -691,7 +1166,7 @@ public class GeometryReader {
 		GeometryCollection<Geometry> geometryCollection = new GeometryCollection<Geometry>(
 				hasZ, hasM);
 
-		int numGeometries = reader.readInt();
+		int numGeometries = readCount();
 
 		for (int i = 0; i < numGeometries; i++) {
 			Geometry geometry = read(filter, GeometryType.GEOMETRYCOLLECTION,
@@ -741,7 +1216,7 @@ public class GeometryReader {
 
 		CircularString circularString = new CircularString(hasZ, hasM);
 
-		int numPoints = reader.readInt();
+		int numPoints = readCount();
 
 		for (int i = 0; i < numPoints; i++) {
 			Point point = readPoint(hasZ, hasM);
@@ -790,7 +1265,7 @@ public class GeometryReader {
 
 		CompoundCurve compoundCurve = new CompoundCurve(hasZ, hasM);
 
-		int numLineStrings = reader.readInt();
+		int numLineStrings = readCount();
 
 		for (int i = 0; i < numLineStrings; i++) {
 			LineString lineString = read(filter, GeometryType.COMPOUNDCURVE,
@@ -840,7 +1315,7 @@ public class GeometryReader {
 
 		CurvePolygon<Curve> curvePolygon = new CurvePolygon<Curve>(hasZ, hasM);
 
-		int numRings = reader.readInt();
+		int numRings = readCount();
 
 		for (int i = 0; i < numRings; i++) {
 			Curve ring = read(filter, GeometryType.CURVEPOLYGON, Curve.class);
@@ -889,7 +1364,7 @@ public class GeometryReader {
 
 		PolyhedralSurface polyhedralSurface = new PolyhedralSurface(hasZ, hasM);
 
-		int numPolygons = reader.readInt();
+		int numPolygons = readCount();
 
 		for (int i = 0; i < numPolygons; i++) {
 			Polygon polygon = read(filter, GeometryType.POLYHEDRALSURFACE,
@@ -938,7 +1413,7 @@ public class GeometryReader {
 
 		TIN tin = new TIN(hasZ, hasM);
 
-		int numPolygons = reader.readInt();
+		int numPolygons = readCount();
 
 		for (int i = 0; i < numPolygons; i++) {
 			Polygon polygon = read(filter, GeometryType.TIN, Polygon.class);
@@ -987,7 +1462,7 @@ public class GeometryReader {
 
 		Triangle triangle = new Triangle(hasZ, hasM);
 
-		int numRings = reader.readInt();
+		int numRings = readCount();
 
 		for (int i = 0; i < numRings; i++) {
 			LineString ring = readLineString(filter, hasZ, hasM);
@@ -1640,7 +2115,7 @@ public class GeometryReader {
 	 *            geometry or null
 	 * @return true if passes filter
 	 */
-	private static boolean filter(GeometryFilter filter,
+	static boolean filter(GeometryFilter filter,
 			GeometryType containingType, Geometry geometry) {
 		return filter == null || geometry == null
 				|| filter.filter(containingType, geometry);
@@ -0,0 +1,331 @@
+package mil.nga.sf.wkb;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Reads raw well-known binary geometry records from a stream of concatenated
+ * geometries. Record boundaries are found by walking the geometry structure
+ * (headers and counts) and copying the coordinate bytes without decoding them.
+ *
+ * @since 2.2.4
+ */
+public class GeometryRecordReader implements Closeable {
+
+	/**
+	 * Initial record buffer size
+	 */
+	private static final int INITIAL_BUFFER_SIZE = 1024;
+
+	/**
+	 * Maximum record size
+	 */
+	private static final int MAX_RECORD_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Maximum number of bytes copied at a time, bounding buffer growth to
+	 * the bytes actually read
+	 */
+	private static final int COPY_CHUNK_SIZE = 64 * 1024;
+
+	/**
+	 * Geometry header size, byte order byte and geometry type integer
+	 */
+	private static final int HEADER_SIZE = 5;
+
+	/**
+	 * Input stream
+	 */
+	private final DataInputStream input;
+
+	/**
+	 * Record buffer
+	 */
+	private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+	/**
+	 * Record buffer view, wrapping the record buffer
+	 */
+	private ByteBuffer view = ByteBuffer.wrap(buffer);
+
+	/**
+	 * Current record size
+	 */
+	private int size = 0;
+
+	/**
+	 * Number of records read
+	 */
+	private long count = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param inputStream
+	 *            input stream of concatenated well-known binary geometries
+	 */
+	public GeometryRecordReader(InputStream inputStream) {
+		if (!(inputStream instanceof BufferedInputStream)) {
+			inputStream = new BufferedInputStream(inputStream);
+		}
+		this.input = new DataInputStream(inputStream);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param channel
+	 *            readable byte channel of concatenated well-known binary
+	 *            geometries
+	 */
+	public GeometryRecordReader(ReadableByteChannel channel) {
+		this(Channels.newInputStream(channel));
+	}
+
+	/**
+	 * Get the number of records read
+	 *
+	 * @return record count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Determine if there is another record, blocking until a byte is
+	 * available or the end of the stream is reached
+	 *
+	 * @return true if another record exists
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public boolean hasRecord() throws IOException {
+		input.mark(1);
+		boolean hasRecord = input.read() != -1;
+		if (hasRecord) {
+			input.reset();
+		}
+		return hasRecord;
+	}
+
+	/**
+	 * Read the next record into a new byte array
+	 *
+	 * @return record bytes or null when no more records
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public byte[] readRecord() throws IOException {
+		byte[] record = null;
+		if (next()) {
+			record = Arrays.copyOf(buffer, size);
+		}
+		return record;
+	}
+
+	/**
+	 * Read the next record into the internal record buffer, returning a view
+	 * of the record. The view is only valid until the next read.
+	 *
+	 * @return record buffer view or null when no more records
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public ByteBuffer readRecordBuffer() throws IOException {
+		ByteBuffer record = null;
+		if (next()) {
+			record = ByteBuffer.wrap(buffer, 0, size).slice();
+		}
+		return record;
+	}
+
+	/**
+	 * Close the input stream
+	 */
+	@Override
+	public void close() throws IOException {
+		input.close();
+	}
+
+	/**
+	 * Read the next record into the record buffer
+	 *
+	 * @return true if a record was read, false if no more records
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private boolean next() throws IOException {
+		size = 0;
+		int first = input.read();
+		boolean read = first != -1;
+		if (read) {
+			ensureCapacity(1);
+			buffer[size++] = (byte) first;
+			copyGeometry(true);
+			count++;
+		}
+		return read;
+	}
+
+	/**
+	 * Copy a geometry from the input stream into the record buffer
+	 *
+	 * @param byteOrderRead
+	 *            true if the byte order byte has already been copied
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void copyGeometry(boolean byteOrderRead) throws IOException {
+
+		int headerStart = byteOrderRead ? size - 1 : size;
+		copy(byteOrderRead ? HEADER_SIZE - 1 : HEADER_SIZE);
+
+		ByteOrder byteOrder = buffer[headerStart] == 0 ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		view.order(byteOrder);
+		long unsignedGeometryTypeCode = view.getInt(headerStart + 1)
+				& 0xffffffffL;
+		GeometryTypeInfo geometryTypeInfo = GeometryReader
+				.getGeometryTypeInfo(unsignedGeometryTypeCode);
+
+		if (geometryTypeInfo.hasSrid()) {
+			copy(4);
+		}
+
+		GeometryType geometryType = geometryTypeInfo.getGeometryType();
+		int pointSize = geometryTypeInfo.getPointSize();
+
+		switch (geometryType) {
+		case POINT:
+			copy(pointSize);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			copyPoints(byteOrder, pointSize);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = copyCount(byteOrder);
+			for (int i = 0; i < numRings; i++) {
+				copyPoints(byteOrder, pointSize);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numGeometries = copyCount(byteOrder);
+			for (int i = 0; i < numGeometries; i++) {
+				copyGeometry(false);
+			}
+			break;
+		default:
+			throw new SFException("Unexpected Geometry Type of "
+					+ geometryType.name() + " which is abstract");
+		}
+
+	}
+
+	/**
+	 * Copy a count followed by that many points
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 * @param pointSize
+	 *            point size in bytes
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void copyPoints(ByteOrder byteOrder, int pointSize)
+			throws IOException {
+		int numPoints = copyCount(byteOrder);
+		copy((long) numPoints * pointSize);
+	}
+
+	/**
+	 * Copy a count integer and return the count value
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 * @return count
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private int copyCount(ByteOrder byteOrder) throws IOException {
+		int position = size;
+		copy(4);
+		int count = view.order(byteOrder).getInt(position);
+		if (count < 0) {
+			throw new SFException("Invalid count: " + count);
+		}
+		return count;
+	}
+
+	/**
+	 * Copy bytes from the input stream into the record buffer, in chunks so
+	 * that the buffer only grows as bytes are read
+	 *
+	 * @param length
+	 *            number of bytes
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private void copy(long length) throws IOException {
+		if (size + length > MAX_RECORD_SIZE) {
+			throw new SFException("Geometry record " + (count + 1)
+					+ " exceeds the maximum record size of "
+					+ MAX_RECORD_SIZE + " bytes. Length: "
+					+ (size + length));
+		}
+		int remaining = (int) length;
+		while (remaining > 0) {
+			int chunk = Math.min(remaining, COPY_CHUNK_SIZE);
+			ensureCapacity(chunk);
+			try {
+				input.readFully(buffer, size, chunk);
+			} catch (EOFException e) {
+				throw new SFException(
+						"Unexpected end of stream within geometry record "
+								+ (count + 1),
+						e);
+			}
+			size += chunk;
+			remaining -= chunk;
+		}
+	}
+
+	/**
+	 * Ensure the record buffer can hold additional bytes
+	 *
+	 * @param length
+	 *            additional bytes, within the maximum record size
+	 */
+	private void ensureCapacity(int length) {
+		int required = size + length;
+		if (required > buffer.length) {
+			int capacity = Math.max(required,
+					(int) Math.min(MAX_RECORD_SIZE, 2L * buffer.length));
+			buffer = Arrays.copyOf(buffer, capacity);
+			view = ByteBuffer.wrap(buffer);
+		}
+	}
+
+}
@@ -29,6 +29,21 @@ public class GeometryTypeInfo {
 	 */
 	private final boolean hasM;
 
+	/**
+	 * Float32 coordinates flag
+	 */
+	private final boolean float32;
+
+	/**
+	 * Fixed point x and y coordinates flag
+	 */
+	private final boolean fixedPoint;
+
+	/**
+	 * Extended well-known binary SRID flag
+	 */
+	private final boolean hasSrid;
+
 	/**
 	 * Constructor
 	 * 
@@ -43,10 +58,37 @@ public class GeometryTypeInfo {
 	 */
 	GeometryTypeInfo(int geometryTypeCode, GeometryType geometryType,
 			boolean hasZ, boolean hasM) {
+		this(geometryTypeCode, geometryType, hasZ, hasM, false, false, false);
+	}
+
+	/**
+	 * Constructor
+	 * 
+	 * @param geometryTypeCode
+	 *            geometry type code
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @param float32
+	 *            float32 coordinates
+	 * @param fixedPoint
+	 *            fixed point x and y coordinates
+	 * @param hasSrid
+	 *            has an extended well-known binary SRID
+	 */
+	GeometryTypeInfo(int geometryTypeCode, GeometryType geometryType,
+			boolean hasZ, boolean hasM, boolean float32, boolean fixedPoint,
+			boolean hasSrid) {
 		this.geometryTypeCode = geometryTypeCode;
 		this.geometryType = geometryType;
 		this.hasZ = hasZ;
 		this.hasM = hasM;
+		this.float32 = float32;
+		this.fixedPoint = fixedPoint;
+		this.hasSrid = hasSrid;
 	}
 
 	/**
@@ -85,4 +127,54 @@ public class GeometryTypeInfo {
 		return hasM;
 	}
 
+	/**
+	 * Are coordinates float32 values, see {@link GeometryCodes#FLOAT32_FLAG}
+	 * 
+	 * @return true if float32 coordinates
+	 * @since 2.2.4
+	 */
+	public boolean isFloat32() {
+		return float32;
+	}
+
+	/**
+	 * Are x and y coordinates int32 fixed point values, see
+	 * {@link GeometryCodes#FIXED_POINT_FLAG}
+	 * 
+	 * @return true if fixed point x and y coordinates
+	 * @since 2.2.4
+	 */
+	public boolean isFixedPoint() {
+		return fixedPoint;
+	}
+
+	/**
+	 * Is an int32 SRID following the geometry type code, see
+	 * {@link GeometryCodes#EWKB_SRID_FLAG}
+	 * 
+	 * @return true if has a SRID
+	 * @since 2.2.4
+	 */
+	public boolean hasSrid() {
+		return hasSrid;
+	}
+
+	/**
+	 * Get the size in bytes of each point
+	 * 
+	 * @return point size
+	 * @since 2.2.4
+	 */
+	public int getPointSize() {
+		int valueSize = float32 ? 4 : 8;
+		int size = fixedPoint ? 8 : 2 * valueSize;
+		if (hasZ) {
+			size += valueSize;
+		}
+		if (hasM) {
+			size += valueSize;
+		}
+		return size;
+	}
+
 }
@@ -2,6 +2,9 @@ package mil.nga.sf.wkb;
 
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import mil.nga.sf.CircularString;
 import mil.nga.sf.CompoundCurve;
@@ -68,11 +71,233 @@ public class GeometryWriter {
 		return bytes;
 	}
 
+	/**
+	 * Write a geometry to extended well-known binary (PostGIS EWKB) bytes
+	 * with a SRID
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @return extended well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int srid)
+			throws IOException {
+		return writeGeometry(geometry, srid, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Write a geometry to extended well-known binary (PostGIS EWKB) bytes
+	 * with a SRID
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @param byteOrder
+	 *            byte order
+	 * @return extended well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int srid,
+			ByteOrder byteOrder) throws IOException {
+		byte[] bytes = null;
+		GeometryWriter writer = new GeometryWriter(byteOrder);
+		try {
+			writer.write(geometry, srid);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Write a geometry to hex well-known binary
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return hex well-known binary
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static String writeHex(Geometry geometry) throws IOException {
+		StringBuilder hex = new StringBuilder();
+		writeHex(geometry, hex);
+		return hex.toString();
+	}
+
+	/**
+	 * Write a geometry as hex well-known binary directly to the appendable
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static void writeHex(Geometry geometry, Appendable appendable)
+			throws IOException {
+		writeHex(geometry, ByteWriter.DEFAULT_BYTE_ORDER, appendable);
+	}
+
+	/**
+	 * Write a geometry as hex well-known binary directly to the appendable
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static void writeHex(Geometry geometry, ByteOrder byteOrder,
+			Appendable appendable) throws IOException {
+		new GeometryWriter(new HexByteWriter(appendable, byteOrder))
+				.write(geometry);
+	}
+
+	/**
+	 * Write a geometry as hex extended well-known binary (PostGIS HEXEWKB)
+	 * with a SRID directly to the appendable
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @param byteOrder
+	 *            byte order
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public static void writeHex(Geometry geometry, int srid,
+			ByteOrder byteOrder, Appendable appendable) throws IOException {
+		new GeometryWriter(new HexByteWriter(appendable, byteOrder))
+				.write(geometry, srid);
+	}
+
+	/**
+	 * Asynchronously write a geometry to well-known bytes using the
+	 * {@link GeometryExecutors#getDefaultExecutor()}
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @return well-known bytes future
+	 * @since 2.2.4
+	 */
+	public static CompletableFuture<byte[]> writeGeometryAsync(
+			Geometry geometry) {
+		return writeGeometryAsync(geometry, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Asynchronously write a geometry to well-known bytes using the
+	 * {@link GeometryExecutors#getDefaultExecutor()}
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known bytes future
+	 * @since 2.2.4
+	 */
+	public static CompletableFuture<byte[]> writeGeometryAsync(
+			Geometry geometry, ByteOrder byteOrder) {
+		return writeGeometryAsync(geometry, byteOrder,
+				GeometryExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * Asynchronously write a geometry to well-known bytes
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @param executor
+	 *            executor
+	 * @return well-known bytes future, completed exceptionally upon failure to
+	 *         write
+	 * @since 2.2.4
+	 */
+	public static CompletableFuture<byte[]> writeGeometryAsync(
+			final Geometry geometry, final ByteOrder byteOrder,
+			Executor executor) {
+		final CompletableFuture<byte[]> future = new CompletableFuture<>();
+		try {
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						future.complete(writeGeometry(geometry, byteOrder));
+					} catch (Throwable e) {
+						future.completeExceptionally(e);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
 	/**
 	 * Byte Writer
 	 */
 	private ByteWriter writer;
 
+	/**
+	 * Write float32 coordinates flag
+	 */
+	private boolean float32 = false;
+
+	/**
+	 * Write fixed point x and y coordinates flag
+	 */
+	private boolean fixedPoint = false;
+
+	/**
+	 * Fixed point origin x
+	 */
+	private double fixedPointOriginX;
+
+	/**
+	 * Fixed point origin y
+	 */
+	private double fixedPointOriginY;
+
+	/**
+	 * Fixed point scale, units per coordinate unit
+	 */
+	private double fixedPointScale;
+
+	/**
+	 * Write extended well-known binary (PostGIS EWKB) geometry type codes flag
+	 */
+	private boolean extended = false;
+
+	/**
+	 * Extended well-known binary SRID to write with the next geometry type
+	 */
+	private Integer srid = null;
+
 	/**
 	 * Constructor
 	 * 
@@ -133,6 +358,125 @@ public class GeometryWriter {
 		writer.close();
 	}
 
+	/**
+	 * Is the writer writing float32 coordinates
+	 * 
+	 * @return true if writing float32 coordinates
+	 * @since 2.2.4
+	 */
+	public boolean isFloat32() {
+		return float32;
+	}
+
+	/**
+	 * Set the writer to write coordinates as IEEE 754 single precision floats
+	 * (float32), flagging geometry type codes with
+	 * {@link GeometryCodes#FLOAT32_FLAG}. Halves the coordinate size at a
+	 * relative error of at most 2^-24 of each value.
+	 * 
+	 * @param float32
+	 *            true to write float32 coordinates
+	 * @since 2.2.4
+	 */
+	public void setFloat32(boolean float32) {
+		this.float32 = float32;
+	}
+
+	/**
+	 * Is the writer writing fixed point x and y coordinates
+	 * 
+	 * @return true if writing fixed point coordinates
+	 * @since 2.2.4
+	 */
+	public boolean isFixedPoint() {
+		return fixedPoint;
+	}
+
+	/**
+	 * Set the writer to write x and y coordinates as int32 fixed point values,
+	 * round((value - origin) * scale), flagging geometry type codes with
+	 * {@link GeometryCodes#FIXED_POINT_FLAG}. For example, a 4096 unit tile
+	 * extent uses the tile minimum corner as the origin and 4096 divided by
+	 * the tile width as the scale. Readers restore the coordinates with
+	 * {@link GeometryReader#setFixedPoint(double, double, double)}. Z and m
+	 * values are not affected.
+	 * 
+	 * @param originX
+	 *            origin x
+	 * @param originY
+	 *            origin y
+	 * @param scale
+	 *            fixed point units per coordinate unit
+	 * @since 2.2.4
+	 */
+	public void setFixedPoint(double originX, double originY, double scale) {
+		if (!(scale > 0) || Double.isInfinite(scale)) {
+			throw new SFException("Invalid fixed point scale: " + scale);
+		}
+		this.fixedPoint = true;
+		this.fixedPointOriginX = originX;
+		this.fixedPointOriginY = originY;
+		this.fixedPointScale = scale;
+	}
+
+	/**
+	 * Stop writing fixed point x and y coordinates
+	 * 
+	 * @since 2.2.4
+	 */
+	public void clearFixedPoint() {
+		this.fixedPoint = false;
+	}
+
+	/**
+	 * Is the writer writing extended well-known binary (PostGIS EWKB) geometry
+	 * type codes
+	 * 
+	 * @return true if writing extended geometry type codes
+	 * @since 2.2.4
+	 */
+	public boolean isExtended() {
+		return extended;
+	}
+
+	/**
+	 * Set the writer to write extended well-known binary (PostGIS EWKB)
+	 * geometry type codes, flagging z and m values with
+	 * {@link GeometryCodes#EWKB_Z_FLAG} and {@link GeometryCodes#EWKB_M_FLAG}
+	 * instead of ISO code offsets
+	 * 
+	 * @param extended
+	 *            true to write extended geometry type codes
+	 * @since 2.2.4
+	 */
+	public void setExtended(boolean extended) {
+		this.extended = extended;
+	}
+
+	/**
+	 * Write a geometry to the byte writer as extended well-known binary
+	 * (PostGIS EWKB) with the SRID following the top level geometry type code
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public void write(Geometry geometry, int srid) throws IOException {
+		boolean originalExtended = extended;
+		extended = true;
+		this.srid = srid;
+		try {
+			write(geometry);
+		} finally {
+			extended = originalExtended;
+			this.srid = null;
+		}
+	}
+
 	/**
 	 * Write a geometry to the byte writer
 	 * 
@@ -144,14 +488,8 @@ public class GeometryWriter {
 	 */
 	public void write(Geometry geometry) throws IOException {
 
-		// Write the single byte order byte
-		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN
-				? (byte) 0
-				: (byte) 1;
-		writer.writeByte(byteOrder);
-
-		// Write the geometry type integer
-		writer.writeInt(GeometryCodes.getWKBCode(geometry));
+		// Write the byte order and geometry type
+		writeGeometryType(geometry);
 
 		GeometryType geometryType = geometry.getGeometryType();
 
@@ -208,6 +546,68 @@ public class GeometryWriter {
 
 	}
 
+	/**
+	 * Write the geometry byte order and type
+	 * 
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public void writeGeometryType(Geometry geometry) throws IOException {
+
+		// Write the single byte order byte
+		byte byteOrder = writer.getByteOrder() == ByteOrder.BIG_ENDIAN
+				? (byte) 0
+				: (byte) 1;
+		writer.writeByte(byteOrder);
+
+		// Write the geometry type integer
+		int code;
+		if (extended) {
+			code = GeometryCodes
+					.getCode(GeometryCodes.getWKBGeometryType(geometry));
+			if (geometry.hasZ()) {
+				code |= GeometryCodes.EWKB_Z_FLAG;
+			}
+			if (geometry.hasM()) {
+				code |= GeometryCodes.EWKB_M_FLAG;
+			}
+			if (srid != null) {
+				code |= GeometryCodes.EWKB_SRID_FLAG;
+			}
+		} else {
+			code = GeometryCodes.getWKBCode(geometry);
+		}
+		if (float32) {
+			code |= GeometryCodes.FLOAT32_FLAG;
+		}
+		if (fixedPoint) {
+			code |= GeometryCodes.FIXED_POINT_FLAG;
+		}
+		writer.writeInt(code);
+
+		// Write the SRID following the top level geometry type
+		if (extended && srid != null) {
+			writer.writeInt(srid);
+			srid = null;
+		}
+	}
+
+	/**
+	 * Write a count of points, rings, or geometries
+	 * 
+	 * @param count
+	 *            count
+	 * @throws IOException
+	 *             upon failure to write
+	 * @since 2.2.4
+	 */
+	public void writeCount(int count) throws IOException {
+		writer.writeInt(count);
+	}
+
 	/**
 	 * Write a Point
 	 * 
@@ -233,8 +633,13 @@ public class GeometryWriter {
 	 * @since 2.0.4
 	 */
 	public void writeXY(Point point) throws IOException {
-		writer.writeDouble(point.getX());
-		writer.writeDouble(point.getY());
+		if (fixedPoint) {
+			writer.writeInt(fixedPointValue(point.getX(), fixedPointOriginX));
+			writer.writeInt(fixedPointValue(point.getY(), fixedPointOriginY));
+		} else {
+			writeCoordinate(point.getX());
+			writeCoordinate(point.getY());
+		}
 	}
 
 	/**
@@ -248,7 +653,7 @@ public class GeometryWriter {
 	 */
 	public void writeZ(Point point) throws IOException {
 		if (point.hasZ()) {
-			writer.writeDouble(point.getZ());
+			writeCoordinate(point.getZ());
 		}
 	}
 
@@ -263,8 +668,43 @@ public class GeometryWriter {
 	 */
 	public void writeM(Point point) throws IOException {
 		if (point.hasM()) {
-			writer.writeDouble(point.getM());
+			writeCoordinate(point.getM());
+		}
+	}
+
+	/**
+	 * Write a coordinate value as a double or float32 value
+	 * 
+	 * @param value
+	 *            coordinate value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeCoordinate(double value) throws IOException {
+		if (float32) {
+			writer.writeInt(Float.floatToIntBits((float) value));
+		} else {
+			writer.writeDouble(value);
+		}
+	}
+
+	/**
+	 * Get the int32 fixed point value of a coordinate value
+	 * 
+	 * @param value
+	 *            coordinate value
+	 * @param origin
+	 *            origin value
+	 * @return fixed point value
+	 */
+	private int fixedPointValue(double value, double origin) {
+		double scaled = Math.rint((value - origin) * fixedPointScale);
+		if (!(scaled >= Integer.MIN_VALUE && scaled <= Integer.MAX_VALUE)) {
+			throw new SFException("Coordinate " + value
+					+ " is outside of the fixed point range of origin "
+					+ origin + " and scale " + fixedPointScale);
 		}
+		return (int) scaled;
 	}
 
 	/**
@@ -278,7 +718,7 @@ public class GeometryWriter {
 	 */
 	public void writeLineString(LineString lineString) throws IOException {
 
-		writer.writeInt(lineString.numPoints());
+		writeCount(lineString.numPoints());
 
 		for (Point point : lineString.getPoints()) {
 			writePoint(point);
@@ -297,7 +737,7 @@ public class GeometryWriter {
 	 */
 	public void writePolygon(Polygon polygon) throws IOException {
 
-		writer.writeInt(polygon.numRings());
+		writeCount(polygon.numRings());
 
 		for (LineString ring : polygon.getRings()) {
 			writeLineString(ring);
@@ -316,7 +756,7 @@ public class GeometryWriter {
 	 */
 	public void writeMultiPoint(MultiPoint multiPoint) throws IOException {
 
-		writer.writeInt(multiPoint.numPoints());
+		writeCount(multiPoint.numPoints());
 
 		for (Point point : multiPoint.getPoints()) {
 			write(point);
@@ -336,7 +776,7 @@ public class GeometryWriter {
 	public void writeMultiLineString(MultiLineString multiLineString)
 			throws IOException {
 
-		writer.writeInt(multiLineString.numLineStrings());
+		writeCount(multiLineString.numLineStrings());
 
 		for (LineString lineString : multiLineString.getLineStrings()) {
 			write(lineString);
@@ -356,7 +796,7 @@ public class GeometryWriter {
 	public void writeMultiPolygon(MultiPolygon multiPolygon)
 			throws IOException {
 
-		writer.writeInt(multiPolygon.numPolygons());
+		writeCount(multiPolygon.numPolygons());
 
 		for (Polygon polygon : multiPolygon.getPolygons()) {
 			write(polygon);
@@ -376,7 +816,7 @@ public class GeometryWriter {
 	public void writeGeometryCollection(
 			GeometryCollection<?> geometryCollection) throws IOException {
 
-		writer.writeInt(geometryCollection.numGeometries());
+		writeCount(geometryCollection.numGeometries());
 
 		for (Geometry geometry : geometryCollection.getGeometries()) {
 			write(geometry);
@@ -396,7 +836,7 @@ public class GeometryWriter {
 	public void writeCircularString(CircularString circularString)
 			throws IOException {
 
-		writer.writeInt(circularString.numPoints());
+		writeCount(circularString.numPoints());
 
 		for (Point point : circularString.getPoints()) {
 			writePoint(point);
@@ -416,7 +856,7 @@ public class GeometryWriter {
 	public void writeCompoundCurve(CompoundCurve compoundCurve)
 			throws IOException {
 
-		writer.writeInt(compoundCurve.numLineStrings());
+		writeCount(compoundCurve.numLineStrings());
 
 		for (LineString lineString : compoundCurve.getLineStrings()) {
 			write(lineString);
@@ -436,7 +876,7 @@ public class GeometryWriter {
 	public void writeCurvePolygon(CurvePolygon<?> curvePolygon)
 			throws IOException {
 
-		writer.writeInt(curvePolygon.numRings());
+		writeCount(curvePolygon.numRings());
 
 		for (Curve ring : curvePolygon.getRings()) {
 			write(ring);
@@ -456,7 +896,7 @@ public class GeometryWriter {
 	public void writePolyhedralSurface(PolyhedralSurface polyhedralSurface)
 			throws IOException {
 
-		writer.writeInt(polyhedralSurface.numPolygons());
+		writeCount(polyhedralSurface.numPolygons());
 
 		for (Polygon polygon : polyhedralSurface.getPolygons()) {
 			write(polygon);
@@ -475,7 +915,7 @@ public class GeometryWriter {
 	 */
 	public void writeTIN(TIN tin) throws IOException {
 
-		writer.writeInt(tin.numPolygons());
+		writeCount(tin.numPolygons());
 
 		for (Polygon polygon : tin.getPolygons()) {
 			write(polygon);
@@ -494,7 +934,7 @@ public class GeometryWriter {
 	 */
 	public void writeTriangle(Triangle triangle) throws IOException {
 
-		writer.writeInt(triangle.numRings());
+		writeCount(triangle.numRings());
 
 		for (LineString ring : triangle.getRings()) {
 			writeLineString(ring);
@@ -0,0 +1,84 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.util.SFException;
+
+/**
+ * Table driven hexadecimal byte conversion
+ *
+ * @since 2.2.4
+ */
+class Hex {
+
+	/**
+	 * Upper case hex digits by nibble value
+	 */
+	private static final char[] DIGITS = "0123456789ABCDEF".toCharArray();
+
+	/**
+	 * Nibble values by ASCII character, -1 for non hex digits
+	 */
+	private static final byte[] NIBBLES = new byte[128];
+
+	static {
+		for (int i = 0; i < NIBBLES.length; i++) {
+			NIBBLES[i] = -1;
+		}
+		for (int i = 0; i < 10; i++) {
+			NIBBLES['0' + i] = (byte) i;
+		}
+		for (int i = 0; i < 6; i++) {
+			NIBBLES['A' + i] = (byte) (10 + i);
+			NIBBLES['a' + i] = (byte) (10 + i);
+		}
+	}
+
+	/**
+	 * Decode the byte of the two hex digits at the index
+	 *
+	 * @param hex
+	 *            hex characters
+	 * @param index
+	 *            index of the high nibble digit
+	 * @return unsigned byte value
+	 */
+	static int decode(CharSequence hex, int index) {
+		return (nibble(hex, index) << 4) | nibble(hex, index + 1);
+	}
+
+	/**
+	 * Get the nibble value of the hex digit at the index
+	 *
+	 * @param hex
+	 *            hex characters
+	 * @param index
+	 *            digit index
+	 * @return nibble value
+	 */
+	private static int nibble(CharSequence hex, int index) {
+		char digit = hex.charAt(index);
+		int value = digit < NIBBLES.length ? NIBBLES[digit] : -1;
+		if (value < 0) {
+			throw new SFException(
+					"Invalid hex digit '" + digit + "' at index " + index);
+		}
+		return value;
+	}
+
+	/**
+	 * Append the byte as two upper case hex digits
+	 *
+	 * @param appendable
+	 *            appendable
+	 * @param value
+	 *            byte value
+	 * @throws IOException
+	 *             upon failure to append
+	 */
+	static void append(Appendable appendable, int value) throws IOException {
+		appendable.append(DIGITS[(value >> 4) & 0x0F]);
+		appendable.append(DIGITS[value & 0x0F]);
+	}
+
+}
@@ -0,0 +1,221 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Byte Reader decoding hexadecimal characters as they are read, without
+ * building a byte array
+ *
+ * @since 2.2.4
+ */
+public class HexByteReader extends ByteReader {
+
+	/**
+	 * Hex characters
+	 */
+	private final CharSequence hex;
+
+	/**
+	 * Start character index
+	 */
+	private final int start;
+
+	/**
+	 * End character index, exclusive
+	 */
+	private final int end;
+
+	/**
+	 * Next character index
+	 */
+	private int position;
+
+	/**
+	 * Constructor
+	 *
+	 * @param hex
+	 *            hex characters
+	 */
+	public HexByteReader(CharSequence hex) {
+		this(hex, 0, hex.length());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param hex
+	 *            hex characters
+	 * @param start
+	 *            start character index
+	 * @param end
+	 *            end character index, exclusive
+	 */
+	public HexByteReader(CharSequence hex, int start, int end) {
+		super((InputStream) null, ByteReader.DEFAULT_BYTE_ORDER);
+		if (start < 0 || end > hex.length() || start > end) {
+			throw new SFException("Invalid hex range. Length: " + hex.length()
+					+ ", Start: " + start + ", End: " + end);
+		}
+		if ((end - start) % 2 != 0) {
+			throw new SFException(
+					"Hex range has an odd number of digits: " + (end - start));
+		}
+		this.hex = hex;
+		this.start = start;
+		this.end = end;
+		this.position = start;
+	}
+
+	/**
+	 * Get the number of remaining bytes
+	 *
+	 * @return remaining bytes
+	 */
+	public int remaining() {
+		return (end - position) / 2;
+	}
+
+	/**
+	 * Determine if there are remaining bytes
+	 *
+	 * @return true if remaining bytes
+	 */
+	public boolean hasRemaining() {
+		return position < end;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Hex readers do not hold an input stream and always return null
+	 */
+	@Override
+	public InputStream getInputStream() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Hex readers do not hold bytes and always return null
+	 */
+	@Override
+	public byte[] getBytes() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int getNextByte() {
+		return (position - start) / 2;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte[] readBytes(int num) throws IOException {
+		verifyRemainingBytes(num);
+		byte[] bytes = new byte[num];
+		for (int i = 0; i < num; i++) {
+			bytes[i] = (byte) next();
+		}
+		return bytes;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public byte readByte() throws IOException {
+		verifyRemainingBytes(1);
+		return (byte) next();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int readInt() throws IOException {
+		verifyRemainingBytes(4);
+		int value = 0;
+		if (getByteOrder() == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < 4; i++) {
+				value = (value << 8) | next();
+			}
+		} else {
+			for (int i = 0; i < 4; i++) {
+				value |= next() << (8 * i);
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long readUnsignedInt() throws IOException {
+		return readInt() & 0xffffffffL;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double readDouble() throws IOException {
+		verifyRemainingBytes(8);
+		long value = 0;
+		if (getByteOrder() == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < 8; i++) {
+				value = (value << 8) | next();
+			}
+		} else {
+			for (int i = 0; i < 8; i++) {
+				value |= ((long) next()) << (8 * i);
+			}
+		}
+		return Double.longBitsToDouble(value);
+	}
+
+	/**
+	 * Decode the next byte
+	 *
+	 * @return unsigned byte value
+	 */
+	private int next() {
+		int value = Hex.decode(hex, position);
+		position += 2;
+		return value;
+	}
+
+	/**
+	 * Verify with the remaining bytes that there are enough remaining to read
+	 * the provided amount
+	 *
+	 * @param bytesToRead
+	 *            number of bytes to read
+	 */
+	private void verifyRemainingBytes(int bytesToRead) {
+		if (remaining() < bytesToRead) {
+			throw new SFException("No more remaining bytes to read. Total: "
+					+ (end - start) / 2 + ", Read: " + getNextByte()
+					+ ", Attempted to Read: " + bytesToRead);
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Byte Writer appending upper case hexadecimal characters directly to an
+ * {@link Appendable}, such as a {@link StringBuilder} or
+ * {@link java.io.Writer}, without buffering bytes
+ *
+ * @since 2.2.4
+ */
+public class HexByteWriter extends ByteWriter {
+
+	/**
+	 * Appendable
+	 */
+	private final Appendable appendable;
+
+	/**
+	 * Number of bytes written
+	 */
+	private int size = 0;
+
+	/**
+	 * Constructor
+	 *
+	 * @param appendable
+	 *            appendable
+	 */
+	public HexByteWriter(Appendable appendable) {
+		this(appendable, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param appendable
+	 *            appendable
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public HexByteWriter(Appendable appendable, ByteOrder byteOrder) {
+		super((OutputStream) null, byteOrder);
+		this.appendable = appendable;
+	}
+
+	/**
+	 * Get the appendable
+	 *
+	 * @return appendable
+	 */
+	public Appendable getAppendable() {
+		return appendable;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Hex writers do not hold an output stream and always return null
+	 */
+	@Override
+	public OutputStream getOutputStream() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Hex writers do not hold an output stream and always return null
+	 */
+	@Override
+	public ByteArrayOutputStream getByteArrayOutputStream() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Hex writers do not hold bytes and always return null
+	 */
+	@Override
+	public byte[] getBytes() {
+		return null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The appendable is not closed
+	 */
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeString(String value) throws IOException {
+		for (byte b : value.getBytes()) {
+			writeByte(b);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeByte(byte value) throws IOException {
+		Hex.append(appendable, value);
+		size++;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeInt(int value) throws IOException {
+		if (getByteOrder() == ByteOrder.BIG_ENDIAN) {
+			for (int shift = 24; shift >= 0; shift -= 8) {
+				Hex.append(appendable, value >> shift);
+			}
+		} else {
+			for (int shift = 0; shift < 32; shift += 8) {
+				Hex.append(appendable, value >> shift);
+			}
+		}
+		size += 4;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void writeDouble(double value) throws IOException {
+		long bits = Double.doubleToRawLongBits(value);
+		if (getByteOrder() == ByteOrder.BIG_ENDIAN) {
+			for (int shift = 56; shift >= 0; shift -= 8) {
+				Hex.append(appendable, (int) (bits >> shift));
+			}
+		} else {
+			for (int shift = 0; shift < 64; shift += 8) {
+				Hex.append(appendable, (int) (bits >> shift));
+			}
+		}
+		size += 8;
+	}
+
+}
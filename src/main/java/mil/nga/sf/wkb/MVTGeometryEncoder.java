@@ -0,0 +1,766 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Mapbox Vector Tile geometry command encoder. Geometries are traversed from
+ * well-known binary with {@link GeometryReader#traverse(GeometryHandler)} and
+ * written as MoveTo, LineTo, and ClosePath command integers with zig-zag
+ * encoded deltas. Coordinates are transformed from the tile bounds to the
+ * tile extent, clipped to the extent plus a buffer, and quantized in the same
+ * pass, without building geometries.
+ * <p>
+ * Points and multi points encode as points, line strings and multi line
+ * strings as lines, and polygons, triangles, multi polygons, polyhedral
+ * surfaces, and TINs as polygons. Rings are wound as required by the
+ * specification: exterior rings with a positive area in tile coordinates and
+ * interior rings with a negative area. Repeated points, collapsed lines, and
+ * zero area rings are dropped, along with the interior rings of a dropped
+ * exterior ring.
+ *
+ * @since 2.2.4
+ */
+public class MVTGeometryEncoder {
+
+	/**
+	 * Unknown geometry type
+	 */
+	public static final int UNKNOWN = 0;
+
+	/**
+	 * Point geometry type
+	 */
+	public static final int POINT = 1;
+
+	/**
+	 * Line string geometry type
+	 */
+	public static final int LINESTRING = 2;
+
+	/**
+	 * Polygon geometry type
+	 */
+	public static final int POLYGON = 3;
+
+	/**
+	 * Default tile extent
+	 */
+	public static final int DEFAULT_EXTENT = 4096;
+
+	/**
+	 * MoveTo command id
+	 */
+	private static final int MOVE_TO = 1;
+
+	/**
+	 * LineTo command id
+	 */
+	private static final int LINE_TO = 2;
+
+	/**
+	 * ClosePath command id
+	 */
+	private static final int CLOSE_PATH = 7;
+
+	/**
+	 * Tile bounds minimum x
+	 */
+	private final double minX;
+
+	/**
+	 * Tile bounds maximum y
+	 */
+	private final double maxY;
+
+	/**
+	 * X scale from bounds to extent
+	 */
+	private final double scaleX;
+
+	/**
+	 * Y scale from bounds to extent
+	 */
+	private final double scaleY;
+
+	/**
+	 * Tile extent
+	 */
+	private final int extent;
+
+	/**
+	 * Clip buffer in tile extent units
+	 */
+	private int buffer = 0;
+
+	/**
+	 * Encoded geometry type of the last geometry
+	 */
+	private int geometryType = UNKNOWN;
+
+	/**
+	 * Command integers
+	 */
+	private int[] commands = new int[64];
+
+	/**
+	 * Number of command integers
+	 */
+	private int size = 0;
+
+	/**
+	 * Reusable command handler
+	 */
+	private final CommandHandler handler = new CommandHandler();
+
+	/**
+	 * Constructor
+	 *
+	 * @param minX
+	 *            tile bounds minimum x
+	 * @param minY
+	 *            tile bounds minimum y
+	 * @param maxX
+	 *            tile bounds maximum x
+	 * @param maxY
+	 *            tile bounds maximum y
+	 */
+	public MVTGeometryEncoder(double minX, double minY, double maxX,
+			double maxY) {
+		this(minX, minY, maxX, maxY, DEFAULT_EXTENT);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param minX
+	 *            tile bounds minimum x
+	 * @param minY
+	 *            tile bounds minimum y
+	 * @param maxX
+	 *            tile bounds maximum x
+	 * @param maxY
+	 *            tile bounds maximum y
+	 * @param extent
+	 *            tile extent
+	 */
+	public MVTGeometryEncoder(double minX, double minY, double maxX,
+			double maxY, int extent) {
+		if (!(maxX > minX) || !(maxY > minY) || extent <= 0) {
+			throw new SFException("Invalid tile bounds or extent. Min X: "
+					+ minX + ", Min Y: " + minY + ", Max X: " + maxX
+					+ ", Max Y: " + maxY + ", Extent: " + extent);
+		}
+		this.minX = minX;
+		this.maxY = maxY;
+		this.scaleX = extent / (maxX - minX);
+		this.scaleY = extent / (maxY - minY);
+		this.extent = extent;
+	}
+
+	/**
+	 * Get the tile extent
+	 *
+	 * @return extent
+	 */
+	public int getExtent() {
+		return extent;
+	}
+
+	/**
+	 * Get the clip buffer in tile extent units
+	 *
+	 * @return buffer
+	 */
+	public int getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Set the clip buffer in tile extent units, clipping to the extent
+	 * expanded by the buffer on each side
+	 *
+	 * @param buffer
+	 *            buffer
+	 */
+	public void setBuffer(int buffer) {
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Get the encoded geometry type of the last geometry:
+	 * {@link #POINT}, {@link #LINESTRING}, {@link #POLYGON}, or
+	 * {@link #UNKNOWN}
+	 *
+	 * @return geometry type
+	 */
+	public int getGeometryType() {
+		return geometryType;
+	}
+
+	/**
+	 * Get the command buffer of the last geometry, valid to {@link #size()}
+	 *
+	 * @return command buffer
+	 */
+	public int[] getCommands() {
+		return commands;
+	}
+
+	/**
+	 * Get the number of command integers of the last geometry, zero when
+	 * clipped away entirely
+	 *
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Encode well-known binary to command integers
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return command integers, empty when clipped away entirely
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public int[] encode(byte[] bytes) throws IOException {
+		encode(new GeometryReader(new ByteReader(bytes)));
+		return Arrays.copyOf(commands, size);
+	}
+
+	/**
+	 * Encode the next well-known binary geometry into the command buffer,
+	 * see {@link #getCommands()} and {@link #size()}
+	 *
+	 * @param reader
+	 *            geometry reader
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public void encode(GeometryReader reader) throws IOException {
+		size = 0;
+		geometryType = UNKNOWN;
+		handler.reset();
+		reader.traverse(handler);
+	}
+
+	/**
+	 * Geometry handler writing commands
+	 */
+	private class CommandHandler implements GeometryHandler {
+
+		/**
+		 * Clip bounds minimum in tile extent units
+		 */
+		private double low;
+
+		/**
+		 * Clip bounds maximum in tile extent units
+		 */
+		private double high;
+
+		/**
+		 * Geometry depth
+		 */
+		private int depth = 0;
+
+		/**
+		 * Cursor x
+		 */
+		private int cursorX = 0;
+
+		/**
+		 * Cursor y
+		 */
+		private int cursorY = 0;
+
+		/**
+		 * Command position of the multi point MoveTo command
+		 */
+		private int pointCommand = -1;
+
+		/**
+		 * Number of encoded points
+		 */
+		private int pointCount = 0;
+
+		/**
+		 * Current simple geometry type
+		 */
+		private GeometryType simpleType = null;
+
+		/**
+		 * Open lists within the current polygon
+		 */
+		private int polygonLists = 0;
+
+		/**
+		 * Ring index within the current polygon
+		 */
+		private int ringIndex = -1;
+
+		/**
+		 * Exterior ring of the current polygon was encoded
+		 */
+		private boolean exterior = false;
+
+		/**
+		 * Transformed line or ring coordinates as x, y pairs
+		 */
+		private double[] coordinates = new double[64];
+
+		/**
+		 * Number of transformed points
+		 */
+		private int points = 0;
+
+		/**
+		 * Ring clipping scratch coordinates
+		 */
+		private double[] clipped = new double[64];
+
+		/**
+		 * Segment clip parameters
+		 */
+		private double t0, t1;
+
+		/**
+		 * Quantized part coordinates as x, y pairs
+		 */
+		private int[] part = new int[64];
+
+		/**
+		 * Number of quantized part points
+		 */
+		private int partPoints = 0;
+
+		/**
+		 * Reset the handler state for a new geometry
+		 */
+		private void reset() {
+			low = -buffer;
+			high = extent + buffer;
+			depth = 0;
+			cursorX = 0;
+			cursorY = 0;
+			pointCommand = -1;
+			pointCount = 0;
+			simpleType = null;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startGeometry(GeometryType type, boolean hasZ,
+				boolean hasM, GeometryType containingType) {
+			depth++;
+			if (containingType == null) {
+				geometryType = encodedType(type);
+				if (geometryType == POINT) {
+					pointCommand = size;
+					add(0);
+				}
+			}
+			switch (type) {
+			case POINT:
+			case LINESTRING:
+				simpleType = type;
+				points = 0;
+				break;
+			case POLYGON:
+			case TRIANGLE:
+				simpleType = type;
+				polygonLists = 0;
+				ringIndex = -1;
+				exterior = false;
+				break;
+			default:
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startList(int count) {
+			if (simpleType == GeometryType.POLYGON
+					|| simpleType == GeometryType.TRIANGLE) {
+				if (polygonLists++ > 0) {
+					ringIndex++;
+					points = 0;
+				}
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void point(double x, double y, double z, double m) {
+			double tileX = (x - minX) * scaleX;
+			double tileY = (maxY - y) * scaleY;
+			if (geometryType == POINT) {
+				if (tileX >= low && tileX <= high && tileY >= low
+						&& tileY <= high) {
+					moveCursor((int) Math.round(tileX),
+							(int) Math.round(tileY));
+					pointCount++;
+				}
+			} else {
+				if (2 * points + 2 > coordinates.length) {
+					coordinates = Arrays.copyOf(coordinates,
+							coordinates.length * 2);
+				}
+				coordinates[2 * points] = tileX;
+				coordinates[2 * points + 1] = tileY;
+				points++;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endList() {
+			if (simpleType == GeometryType.POLYGON
+					|| simpleType == GeometryType.TRIANGLE) {
+				if (--polygonLists == 1) {
+					if (ringIndex == 0 || exterior) {
+						boolean encoded = encodeRing(ringIndex == 0);
+						if (ringIndex == 0) {
+							exterior = encoded;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endGeometry() {
+			if (simpleType == GeometryType.LINESTRING) {
+				encodeLine();
+			}
+			simpleType = null;
+			if (--depth == 0 && pointCommand >= 0) {
+				if (pointCount > 0) {
+					commands[pointCommand] = command(MOVE_TO, pointCount);
+				} else {
+					size = pointCommand;
+				}
+				pointCommand = -1;
+			}
+		}
+
+		/**
+		 * Clip, quantize, and encode the transformed line as line parts
+		 */
+		private void encodeLine() {
+			partPoints = 0;
+			for (int i = 1; i < points; i++) {
+				double x0 = coordinates[2 * i - 2];
+				double y0 = coordinates[2 * i - 1];
+				double x1 = coordinates[2 * i];
+				double y1 = coordinates[2 * i + 1];
+				double dx = x1 - x0;
+				double dy = y1 - y0;
+
+				// Liang-Barsky segment clipping
+				t0 = 0;
+				t1 = 1;
+				boolean inside = clip(-dx, x0 - low) && clip(dx, high - x0)
+						&& clip(-dy, y0 - low) && clip(dy, high - y0);
+
+				if (!inside) {
+					flushLine();
+					continue;
+				}
+				if (partPoints == 0 || t0 > 0) {
+					flushLine();
+					addPartPoint(x0 + t0 * dx, y0 + t0 * dy);
+				}
+				addPartPoint(x0 + t1 * dx, y0 + t1 * dy);
+				if (t1 < 1) {
+					flushLine();
+				}
+			}
+			flushLine();
+		}
+
+		/**
+		 * Narrow the segment clip parameters against one clip edge
+		 *
+		 * @param p
+		 *            negative or positive segment delta toward the edge
+		 * @param q
+		 *            distance from the segment start to the edge
+		 * @return true if part of the segment remains
+		 */
+		private boolean clip(double p, double q) {
+			if (p == 0) {
+				return q >= 0;
+			}
+			double t = q / p;
+			if (p < 0) {
+				t0 = Math.max(t0, t);
+			} else {
+				t1 = Math.min(t1, t);
+			}
+			return t0 <= t1;
+		}
+
+		/**
+		 * Encode the quantized line part if it has at least two points
+		 */
+		private void flushLine() {
+			if (partPoints >= 2) {
+				add(command(MOVE_TO, 1));
+				moveCursor(part[0], part[1]);
+				add(command(LINE_TO, partPoints - 1));
+				for (int i = 1; i < partPoints; i++) {
+					moveCursor(part[2 * i], part[2 * i + 1]);
+				}
+			}
+			partPoints = 0;
+		}
+
+		/**
+		 * Clip, quantize, orient, and encode the transformed ring
+		 *
+		 * @param exteriorRing
+		 *            true for an exterior ring
+		 * @return true if encoded, false if dropped
+		 */
+		private boolean encodeRing(boolean exteriorRing) {
+
+			// Sutherland-Hodgman clipping against each clip edge
+			for (int edge = 0; edge < 4 && points > 0; edge++) {
+				if (clipped.length < 4 * points) {
+					clipped = new double[4 * points];
+				}
+				int count = 0;
+				for (int i = 0; i < points; i++) {
+					int j = (i + 1) % points;
+					double x0 = coordinates[2 * i];
+					double y0 = coordinates[2 * i + 1];
+					double x1 = coordinates[2 * j];
+					double y1 = coordinates[2 * j + 1];
+					boolean in0 = inside(edge, x0, y0);
+					boolean in1 = inside(edge, x1, y1);
+					if (in0) {
+						clipped[2 * count] = x0;
+						clipped[2 * count + 1] = y0;
+						count++;
+					}
+					if (in0 != in1) {
+						double bound = edge < 2 ? (edge == 0 ? low : high)
+								: (edge == 2 ? low : high);
+						double t = edge < 2 ? (bound - x0) / (x1 - x0)
+								: (bound - y0) / (y1 - y0);
+						clipped[2 * count] = edge < 2 ? bound
+								: x0 + t * (x1 - x0);
+						clipped[2 * count + 1] = edge < 2
+								? y0 + t * (y1 - y0)
+								: bound;
+						count++;
+					}
+				}
+				double[] swap = coordinates;
+				coordinates = clipped;
+				clipped = swap;
+				points = count;
+			}
+
+			partPoints = 0;
+			for (int i = 0; i < points; i++) {
+				addPartPoint(coordinates[2 * i], coordinates[2 * i + 1]);
+			}
+			if (partPoints > 1 && part[0] == part[2 * partPoints - 2]
+					&& part[1] == part[2 * partPoints - 1]) {
+				partPoints--;
+			}
+			if (partPoints < 3) {
+				return false;
+			}
+
+			long area = 0;
+			for (int i = 0; i < partPoints; i++) {
+				int j = (i + 1) % partPoints;
+				area += (long) part[2 * i] * part[2 * j + 1]
+						- (long) part[2 * j] * part[2 * i + 1];
+			}
+			if (area == 0) {
+				return false;
+			}
+			if ((area > 0) != exteriorRing) {
+				for (int i = 1, j = partPoints - 1; i < j; i++, j--) {
+					int x = part[2 * i];
+					int y = part[2 * i + 1];
+					part[2 * i] = part[2 * j];
+					part[2 * i + 1] = part[2 * j + 1];
+					part[2 * j] = x;
+					part[2 * j + 1] = y;
+				}
+			}
+
+			add(command(MOVE_TO, 1));
+			moveCursor(part[0], part[1]);
+			add(command(LINE_TO, partPoints - 1));
+			for (int i = 1; i < partPoints; i++) {
+				moveCursor(part[2 * i], part[2 * i + 1]);
+			}
+			add(command(CLOSE_PATH, 1));
+			partPoints = 0;
+
+			return true;
+		}
+
+		/**
+		 * Determine if a point is inside a clip edge
+		 *
+		 * @param edge
+		 *            edge: 0 minimum x, 1 maximum x, 2 minimum y, 3 maximum y
+		 * @param x
+		 *            x value
+		 * @param y
+		 *            y value
+		 * @return true if inside
+		 */
+		private boolean inside(int edge, double x, double y) {
+			boolean inside;
+			switch (edge) {
+			case 0:
+				inside = x >= low;
+				break;
+			case 1:
+				inside = x <= high;
+				break;
+			case 2:
+				inside = y >= low;
+				break;
+			default:
+				inside = y <= high;
+			}
+			return inside;
+		}
+
+		/**
+		 * Quantize and add a part point, skipping repeated points
+		 *
+		 * @param x
+		 *            tile x
+		 * @param y
+		 *            tile y
+		 */
+		private void addPartPoint(double x, double y) {
+			int quantizedX = (int) Math.round(x);
+			int quantizedY = (int) Math.round(y);
+			if (partPoints > 0 && part[2 * partPoints - 2] == quantizedX
+					&& part[2 * partPoints - 1] == quantizedY) {
+				return;
+			}
+			if (2 * partPoints + 2 > part.length) {
+				part = Arrays.copyOf(part, part.length * 2);
+			}
+			part[2 * partPoints] = quantizedX;
+			part[2 * partPoints + 1] = quantizedY;
+			partPoints++;
+		}
+
+		/**
+		 * Add the zig-zag encoded parameters moving the cursor to a point
+		 *
+		 * @param x
+		 *            tile x
+		 * @param y
+		 *            tile y
+		 */
+		private void moveCursor(int x, int y) {
+			add(zigZag(x - cursorX));
+			add(zigZag(y - cursorY));
+			cursorX = x;
+			cursorY = y;
+		}
+
+	}
+
+	/**
+	 * Get the encoded geometry type of a top level geometry type
+	 *
+	 * @param type
+	 *            geometry type
+	 * @return encoded geometry type
+	 */
+	private static int encodedType(GeometryType type) {
+		int encodedType;
+		switch (type) {
+		case POINT:
+		case MULTIPOINT:
+			encodedType = POINT;
+			break;
+		case LINESTRING:
+		case MULTILINESTRING:
+			encodedType = LINESTRING;
+			break;
+		case POLYGON:
+		case TRIANGLE:
+		case MULTIPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			encodedType = POLYGON;
+			break;
+		default:
+			throw new SFException("Geometry Type " + type.name()
+					+ " is not supported in vector tiles");
+		}
+		return encodedType;
+	}
+
+	/**
+	 * Create a command integer
+	 *
+	 * @param id
+	 *            command id
+	 * @param count
+	 *            command count
+	 * @return command integer
+	 */
+	private static int command(int id, int count) {
+		return (id & 0x7) | (count << 3);
+	}
+
+	/**
+	 * Zig-zag encode a parameter
+	 *
+	 * @param value
+	 *            value
+	 * @return encoded value
+	 */
+	private static int zigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	/**
+	 * Add a command integer
+	 *
+	 * @param value
+	 *            command integer
+	 */
+	private void add(int value) {
+		if (size == commands.length) {
+			commands = Arrays.copyOf(commands, size * 2);
+		}
+		commands[size++] = value;
+	}
+
+}
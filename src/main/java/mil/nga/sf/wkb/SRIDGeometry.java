@@ -0,0 +1,63 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.Geometry;
+
+/**
+ * Geometry with the spatial reference system id (SRID) stored alongside it,
+ * such as in extended well-known binary (PostGIS EWKB)
+ *
+ * @since 2.2.4
+ */
+public class SRIDGeometry {
+
+	/**
+	 * Geometry
+	 */
+	private final Geometry geometry;
+
+	/**
+	 * SRID
+	 */
+	private final Integer srid;
+
+	/**
+	 * Constructor
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID or null when not included
+	 */
+	public SRIDGeometry(Geometry geometry, Integer srid) {
+		this.geometry = geometry;
+		this.srid = srid;
+	}
+
+	/**
+	 * Get the geometry
+	 *
+	 * @return geometry
+	 */
+	public Geometry getGeometry() {
+		return geometry;
+	}
+
+	/**
+	 * Get the SRID
+	 *
+	 * @return SRID or null when not included
+	 */
+	public Integer getSrid() {
+		return srid;
+	}
+
+	/**
+	 * Has a SRID
+	 *
+	 * @return true if has a SRID
+	 */
+	public boolean hasSrid() {
+		return srid != null;
+	}
+
+}
@@ -0,0 +1,58 @@
+package mil.nga.sf.wkb;
+
+/**
+ * SpatiaLite BLOB geometry constants. A SpatiaLite geometry is a header with
+ * the SRID and minimum bounding rectangle (MBR) followed by a class typed
+ * geometry and an end marker.
+ *
+ * <pre>
+ * header:   start (0x00) | byte order (1 byte) | srid (int)
+ *           | minX | minY | maxX | maxY (doubles) | mbr end (0x7C)
+ * geometry: class type (int) | well-known binary geometry body
+ * entity:   entity (0x69) | class type (int) | well-known binary geometry body
+ * end:      end (0xFE)
+ * </pre>
+ *
+ * The byte order is 0 for big endian and 1 for little endian. Class types are
+ * the ISO geometry codes of the point through geometry collection types.
+ * Collection members are entities without byte order bytes. Compressed line
+ * strings and polygon rings, class types offset by {@link #COMPRESSED}, write
+ * the first and last points of each line as doubles and the x, y, and z values
+ * of the points between as float32 deltas from the previous point, with m
+ * values as doubles.
+ *
+ * @since 2.2.4
+ */
+public class SpatiaLiteGeometry {
+
+	/**
+	 * Start marker
+	 */
+	public static final byte START = 0x00;
+
+	/**
+	 * Minimum bounding rectangle end marker
+	 */
+	public static final byte MBR_END = 0x7C;
+
+	/**
+	 * Collection entity marker
+	 */
+	public static final byte ENTITY = 0x69;
+
+	/**
+	 * End marker
+	 */
+	public static final byte END = (byte) 0xFE;
+
+	/**
+	 * Header size in bytes, through the minimum bounding rectangle end marker
+	 */
+	public static final int HEADER_SIZE = 39;
+
+	/**
+	 * Compressed line string and polygon class type offset
+	 */
+	public static final int COMPRESSED = 1000000;
+
+}
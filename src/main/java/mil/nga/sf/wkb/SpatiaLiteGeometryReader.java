@@ -0,0 +1,314 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+import mil.nga.sf.util.filter.GeometryFilter;
+
+/**
+ * SpatiaLite BLOB geometry reader, see {@link SpatiaLiteGeometry}. The header
+ * is parsed on construction, exposing the SRID and minimum bounding rectangle
+ * without decoding the geometry. Geometries are decoded in place from the
+ * buffer with the {@link GeometryReader} traversal, including compressed line
+ * strings and polygons.
+ *
+ * @since 2.2.4
+ */
+public class SpatiaLiteGeometryReader {
+
+	/**
+	 * Read a geometry from SpatiaLite geometry bytes
+	 *
+	 * @param bytes
+	 *            SpatiaLite geometry bytes
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static Geometry readGeometry(byte[] bytes) throws IOException {
+		return new SpatiaLiteGeometryReader(bytes).read();
+	}
+
+	/**
+	 * Read the minimum bounding rectangle from SpatiaLite geometry bytes
+	 * without decoding the geometry
+	 *
+	 * @param bytes
+	 *            SpatiaLite geometry bytes
+	 * @return envelope
+	 */
+	public static GeometryEnvelope readEnvelope(byte[] bytes) {
+		return new SpatiaLiteGeometryReader(bytes).getEnvelope();
+	}
+
+	/**
+	 * Read a geometry and SRID from SpatiaLite geometry bytes
+	 *
+	 * @param bytes
+	 *            SpatiaLite geometry bytes
+	 * @return SRID geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static SRIDGeometry readSRIDGeometry(byte[] bytes)
+			throws IOException {
+		SpatiaLiteGeometryReader reader = new SpatiaLiteGeometryReader(bytes);
+		return new SRIDGeometry(reader.read(), reader.getSrid());
+	}
+
+	/**
+	 * Geometry bytes, positioned at the start of the header
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * SRID
+	 */
+	private final int srid;
+
+	/**
+	 * Minimum bounding rectangle
+	 */
+	private final GeometryEnvelope envelope;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            SpatiaLite geometry bytes
+	 */
+	public SpatiaLiteGeometryReader(byte[] bytes) {
+		this(ByteBuffer.wrap(bytes));
+	}
+
+	/**
+	 * Constructor, reads from the current position to the limit of the buffer
+	 * without modifying the provided buffer
+	 *
+	 * @param buffer
+	 *            SpatiaLite geometry byte buffer
+	 */
+	public SpatiaLiteGeometryReader(ByteBuffer buffer) {
+
+		this.buffer = buffer.duplicate();
+		int start = this.buffer.position();
+
+		if (this.buffer.remaining() < SpatiaLiteGeometry.HEADER_SIZE + 5
+				|| this.buffer.get(start) != SpatiaLiteGeometry.START
+				|| this.buffer.get(start + SpatiaLiteGeometry.HEADER_SIZE
+						- 1) != SpatiaLiteGeometry.MBR_END
+				|| this.buffer.get(this.buffer.limit()
+						- 1) != SpatiaLiteGeometry.END) {
+			throw new SFException("Not a SpatiaLite geometry");
+		}
+
+		byte endian = this.buffer.get(start + 1);
+		if (endian != 0 && endian != 1) {
+			throw new SFException(
+					"Invalid SpatiaLite geometry byte order: " + endian);
+		}
+		this.buffer.order(
+				endian == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+		srid = this.buffer.getInt(start + 2);
+		envelope = new GeometryEnvelope(this.buffer.getDouble(start + 6),
+				this.buffer.getDouble(start + 14),
+				this.buffer.getDouble(start + 22),
+				this.buffer.getDouble(start + 30));
+	}
+
+	/**
+	 * Get the byte order
+	 *
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return buffer.order();
+	}
+
+	/**
+	 * Get the SRID
+	 *
+	 * @return SRID
+	 */
+	public int getSrid() {
+		return srid;
+	}
+
+	/**
+	 * Get the minimum bounding rectangle without decoding the geometry
+	 *
+	 * @return envelope
+	 */
+	public GeometryEnvelope getEnvelope() {
+		return envelope;
+	}
+
+	/**
+	 * Read the geometry
+	 *
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read() throws IOException {
+		return read(null, null);
+	}
+
+	/**
+	 * Read the geometry
+	 *
+	 * @param filter
+	 *            geometry filter
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public <T extends Geometry> T read(GeometryFilter filter,
+			Class<T> expectedType) throws IOException {
+
+		ByteBuffer body = buffer.duplicate();
+		body.position(buffer.position() + SpatiaLiteGeometry.HEADER_SIZE);
+		body.limit(buffer.limit() - 1);
+		ByteBufferReader reader = new ByteBufferReader(body, buffer.order());
+
+		T geometry = new Decoder(reader).read(filter, expectedType);
+		if (reader.hasRemaining()) {
+			throw new SFException(
+					"Unexpected bytes following the SpatiaLite geometry: "
+							+ reader.remaining());
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Geometry reader reading SpatiaLite class types, entities, and compressed
+	 * line strings and polygons
+	 */
+	private static class Decoder extends GeometryReader {
+
+		/**
+		 * Geometry nesting depth
+		 */
+		private int depth = 0;
+
+		/**
+		 * Compressed line strings and polygons flag of the geometry being
+		 * read
+		 */
+		private boolean compressed = false;
+
+		/**
+		 * Constructor
+		 *
+		 * @param reader
+		 *            byte reader
+		 */
+		private Decoder(ByteReader reader) {
+			super(reader);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public <T extends Geometry> T read(GeometryFilter filter,
+				GeometryType containingType, Class<T> expectedType)
+				throws IOException {
+			depth++;
+			try {
+				return super.read(filter, containingType, expectedType);
+			} finally {
+				depth--;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public GeometryTypeInfo readGeometryType() throws IOException {
+
+			ByteReader reader = getByteReader();
+
+			if (depth > 1) {
+				byte entity = reader.readByte();
+				if (entity != SpatiaLiteGeometry.ENTITY) {
+					throw new SFException(
+							"Unexpected SpatiaLite entity marker: " + entity);
+				}
+			}
+
+			int code = reader.readInt();
+			compressed = code >= SpatiaLiteGeometry.COMPRESSED;
+			if (compressed) {
+				code -= SpatiaLiteGeometry.COMPRESSED;
+			}
+
+			return getGeometryTypeInfo(code);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public LineString readLineString(GeometryFilter filter, boolean hasZ,
+				boolean hasM) throws IOException {
+
+			if (!compressed) {
+				return super.readLineString(filter, hasZ, hasM);
+			}
+
+			ByteReader reader = getByteReader();
+
+			LineString lineString = new LineString(hasZ, hasM);
+
+			int numPoints = readCount();
+
+			double x = 0;
+			double y = 0;
+			double z = 0;
+			for (int i = 0; i < numPoints; i++) {
+				Point point;
+				if (i == 0 || i == numPoints - 1) {
+					point = readPoint(hasZ, hasM);
+					x = point.getX();
+					y = point.getY();
+					if (hasZ) {
+						z = point.getZ();
+					}
+				} else {
+					x += Float.intBitsToFloat(reader.readInt());
+					y += Float.intBitsToFloat(reader.readInt());
+					point = new Point(hasZ, hasM, x, y);
+					if (hasZ) {
+						z += Float.intBitsToFloat(reader.readInt());
+						point.setZ(z);
+					}
+					if (hasM) {
+						point.setM(reader.readDouble());
+					}
+				}
+				if (filter(filter, GeometryType.LINESTRING, point)) {
+					lineString.addPoint(point);
+				}
+			}
+
+			return lineString;
+		}
+
+	}
+
+}
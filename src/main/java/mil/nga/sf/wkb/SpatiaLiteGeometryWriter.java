@@ -0,0 +1,280 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * SpatiaLite BLOB geometry writer, see {@link SpatiaLiteGeometry}. Geometries
+ * are written with the {@link GeometryWriter} traversal, computing the minimum
+ * bounding rectangle in the same pass. Supports the point, line string,
+ * polygon, multi point, multi line string, multi polygon, and geometry
+ * collection types, with optionally compressed line strings and polygons.
+ *
+ * @since 2.2.4
+ */
+public class SpatiaLiteGeometryWriter {
+
+	/**
+	 * Write a geometry to SpatiaLite geometry bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @return SpatiaLite geometry bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int srid)
+			throws IOException {
+		return new SpatiaLiteGeometryWriter().write(geometry, srid);
+	}
+
+	/**
+	 * Byte order
+	 */
+	private final ByteOrder byteOrder;
+
+	/**
+	 * Write compressed line strings and polygons flag
+	 */
+	private boolean compressed = false;
+
+	/**
+	 * Constructor
+	 */
+	public SpatiaLiteGeometryWriter() {
+		this(ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public SpatiaLiteGeometryWriter(ByteOrder byteOrder) {
+		this.byteOrder = byteOrder;
+	}
+
+	/**
+	 * Get the byte order
+	 *
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	/**
+	 * Is the writer writing compressed line strings and polygons
+	 *
+	 * @return true if compressed
+	 */
+	public boolean isCompressed() {
+		return compressed;
+	}
+
+	/**
+	 * Set the writer to write compressed line strings and polygons, with the
+	 * points between the first and last of each line written as float32
+	 * deltas
+	 *
+	 * @param compressed
+	 *            true to write compressed line strings and polygons
+	 */
+	public void setCompressed(boolean compressed) {
+		this.compressed = compressed;
+	}
+
+	/**
+	 * Write a geometry to SpatiaLite geometry bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param srid
+	 *            SRID
+	 * @return SpatiaLite geometry bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public byte[] write(Geometry geometry, int srid) throws IOException {
+
+		Encoder encoder = new Encoder(byteOrder, compressed);
+		byte[] bytes;
+		try {
+			ByteWriter writer = encoder.getByteWriter();
+			writer.writeByte(SpatiaLiteGeometry.START);
+			writer.writeByte(
+					byteOrder == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+			writer.writeInt(srid);
+
+			// Reserve the minimum bounding rectangle, filled in once the
+			// geometry is written
+			writer.getOutputStream().write(new byte[4 * 8]);
+			writer.writeByte(SpatiaLiteGeometry.MBR_END);
+
+			encoder.write(geometry);
+			writer.writeByte(SpatiaLiteGeometry.END);
+			bytes = encoder.getBytes();
+		} finally {
+			encoder.close();
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(byteOrder);
+		buffer.position(6);
+		buffer.putDouble(encoder.getMin(EnvelopeGeometryWriter.X));
+		buffer.putDouble(encoder.getMin(EnvelopeGeometryWriter.Y));
+		buffer.putDouble(encoder.getMax(EnvelopeGeometryWriter.X));
+		buffer.putDouble(encoder.getMax(EnvelopeGeometryWriter.Y));
+
+		return bytes;
+	}
+
+	/**
+	 * Geometry writer writing SpatiaLite class types and entities
+	 */
+	private static class Encoder extends EnvelopeGeometryWriter {
+
+		/**
+		 * Write compressed line strings and polygons flag
+		 */
+		private final boolean compressed;
+
+		/**
+		 * Geometry nesting depth
+		 */
+		private int depth = 0;
+
+		/**
+		 * Constructor
+		 *
+		 * @param byteOrder
+		 *            byte order
+		 * @param compressed
+		 *            compressed line strings and polygons
+		 */
+		private Encoder(ByteOrder byteOrder, boolean compressed) {
+			super(byteOrder);
+			this.compressed = compressed;
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void write(Geometry geometry) throws IOException {
+			depth++;
+			try {
+				super.write(geometry);
+			} finally {
+				depth--;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeGeometryType(Geometry geometry) throws IOException {
+
+			GeometryType geometryType = GeometryCodes
+					.getWKBGeometryType(geometry);
+
+			switch (geometryType) {
+			case POINT:
+			case LINESTRING:
+			case POLYGON:
+				break;
+			case MULTIPOINT:
+			case MULTILINESTRING:
+			case MULTIPOLYGON:
+			case GEOMETRYCOLLECTION:
+				if (depth > 1) {
+					throw new SFException(
+							"SpatiaLite collections can not contain a "
+									+ geometryType.name());
+				}
+				break;
+			default:
+				throw new SFException(
+						"Geometry Type not supported by SpatiaLite: "
+								+ geometryType.name());
+			}
+
+			if (depth > 1) {
+				getByteWriter().writeByte(SpatiaLiteGeometry.ENTITY);
+			}
+
+			int code = GeometryCodes.getCode(geometryType, geometry.hasZ(),
+					geometry.hasM());
+			if (compressed && (geometryType == GeometryType.LINESTRING
+					|| geometryType == GeometryType.POLYGON)) {
+				code += SpatiaLiteGeometry.COMPRESSED;
+			}
+			getByteWriter().writeInt(code);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void writeLineString(LineString lineString) throws IOException {
+
+			if (!compressed) {
+				super.writeLineString(lineString);
+				return;
+			}
+
+			List<Point> points = lineString.getPoints();
+			int numPoints = points.size();
+			writeCount(numPoints);
+
+			ByteWriter writer = getByteWriter();
+			double x = 0;
+			double y = 0;
+			double z = 0;
+			for (int i = 0; i < numPoints; i++) {
+				Point point = points.get(i);
+				if (i == 0 || i == numPoints - 1) {
+					writePoint(point);
+					x = point.getX();
+					y = point.getY();
+					if (point.hasZ()) {
+						z = point.getZ();
+					}
+				} else {
+
+					// Deltas from the previous point as read, preventing
+					// accumulated rounding drift
+					float dx = (float) (point.getX() - x);
+					float dy = (float) (point.getY() - y);
+					writer.writeInt(Float.floatToIntBits(dx));
+					writer.writeInt(Float.floatToIntBits(dy));
+					x += dx;
+					y += dy;
+					expand(X, point.getX());
+					expand(Y, point.getY());
+					if (point.hasZ()) {
+						float dz = (float) (point.getZ() - z);
+						writer.writeInt(Float.floatToIntBits(dz));
+						z += dz;
+						expand(Z, point.getZ());
+					}
+					writeM(point);
+				}
+			}
+		}
+
+	}
+
+}
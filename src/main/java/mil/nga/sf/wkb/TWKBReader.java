@@ -0,0 +1,439 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Tiny Well Known Binary (TWKB) reader. See {@link TWKBWriter} for the
+ * supported geometry types.
+ *
+ * @since 2.2.4
+ */
+public class TWKBReader {
+
+	/**
+	 * Read a geometry from tiny well-known bytes
+	 *
+	 * @param bytes
+	 *            tiny well-known bytes
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static Geometry readGeometry(byte[] bytes) throws IOException {
+		return readGeometry(bytes, Geometry.class);
+	}
+
+	/**
+	 * Read a geometry from tiny well-known bytes
+	 *
+	 * @param bytes
+	 *            tiny well-known bytes
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static <T extends Geometry> T readGeometry(byte[] bytes,
+			Class<T> expectedType) throws IOException {
+		T geometry = null;
+		TWKBReader reader = new TWKBReader(bytes);
+		try {
+			geometry = reader.read(expectedType);
+		} finally {
+			reader.close();
+		}
+		return geometry;
+	}
+
+	/**
+	 * Byte Reader
+	 */
+	private final ByteReader reader;
+
+	/**
+	 * Ids of the child geometries of the last read geometry
+	 */
+	private long[] ids;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            tiny well-known bytes
+	 */
+	public TWKBReader(byte[] bytes) {
+		this(new ByteReader(bytes));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param reader
+	 *            byte reader
+	 */
+	public TWKBReader(ByteReader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Get the byte reader
+	 *
+	 * @return byte reader
+	 */
+	public ByteReader getByteReader() {
+		return reader;
+	}
+
+	/**
+	 * Close the byte reader
+	 */
+	public void close() {
+		reader.close();
+	}
+
+	/**
+	 * Get the id list of the child geometries of the last read geometry
+	 *
+	 * @return ids or null if the geometry did not have an id list
+	 */
+	public long[] getIds() {
+		return ids;
+	}
+
+	/**
+	 * Read a geometry from the byte reader
+	 *
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public Geometry read() throws IOException {
+		return read(Geometry.class);
+	}
+
+	/**
+	 * Read a geometry from the byte reader
+	 *
+	 * @param expectedType
+	 *            expected type
+	 * @param <T>
+	 *            geometry type
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public <T extends Geometry> T read(Class<T> expectedType)
+			throws IOException {
+		ids = null;
+		Geometry geometry = read(true);
+		if (expectedType != null
+				&& !expectedType.isAssignableFrom(geometry.getClass())) {
+			throw new SFException("Unexpected Geometry Type. Expected: "
+					+ expectedType.getSimpleName() + ", Actual: "
+					+ geometry.getClass().getSimpleName());
+		}
+		@SuppressWarnings("unchecked")
+		T result = (T) geometry;
+		return result;
+	}
+
+	/**
+	 * Read a geometry
+	 *
+	 * @param topLevel
+	 *            true if the top level geometry, retaining its id list
+	 * @return geometry
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private Geometry read(boolean topLevel) throws IOException {
+
+		int typeAndPrecision = reader.readByte() & 0xFF;
+		int type = typeAndPrecision & 0x0F;
+		int[] precisions = new int[4];
+		precisions[0] = (int) Varint.unZigZag(typeAndPrecision >> 4);
+		precisions[1] = precisions[0];
+
+		int metadata = reader.readByte() & 0xFF;
+		boolean hasZ = false;
+		boolean hasM = false;
+		if ((metadata & TWKBWriter.EXTENDED_PRECISION_FLAG) != 0) {
+			int extended = reader.readByte() & 0xFF;
+			hasZ = (extended & 0x01) != 0;
+			hasM = (extended & 0x02) != 0;
+			int dimension = 2;
+			if (hasZ) {
+				precisions[dimension++] = (extended >> 2) & 0x07;
+			}
+			if (hasM) {
+				precisions[dimension] = (extended >> 5) & 0x07;
+			}
+		}
+
+		GeometryType geometryType = getGeometryType(type);
+
+		if ((metadata & TWKBWriter.EMPTY_FLAG) != 0) {
+			return createEmpty(geometryType, hasZ, hasM);
+		}
+
+		if ((metadata & TWKBWriter.SIZE_FLAG) != 0) {
+			Varint.readUnsigned(reader);
+		}
+		if ((metadata & TWKBWriter.BOUNDING_BOX_FLAG) != 0) {
+			int dimensions = TWKBWriter.dimensions(hasZ, hasM);
+			for (int i = 0; i < dimensions * 2; i++) {
+				Varint.readSigned(reader);
+			}
+		}
+		boolean idList = (metadata & TWKBWriter.ID_LIST_FLAG) != 0;
+
+		long[] last = new long[4];
+		Geometry geometry;
+
+		switch (geometryType) {
+		case POINT:
+			geometry = readPoint(hasZ, hasM, precisions, last);
+			break;
+		case LINESTRING:
+			geometry = readLineString(hasZ, hasM, precisions, last);
+			break;
+		case POLYGON:
+			geometry = readPolygon(hasZ, hasM, precisions, last);
+			break;
+		case MULTIPOINT:
+			MultiPoint multiPoint = new MultiPoint(hasZ, hasM);
+			int numPoints = readIds(idList, topLevel);
+			for (int i = 0; i < numPoints; i++) {
+				multiPoint.addPoint(readPoint(hasZ, hasM, precisions, last));
+			}
+			geometry = multiPoint;
+			break;
+		case MULTILINESTRING:
+			MultiLineString multiLineString = new MultiLineString(hasZ, hasM);
+			int numLineStrings = readIds(idList, topLevel);
+			for (int i = 0; i < numLineStrings; i++) {
+				multiLineString.addLineString(
+						readLineString(hasZ, hasM, precisions, last));
+			}
+			geometry = multiLineString;
+			break;
+		case MULTIPOLYGON:
+			MultiPolygon multiPolygon = new MultiPolygon(hasZ, hasM);
+			int numPolygons = readIds(idList, topLevel);
+			for (int i = 0; i < numPolygons; i++) {
+				multiPolygon.addPolygon(
+						readPolygon(hasZ, hasM, precisions, last));
+			}
+			geometry = multiPolygon;
+			break;
+		case GEOMETRYCOLLECTION:
+			GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+					hasZ, hasM);
+			int numGeometries = readIds(idList, topLevel);
+			for (int i = 0; i < numGeometries; i++) {
+				geometryCollection.addGeometry(read(false));
+			}
+			geometry = geometryCollection;
+			break;
+		default:
+			throw new SFException(
+					"Geometry Type not supported by TWKB: " + geometryType);
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Read the child count and optional id list
+	 *
+	 * @param idList
+	 *            true if an id list follows the count
+	 * @param topLevel
+	 *            true to retain the id list
+	 * @return child count
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private int readIds(boolean idList, boolean topLevel) throws IOException {
+		int count = Varint.readCount(reader);
+		if (idList) {
+			long[] childIds = new long[count];
+			for (int i = 0; i < count; i++) {
+				childIds[i] = Varint.readSigned(reader);
+			}
+			if (topLevel) {
+				ids = childIds;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Read a polygon
+	 *
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param precisions
+	 *            dimension precisions
+	 * @param last
+	 *            previous quantized coordinate
+	 * @return polygon
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private Polygon readPolygon(boolean hasZ, boolean hasM, int[] precisions,
+			long[] last) throws IOException {
+		Polygon polygon = new Polygon(hasZ, hasM);
+		int numRings = Varint.readCount(reader);
+		for (int i = 0; i < numRings; i++) {
+			polygon.addRing(readLineString(hasZ, hasM, precisions, last));
+		}
+		return polygon;
+	}
+
+	/**
+	 * Read a line string
+	 *
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param precisions
+	 *            dimension precisions
+	 * @param last
+	 *            previous quantized coordinate
+	 * @return line string
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private LineString readLineString(boolean hasZ, boolean hasM,
+			int[] precisions, long[] last) throws IOException {
+		LineString lineString = new LineString(hasZ, hasM);
+		int numPoints = Varint.readCount(reader);
+		for (int i = 0; i < numPoints; i++) {
+			lineString.addPoint(readPoint(hasZ, hasM, precisions, last));
+		}
+		return lineString;
+	}
+
+	/**
+	 * Read a point from deltas of the previous coordinate
+	 *
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param precisions
+	 *            dimension precisions
+	 * @param last
+	 *            previous quantized coordinate
+	 * @return point
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private Point readPoint(boolean hasZ, boolean hasM, int[] precisions,
+			long[] last) throws IOException {
+		double x = readValue(0, precisions, last);
+		double y = readValue(1, precisions, last);
+		Point point = new Point(hasZ, hasM, x, y);
+		int dimension = 2;
+		if (hasZ) {
+			point.setZ(readValue(dimension++, precisions, last));
+		}
+		if (hasM) {
+			point.setM(readValue(dimension, precisions, last));
+		}
+		return point;
+	}
+
+	/**
+	 * Read a delta value
+	 *
+	 * @param dimension
+	 *            dimension index
+	 * @param precisions
+	 *            dimension precisions
+	 * @param last
+	 *            previous quantized coordinate
+	 * @return value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	private double readValue(int dimension, int[] precisions, long[] last)
+			throws IOException {
+		last[dimension] += Varint.readSigned(reader);
+		return TWKBWriter.restore(last[dimension], precisions[dimension]);
+	}
+
+	/**
+	 * Get the geometry type of the TWKB type
+	 *
+	 * @param type
+	 *            TWKB type
+	 * @return geometry type
+	 */
+	private static GeometryType getGeometryType(int type) {
+		if (type < 1 || type > 7) {
+			throw new SFException("Unsupported TWKB geometry type: " + type);
+		}
+		return GeometryCodes.getGeometryType(type);
+	}
+
+	/**
+	 * Create an empty geometry
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return empty geometry
+	 */
+	private static Geometry createEmpty(GeometryType geometryType,
+			boolean hasZ, boolean hasM) {
+		Geometry geometry;
+		switch (geometryType) {
+		case POINT:
+			geometry = new Point(hasZ, hasM, Double.NaN, Double.NaN);
+			break;
+		case LINESTRING:
+			geometry = new LineString(hasZ, hasM);
+			break;
+		case POLYGON:
+			geometry = new Polygon(hasZ, hasM);
+			break;
+		case MULTIPOINT:
+			geometry = new MultiPoint(hasZ, hasM);
+			break;
+		case MULTILINESTRING:
+			geometry = new MultiLineString(hasZ, hasM);
+			break;
+		case MULTIPOLYGON:
+			geometry = new MultiPolygon(hasZ, hasM);
+			break;
+		default:
+			geometry = new GeometryCollection<Geometry>(hasZ, hasM);
+			break;
+		}
+		return geometry;
+	}
+
+}
@@ -0,0 +1,766 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.List;
+
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Tiny Well Known Binary (TWKB) writer. Coordinates are quantized to a decimal
+ * precision, delta encoded from the previous coordinate, and written as
+ * zig-zag variable length integers. Supports the point, line string, polygon,
+ * multi point, multi line string, multi polygon, and geometry collection
+ * types defined by the TWKB specification, with optional bounding box, size,
+ * and id list headers.
+ *
+ * @since 2.2.4
+ */
+public class TWKBWriter {
+
+	/**
+	 * Metadata header bounding box flag
+	 */
+	public static final int BOUNDING_BOX_FLAG = 0x01;
+
+	/**
+	 * Metadata header size flag
+	 */
+	public static final int SIZE_FLAG = 0x02;
+
+	/**
+	 * Metadata header id list flag
+	 */
+	public static final int ID_LIST_FLAG = 0x04;
+
+	/**
+	 * Metadata header extended precision flag
+	 */
+	public static final int EXTENDED_PRECISION_FLAG = 0x08;
+
+	/**
+	 * Metadata header empty geometry flag
+	 */
+	public static final int EMPTY_FLAG = 0x10;
+
+	/**
+	 * Minimum x and y precision
+	 */
+	public static final int MIN_PRECISION = -8;
+
+	/**
+	 * Maximum x and y precision
+	 */
+	public static final int MAX_PRECISION = 7;
+
+	/**
+	 * Maximum z and m precision
+	 */
+	public static final int MAX_ZM_PRECISION = 7;
+
+	/**
+	 * Powers of ten by precision
+	 */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8 };
+
+	/**
+	 * Write a geometry to tiny well-known bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param precision
+	 *            decimal precision of x, y, z, and m values
+	 * @return tiny well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int precision)
+			throws IOException {
+		return writeGeometry(geometry, precision,
+				Math.max(0, Math.min(precision, MAX_ZM_PRECISION)),
+				Math.max(0, Math.min(precision, MAX_ZM_PRECISION)));
+	}
+
+	/**
+	 * Write a geometry to tiny well-known bytes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param precision
+	 *            decimal precision of x and y values
+	 * @param precisionZ
+	 *            decimal precision of z values
+	 * @param precisionM
+	 *            decimal precision of m values
+	 * @return tiny well-known bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public static byte[] writeGeometry(Geometry geometry, int precision,
+			int precisionZ, int precisionM) throws IOException {
+		byte[] bytes = null;
+		TWKBWriter writer = new TWKBWriter(precision, precisionZ, precisionM);
+		try {
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Quantize a value to the decimal precision
+	 *
+	 * @param value
+	 *            value
+	 * @param precision
+	 *            decimal precision
+	 * @return quantized value
+	 */
+	static long quantize(double value, int precision) {
+		long quantized;
+		if (precision >= 0) {
+			quantized = Math.round(value * POWERS_OF_TEN[precision]);
+		} else {
+			quantized = Math.round(value / POWERS_OF_TEN[-precision]);
+		}
+		return quantized;
+	}
+
+	/**
+	 * Restore a quantized value from the decimal precision
+	 *
+	 * @param value
+	 *            quantized value
+	 * @param precision
+	 *            decimal precision
+	 * @return value
+	 */
+	static double restore(long value, int precision) {
+		double restored;
+		if (precision >= 0) {
+			restored = value / POWERS_OF_TEN[precision];
+		} else {
+			restored = value * POWERS_OF_TEN[-precision];
+		}
+		return restored;
+	}
+
+	/**
+	 * Byte Writer
+	 */
+	private final ByteWriter writer;
+
+	/**
+	 * X and Y precision
+	 */
+	private final int precision;
+
+	/**
+	 * Z precision
+	 */
+	private final int precisionZ;
+
+	/**
+	 * M precision
+	 */
+	private final int precisionM;
+
+	/**
+	 * Include bounding box header flag
+	 */
+	private boolean includeBoundingBox = false;
+
+	/**
+	 * Include size header flag
+	 */
+	private boolean includeSize = false;
+
+	/**
+	 * Constructor
+	 *
+	 * @param precision
+	 *            decimal precision of x and y values, z and m values when
+	 *            present use the same precision limited to 0 through 7
+	 */
+	public TWKBWriter(int precision) {
+		this(precision, Math.max(0, Math.min(precision, MAX_ZM_PRECISION)),
+				Math.max(0, Math.min(precision, MAX_ZM_PRECISION)));
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param precision
+	 *            decimal precision of x and y values, -8 through 7
+	 * @param precisionZ
+	 *            decimal precision of z values, 0 through 7
+	 * @param precisionM
+	 *            decimal precision of m values, 0 through 7
+	 */
+	public TWKBWriter(int precision, int precisionZ, int precisionM) {
+		this(new ByteWriter(), precision, precisionZ, precisionM);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param writer
+	 *            byte writer
+	 * @param precision
+	 *            decimal precision of x and y values, -8 through 7
+	 * @param precisionZ
+	 *            decimal precision of z values, 0 through 7
+	 * @param precisionM
+	 *            decimal precision of m values, 0 through 7
+	 */
+	public TWKBWriter(ByteWriter writer, int precision, int precisionZ,
+			int precisionM) {
+		if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+			throw new SFException("TWKB precision must be between "
+					+ MIN_PRECISION + " and " + MAX_PRECISION + ": "
+					+ precision);
+		}
+		if (precisionZ < 0 || precisionZ > MAX_ZM_PRECISION
+				|| precisionM < 0 || precisionM > MAX_ZM_PRECISION) {
+			throw new SFException(
+					"TWKB z and m precisions must be between 0 and "
+							+ MAX_ZM_PRECISION + ": " + precisionZ + ", "
+							+ precisionM);
+		}
+		this.writer = writer;
+		this.precision = precision;
+		this.precisionZ = precisionZ;
+		this.precisionM = precisionM;
+	}
+
+	/**
+	 * Get the byte writer
+	 *
+	 * @return byte writer
+	 */
+	public ByteWriter getByteWriter() {
+		return writer;
+	}
+
+	/**
+	 * Get the written bytes
+	 *
+	 * @return written bytes
+	 */
+	public byte[] getBytes() {
+		return writer.getBytes();
+	}
+
+	/**
+	 * Close the byte writer
+	 */
+	public void close() {
+		writer.close();
+	}
+
+	/**
+	 * Is the bounding box header included
+	 *
+	 * @return true if included
+	 */
+	public boolean isIncludeBoundingBox() {
+		return includeBoundingBox;
+	}
+
+	/**
+	 * Set if the bounding box header is included
+	 *
+	 * @param includeBoundingBox
+	 *            true to include
+	 */
+	public void setIncludeBoundingBox(boolean includeBoundingBox) {
+		this.includeBoundingBox = includeBoundingBox;
+	}
+
+	/**
+	 * Is the size header included
+	 *
+	 * @return true if included
+	 */
+	public boolean isIncludeSize() {
+		return includeSize;
+	}
+
+	/**
+	 * Set if the size header is included
+	 *
+	 * @param includeSize
+	 *            true to include
+	 */
+	public void setIncludeSize(boolean includeSize) {
+		this.includeSize = includeSize;
+	}
+
+	/**
+	 * Write a geometry to the byte writer
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void write(Geometry geometry) throws IOException {
+		write(geometry, null);
+	}
+
+	/**
+	 * Write a multi geometry or geometry collection to the byte writer with an
+	 * id per child geometry
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param ids
+	 *            child geometry ids, null for no id list
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void write(Geometry geometry, long[] ids) throws IOException {
+		write(writer, geometry, ids, includeBoundingBox, includeSize, null);
+	}
+
+	/**
+	 * Write a geometry
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param geometry
+	 *            geometry
+	 * @param ids
+	 *            child geometry ids or null
+	 * @param boundingBox
+	 *            include bounding box header
+	 * @param size
+	 *            include size header
+	 * @param parentBounds
+	 *            containing geometry quantized bounds to expand, or null
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void write(ByteWriter out, Geometry geometry, long[] ids,
+			boolean boundingBox, boolean size, long[] parentBounds)
+			throws IOException {
+
+		GeometryType geometryType = geometry.getGeometryType();
+		int type = getType(geometryType);
+		boolean hasZ = geometry.hasZ();
+		boolean hasM = geometry.hasM();
+		boolean empty = geometry.isEmpty();
+
+		if (ids != null && type < 4) {
+			throw new SFException(
+					"TWKB id lists are only supported by multi geometries and geometry collections: "
+							+ geometryType);
+		}
+
+		int metadata = 0;
+		if (empty) {
+			metadata |= EMPTY_FLAG;
+		} else {
+			if (boundingBox) {
+				metadata |= BOUNDING_BOX_FLAG;
+			}
+			if (size) {
+				metadata |= SIZE_FLAG;
+			}
+			if (ids != null) {
+				metadata |= ID_LIST_FLAG;
+			}
+		}
+		if (hasZ || hasM) {
+			metadata |= EXTENDED_PRECISION_FLAG;
+		}
+
+		if (empty) {
+			writeHeader(out, type, metadata, hasZ, hasM);
+		} else {
+
+			long[] bounds = new long[8];
+			for (int i = 0; i < 4; i++) {
+				bounds[i] = Long.MAX_VALUE;
+				bounds[i + 4] = Long.MIN_VALUE;
+			}
+
+			ByteWriter body = boundingBox || size ? new ByteWriter() : out;
+			try {
+				if (body == out) {
+					writeHeader(out, type, metadata, hasZ, hasM);
+				}
+				writeBody(body, geometry, ids, bounds);
+
+				// Without coordinates, such as a collection of empty
+				// geometries, there is no bounding box
+				boolean expanded = bounds[0] <= bounds[4];
+				if (!expanded) {
+					boundingBox = false;
+					metadata &= ~BOUNDING_BOX_FLAG;
+				}
+				if (body != out) {
+					writeHeader(out, type, metadata, hasZ, hasM);
+				}
+
+				ByteWriter headers = size ? new ByteWriter() : out;
+				try {
+					if (boundingBox) {
+						int dimensions = dimensions(hasZ, hasM);
+						for (int i = 0; i < dimensions; i++) {
+							Varint.writeSigned(headers, bounds[i]);
+							Varint.writeSigned(headers,
+									bounds[i + 4] - bounds[i]);
+						}
+					}
+					if (size) {
+						int bodySize = body.size();
+						if (boundingBox) {
+							bodySize += headers.size();
+						}
+						Varint.writeUnsigned(out, bodySize);
+						if (boundingBox) {
+							writeBytes(out, headers.getBytes());
+						}
+					}
+				} finally {
+					if (headers != out) {
+						headers.close();
+					}
+				}
+
+				if (body != out) {
+					writeBytes(out, body.getBytes());
+				}
+			} finally {
+				if (body != out) {
+					body.close();
+				}
+			}
+
+			if (parentBounds != null && bounds[0] <= bounds[4]) {
+				for (int i = 0; i < 4; i++) {
+					parentBounds[i] = Math.min(parentBounds[i], bounds[i]);
+					parentBounds[i + 4] = Math.max(parentBounds[i + 4],
+							bounds[i + 4]);
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Write the geometry type, metadata, and extended precision header
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param type
+	 *            TWKB geometry type
+	 * @param metadata
+	 *            metadata flags
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeHeader(ByteWriter out, int type, int metadata,
+			boolean hasZ, boolean hasM) throws IOException {
+		out.writeByte((byte) ((Varint.zigZag(precision) << 4) | type));
+		out.writeByte((byte) metadata);
+		if (hasZ || hasM) {
+			int extended = 0;
+			if (hasZ) {
+				extended |= 0x01 | (precisionZ << 2);
+			}
+			if (hasM) {
+				extended |= 0x02 | (precisionM << 5);
+			}
+			out.writeByte((byte) extended);
+		}
+	}
+
+	/**
+	 * Write the geometry body
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param geometry
+	 *            geometry
+	 * @param ids
+	 *            child geometry ids or null
+	 * @param bounds
+	 *            quantized bounds to expand
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeBody(ByteWriter out, Geometry geometry, long[] ids,
+			long[] bounds) throws IOException {
+
+		boolean hasZ = geometry.hasZ();
+		boolean hasM = geometry.hasM();
+		long[] last = new long[4];
+
+		switch (geometry.getGeometryType()) {
+		case POINT:
+			writePoint(out, (Point) geometry, hasZ, hasM, last, bounds);
+			break;
+		case LINESTRING:
+			writePoints(out, ((LineString) geometry).getPoints(), hasZ, hasM,
+					last, bounds);
+			break;
+		case POLYGON:
+			writeRings(out, ((Polygon) geometry).getRings(), hasZ, hasM, last,
+					bounds);
+			break;
+		case MULTIPOINT:
+			List<Point> points = ((MultiPoint) geometry).getPoints();
+			writeIds(out, ids, points.size());
+			for (Point point : points) {
+				writePoint(out, point, hasZ, hasM, last, bounds);
+			}
+			break;
+		case MULTILINESTRING:
+			List<LineString> lineStrings = ((MultiLineString) geometry)
+					.getLineStrings();
+			writeIds(out, ids, lineStrings.size());
+			for (LineString lineString : lineStrings) {
+				writePoints(out, lineString.getPoints(), hasZ, hasM, last,
+						bounds);
+			}
+			break;
+		case MULTIPOLYGON:
+			List<Polygon> polygons = ((MultiPolygon) geometry).getPolygons();
+			writeIds(out, ids, polygons.size());
+			for (Polygon polygon : polygons) {
+				writeRings(out, polygon.getRings(), hasZ, hasM, last, bounds);
+			}
+			break;
+		case GEOMETRYCOLLECTION:
+			List<?> geometries = ((GeometryCollection<?>) geometry)
+					.getGeometries();
+			writeIds(out, ids, geometries.size());
+			for (Object child : geometries) {
+				write(out, (Geometry) child, null, false, false, bounds);
+			}
+			break;
+		default:
+			throw new SFException("Geometry Type not supported by TWKB: "
+					+ geometry.getGeometryType());
+		}
+
+	}
+
+	/**
+	 * Write the child count and optional id list
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param ids
+	 *            child geometry ids or null
+	 * @param count
+	 *            child count
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeIds(ByteWriter out, long[] ids, int count)
+			throws IOException {
+		Varint.writeUnsigned(out, count);
+		if (ids != null) {
+			if (ids.length != count) {
+				throw new SFException("TWKB id list size " + ids.length
+						+ " does not match the geometry count " + count);
+			}
+			for (long id : ids) {
+				Varint.writeSigned(out, id);
+			}
+		}
+	}
+
+	/**
+	 * Write polygon rings
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param rings
+	 *            rings
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param last
+	 *            previous quantized coordinate
+	 * @param bounds
+	 *            quantized bounds to expand
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writeRings(ByteWriter out, List<LineString> rings,
+			boolean hasZ, boolean hasM, long[] last, long[] bounds)
+			throws IOException {
+		Varint.writeUnsigned(out, rings.size());
+		for (LineString ring : rings) {
+			writePoints(out, ring.getPoints(), hasZ, hasM, last, bounds);
+		}
+	}
+
+	/**
+	 * Write a point count and points
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param points
+	 *            points
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param last
+	 *            previous quantized coordinate
+	 * @param bounds
+	 *            quantized bounds to expand
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePoints(ByteWriter out, List<Point> points, boolean hasZ,
+			boolean hasM, long[] last, long[] bounds) throws IOException {
+		Varint.writeUnsigned(out, points.size());
+		for (Point point : points) {
+			writePoint(out, point, hasZ, hasM, last, bounds);
+		}
+	}
+
+	/**
+	 * Write a point as deltas from the previous coordinate
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param point
+	 *            point
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @param last
+	 *            previous quantized coordinate
+	 * @param bounds
+	 *            quantized bounds to expand
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private void writePoint(ByteWriter out, Point point, boolean hasZ,
+			boolean hasM, long[] last, long[] bounds) throws IOException {
+		writeValue(out, quantize(point.getX(), precision), 0, last, bounds);
+		writeValue(out, quantize(point.getY(), precision), 1, last, bounds);
+		int dimension = 2;
+		if (hasZ) {
+			Double z = point.getZ();
+			writeValue(out, quantize(z != null ? z : 0.0, precisionZ),
+					dimension++, last, bounds);
+		}
+		if (hasM) {
+			Double m = point.getM();
+			writeValue(out, quantize(m != null ? m : 0.0, precisionM),
+					dimension, last, bounds);
+		}
+	}
+
+	/**
+	 * Write a quantized value as a delta from the previous value
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param value
+	 *            quantized value
+	 * @param dimension
+	 *            dimension index
+	 * @param last
+	 *            previous quantized coordinate
+	 * @param bounds
+	 *            quantized bounds to expand
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private static void writeValue(ByteWriter out, long value, int dimension,
+			long[] last, long[] bounds) throws IOException {
+		Varint.writeSigned(out, value - last[dimension]);
+		last[dimension] = value;
+		bounds[dimension] = Math.min(bounds[dimension], value);
+		bounds[dimension + 4] = Math.max(bounds[dimension + 4], value);
+	}
+
+	/**
+	 * Write bytes
+	 *
+	 * @param out
+	 *            byte writer
+	 * @param bytes
+	 *            bytes
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	private static void writeBytes(ByteWriter out, byte[] bytes)
+			throws IOException {
+		out.getOutputStream().write(bytes);
+	}
+
+	/**
+	 * Get the TWKB type of the geometry type
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @return TWKB type
+	 */
+	static int getType(GeometryType geometryType) {
+		int type;
+		switch (geometryType) {
+		case POINT:
+		case LINESTRING:
+		case POLYGON:
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			type = GeometryCodes.getCode(geometryType);
+			break;
+		default:
+			throw new SFException(
+					"Geometry Type not supported by TWKB: " + geometryType);
+		}
+		return type;
+	}
+
+	/**
+	 * Get the number of coordinate dimensions
+	 *
+	 * @param hasZ
+	 *            has z flag
+	 * @param hasM
+	 *            has m flag
+	 * @return dimensions
+	 */
+	static int dimensions(boolean hasZ, boolean hasM) {
+		int dimensions = 2;
+		if (hasZ) {
+			dimensions++;
+		}
+		if (hasM) {
+			dimensions++;
+		}
+		return dimensions;
+	}
+
+}
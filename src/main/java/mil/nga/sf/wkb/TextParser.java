@@ -0,0 +1,254 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.util.SFException;
+
+/**
+ * Character range scanner shared by the streaming text geometry parsers,
+ * parsing common decimal numbers without allocation
+ *
+ * @since 2.2.4
+ */
+abstract class TextParser {
+
+	/**
+	 * Exact powers of ten for the fast number parsing path
+	 */
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	/**
+	 * Largest mantissa exactly representable as a double
+	 */
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+	/**
+	 * Text
+	 */
+	final CharSequence text;
+
+	/**
+	 * End index, exclusive
+	 */
+	final int end;
+
+	/**
+	 * Current index
+	 */
+	int position;
+
+	/**
+	 * Constructor
+	 *
+	 * @param text
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 */
+	TextParser(CharSequence text, int start, int end) {
+		if (start < 0 || end > text.length() || start > end) {
+			throw new SFException("Invalid text range. Start: " + start
+					+ ", End: " + end + ", Length: " + text.length());
+		}
+		this.text = text;
+		this.position = start;
+		this.end = end;
+	}
+
+	/**
+	 * Get the current parse position
+	 *
+	 * @return position
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	/**
+	 * Parse a number, parsing common decimal values without allocation
+	 *
+	 * @return number
+	 */
+	double parseNumber() {
+
+		skipWhitespace();
+		int start = position;
+
+		int wordEnd = wordEnd();
+		if (isWord("NaN", wordEnd)) {
+			position = wordEnd;
+			return Double.NaN;
+		}
+
+		boolean negative = false;
+		if (position < end) {
+			char sign = text.charAt(position);
+			if (sign == '-' || sign == '+') {
+				negative = sign == '-';
+				position++;
+			}
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean exact = true;
+		boolean fraction = false;
+		for (; position < end; position++) {
+			char c = text.charAt(position);
+			if (c >= '0' && c <= '9') {
+				digits++;
+				if (mantissa < (Long.MAX_VALUE - 9) / 10) {
+					mantissa = mantissa * 10 + (c - '0');
+					if (fraction) {
+						exponent--;
+					}
+				} else {
+					exact = false;
+				}
+			} else if (c == '.' && !fraction) {
+				fraction = true;
+			} else {
+				break;
+			}
+		}
+		if (digits == 0) {
+			position = start;
+			throw error("Expected a number");
+		}
+
+		if (position < end && (text.charAt(position) == 'e'
+				|| text.charAt(position) == 'E')) {
+			position++;
+			boolean negativeExponent = false;
+			if (position < end) {
+				char sign = text.charAt(position);
+				if (sign == '-' || sign == '+') {
+					negativeExponent = sign == '-';
+					position++;
+				}
+			}
+			int exponentStart = position;
+			int value = 0;
+			for (; position < end; position++) {
+				char c = text.charAt(position);
+				if (c < '0' || c > '9') {
+					break;
+				}
+				if (value < 10000) {
+					value = value * 10 + (c - '0');
+				}
+			}
+			if (position == exponentStart) {
+				throw error("Expected an exponent");
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+
+		double number;
+		if (exact && mantissa <= MAX_EXACT_MANTISSA
+				&& exponent >= -POWERS_OF_TEN.length + 1
+				&& exponent < POWERS_OF_TEN.length) {
+			// A single correctly rounded operation on exact values
+			number = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent]
+					: mantissa * POWERS_OF_TEN[exponent];
+			if (negative) {
+				number = -number;
+			}
+		} else {
+			number = Double.parseDouble(
+					text.subSequence(start, position).toString());
+		}
+
+		return number;
+	}
+
+	/**
+	 * Get the end index of the letters starting at the current position
+	 *
+	 * @return word end index
+	 */
+	int wordEnd() {
+		int index = position;
+		while (index < end && Character.isLetter(text.charAt(index))) {
+			index++;
+		}
+		return index;
+	}
+
+	/**
+	 * Determine if the word at the current position matches, ignoring case
+	 *
+	 * @param word
+	 *            word
+	 * @param wordEnd
+	 *            word end index
+	 * @return true if a match
+	 */
+	boolean isWord(String word, int wordEnd) {
+		if (wordEnd - position != word.length()) {
+			return false;
+		}
+		for (int i = 0; i < word.length(); i++) {
+			if (Character.toUpperCase(text.charAt(position + i)) != Character
+					.toUpperCase(word.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Move past the word at the current position if it matches
+	 *
+	 * @param word
+	 *            word
+	 * @return true if matched
+	 */
+	boolean skipWord(String word) {
+		int wordEnd = wordEnd();
+		boolean match = isWord(word, wordEnd);
+		if (match) {
+			position = wordEnd;
+		}
+		return match;
+	}
+
+	/**
+	 * Move past the expected character
+	 *
+	 * @param expected
+	 *            expected character
+	 */
+	void expect(char expected) {
+		skipWhitespace();
+		if (position >= end || text.charAt(position) != expected) {
+			throw error("Expected '" + expected + "'");
+		}
+		position++;
+	}
+
+	/**
+	 * Move past whitespace
+	 */
+	void skipWhitespace() {
+		while (position < end
+				&& Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * Create a parse error at the current position
+	 *
+	 * @param message
+	 *            error message
+	 * @return exception
+	 */
+	SFException error(String message) {
+		return new SFException(message + " at position " + position);
+	}
+
+}
@@ -0,0 +1,146 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Variable length integer encoding, least significant 7 bit groups first with
+ * the high bit set on all but the last byte. Signed values are zig-zag encoded
+ * so that small magnitudes of either sign encode to few bytes.
+ *
+ * @since 2.2.4
+ */
+class Varint {
+
+	/**
+	 * Maximum encoded length of a 64 bit value
+	 */
+	static final int MAX_LENGTH = 10;
+
+	/**
+	 * Zig-zag encode a signed value
+	 *
+	 * @param value
+	 *            signed value
+	 * @return zig-zag value
+	 */
+	static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Zig-zag decode a value
+	 *
+	 * @param value
+	 *            zig-zag value
+	 * @return signed value
+	 */
+	static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Get the encoded length of an unsigned value
+	 *
+	 * @param value
+	 *            unsigned value
+	 * @return encoded length in bytes
+	 */
+	static int length(long value) {
+		int length = 1;
+		while ((value & ~0x7FL) != 0) {
+			value >>>= 7;
+			length++;
+		}
+		return length;
+	}
+
+	/**
+	 * Write an unsigned value
+	 *
+	 * @param writer
+	 *            byte writer
+	 * @param value
+	 *            unsigned value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	static void writeUnsigned(ByteWriter writer, long value)
+			throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			writer.writeByte((byte) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		writer.writeByte((byte) value);
+	}
+
+	/**
+	 * Write a signed value
+	 *
+	 * @param writer
+	 *            byte writer
+	 * @param value
+	 *            signed value
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	static void writeSigned(ByteWriter writer, long value)
+			throws IOException {
+		writeUnsigned(writer, zigZag(value));
+	}
+
+	/**
+	 * Read an unsigned value
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @return unsigned value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	static long readUnsigned(ByteReader reader) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			byte b = reader.readByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new SFException("Malformed variable length integer");
+	}
+
+	/**
+	 * Read a signed value
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @return signed value
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	static long readSigned(ByteReader reader) throws IOException {
+		return unZigZag(readUnsigned(reader));
+	}
+
+	/**
+	 * Read an unsigned count value
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @return count
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	static int readCount(ByteReader reader) throws IOException {
+		long count = readUnsigned(reader);
+		if (count > Integer.MAX_VALUE) {
+			throw new SFException("Invalid count: " + count);
+		}
+		return (int) count;
+	}
+
+}
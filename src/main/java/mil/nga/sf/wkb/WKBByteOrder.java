@@ -0,0 +1,267 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteOrder;
+
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary byte order conversion without decoding geometries. The
+ * geometry structure is walked and each integer and coordinate value is byte
+ * swapped in place or into a same size target array, without allocation.
+ * Nested geometries of mixed byte orders are converted to the single target
+ * byte order. Extended SRIDs and float32 and fixed point coordinates are
+ * supported.
+ *
+ * @since 2.2.4
+ */
+public class WKBByteOrder {
+
+	/**
+	 * Get the byte order of the geometry at the start of the bytes
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return byte order of the top level geometry
+	 */
+	public static ByteOrder getByteOrder(byte[] bytes) {
+		return WKBLayout.isBigEndian(bytes, 0) ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+	}
+
+	/**
+	 * Convert the geometry at the start of the bytes to the byte order in
+	 * place
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param byteOrder
+	 *            target byte order
+	 * @return geometry length in bytes
+	 */
+	public static int convert(byte[] bytes, ByteOrder byteOrder) {
+		return convert(bytes, 0, byteOrder);
+	}
+
+	/**
+	 * Convert the geometry at the offset to the byte order in place
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @param byteOrder
+	 *            target byte order
+	 * @return geometry length in bytes
+	 */
+	public static int convert(byte[] bytes, int offset, ByteOrder byteOrder) {
+		return convert(bytes, offset, bytes, offset, byteOrder);
+	}
+
+	/**
+	 * Convert the geometry at the source offset to the byte order, writing it
+	 * to the target offset. The target range must either be the same range
+	 * as the source for an in place conversion or not overlap the source.
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param sourceOffset
+	 *            source geometry offset
+	 * @param target
+	 *            target bytes, at least the geometry length from the target
+	 *            offset
+	 * @param targetOffset
+	 *            target geometry offset
+	 * @param byteOrder
+	 *            target byte order
+	 * @return geometry length in bytes
+	 */
+	public static int convert(byte[] source, int sourceOffset, byte[] target,
+			int targetOffset, ByteOrder byteOrder) {
+		int length = WKBLayout.skip(source, sourceOffset) - sourceOffset;
+		WKBLayout.checkRange(target, targetOffset, length);
+		if (source == target && sourceOffset != targetOffset
+				&& Math.abs(sourceOffset - targetOffset) < length) {
+			throw new SFException(
+					"Target range overlaps the source range. Source Offset: "
+							+ sourceOffset + ", Target Offset: "
+							+ targetOffset + ", Length: " + length);
+		}
+		convert(source, target, targetOffset - sourceOffset,
+				byteOrder == ByteOrder.BIG_ENDIAN, sourceOffset);
+		return length;
+	}
+
+	/**
+	 * Convert the geometry at the source position
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param target
+	 *            target bytes
+	 * @param shift
+	 *            offset from source positions to target positions
+	 * @param bigEndian
+	 *            true for a big endian target
+	 * @param position
+	 *            source geometry position
+	 * @return source position following the geometry
+	 */
+	private static int convert(byte[] source, byte[] target, int shift,
+			boolean bigEndian, int position) {
+
+		boolean sourceBigEndian = WKBLayout.isBigEndian(source, position);
+		boolean swap = sourceBigEndian != bigEndian;
+		int code = WKBLayout.getInt(source, position + 1, sourceBigEndian);
+
+		target[position + shift] = bigEndian ? WKBLayout.BIG_ENDIAN
+				: WKBLayout.LITTLE_ENDIAN;
+		position = transfer(source, target, shift, position + 1, 4, 1,
+				swap);
+		if (WKBLayout.hasSrid(code)) {
+			position = transfer(source, target, shift, position, 4, 1,
+					swap);
+		}
+
+		switch (WKBLayout.getGeometryType(code)) {
+		case POINT:
+			position = transferPoints(source, target, shift, position, 1,
+					code, swap);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			position = transferPoints(source, target, shift, position,
+					sourceBigEndian, code, swap);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = WKBLayout.getCount(source, position,
+					sourceBigEndian);
+			position = transfer(source, target, shift, position, 4, 1,
+					swap);
+			for (int i = 0; i < numRings; i++) {
+				position = transferPoints(source, target, shift, position,
+						sourceBigEndian, code, swap);
+			}
+			break;
+		default:
+			int numGeometries = WKBLayout.getCount(source, position,
+					sourceBigEndian);
+			position = transfer(source, target, shift, position, 4, 1,
+					swap);
+			for (int i = 0; i < numGeometries; i++) {
+				position = convert(source, target, shift, bigEndian,
+						position);
+			}
+		}
+
+		return position;
+	}
+
+	/**
+	 * Transfer a count prefixed list of points
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param target
+	 *            target bytes
+	 * @param shift
+	 *            offset from source positions to target positions
+	 * @param position
+	 *            source count position
+	 * @param sourceBigEndian
+	 *            true if the source is big endian
+	 * @param code
+	 *            geometry type code, including flags
+	 * @param swap
+	 *            true to swap bytes
+	 * @return source position following the points
+	 */
+	private static int transferPoints(byte[] source, byte[] target,
+			int shift, int position, boolean sourceBigEndian, int code,
+			boolean swap) {
+		int count = WKBLayout.getCount(source, position, sourceBigEndian);
+		position = transfer(source, target, shift, position, 4, 1, swap);
+		return transferPoints(source, target, shift, position, count, code,
+				swap);
+	}
+
+	/**
+	 * Transfer points, swapping x and y values separately from z and m
+	 * values when their sizes differ
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param target
+	 *            target bytes
+	 * @param shift
+	 *            offset from source positions to target positions
+	 * @param position
+	 *            source position of the first point
+	 * @param count
+	 *            number of points
+	 * @param code
+	 *            geometry type code, including flags
+	 * @param swap
+	 *            true to swap bytes
+	 * @return source position following the points
+	 */
+	private static int transferPoints(byte[] source, byte[] target,
+			int shift, int position, int count, int code, boolean swap) {
+		int xySize = WKBLayout.getXYSize(code);
+		int zmSize = WKBLayout.getZMSize(code);
+		int zmValues = WKBLayout.getDimensions(code) - 2;
+		if (xySize == zmSize || zmValues == 0) {
+			position = transfer(source, target, shift, position, xySize,
+					count * (2 + zmValues), swap);
+		} else {
+			for (int i = 0; i < count; i++) {
+				position = transfer(source, target, shift, position, xySize,
+						2, swap);
+				position = transfer(source, target, shift, position, zmSize,
+						zmValues, swap);
+			}
+		}
+		return position;
+	}
+
+	/**
+	 * Transfer values from the source to the target, swapping the bytes of
+	 * each value if needed
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param target
+	 *            target bytes
+	 * @param shift
+	 *            offset from source positions to target positions
+	 * @param position
+	 *            source position
+	 * @param size
+	 *            value size in bytes
+	 * @param count
+	 *            number of values
+	 * @param swap
+	 *            true to swap bytes
+	 * @return source position following the values
+	 */
+	private static int transfer(byte[] source, byte[] target, int shift,
+			int position, int size, int count, boolean swap) {
+		int length = size * count;
+		if (swap) {
+			int end = position + length;
+			for (int value = position; value < end; value += size) {
+				for (int i = 0, j = size - 1; i < j; i++, j--) {
+					byte first = source[value + i];
+					byte last = source[value + j];
+					target[value + shift + i] = last;
+					target[value + shift + j] = first;
+				}
+			}
+		} else if (source != target || shift != 0) {
+			System.arraycopy(source, position, target, position + shift,
+					length);
+		}
+		return position + length;
+	}
+
+}
@@ -0,0 +1,323 @@
+package mil.nga.sf.wkb;
+
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary geometry type code normalizer, rewriting the type codes
+ * of a geometry and its members between flavors directly in the bytes
+ * without decoding coordinates. Point, curve, and surface bodies are copied as
+ * raw bytes. The flavors are:
+ * <ul>
+ * <li>{@link #ISO}: ISO 13249-3 codes, adding 1000 for z and 2000 for m</li>
+ * <li>{@link #EXTENDED}: extended well-known binary (PostGIS EWKB) codes,
+ * flagging z and m with {@link GeometryCodes#EWKB_Z_FLAG} and
+ * {@link GeometryCodes#EWKB_M_FLAG} and keeping extended SRIDs</li>
+ * <li>{@link #OGC}: OGC Simple Features 1.1 compatible codes, limited to the
+ * seven original geometry types and flagging z with the 2.5D flag
+ * ({@link GeometryCodes#EWKB_Z_FLAG}). Multi curves of line strings and
+ * multi surfaces of polygons are rewritten as multi line strings and multi
+ * polygons. Geometries with m values or other curve or surface types are
+ * not supported.</li>
+ * </ul>
+ * Extended SRIDs are dropped when normalizing to the ISO and OGC flavors. The
+ * float32 and fixed point value flags are kept in all flavors.
+ *
+ * @since 2.2.4
+ */
+public class WKBCodeNormalizer {
+
+	/**
+	 * ISO 13249-3 geometry type codes
+	 */
+	public static final int ISO = 0;
+
+	/**
+	 * Extended well-known binary (PostGIS EWKB) geometry type codes
+	 */
+	public static final int EXTENDED = 1;
+
+	/**
+	 * OGC Simple Features 1.1 compatible geometry type codes, with 2.5D z
+	 * flags
+	 */
+	public static final int OGC = 2;
+
+	/**
+	 * Normalize the geometry type codes of well-known binary
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param flavor
+	 *            {@link #ISO}, {@link #EXTENDED}, or {@link #OGC}
+	 * @return normalized well-known binary
+	 */
+	public static byte[] normalize(byte[] bytes, int flavor) {
+		byte[] target = new byte[WKBLayout.skip(bytes, 0)];
+		int length = normalize(bytes, 0, target, 0, flavor);
+		if (length < target.length) {
+			target = Arrays.copyOf(target, length);
+		}
+		return target;
+	}
+
+	/**
+	 * Normalize the geometry type codes of the geometry at the source offset,
+	 * writing it to the target offset. The target may be the source bytes at
+	 * or before the source offset for an in place normalization, otherwise
+	 * the target range must not overlap the source.
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param sourceOffset
+	 *            source geometry offset
+	 * @param target
+	 *            target bytes
+	 * @param targetOffset
+	 *            target geometry offset
+	 * @param flavor
+	 *            {@link #ISO}, {@link #EXTENDED}, or {@link #OGC}
+	 * @return normalized geometry length in bytes
+	 */
+	public static int normalize(byte[] source, int sourceOffset,
+			byte[] target, int targetOffset, int flavor) {
+		if (flavor != ISO && flavor != EXTENDED && flavor != OGC) {
+			throw new SFException("Unsupported geometry type code flavor: "
+					+ flavor);
+		}
+		int length = WKBLayout.skip(source, sourceOffset) - sourceOffset;
+		if (source == target && targetOffset > sourceOffset
+				&& targetOffset < sourceOffset + length) {
+			throw new SFException(
+					"Target offset overlaps the source range. Source Offset: "
+							+ sourceOffset + ", Target Offset: "
+							+ targetOffset + ", Length: " + length);
+		}
+		WKBCodeNormalizer normalizer = new WKBCodeNormalizer(source,
+				sourceOffset, target, targetOffset, flavor);
+		normalizer.normalize();
+		return normalizer.targetPosition - targetOffset;
+	}
+
+	/**
+	 * Source bytes
+	 */
+	private final byte[] source;
+
+	/**
+	 * Target bytes
+	 */
+	private final byte[] target;
+
+	/**
+	 * Geometry type code flavor
+	 */
+	private final int flavor;
+
+	/**
+	 * Source position
+	 */
+	private int position;
+
+	/**
+	 * Target position
+	 */
+	private int targetPosition;
+
+	/**
+	 * Constructor
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param sourceOffset
+	 *            source geometry offset
+	 * @param target
+	 *            target bytes
+	 * @param targetOffset
+	 *            target geometry offset
+	 * @param flavor
+	 *            geometry type code flavor
+	 */
+	private WKBCodeNormalizer(byte[] source, int sourceOffset, byte[] target,
+			int targetOffset, int flavor) {
+		this.source = source;
+		this.target = target;
+		this.flavor = flavor;
+		this.position = sourceOffset;
+		this.targetPosition = targetOffset;
+	}
+
+	/**
+	 * Normalize the geometry at the source position
+	 */
+	private void normalize() {
+
+		boolean bigEndian = WKBLayout.isBigEndian(source, position);
+		int code = WKBLayout.getInt(source, position + 1, bigEndian);
+		GeometryType geometryType = WKBLayout.getGeometryType(code);
+		boolean hasZ = WKBLayout.hasZ(code);
+		boolean hasM = WKBLayout.hasM(code);
+		boolean collection = isCollection(geometryType);
+
+		// Read the source geometry extent before the header is overwritten
+		int bodyPosition = position + WKBLayout.getHeaderSize(code);
+		int end = collection ? -1 : WKBLayout.skip(source, position);
+
+		int normalized;
+		boolean srid = false;
+		switch (flavor) {
+		case ISO:
+			normalized = WKBLayout.getCode(geometryType, hasZ, hasM, false);
+			break;
+		case EXTENDED:
+			normalized = WKBLayout.getCode(geometryType, hasZ, hasM, true);
+			srid = WKBLayout.hasSrid(code);
+			if (srid) {
+				normalized |= GeometryCodes.EWKB_SRID_FLAG;
+			}
+			break;
+		default:
+			if (hasM) {
+				throw new SFException("OGC 1.1 geometry type codes do not "
+						+ "support m values. Geometry Type: "
+						+ geometryType.name());
+			}
+			normalized = WKBLayout.getCode(
+					getOGCGeometryType(geometryType, bodyPosition), hasZ,
+					false, true);
+		}
+		normalized |= code & (GeometryCodes.FLOAT32_FLAG
+				| GeometryCodes.FIXED_POINT_FLAG);
+
+		WKBLayout.checkRange(target, targetPosition, 5);
+		target[targetPosition] = source[position];
+		WKBLayout.putInt(target, targetPosition + 1, bigEndian, normalized);
+		targetPosition += 5;
+		if (srid) {
+			copy(position + 5, 4);
+		}
+		position = bodyPosition;
+
+		if (collection) {
+			int numGeometries = WKBLayout.getCount(source, position,
+					bigEndian);
+			copy(position, 4);
+			position += 4;
+			for (int i = 0; i < numGeometries; i++) {
+				normalize();
+			}
+		} else {
+			copy(position, end - position);
+			position = end;
+		}
+
+	}
+
+	/**
+	 * Get the OGC 1.1 geometry type of a geometry
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @param bodyPosition
+	 *            source position of the geometry body
+	 * @return OGC 1.1 geometry type
+	 */
+	private GeometryType getOGCGeometryType(GeometryType geometryType,
+			int bodyPosition) {
+		GeometryType ogcType = geometryType;
+		switch (geometryType) {
+		case POINT:
+		case LINESTRING:
+		case POLYGON:
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+			break;
+		case MULTICURVE:
+			ogcType = getMembersType(bodyPosition, GeometryType.LINESTRING,
+					GeometryType.MULTILINESTRING);
+			break;
+		case MULTISURFACE:
+			ogcType = getMembersType(bodyPosition, GeometryType.POLYGON,
+					GeometryType.MULTIPOLYGON);
+			break;
+		default:
+			ogcType = null;
+		}
+		if (ogcType == null) {
+			throw new SFException("OGC 1.1 geometry type codes do not "
+					+ "support the geometry. Geometry Type: "
+					+ geometryType.name());
+		}
+		return ogcType;
+	}
+
+	/**
+	 * Get the collection type if all members are of the member type
+	 *
+	 * @param bodyPosition
+	 *            source position of the collection count
+	 * @param memberType
+	 *            required member type
+	 * @param collectionType
+	 *            collection type of the member type
+	 * @return collection type, or null if a member is of another type
+	 */
+	private GeometryType getMembersType(int bodyPosition,
+			GeometryType memberType, GeometryType collectionType) {
+		GeometryType type = collectionType;
+		int numGeometries = WKBLayout.getCount(source, bodyPosition,
+				WKBLayout.isBigEndian(source, position));
+		int memberPosition = bodyPosition + 4;
+		for (int i = 0; i < numGeometries; i++) {
+			int code = WKBLayout.getCode(source, memberPosition);
+			if (WKBLayout.getGeometryType(code) != memberType) {
+				type = null;
+				break;
+			}
+			memberPosition = WKBLayout.skip(source, memberPosition);
+		}
+		return type;
+	}
+
+	/**
+	 * Determine if a geometry type is written as a count of member geometries
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @return true if a collection of geometries
+	 */
+	private static boolean isCollection(GeometryType geometryType) {
+		boolean collection;
+		switch (geometryType) {
+		case POINT:
+		case LINESTRING:
+		case CIRCULARSTRING:
+		case POLYGON:
+		case TRIANGLE:
+			collection = false;
+			break;
+		default:
+			collection = true;
+		}
+		return collection;
+	}
+
+	/**
+	 * Copy bytes from a source position to the target position
+	 *
+	 * @param from
+	 *            source position
+	 * @param length
+	 *            number of bytes
+	 */
+	private void copy(int from, int length) {
+		WKBLayout.checkRange(target, targetPosition, length);
+		System.arraycopy(source, from, target, targetPosition, length);
+		targetPosition += length;
+	}
+
+}
@@ -0,0 +1,251 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import mil.nga.sf.GeometryType;
+
+/**
+ * Well-known binary collector, merging geometries into a single multi
+ * geometry or geometry collection without decoding. The collection header and
+ * count are written and the member bytes are bulk copied. Members in another
+ * byte order are converted with {@link WKBByteOrder} and members with more
+ * dimensions than the collection are transcoded with
+ * {@link WKBDimensionTranscoder}, so only differing members are rewritten.
+ * <p>
+ * The collection type is a multi point, multi line string, or multi polygon
+ * when all members are points, line strings, or polygons, a multi curve or
+ * multi surface when all members are curves or surfaces, and otherwise a
+ * geometry collection. The collection has the z and m dimensions shared by
+ * all members.
+ * <p>
+ * When all members have the same extended SRID, the SRID is written once in
+ * the extended collection header and removed from the members. Otherwise
+ * member SRIDs are copied as written and the collection has no SRID.
+ *
+ * @since 2.2.4
+ */
+public class WKBCollector {
+
+	/**
+	 * Collect well-known binary geometries, in the byte order of the first
+	 * geometry
+	 *
+	 * @param geometries
+	 *            well-known binary geometries
+	 * @return collection well-known binary
+	 */
+	public static byte[] collect(byte[]... geometries) {
+		return collect(Arrays.asList(geometries));
+	}
+
+	/**
+	 * Collect well-known binary geometries, in the byte order of the first
+	 * geometry
+	 *
+	 * @param geometries
+	 *            well-known binary geometries
+	 * @return collection well-known binary
+	 */
+	public static byte[] collect(List<byte[]> geometries) {
+		return collect(geometries,
+				geometries.isEmpty() ? ByteOrder.BIG_ENDIAN
+						: WKBByteOrder.getByteOrder(geometries.get(0)));
+	}
+
+	/**
+	 * Collect well-known binary geometries
+	 *
+	 * @param geometries
+	 *            well-known binary geometries
+	 * @param byteOrder
+	 *            collection byte order
+	 * @return collection well-known binary
+	 */
+	public static byte[] collect(List<byte[]> geometries,
+			ByteOrder byteOrder) {
+
+		boolean bigEndian = byteOrder == ByteOrder.BIG_ENDIAN;
+
+		// Scan the member headers for the collection type and dimensions
+		GeometryType collectionType = null;
+		boolean hasZ = true;
+		boolean hasM = true;
+		int valueFlags = GeometryCodes.FLOAT32_FLAG
+				| GeometryCodes.FIXED_POINT_FLAG;
+		boolean extended = false;
+		boolean sharedSrid = !geometries.isEmpty();
+		int srid = 0;
+		int length = 13;
+		int[] lengths = new int[geometries.size()];
+		for (int i = 0; i < lengths.length; i++) {
+			byte[] geometry = geometries.get(i);
+			int code = WKBLayout.getCode(geometry, 0);
+			if (sharedSrid) {
+				int memberSrid = WKBLayout.hasSrid(code)
+						? WKBLayout.getInt(geometry, 5,
+								WKBLayout.isBigEndian(geometry, 0))
+						: 0;
+				sharedSrid = WKBLayout.hasSrid(code)
+						&& (i == 0 || memberSrid == srid);
+				srid = memberSrid;
+			}
+			collectionType = getCollectionType(collectionType,
+					WKBLayout.getGeometryType(code));
+			hasZ = hasZ && WKBLayout.hasZ(code);
+			hasM = hasM && WKBLayout.hasM(code);
+			valueFlags &= code;
+			if (i == 0) {
+				extended = WKBLayout.isExtended(code);
+			}
+			lengths[i] = WKBLayout.skip(geometry, 0);
+			length += lengths[i];
+		}
+		if (collectionType == null) {
+			collectionType = GeometryType.GEOMETRYCOLLECTION;
+			hasZ = false;
+			hasM = false;
+			valueFlags = 0;
+		}
+
+		int code = WKBLayout.getCode(collectionType, hasZ, hasM,
+				extended || sharedSrid) | valueFlags;
+
+		byte[] bytes = new byte[length];
+		bytes[0] = bigEndian ? WKBLayout.BIG_ENDIAN : WKBLayout.LITTLE_ENDIAN;
+		int position = 5;
+		if (sharedSrid) {
+			code |= GeometryCodes.EWKB_SRID_FLAG;
+			WKBLayout.putInt(bytes, position, bigEndian, srid);
+			position += 4;
+		}
+		WKBLayout.putInt(bytes, 1, bigEndian, code);
+		WKBLayout.putInt(bytes, position, bigEndian, lengths.length);
+		position += 4;
+
+		for (int i = 0; i < lengths.length; i++) {
+			byte[] geometry = geometries.get(i);
+			int memberCode = WKBLayout.getCode(geometry, 0);
+			int memberLength;
+			if (WKBLayout.hasZ(memberCode) != hasZ
+					|| WKBLayout.hasM(memberCode) != hasM) {
+				memberLength = WKBDimensionTranscoder.transcode(geometry, 0,
+						bytes, position, hasZ, hasM);
+				WKBByteOrder.convert(bytes, position, byteOrder);
+			} else {
+				memberLength = WKBByteOrder.convert(geometry, 0, bytes,
+						position, byteOrder);
+			}
+			if (sharedSrid) {
+				memberLength -= removeSrid(bytes, position, memberLength,
+						bigEndian);
+			}
+			position += memberLength;
+		}
+
+		if (position < length) {
+			bytes = Arrays.copyOf(bytes, position);
+		}
+
+		return bytes;
+	}
+
+	/**
+	 * Remove the extended SRID from the header of a written member, shifting
+	 * the member body into its place
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            member offset
+	 * @param length
+	 *            member length
+	 * @param bigEndian
+	 *            member byte order
+	 * @return number of bytes removed
+	 */
+	private static int removeSrid(byte[] bytes, int offset, int length,
+			boolean bigEndian) {
+		int code = WKBLayout.getInt(bytes, offset + 1, bigEndian);
+		WKBLayout.putInt(bytes, offset + 1, bigEndian,
+				code & ~GeometryCodes.EWKB_SRID_FLAG);
+		System.arraycopy(bytes, offset + 9, bytes, offset + 5, length - 9);
+		return 4;
+	}
+
+	/**
+	 * Get the collection type including a member geometry type
+	 *
+	 * @param collectionType
+	 *            collection type of the previous members, null if none
+	 * @param geometryType
+	 *            member geometry type
+	 * @return collection type
+	 */
+	private static GeometryType getCollectionType(
+			GeometryType collectionType, GeometryType geometryType) {
+
+		GeometryType memberCollectionType;
+		switch (geometryType) {
+		case POINT:
+			memberCollectionType = GeometryType.MULTIPOINT;
+			break;
+		case LINESTRING:
+			memberCollectionType = GeometryType.MULTILINESTRING;
+			break;
+		case POLYGON:
+			memberCollectionType = GeometryType.MULTIPOLYGON;
+			break;
+		case CIRCULARSTRING:
+		case COMPOUNDCURVE:
+			memberCollectionType = GeometryType.MULTICURVE;
+			break;
+		case CURVEPOLYGON:
+			memberCollectionType = GeometryType.MULTISURFACE;
+			break;
+		default:
+			memberCollectionType = GeometryType.GEOMETRYCOLLECTION;
+		}
+
+		GeometryType type;
+		if (collectionType == null || collectionType == memberCollectionType) {
+			type = memberCollectionType;
+		} else if (isCurveCollection(collectionType)
+				&& isCurveCollection(memberCollectionType)) {
+			type = GeometryType.MULTICURVE;
+		} else if (isSurfaceCollection(collectionType)
+				&& isSurfaceCollection(memberCollectionType)) {
+			type = GeometryType.MULTISURFACE;
+		} else {
+			type = GeometryType.GEOMETRYCOLLECTION;
+		}
+
+		return type;
+	}
+
+	/**
+	 * Determine if a collection type is a collection of curves
+	 *
+	 * @param collectionType
+	 *            collection type
+	 * @return true if a curve collection
+	 */
+	private static boolean isCurveCollection(GeometryType collectionType) {
+		return collectionType == GeometryType.MULTILINESTRING
+				|| collectionType == GeometryType.MULTICURVE;
+	}
+
+	/**
+	 * Determine if a collection type is a collection of surfaces
+	 *
+	 * @param collectionType
+	 *            collection type
+	 * @return true if a surface collection
+	 */
+	private static boolean isSurfaceCollection(GeometryType collectionType) {
+		return collectionType == GeometryType.MULTIPOLYGON
+				|| collectionType == GeometryType.MULTISURFACE;
+	}
+
+}
@@ -0,0 +1,261 @@
+package mil.nga.sf.wkb;
+
+import java.util.Arrays;
+
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary dimension transcoder, dropping z and/or m values directly
+ * in the bytes without building geometries. Each geometry type code is
+ * rewritten for the kept dimensions, keeping its byte order, value encoding,
+ * SRID, and ISO or extended (PostGIS EWKB) flavor. Coordinate values are
+ * copied as raw bytes, so values are never decoded or rounded. Transcoding
+ * may be done in place, as the transcoded geometry is never longer than the
+ * source.
+ *
+ * @since 2.2.4
+ */
+public class WKBDimensionTranscoder {
+
+	/**
+	 * Transcode well-known binary to x and y values only
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return two dimensional well-known binary
+	 */
+	public static byte[] toXY(byte[] bytes) {
+		return transcode(bytes, false, false);
+	}
+
+	/**
+	 * Transcode well-known binary, dropping z and/or m values
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param hasZ
+	 *            true to keep z values when present
+	 * @param hasM
+	 *            true to keep m values when present
+	 * @return transcoded well-known binary
+	 */
+	public static byte[] transcode(byte[] bytes, boolean hasZ, boolean hasM) {
+		byte[] target = new byte[WKBLayout.skip(bytes, 0)];
+		int length = transcode(bytes, 0, target, 0, hasZ, hasM);
+		if (length < target.length) {
+			target = Arrays.copyOf(target, length);
+		}
+		return target;
+	}
+
+	/**
+	 * Transcode the geometry at the source offset, dropping z and/or m values
+	 * and writing it to the target offset. The target may be the source bytes
+	 * at or before the source offset for an in place transcode, otherwise the
+	 * target range must not overlap the source.
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param sourceOffset
+	 *            source geometry offset
+	 * @param target
+	 *            target bytes
+	 * @param targetOffset
+	 *            target geometry offset
+	 * @param hasZ
+	 *            true to keep z values when present
+	 * @param hasM
+	 *            true to keep m values when present
+	 * @return transcoded geometry length in bytes
+	 */
+	public static int transcode(byte[] source, int sourceOffset,
+			byte[] target, int targetOffset, boolean hasZ, boolean hasM) {
+		int length = WKBLayout.skip(source, sourceOffset) - sourceOffset;
+		if (source == target && targetOffset > sourceOffset
+				&& targetOffset < sourceOffset + length) {
+			throw new SFException(
+					"Target offset overlaps the source range. Source Offset: "
+							+ sourceOffset + ", Target Offset: "
+							+ targetOffset + ", Length: " + length);
+		}
+		WKBDimensionTranscoder transcoder = new WKBDimensionTranscoder(
+				source, sourceOffset, target, targetOffset, hasZ, hasM);
+		transcoder.transcode();
+		return transcoder.targetPosition - targetOffset;
+	}
+
+	/**
+	 * Source bytes
+	 */
+	private final byte[] source;
+
+	/**
+	 * Target bytes
+	 */
+	private final byte[] target;
+
+	/**
+	 * Keep z values
+	 */
+	private final boolean hasZ;
+
+	/**
+	 * Keep m values
+	 */
+	private final boolean hasM;
+
+	/**
+	 * Source position
+	 */
+	private int position;
+
+	/**
+	 * Target position
+	 */
+	private int targetPosition;
+
+	/**
+	 * Constructor
+	 *
+	 * @param source
+	 *            source bytes
+	 * @param sourceOffset
+	 *            source geometry offset
+	 * @param target
+	 *            target bytes
+	 * @param targetOffset
+	 *            target geometry offset
+	 * @param hasZ
+	 *            true to keep z values
+	 * @param hasM
+	 *            true to keep m values
+	 */
+	private WKBDimensionTranscoder(byte[] source, int sourceOffset,
+			byte[] target, int targetOffset, boolean hasZ, boolean hasM) {
+		this.source = source;
+		this.target = target;
+		this.hasZ = hasZ;
+		this.hasM = hasM;
+		this.position = sourceOffset;
+		this.targetPosition = targetOffset;
+	}
+
+	/**
+	 * Transcode the geometry at the source position
+	 */
+	private void transcode() {
+
+		boolean bigEndian = WKBLayout.isBigEndian(source, position);
+		int code = WKBLayout.getInt(source, position + 1, bigEndian);
+		boolean sourceZ = WKBLayout.hasZ(code);
+		boolean sourceM = WKBLayout.hasM(code);
+		boolean keepZ = sourceZ && hasZ;
+		boolean keepM = sourceM && hasM;
+
+		WKBLayout.checkRange(target, targetPosition, 5);
+		target[targetPosition] = source[position];
+		WKBLayout.putInt(target, targetPosition + 1, bigEndian,
+				WKBLayout.setDimensions(code, keepZ, keepM));
+		position += 5;
+		targetPosition += 5;
+		if (WKBLayout.hasSrid(code)) {
+			copy(4);
+		}
+
+		int xySize = WKBLayout.getXYSize(code);
+		int zmSize = WKBLayout.getZMSize(code);
+		int pointSize = WKBLayout.getPointSize(code);
+		int zSize = sourceZ ? zmSize : 0;
+		int mSize = sourceM ? zmSize : 0;
+		boolean drop = keepZ != sourceZ || keepM != sourceM;
+
+		switch (WKBLayout.getGeometryType(code)) {
+		case POINT:
+			copyPoints(1, xySize, zSize, mSize, pointSize, drop);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			copyPoints(copyCount(bigEndian), xySize, zSize, mSize,
+					pointSize, drop);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = copyCount(bigEndian);
+			for (int i = 0; i < numRings; i++) {
+				copyPoints(copyCount(bigEndian), xySize, zSize, mSize,
+						pointSize, drop);
+			}
+			break;
+		default:
+			int numGeometries = copyCount(bigEndian);
+			for (int i = 0; i < numGeometries; i++) {
+				transcode();
+			}
+		}
+
+	}
+
+	/**
+	 * Copy a count
+	 *
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return count
+	 */
+	private int copyCount(boolean bigEndian) {
+		int count = WKBLayout.getCount(source, position, bigEndian);
+		copy(4);
+		return count;
+	}
+
+	/**
+	 * Copy points, dropping z and/or m values
+	 *
+	 * @param count
+	 *            number of points
+	 * @param xySize
+	 *            size of the x and y values of each point
+	 * @param zSize
+	 *            size of the z value of each point, 0 if none
+	 * @param mSize
+	 *            size of the m value of each point, 0 if none
+	 * @param pointSize
+	 *            source point size
+	 * @param drop
+	 *            true if z and/or m values are dropped
+	 */
+	private void copyPoints(int count, int xySize, int zSize, int mSize,
+			int pointSize, boolean drop) {
+		if (!drop) {
+			copy(count * pointSize);
+		} else {
+			for (int i = 0; i < count; i++) {
+				copy(2 * xySize);
+				if (hasZ) {
+					copy(zSize);
+				} else {
+					position += zSize;
+				}
+				if (hasM) {
+					copy(mSize);
+				} else {
+					position += mSize;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copy bytes from the source position to the target position
+	 *
+	 * @param length
+	 *            number of bytes
+	 */
+	private void copy(int length) {
+		WKBLayout.checkRange(target, targetPosition, length);
+		System.arraycopy(source, position, target, targetPosition, length);
+		position += length;
+		targetPosition += length;
+	}
+
+}
@@ -0,0 +1,167 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Well-known binary exploder, splitting a multi geometry or geometry
+ * collection into the well-known binary of each member without decoding.
+ * Member boundaries are found by skip scanning the member structures, and
+ * members are returned as copied arrays or as views sharing the collection
+ * bytes. Other geometries explode into themselves. An extended SRID of the
+ * collection is written into the header of each copied member without its
+ * own SRID, while views are the member bytes as written within the
+ * collection with the collection SRID available from
+ * {@link #getSrid(byte[], int)}.
+ *
+ * @since 2.2.4
+ */
+public class WKBExploder {
+
+	/**
+	 * Get the member boundary offsets of the geometry at the offset
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @return offsets of each member followed by the offset following the
+	 *         last member
+	 */
+	public static int[] getOffsets(byte[] bytes, int offset) {
+
+		int[] offsets;
+
+		boolean bigEndian = WKBLayout.isBigEndian(bytes, offset);
+		int code = WKBLayout.getInt(bytes, offset + 1, bigEndian);
+		switch (WKBLayout.getGeometryType(code)) {
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+			int position = offset + WKBLayout.getHeaderSize(code);
+			int numGeometries = WKBLayout.getCount(bytes, position,
+					bigEndian);
+			position += 4;
+			offsets = new int[numGeometries + 1];
+			offsets[0] = position;
+			for (int i = 1; i <= numGeometries; i++) {
+				position = WKBLayout.skip(bytes, position);
+				offsets[i] = position;
+			}
+			break;
+		default:
+			offsets = new int[] { offset, WKBLayout.skip(bytes, offset) };
+		}
+
+		return offsets;
+	}
+
+	/**
+	 * Get the extended SRID of the geometry at the offset, the SRID shared by
+	 * the members of a collection
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @return SRID or null
+	 */
+	public static Integer getSrid(byte[] bytes, int offset) {
+		Integer srid = null;
+		int code = WKBLayout.getCode(bytes, offset);
+		if (WKBLayout.hasSrid(code)) {
+			srid = WKBLayout.getInt(bytes, offset + 5,
+					WKBLayout.isBigEndian(bytes, offset));
+		}
+		return srid;
+	}
+
+	/**
+	 * Explode well-known binary into copied member arrays. An extended SRID
+	 * of the collection is written into members without their own SRID.
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return member well-known binary
+	 */
+	public static List<byte[]> explode(byte[] bytes) {
+		int[] offsets = getOffsets(bytes, 0);
+		Integer srid = getSrid(bytes, 0);
+		List<byte[]> members = new ArrayList<>(offsets.length - 1);
+		for (int i = 1; i < offsets.length; i++) {
+			byte[] member;
+			if (srid != null && !WKBLayout
+					.hasSrid(WKBLayout.getCode(bytes, offsets[i - 1]))) {
+				member = copyWithSrid(bytes, offsets[i - 1], offsets[i],
+						srid);
+			} else {
+				member = Arrays.copyOfRange(bytes, offsets[i - 1],
+						offsets[i]);
+			}
+			members.add(member);
+		}
+		return members;
+	}
+
+	/**
+	 * Explode well-known binary into member views of the bytes, without
+	 * copying. Each view starts at position zero and is ordered in the byte
+	 * order of its member. The views do not include an extended SRID of the
+	 * collection, see {@link #getSrid(byte[], int)}.
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return member well-known binary views
+	 */
+	public static List<ByteBuffer> explodeViews(byte[] bytes) {
+		int[] offsets = getOffsets(bytes, 0);
+		List<ByteBuffer> members = new ArrayList<>(offsets.length - 1);
+		for (int i = 1; i < offsets.length; i++) {
+			ByteBuffer member = ByteBuffer
+					.wrap(bytes, offsets[i - 1], offsets[i] - offsets[i - 1])
+					.slice();
+			member.order(WKBLayout.isBigEndian(bytes, offsets[i - 1])
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN);
+			members.add(member);
+		}
+		return members;
+	}
+
+	/**
+	 * Copy a member, adding an extended SRID to its header
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param start
+	 *            member offset
+	 * @param end
+	 *            offset following the member
+	 * @param srid
+	 *            SRID
+	 * @return member well-known binary
+	 */
+	private static byte[] copyWithSrid(byte[] bytes, int start, int end,
+			int srid) {
+		boolean bigEndian = WKBLayout.isBigEndian(bytes, start);
+		int code = WKBLayout.getInt(bytes, start + 1, bigEndian);
+		int extendedCode = WKBLayout.getCode(WKBLayout.getGeometryType(code),
+				WKBLayout.hasZ(code), WKBLayout.hasM(code), true)
+				| (code & (GeometryCodes.FLOAT32_FLAG
+						| GeometryCodes.FIXED_POINT_FLAG))
+				| GeometryCodes.EWKB_SRID_FLAG;
+		byte[] member = new byte[end - start + 4];
+		member[0] = bytes[start];
+		WKBLayout.putInt(member, 1, bigEndian, extendedCode);
+		WKBLayout.putInt(member, 5, bigEndian, srid);
+		System.arraycopy(bytes, start + 5, member, 9, end - start - 5);
+		return member;
+	}
+
+}
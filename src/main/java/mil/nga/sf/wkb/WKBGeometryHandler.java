@@ -0,0 +1,321 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Geometry handler writing well-known binary in the {@link GeometryWriter}
+ * byte layout directly from geometry events, without building geometries.
+ * List counts are written as placeholders and back-patched into the buffer
+ * when each list ends, so event sources such as text parsers do not need to
+ * know counts in advance.
+ *
+ * @since 2.2.4
+ */
+public class WKBGeometryHandler implements GeometryHandler {
+
+	/**
+	 * Byte order
+	 */
+	private final ByteOrder byteOrder;
+
+	/**
+	 * Well-known binary buffer
+	 */
+	private byte[] buffer;
+
+	/**
+	 * Number of bytes written to the buffer
+	 */
+	private int size = 0;
+
+	/**
+	 * Count positions of list frames, -1 for geometry frames
+	 */
+	private int[] countPositions = new int[16];
+
+	/**
+	 * Items written in each list frame
+	 */
+	private int[] items = new int[16];
+
+	/**
+	 * Has z values by frame
+	 */
+	private boolean[] hasZ = new boolean[16];
+
+	/**
+	 * Has m values by frame
+	 */
+	private boolean[] hasM = new boolean[16];
+
+	/**
+	 * Number of open frames
+	 */
+	private int depth = 0;
+
+	/**
+	 * Constructor, using the default byte order
+	 */
+	public WKBGeometryHandler() {
+		this(ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 */
+	public WKBGeometryHandler(ByteOrder byteOrder) {
+		this(byteOrder, 256);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param byteOrder
+	 *            byte order
+	 * @param initialCapacity
+	 *            initial buffer capacity in bytes
+	 */
+	public WKBGeometryHandler(ByteOrder byteOrder, int initialCapacity) {
+		this.byteOrder = byteOrder;
+		this.buffer = new byte[Math.max(initialCapacity, 16)];
+	}
+
+	/**
+	 * Get the byte order
+	 *
+	 * @return byte order
+	 */
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	/**
+	 * Get the number of bytes written
+	 *
+	 * @return size in bytes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get a copy of the written well-known binary bytes
+	 *
+	 * @return bytes
+	 */
+	public byte[] getBytes() {
+		return Arrays.copyOf(buffer, size);
+	}
+
+	/**
+	 * Write the written well-known binary bytes to an output stream
+	 *
+	 * @param outputStream
+	 *            output stream
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	public void writeTo(OutputStream outputStream) throws IOException {
+		outputStream.write(buffer, 0, size);
+	}
+
+	/**
+	 * Reset the handler to write a new geometry, reusing the buffer
+	 */
+	public void reset() {
+		size = 0;
+		depth = 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void startGeometry(GeometryType geometryType, boolean hasZ,
+			boolean hasM, GeometryType containingType) throws IOException {
+		item();
+		writeByte(byteOrder == ByteOrder.BIG_ENDIAN ? (byte) 0 : (byte) 1);
+		writeInt(GeometryCodes.getCode(geometryType, hasZ, hasM));
+		push(-1, hasZ, hasM);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void startList(int count) throws IOException {
+		if (depth == 0) {
+			throw new SFException("List started outside of a geometry");
+		}
+		item();
+		int position = size;
+		writeInt(count);
+		push(position, hasZ[depth - 1], hasM[depth - 1]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void point(double x, double y, double z, double m)
+			throws IOException {
+		if (depth == 0) {
+			throw new SFException("Point outside of a geometry");
+		}
+		item();
+		writeDouble(x);
+		writeDouble(y);
+		if (hasZ[depth - 1]) {
+			writeDouble(z);
+		}
+		if (hasM[depth - 1]) {
+			writeDouble(m);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void endList() throws IOException {
+		if (depth == 0 || countPositions[depth - 1] < 0) {
+			throw new SFException("List ended outside of a list");
+		}
+		depth--;
+		putInt(countPositions[depth], items[depth]);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void endGeometry() throws IOException {
+		if (depth == 0 || countPositions[depth - 1] >= 0) {
+			throw new SFException("Geometry ended outside of a geometry");
+		}
+		depth--;
+	}
+
+	/**
+	 * Count an item of the current list
+	 */
+	private void item() {
+		if (depth > 0 && countPositions[depth - 1] >= 0) {
+			items[depth - 1]++;
+		}
+	}
+
+	/**
+	 * Push a frame
+	 *
+	 * @param countPosition
+	 *            count position of a list frame, -1 for a geometry frame
+	 * @param frameHasZ
+	 *            has z values
+	 * @param frameHasM
+	 *            has m values
+	 */
+	private void push(int countPosition, boolean frameHasZ,
+			boolean frameHasM) {
+		if (depth == countPositions.length) {
+			int length = depth * 2;
+			countPositions = Arrays.copyOf(countPositions, length);
+			items = Arrays.copyOf(items, length);
+			hasZ = Arrays.copyOf(hasZ, length);
+			hasM = Arrays.copyOf(hasM, length);
+		}
+		countPositions[depth] = countPosition;
+		items[depth] = 0;
+		hasZ[depth] = frameHasZ;
+		hasM[depth] = frameHasM;
+		depth++;
+	}
+
+	/**
+	 * Ensure the buffer can hold additional bytes
+	 *
+	 * @param length
+	 *            additional bytes
+	 */
+	private void ensureCapacity(int length) {
+		if (size + length > buffer.length) {
+			buffer = Arrays.copyOf(buffer,
+					Math.max(buffer.length * 2, size + length));
+		}
+	}
+
+	/**
+	 * Write a byte
+	 *
+	 * @param value
+	 *            byte value
+	 */
+	private void writeByte(byte value) {
+		ensureCapacity(1);
+		buffer[size++] = value;
+	}
+
+	/**
+	 * Write an integer
+	 *
+	 * @param value
+	 *            integer value
+	 */
+	private void writeInt(int value) {
+		ensureCapacity(4);
+		putInt(size, value);
+		size += 4;
+	}
+
+	/**
+	 * Write a double
+	 *
+	 * @param value
+	 *            double value
+	 */
+	private void writeDouble(double value) {
+		ensureCapacity(8);
+		long bits = Double.doubleToRawLongBits(value);
+		if (byteOrder == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < 8; i++) {
+				buffer[size + i] = (byte) (bits >> (56 - 8 * i));
+			}
+		} else {
+			for (int i = 0; i < 8; i++) {
+				buffer[size + i] = (byte) (bits >> (8 * i));
+			}
+		}
+		size += 8;
+	}
+
+	/**
+	 * Put an integer at a buffer position
+	 *
+	 * @param position
+	 *            buffer position
+	 * @param value
+	 *            integer value
+	 */
+	private void putInt(int position, int value) {
+		if (byteOrder == ByteOrder.BIG_ENDIAN) {
+			for (int i = 0; i < 4; i++) {
+				buffer[position + i] = (byte) (value >> (24 - 8 * i));
+			}
+		} else {
+			for (int i = 0; i < 4; i++) {
+				buffer[position + i] = (byte) (value >> (8 * i));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,440 @@
+package mil.nga.sf.wkb;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Byte layout of well-known binary geometries for the byte level utilities,
+ * decoding headers and skipping geometries directly in byte arrays without
+ * allocation. Headers are the byte order byte, the geometry type code, and
+ * the optional extended SRID, followed by the geometry body.
+ *
+ * @since 2.2.4
+ */
+final class WKBLayout {
+
+	/**
+	 * Byte order byte value for big endian
+	 */
+	static final byte BIG_ENDIAN = 0;
+
+	/**
+	 * Byte order byte value for little endian
+	 */
+	static final byte LITTLE_ENDIAN = 1;
+
+	/**
+	 * Flags of the geometry type code outside of the ISO code
+	 */
+	static final int FLAGS = GeometryCodes.FLOAT32_FLAG
+			| GeometryCodes.FIXED_POINT_FLAG | GeometryCodes.EWKB_Z_FLAG
+			| GeometryCodes.EWKB_M_FLAG | GeometryCodes.EWKB_SRID_FLAG;
+
+	/**
+	 * Determine if the geometry at the offset is big endian
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @return true if big endian, false if little endian
+	 */
+	static boolean isBigEndian(byte[] bytes, int offset) {
+		checkRange(bytes, offset, 5);
+		byte value = bytes[offset];
+		if (value != BIG_ENDIAN && value != LITTLE_ENDIAN) {
+			throw new SFException("Unexpected byte order value " + value
+					+ " at offset " + offset);
+		}
+		return value == BIG_ENDIAN;
+	}
+
+	/**
+	 * Get the geometry type code of the geometry at the offset, including
+	 * flags
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @return geometry type code
+	 */
+	static int getCode(byte[] bytes, int offset) {
+		return getInt(bytes, offset + 1, isBigEndian(bytes, offset));
+	}
+
+	/**
+	 * Get the geometry type of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return geometry type
+	 */
+	static GeometryType getGeometryType(int code) {
+		return GeometryCodes.getGeometryType(code & ~FLAGS);
+	}
+
+	/**
+	 * Determine if a geometry type code has z values
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return true if has z
+	 */
+	static boolean hasZ(int code) {
+		return (code & GeometryCodes.EWKB_Z_FLAG) != 0
+				|| GeometryCodes.hasZ(code & ~FLAGS);
+	}
+
+	/**
+	 * Determine if a geometry type code has m values
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return true if has m
+	 */
+	static boolean hasM(int code) {
+		return (code & GeometryCodes.EWKB_M_FLAG) != 0
+				|| GeometryCodes.hasM(code & ~FLAGS);
+	}
+
+	/**
+	 * Determine if a geometry type code has an extended SRID
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return true if has an SRID
+	 */
+	static boolean hasSrid(int code) {
+		return (code & GeometryCodes.EWKB_SRID_FLAG) != 0;
+	}
+
+	/**
+	 * Determine if a geometry type code is extended, flagging dimensions or
+	 * an SRID with extended well-known binary (PostGIS EWKB) flags
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return true if extended
+	 */
+	static boolean isExtended(int code) {
+		return (code & (GeometryCodes.EWKB_Z_FLAG | GeometryCodes.EWKB_M_FLAG
+				| GeometryCodes.EWKB_SRID_FLAG)) != 0;
+	}
+
+	/**
+	 * Rewrite the dimensions of a geometry type code, keeping the value
+	 * encoding and SRID flags and the extended or ISO dimension flavor
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @param hasZ
+	 *            true for z values
+	 * @param hasM
+	 *            true for m values
+	 * @return geometry type code
+	 */
+	static int setDimensions(int code, boolean hasZ, boolean hasM) {
+		return getCode(getGeometryType(code), hasZ, hasM, isExtended(code))
+				| (code & (GeometryCodes.FLOAT32_FLAG
+						| GeometryCodes.FIXED_POINT_FLAG
+						| GeometryCodes.EWKB_SRID_FLAG));
+	}
+
+	/**
+	 * Get the geometry type code of a geometry type and dimensions
+	 *
+	 * @param geometryType
+	 *            geometry type
+	 * @param hasZ
+	 *            true for z values
+	 * @param hasM
+	 *            true for m values
+	 * @param extended
+	 *            true for extended dimension flags, false for ISO codes
+	 * @return geometry type code
+	 */
+	static int getCode(GeometryType geometryType, boolean hasZ, boolean hasM,
+			boolean extended) {
+		int code;
+		if (extended) {
+			code = GeometryCodes.getCode(geometryType);
+			if (hasZ) {
+				code |= GeometryCodes.EWKB_Z_FLAG;
+			}
+			if (hasM) {
+				code |= GeometryCodes.EWKB_M_FLAG;
+			}
+		} else {
+			code = GeometryCodes.getCode(geometryType, hasZ, hasM);
+		}
+		return code;
+	}
+
+	/**
+	 * Get the size in bytes of each x and y value of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return 4 for float32 and fixed point values, 8 for doubles
+	 */
+	static int getXYSize(int code) {
+		return (code & (GeometryCodes.FLOAT32_FLAG
+				| GeometryCodes.FIXED_POINT_FLAG)) != 0 ? 4 : 8;
+	}
+
+	/**
+	 * Get the size in bytes of each z and m value of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return 4 for float32 values, 8 for doubles
+	 */
+	static int getZMSize(int code) {
+		return (code & GeometryCodes.FLOAT32_FLAG) != 0 ? 4 : 8;
+	}
+
+	/**
+	 * Get the size in bytes of each point of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return point size
+	 */
+	static int getPointSize(int code) {
+		return 2 * getXYSize(code)
+				+ (getDimensions(code) - 2) * getZMSize(code);
+	}
+
+	/**
+	 * Get the number of values in each point of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return point dimensions
+	 */
+	static int getDimensions(int code) {
+		return 2 + (hasZ(code) ? 1 : 0) + (hasM(code) ? 1 : 0);
+	}
+
+	/**
+	 * Get the header size in bytes of a geometry type code
+	 *
+	 * @param code
+	 *            geometry type code, including flags
+	 * @return header size
+	 */
+	static int getHeaderSize(int code) {
+		return hasSrid(code) ? 9 : 5;
+	}
+
+	/**
+	 * Skip the geometry at the offset
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 * @return offset following the geometry
+	 */
+	static int skip(byte[] bytes, int offset) {
+
+		boolean bigEndian = isBigEndian(bytes, offset);
+		int code = getInt(bytes, offset + 1, bigEndian);
+		int pointSize = getPointSize(code);
+		int position = offset + getHeaderSize(code);
+
+		switch (getGeometryType(code)) {
+		case POINT:
+			position += pointSize;
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			position = skipPoints(bytes, position, bigEndian, pointSize);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = getCount(bytes, position, bigEndian);
+			position += 4;
+			for (int i = 0; i < numRings; i++) {
+				position = skipPoints(bytes, position, bigEndian, pointSize);
+			}
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			int numGeometries = getCount(bytes, position, bigEndian);
+			position += 4;
+			for (int i = 0; i < numGeometries; i++) {
+				position = skip(bytes, position);
+			}
+			break;
+		default:
+			throw new SFException("Unexpected Geometry Type of "
+					+ getGeometryType(code).name() + " which is abstract");
+		}
+
+		checkRange(bytes, offset, position - offset);
+
+		return position;
+	}
+
+	/**
+	 * Skip a count prefixed list of points
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            count offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @param pointSize
+	 *            point size in bytes
+	 * @return offset following the points
+	 */
+	static int skipPoints(byte[] bytes, int offset, boolean bigEndian,
+			int pointSize) {
+		int count = getCount(bytes, offset, bigEndian);
+		long end = offset + 4 + (long) count * pointSize;
+		if (end > bytes.length) {
+			throw new SFException("Point count " + count + " at offset "
+					+ offset + " exceeds the " + bytes.length + " bytes");
+		}
+		return (int) end;
+	}
+
+	/**
+	 * Get a non negative count
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            count offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return count
+	 */
+	static int getCount(byte[] bytes, int offset, boolean bigEndian) {
+		checkRange(bytes, offset, 4);
+		int count = getInt(bytes, offset, bigEndian);
+		if (count < 0) {
+			throw new SFException(
+					"Invalid count " + count + " at offset " + offset);
+		}
+		return count;
+	}
+
+	/**
+	 * Get an integer
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return integer
+	 */
+	static int getInt(byte[] bytes, int offset, boolean bigEndian) {
+		int value;
+		if (bigEndian) {
+			value = (bytes[offset] & 0xFF) << 24
+					| (bytes[offset + 1] & 0xFF) << 16
+					| (bytes[offset + 2] & 0xFF) << 8
+					| (bytes[offset + 3] & 0xFF);
+		} else {
+			value = (bytes[offset + 3] & 0xFF) << 24
+					| (bytes[offset + 2] & 0xFF) << 16
+					| (bytes[offset + 1] & 0xFF) << 8
+					| (bytes[offset] & 0xFF);
+		}
+		return value;
+	}
+
+	/**
+	 * Put an integer
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @param value
+	 *            integer
+	 */
+	static void putInt(byte[] bytes, int offset, boolean bigEndian,
+			int value) {
+		for (int i = 0; i < 4; i++) {
+			bytes[offset + (bigEndian ? i : 3 - i)] = (byte) (value >> (24
+					- 8 * i));
+		}
+	}
+
+	/**
+	 * Get a long
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @return long
+	 */
+	static long getLong(byte[] bytes, int offset, boolean bigEndian) {
+		long high = getInt(bytes, offset + (bigEndian ? 0 : 4), bigEndian);
+		long low = getInt(bytes, offset + (bigEndian ? 4 : 0), bigEndian);
+		return high << 32 | (low & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Put a long
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            offset
+	 * @param bigEndian
+	 *            true if big endian
+	 * @param value
+	 *            long
+	 */
+	static void putLong(byte[] bytes, int offset, boolean bigEndian,
+			long value) {
+		putInt(bytes, offset + (bigEndian ? 0 : 4), bigEndian,
+				(int) (value >> 32));
+		putInt(bytes, offset + (bigEndian ? 4 : 0), bigEndian, (int) value);
+	}
+
+	/**
+	 * Check that a range is within the bytes
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            range offset
+	 * @param length
+	 *            range length
+	 */
+	static void checkRange(byte[] bytes, int offset, int length) {
+		if (offset < 0 || length < 0 || offset > bytes.length - length) {
+			throw new SFException("Range of " + length + " bytes at offset "
+					+ offset + " exceeds the " + bytes.length + " bytes");
+		}
+	}
+
+	/**
+	 * Constructor
+	 */
+	private WKBLayout() {
+	}
+
+}
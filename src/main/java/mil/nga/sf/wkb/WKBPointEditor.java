@@ -0,0 +1,639 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteBuffer;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary point editor, locating a point of a geometry and reading
+ * or overwriting its x, y, z, and m values directly in the bytes without
+ * decoding the geometry. Points are located by their index in traversal
+ * order across the whole geometry, or by a path of member, ring, and point
+ * indices. Point lists are skipped by size, so locating a point is
+ * proportional to the number of lists before it rather than the number of
+ * points. Values are written in the byte order and value encoding of the
+ * containing geometry. The editor is reusable across geometries and does not
+ * allocate.
+ *
+ * @since 2.2.4
+ */
+public class WKBPointEditor {
+
+	/**
+	 * Well-known binary bytes
+	 */
+	private byte[] bytes;
+
+	/**
+	 * Geometry offset
+	 */
+	private int offset;
+
+	/**
+	 * Fixed point origin x
+	 */
+	private double fixedPointOriginX = 0.0;
+
+	/**
+	 * Fixed point origin y
+	 */
+	private double fixedPointOriginY = 0.0;
+
+	/**
+	 * Fixed point scale, units per coordinate unit
+	 */
+	private double fixedPointScale = Double.NaN;
+
+	/**
+	 * Located point position, negative when no point is located
+	 */
+	private int position = -1;
+
+	/**
+	 * Located point big endian flag
+	 */
+	private boolean bigEndian;
+
+	/**
+	 * Located point geometry type code
+	 */
+	private int code;
+
+	/**
+	 * Remaining points to skip while locating by index
+	 */
+	private int remaining;
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 */
+	public WKBPointEditor(byte[] bytes) {
+		this(bytes, 0);
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 */
+	public WKBPointEditor(byte[] bytes, int offset) {
+		setBytes(bytes, offset);
+	}
+
+	/**
+	 * Constructor for the geometry at the position of an array backed byte
+	 * buffer
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public WKBPointEditor(ByteBuffer buffer) {
+		setBuffer(buffer);
+	}
+
+	/**
+	 * Get the bytes
+	 *
+	 * @return bytes
+	 */
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Get the geometry offset
+	 *
+	 * @return geometry offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Set the geometry bytes to edit, clearing the located point
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @param offset
+	 *            geometry offset
+	 */
+	public void setBytes(byte[] bytes, int offset) {
+		WKBLayout.checkRange(bytes, offset, 5);
+		this.bytes = bytes;
+		this.offset = offset;
+		this.position = -1;
+	}
+
+	/**
+	 * Set the geometry to edit to the geometry at the position of an array
+	 * backed byte buffer, clearing the located point
+	 *
+	 * @param buffer
+	 *            byte buffer
+	 */
+	public void setBuffer(ByteBuffer buffer) {
+		if (!buffer.hasArray()) {
+			throw new SFException(
+					"Byte buffer does not have an accessible backing array");
+		}
+		setBytes(buffer.array(), buffer.arrayOffset() + buffer.position());
+	}
+
+	/**
+	 * Set the origin and scale used to read and write fixed point x and y
+	 * values, see
+	 * {@link GeometryWriter#setFixedPoint(double, double, double)}
+	 *
+	 * @param originX
+	 *            origin x
+	 * @param originY
+	 *            origin y
+	 * @param scale
+	 *            fixed point units per coordinate unit
+	 */
+	public void setFixedPoint(double originX, double originY, double scale) {
+		if (!(scale > 0) || Double.isInfinite(scale)) {
+			throw new SFException("Invalid fixed point scale: " + scale);
+		}
+		this.fixedPointOriginX = originX;
+		this.fixedPointOriginY = originY;
+		this.fixedPointScale = scale;
+	}
+
+	/**
+	 * Locate a point by its index in traversal order across the geometry
+	 *
+	 * @param index
+	 *            point index
+	 */
+	public void locate(int index) {
+		position = -1;
+		if (index < 0) {
+			throw new SFException("Invalid point index: " + index);
+		}
+		remaining = index;
+		locateGeometry(offset);
+		if (position < 0) {
+			throw new SFException("Point index " + index
+					+ " exceeds the number of points: "
+					+ (index - remaining));
+		}
+	}
+
+	/**
+	 * Locate a point by a path of indices. Each collection, compound curve,
+	 * curve polygon, polyhedral surface, or TIN takes a member index, each
+	 * polygon or triangle a ring index, and each line string or circular
+	 * string a point index. A point geometry ends the path.
+	 *
+	 * @param path
+	 *            member, ring, and point indices
+	 */
+	public void locatePath(int... path) {
+
+		position = -1;
+
+		int geometry = offset;
+		int depth = 0;
+		while (position < 0) {
+
+			boolean geometryBigEndian = WKBLayout.isBigEndian(bytes,
+					geometry);
+			int geometryCode = WKBLayout.getInt(bytes, geometry + 1,
+					geometryBigEndian);
+			int body = geometry + WKBLayout.getHeaderSize(geometryCode);
+			GeometryType geometryType = WKBLayout
+					.getGeometryType(geometryCode);
+
+			int pointList = -1;
+			switch (geometryType) {
+			case POINT:
+				setPoint(body, geometryBigEndian, geometryCode);
+				break;
+			case LINESTRING:
+			case CIRCULARSTRING:
+				pointList = body;
+				break;
+			case POLYGON:
+			case TRIANGLE:
+				int ring = pathIndex(path, depth++, body, geometryBigEndian);
+				pointList = body + 4;
+				for (int i = 0; i < ring; i++) {
+					pointList = WKBLayout.skipPoints(bytes, pointList,
+							geometryBigEndian,
+							WKBLayout.getPointSize(geometryCode));
+				}
+				break;
+			default:
+				int member = pathIndex(path, depth++, body,
+						geometryBigEndian);
+				geometry = body + 4;
+				for (int i = 0; i < member; i++) {
+					geometry = WKBLayout.skip(bytes, geometry);
+				}
+			}
+
+			if (pointList >= 0) {
+				int point = pathIndex(path, depth++, pointList,
+						geometryBigEndian);
+				setPoint(pointList + 4
+						+ point * WKBLayout.getPointSize(geometryCode),
+						geometryBigEndian, geometryCode);
+			}
+		}
+
+		if (depth < path.length) {
+			position = -1;
+			throw new SFException("Path of length " + path.length
+					+ " continues past the point at depth " + depth);
+		}
+	}
+
+	/**
+	 * Determine if a point is located
+	 *
+	 * @return true if located
+	 */
+	public boolean isLocated() {
+		return position >= 0;
+	}
+
+	/**
+	 * Get the byte position of the located point
+	 *
+	 * @return point position
+	 */
+	public int getPosition() {
+		located();
+		return position;
+	}
+
+	/**
+	 * Determine if the located point has a z value
+	 *
+	 * @return true if has z
+	 */
+	public boolean hasZ() {
+		located();
+		return WKBLayout.hasZ(code);
+	}
+
+	/**
+	 * Determine if the located point has an m value
+	 *
+	 * @return true if has m
+	 */
+	public boolean hasM() {
+		located();
+		return WKBLayout.hasM(code);
+	}
+
+	/**
+	 * Get the x value of the located point
+	 *
+	 * @return x
+	 */
+	public double getX() {
+		located();
+		return getXY(position, fixedPointOriginX);
+	}
+
+	/**
+	 * Get the y value of the located point
+	 *
+	 * @return y
+	 */
+	public double getY() {
+		located();
+		return getXY(position + WKBLayout.getXYSize(code),
+				fixedPointOriginY);
+	}
+
+	/**
+	 * Get the z value of the located point
+	 *
+	 * @return z
+	 */
+	public double getZ() {
+		return getValue(zPosition());
+	}
+
+	/**
+	 * Get the m value of the located point
+	 *
+	 * @return m
+	 */
+	public double getM() {
+		return getValue(mPosition());
+	}
+
+	/**
+	 * Set the x value of the located point
+	 *
+	 * @param x
+	 *            x
+	 */
+	public void setX(double x) {
+		located();
+		setXY(position, x, fixedPointOriginX);
+	}
+
+	/**
+	 * Set the y value of the located point
+	 *
+	 * @param y
+	 *            y
+	 */
+	public void setY(double y) {
+		located();
+		setXY(position + WKBLayout.getXYSize(code), y, fixedPointOriginY);
+	}
+
+	/**
+	 * Set the x and y values of the located point
+	 *
+	 * @param x
+	 *            x
+	 * @param y
+	 *            y
+	 */
+	public void setXY(double x, double y) {
+		setX(x);
+		setY(y);
+	}
+
+	/**
+	 * Set the z value of the located point
+	 *
+	 * @param z
+	 *            z
+	 */
+	public void setZ(double z) {
+		setValue(zPosition(), z);
+	}
+
+	/**
+	 * Set the m value of the located point
+	 *
+	 * @param m
+	 *            m
+	 */
+	public void setM(double m) {
+		setValue(mPosition(), m);
+	}
+
+	/**
+	 * Locate the point at the remaining index within the geometry at the
+	 * position, setting the located point when found
+	 *
+	 * @param geometry
+	 *            geometry position
+	 * @return position following the geometry when not found
+	 */
+	private int locateGeometry(int geometry) {
+
+		boolean geometryBigEndian = WKBLayout.isBigEndian(bytes, geometry);
+		int geometryCode = WKBLayout.getInt(bytes, geometry + 1,
+				geometryBigEndian);
+		int next = geometry + WKBLayout.getHeaderSize(geometryCode);
+
+		switch (WKBLayout.getGeometryType(geometryCode)) {
+		case POINT:
+			if (remaining == 0) {
+				setPoint(next, geometryBigEndian, geometryCode);
+			} else {
+				remaining--;
+				next += WKBLayout.getPointSize(geometryCode);
+			}
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			next = locatePoints(next, geometryBigEndian, geometryCode);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			int numRings = WKBLayout.getCount(bytes, next,
+					geometryBigEndian);
+			next += 4;
+			for (int i = 0; i < numRings && position < 0; i++) {
+				next = locatePoints(next, geometryBigEndian, geometryCode);
+			}
+			break;
+		default:
+			int numGeometries = WKBLayout.getCount(bytes, next,
+					geometryBigEndian);
+			next += 4;
+			for (int i = 0; i < numGeometries && position < 0; i++) {
+				next = locateGeometry(next);
+			}
+		}
+
+		return next;
+	}
+
+	/**
+	 * Locate the point at the remaining index within a count prefixed list of
+	 * points, setting the located point when found
+	 *
+	 * @param list
+	 *            point list count position
+	 * @param geometryBigEndian
+	 *            true if big endian
+	 * @param geometryCode
+	 *            geometry type code
+	 * @return position following the points when not found
+	 */
+	private int locatePoints(int list, boolean geometryBigEndian,
+			int geometryCode) {
+		int next = list;
+		int count = WKBLayout.getCount(bytes, list, geometryBigEndian);
+		if (remaining < count) {
+			setPoint(list + 4
+					+ remaining * WKBLayout.getPointSize(geometryCode),
+					geometryBigEndian, geometryCode);
+		} else {
+			remaining -= count;
+			next = WKBLayout.skipPoints(bytes, list, geometryBigEndian,
+					WKBLayout.getPointSize(geometryCode));
+		}
+		return next;
+	}
+
+	/**
+	 * Get the path index at a depth, validated against the count at the
+	 * position
+	 *
+	 * @param path
+	 *            path
+	 * @param depth
+	 *            path depth
+	 * @param countPosition
+	 *            count position
+	 * @param geometryBigEndian
+	 *            true if big endian
+	 * @return index
+	 */
+	private int pathIndex(int[] path, int depth, int countPosition,
+			boolean geometryBigEndian) {
+		if (depth >= path.length) {
+			throw new SFException("Path of length " + path.length
+					+ " ends before a point");
+		}
+		int index = path[depth];
+		int count = WKBLayout.getCount(bytes, countPosition,
+				geometryBigEndian);
+		if (index < 0 || index >= count) {
+			throw new SFException("Path index " + index + " at depth "
+					+ depth + " is outside of the count " + count);
+		}
+		return index;
+	}
+
+	/**
+	 * Set the located point
+	 *
+	 * @param point
+	 *            point position
+	 * @param geometryBigEndian
+	 *            true if big endian
+	 * @param geometryCode
+	 *            geometry type code
+	 */
+	private void setPoint(int point, boolean geometryBigEndian,
+			int geometryCode) {
+		WKBLayout.checkRange(bytes, point,
+				WKBLayout.getPointSize(geometryCode));
+		if ((geometryCode & GeometryCodes.FIXED_POINT_FLAG) != 0
+				&& Double.isNaN(fixedPointScale)) {
+			throw new SFException("Fixed point geometry requires the fixed "
+					+ "point origin and scale");
+		}
+		this.position = point;
+		this.bigEndian = geometryBigEndian;
+		this.code = geometryCode;
+	}
+
+	/**
+	 * Validate that a point is located
+	 */
+	private void located() {
+		if (position < 0) {
+			throw new SFException("No point is located");
+		}
+	}
+
+	/**
+	 * Get the z value position of the located point
+	 *
+	 * @return z position
+	 */
+	private int zPosition() {
+		if (!hasZ()) {
+			throw new SFException("Located point does not have a z value");
+		}
+		return position + 2 * WKBLayout.getXYSize(code);
+	}
+
+	/**
+	 * Get the m value position of the located point
+	 *
+	 * @return m position
+	 */
+	private int mPosition() {
+		if (!hasM()) {
+			throw new SFException("Located point does not have an m value");
+		}
+		return position + 2 * WKBLayout.getXYSize(code)
+				+ (WKBLayout.hasZ(code) ? WKBLayout.getZMSize(code) : 0);
+	}
+
+	/**
+	 * Get an x or y value
+	 *
+	 * @param valuePosition
+	 *            value position
+	 * @param origin
+	 *            fixed point origin
+	 * @return value
+	 */
+	private double getXY(int valuePosition, double origin) {
+		double value;
+		if ((code & GeometryCodes.FIXED_POINT_FLAG) != 0) {
+			value = origin + WKBLayout.getInt(bytes, valuePosition, bigEndian)
+					/ fixedPointScale;
+		} else {
+			value = getValue(valuePosition);
+		}
+		return value;
+	}
+
+	/**
+	 * Set an x or y value
+	 *
+	 * @param valuePosition
+	 *            value position
+	 * @param value
+	 *            value
+	 * @param origin
+	 *            fixed point origin
+	 */
+	private void setXY(int valuePosition, double value, double origin) {
+		if ((code & GeometryCodes.FIXED_POINT_FLAG) != 0) {
+			double scaled = Math.rint((value - origin) * fixedPointScale);
+			if (!(scaled >= Integer.MIN_VALUE
+					&& scaled <= Integer.MAX_VALUE)) {
+				throw new SFException("Coordinate " + value
+						+ " is outside of the fixed point range of origin "
+						+ origin + " and scale " + fixedPointScale);
+			}
+			WKBLayout.putInt(bytes, valuePosition, bigEndian, (int) scaled);
+		} else {
+			setValue(valuePosition, value);
+		}
+	}
+
+	/**
+	 * Get a double or float32 value
+	 *
+	 * @param valuePosition
+	 *            value position
+	 * @return value
+	 */
+	private double getValue(int valuePosition) {
+		double value;
+		if ((code & GeometryCodes.FLOAT32_FLAG) != 0) {
+			value = Float.intBitsToFloat(
+					WKBLayout.getInt(bytes, valuePosition, bigEndian));
+		} else {
+			value = Double.longBitsToDouble(
+					WKBLayout.getLong(bytes, valuePosition, bigEndian));
+		}
+		return value;
+	}
+
+	/**
+	 * Set a double or float32 value
+	 *
+	 * @param valuePosition
+	 *            value position
+	 * @param value
+	 *            value
+	 */
+	private void setValue(int valuePosition, double value) {
+		if ((code & GeometryCodes.FLOAT32_FLAG) != 0) {
+			WKBLayout.putInt(bytes, valuePosition, bigEndian,
+					Float.floatToIntBits((float) value));
+		} else {
+			WKBLayout.putLong(bytes, valuePosition, bigEndian,
+					Double.doubleToLongBits(value));
+		}
+	}
+
+}
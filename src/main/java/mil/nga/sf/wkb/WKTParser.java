@@ -0,0 +1,405 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteWriter;
+
+/**
+ * Streaming well-known text parser reporting geometries to a
+ * {@link GeometryHandler} without building geometries. Paired with a
+ * {@link WKBGeometryHandler}, well-known text is encoded directly to
+ * well-known binary with list counts back-patched as each list ends.
+ * Dimensions are read from Z, M, and ZM tags, inherited by untagged members,
+ * and otherwise determined from the first coordinate of the geometry.
+ *
+ * @since 2.2.4
+ */
+public class WKTParser extends TextParser {
+
+	/**
+	 * Encode well-known text to well-known binary using the default byte order
+	 *
+	 * @param text
+	 *            well-known text
+	 * @return well-known binary
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence text) throws IOException {
+		return toWKB(text, ByteWriter.DEFAULT_BYTE_ORDER);
+	}
+
+	/**
+	 * Encode well-known text to well-known binary
+	 *
+	 * @param text
+	 *            well-known text
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence text, ByteOrder byteOrder)
+			throws IOException {
+		return toWKB(text, 0, text.length(), byteOrder);
+	}
+
+	/**
+	 * Encode a range of well-known text to well-known binary, such as a
+	 * column of a delimited line
+	 *
+	 * @param text
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 * @param byteOrder
+	 *            byte order
+	 * @return well-known binary
+	 * @throws IOException
+	 *             upon failure to encode
+	 */
+	public static byte[] toWKB(CharSequence text, int start, int end,
+			ByteOrder byteOrder) throws IOException {
+		WKBGeometryHandler handler = new WKBGeometryHandler(byteOrder,
+				end - start);
+		new WKTParser(text, start, end).parse(handler);
+		return handler.getBytes();
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param text
+	 *            well-known text
+	 */
+	public WKTParser(CharSequence text) {
+		this(text, 0, text.length());
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param text
+	 *            character sequence
+	 * @param start
+	 *            start index, inclusive
+	 * @param end
+	 *            end index, exclusive
+	 */
+	public WKTParser(CharSequence text, int start, int end) {
+		super(text, start, end);
+	}
+
+	/**
+	 * Parse the next geometry, reporting it to the handler. Trailing text
+	 * other than whitespace is an error.
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	public void parse(GeometryHandler handler) throws IOException {
+		parseGeometry(handler, null, false, false);
+		skipWhitespace();
+		if (position < end) {
+			throw error("Unexpected trailing text");
+		}
+	}
+
+	/**
+	 * Parse a geometry
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param containingType
+	 *            containing geometry type or null for the top level geometry
+	 * @param parentZ
+	 *            containing geometry has z values
+	 * @param parentM
+	 *            containing geometry has m values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parseGeometry(GeometryHandler handler,
+			GeometryType containingType, boolean parentZ, boolean parentM)
+			throws IOException {
+
+		skipWhitespace();
+
+		GeometryType geometryType = null;
+		boolean hasZ = parentZ;
+		boolean hasM = parentM;
+
+		int wordEnd = wordEnd();
+		if (wordEnd > position && !isWord("EMPTY", wordEnd)) {
+			geometryType = geometryType(wordEnd);
+			position = wordEnd;
+			skipWhitespace();
+			wordEnd = wordEnd();
+			if (isWord("ZM", wordEnd)) {
+				hasZ = true;
+				hasM = true;
+				position = wordEnd;
+			} else if (isWord("Z", wordEnd)) {
+				hasZ = true;
+				hasM = false;
+				position = wordEnd;
+			} else if (isWord("M", wordEnd)) {
+				hasZ = false;
+				hasM = true;
+				position = wordEnd;
+			} else if (containingType == null) {
+				int dimensions = peekDimensions();
+				hasZ = dimensions > 2;
+				hasM = dimensions > 3;
+			}
+		} else if (containingType != null) {
+			geometryType = memberType(containingType);
+		}
+		if (geometryType == null) {
+			throw error("Expected a geometry type");
+		}
+
+		handler.startGeometry(geometryType, hasZ, hasM, containingType);
+
+		switch (geometryType) {
+		case POINT:
+			parsePoint(handler, hasZ, hasM,
+					containingType == GeometryType.MULTIPOINT);
+			break;
+		case LINESTRING:
+		case CIRCULARSTRING:
+			parsePoints(handler, hasZ, hasM);
+			break;
+		case POLYGON:
+		case TRIANGLE:
+			if (startList(handler)) {
+				do {
+					parsePoints(handler, hasZ, hasM);
+				} while (nextItem());
+			}
+			handler.endList();
+			break;
+		case MULTIPOINT:
+		case MULTILINESTRING:
+		case MULTIPOLYGON:
+		case GEOMETRYCOLLECTION:
+		case MULTICURVE:
+		case MULTISURFACE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+		case POLYHEDRALSURFACE:
+		case TIN:
+			if (startList(handler)) {
+				do {
+					parseGeometry(handler, geometryType, hasZ, hasM);
+				} while (nextItem());
+			}
+			handler.endList();
+			break;
+		default:
+			throw error("Unexpected Geometry Type of " + geometryType.name()
+					+ " which is abstract");
+		}
+
+		handler.endGeometry();
+	}
+
+	/**
+	 * Parse the body of a point, optionally allowing coordinates without
+	 * parentheses as within a multi point
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @param bare
+	 *            true to allow coordinates without parentheses
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parsePoint(GeometryHandler handler, boolean hasZ,
+			boolean hasM, boolean bare) throws IOException {
+		skipWhitespace();
+		if (skipWord("EMPTY")) {
+			handler.point(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+		} else if (position < end && text.charAt(position) == '(') {
+			position++;
+			parseCoordinates(handler, hasZ, hasM);
+			expect(')');
+		} else if (bare) {
+			parseCoordinates(handler, hasZ, hasM);
+		} else {
+			throw error("Expected '(' or EMPTY");
+		}
+	}
+
+	/**
+	 * Parse a list of points
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parsePoints(GeometryHandler handler, boolean hasZ,
+			boolean hasM) throws IOException {
+		if (startList(handler)) {
+			do {
+				parseCoordinates(handler, hasZ, hasM);
+			} while (nextItem());
+		}
+		handler.endList();
+	}
+
+	/**
+	 * Parse the coordinates of a point
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @param hasZ
+	 *            has z values
+	 * @param hasM
+	 *            has m values
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private void parseCoordinates(GeometryHandler handler, boolean hasZ,
+			boolean hasM) throws IOException {
+		double x = parseNumber();
+		double y = parseNumber();
+		double z = hasZ ? parseNumber() : Double.NaN;
+		double m = hasM ? parseNumber() : Double.NaN;
+		handler.point(x, y, z, m);
+	}
+
+	/**
+	 * Start a list, reporting an empty list for EMPTY
+	 *
+	 * @param handler
+	 *            geometry handler
+	 * @return true if the list has items to parse
+	 * @throws IOException
+	 *             upon failure to handle
+	 */
+	private boolean startList(GeometryHandler handler) throws IOException {
+		skipWhitespace();
+		boolean items = !skipWord("EMPTY");
+		if (items) {
+			expect('(');
+			handler.startList(-1);
+		} else {
+			handler.startList(0);
+		}
+		return items;
+	}
+
+	/**
+	 * Move past a list separator or the list end
+	 *
+	 * @return true if another item follows
+	 */
+	private boolean nextItem() {
+		skipWhitespace();
+		if (position < end) {
+			char c = text.charAt(position++);
+			if (c == ',') {
+				return true;
+			} else if (c == ')') {
+				return false;
+			}
+			position--;
+		}
+		throw error("Expected ',' or ')'");
+	}
+
+	/**
+	 * Determine the number of dimensions of the first coordinate ahead of the
+	 * current position without moving it
+	 *
+	 * @return dimensions, 2 when there are no coordinates
+	 */
+	private int peekDimensions() {
+		int start = position;
+		int dimensions = 2;
+		while (position < end) {
+			char c = text.charAt(position);
+			if (c == '-' || c == '+' || c == '.' || (c >= '0' && c <= '9')
+					|| isWord("NaN", wordEnd())) {
+				dimensions = 0;
+				while (position < end && text.charAt(position) != ','
+						&& text.charAt(position) != ')') {
+					parseNumber();
+					dimensions++;
+					skipWhitespace();
+				}
+				break;
+			}
+			position++;
+		}
+		position = start;
+		return dimensions;
+	}
+
+	/**
+	 * Get the implied type of an untagged member of a geometry type
+	 *
+	 * @param containingType
+	 *            containing geometry type
+	 * @return member geometry type or null if members must be tagged
+	 */
+	private static GeometryType memberType(GeometryType containingType) {
+		GeometryType memberType;
+		switch (containingType) {
+		case MULTIPOINT:
+			memberType = GeometryType.POINT;
+			break;
+		case MULTILINESTRING:
+		case MULTICURVE:
+		case COMPOUNDCURVE:
+		case CURVEPOLYGON:
+			memberType = GeometryType.LINESTRING;
+			break;
+		case MULTIPOLYGON:
+		case MULTISURFACE:
+		case POLYHEDRALSURFACE:
+			memberType = GeometryType.POLYGON;
+			break;
+		case TIN:
+			memberType = GeometryType.TRIANGLE;
+			break;
+		default:
+			memberType = null;
+		}
+		return memberType;
+	}
+
+	/**
+	 * Get the geometry type of the word at the current position
+	 *
+	 * @param wordEnd
+	 *            word end index
+	 * @return geometry type
+	 */
+	private GeometryType geometryType(int wordEnd) {
+		for (GeometryType geometryType : GeometryType.values()) {
+			if (isWord(geometryType.name(), wordEnd)) {
+				return geometryType;
+			}
+		}
+		throw error("Unknown geometry type");
+	}
+
+}
@@ -0,0 +1,399 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Well-known binary to well-known text transcoder. Geometries are traversed
+ * with {@link GeometryReader#traverse(GeometryHandler)} and written as text to
+ * an {@link Appendable} in a single streaming pass, without building
+ * geometries. Numbers are written as the shortest text that reads back to the
+ * same double, or rounded to a maximum number of fraction digits. Infinite
+ * and NaN coordinates, other than an empty point, are not supported.
+ *
+ * @since 2.2.4
+ */
+public class WKTTranscoder {
+
+	/**
+	 * Transcode well-known binary to well-known text
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return well-known text
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	public static String toWKT(byte[] bytes) throws IOException {
+		StringBuilder text = new StringBuilder();
+		new WKTTranscoder().write(bytes, text);
+		return text.toString();
+	}
+
+	/**
+	 * Maximum number of fraction digits, negative for the shortest round trip
+	 * text
+	 */
+	private int maximumFractionDigits = -1;
+
+	/**
+	 * Constructor, writing the shortest round trip text of numbers
+	 */
+	public WKTTranscoder() {
+	}
+
+	/**
+	 * Constructor
+	 *
+	 * @param maximumFractionDigits
+	 *            maximum number of fraction digits, negative for the shortest
+	 *            round trip text
+	 */
+	public WKTTranscoder(int maximumFractionDigits) {
+		setMaximumFractionDigits(maximumFractionDigits);
+	}
+
+	/**
+	 * Get the maximum number of fraction digits
+	 *
+	 * @return maximum fraction digits, negative for the shortest round trip
+	 *         text
+	 */
+	public int getMaximumFractionDigits() {
+		return maximumFractionDigits;
+	}
+
+	/**
+	 * Set the maximum number of fraction digits. Values are rounded half even
+	 * to the digits and written without trailing zeros.
+	 *
+	 * @param maximumFractionDigits
+	 *            maximum fraction digits, negative for the shortest round
+	 *            trip text
+	 */
+	public void setMaximumFractionDigits(int maximumFractionDigits) {
+		this.maximumFractionDigits = maximumFractionDigits;
+	}
+
+	/**
+	 * Transcode well-known binary to well-known text
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(byte[] bytes, Appendable appendable)
+			throws IOException {
+		write(new ByteReader(bytes), appendable);
+	}
+
+	/**
+	 * Transcode the next well-known binary geometry to well-known text
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(ByteReader reader, Appendable appendable)
+			throws IOException {
+		write(new GeometryReader(reader), appendable);
+	}
+
+	/**
+	 * Transcode the next well-known binary geometry to well-known text
+	 *
+	 * @param reader
+	 *            geometry reader
+	 * @param appendable
+	 *            appendable, such as a {@link StringBuilder} or
+	 *            {@link java.io.Writer}
+	 * @throws IOException
+	 *             upon failure to read or write
+	 */
+	public void write(GeometryReader reader, Appendable appendable)
+			throws IOException {
+		reader.traverse(new TextHandler(appendable, maximumFractionDigits));
+	}
+
+	/**
+	 * Geometry handler writing well-known text
+	 */
+	private static class TextHandler implements GeometryHandler {
+
+		/**
+		 * Appendable
+		 */
+		private final Appendable out;
+
+		/**
+		 * Rounding scale, 10 to the maximum fraction digits, or NaN for the
+		 * shortest round trip text
+		 */
+		private final double scale;
+
+		/**
+		 * List frame flags, false for geometry frames
+		 */
+		private boolean[] list = new boolean[16];
+
+		/**
+		 * Items written in each list frame
+		 */
+		private int[] items = new int[16];
+
+		/**
+		 * Has z values by frame
+		 */
+		private boolean[] hasZ = new boolean[16];
+
+		/**
+		 * Has m values by frame
+		 */
+		private boolean[] hasM = new boolean[16];
+
+		/**
+		 * Number of open frames
+		 */
+		private int depth = 0;
+
+		/**
+		 * Space pending between a geometry tag and its body
+		 */
+		private boolean space = false;
+
+		/**
+		 * Constructor
+		 *
+		 * @param out
+		 *            appendable
+		 * @param maximumFractionDigits
+		 *            maximum fraction digits, negative for the shortest round
+		 *            trip text
+		 */
+		private TextHandler(Appendable out, int maximumFractionDigits) {
+			this.out = out;
+			this.scale = DecimalText.scale(maximumFractionDigits);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startGeometry(GeometryType geometryType, boolean hasZ,
+				boolean hasM, GeometryType containingType)
+				throws IOException {
+
+			separate();
+			push(false, hasZ, hasM);
+
+			if (isTagged(geometryType, containingType)) {
+				out.append(geometryType.name());
+				if (hasZ || hasM) {
+					out.append(' ');
+					if (hasZ) {
+						out.append('Z');
+					}
+					if (hasM) {
+						out.append('M');
+					}
+				}
+				space = true;
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void startList(int count) throws IOException {
+			separate();
+			push(true, hasZ[depth - 1], hasM[depth - 1]);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void point(double x, double y, double z, double m)
+				throws IOException {
+			if (list[depth - 1]) {
+				separate();
+				coordinates(x, y, z, m);
+			} else if (Double.isNaN(x) && Double.isNaN(y)) {
+				open("EMPTY");
+			} else {
+				open("(");
+				coordinates(x, y, z, m);
+				out.append(')');
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endList() throws IOException {
+			depth--;
+			if (items[depth] > 0) {
+				out.append(')');
+			} else {
+				open("EMPTY");
+			}
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public void endGeometry() throws IOException {
+			depth--;
+		}
+
+		/**
+		 * Determine if the geometry is written with its type tag, omitted for
+		 * the implied member types of multi geometries, curves, and surfaces
+		 *
+		 * @param geometryType
+		 *            geometry type
+		 * @param containingType
+		 *            containing geometry type
+		 * @return true if tagged
+		 */
+		private static boolean isTagged(GeometryType geometryType,
+				GeometryType containingType) {
+			boolean tagged = true;
+			if (containingType != null
+					&& containingType != GeometryType.GEOMETRYCOLLECTION) {
+				switch (geometryType) {
+				case POINT:
+				case LINESTRING:
+				case POLYGON:
+				case TRIANGLE:
+					tagged = false;
+					break;
+				default:
+				}
+			}
+			return tagged;
+		}
+
+		/**
+		 * Push a frame
+		 *
+		 * @param isList
+		 *            true for a list frame, false for a geometry frame
+		 * @param frameHasZ
+		 *            has z values
+		 * @param frameHasM
+		 *            has m values
+		 */
+		private void push(boolean isList, boolean frameHasZ,
+				boolean frameHasM) {
+			if (depth == list.length) {
+				int length = depth * 2;
+				list = Arrays.copyOf(list, length);
+				items = Arrays.copyOf(items, length);
+				hasZ = Arrays.copyOf(hasZ, length);
+				hasM = Arrays.copyOf(hasM, length);
+			}
+			list[depth] = isList;
+			items[depth] = 0;
+			hasZ[depth] = frameHasZ;
+			hasM[depth] = frameHasM;
+			depth++;
+		}
+
+		/**
+		 * Write the opening parenthesis or separator before an item of the
+		 * current list
+		 *
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void separate() throws IOException {
+			if (depth > 0 && list[depth - 1]) {
+				if (items[depth - 1]++ > 0) {
+					out.append(", ");
+				} else {
+					open("(");
+				}
+			}
+		}
+
+		/**
+		 * Write text opening a geometry body
+		 *
+		 * @param text
+		 *            text
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void open(String text) throws IOException {
+			if (space) {
+				out.append(' ');
+				space = false;
+			}
+			out.append(text);
+		}
+
+		/**
+		 * Write the coordinates of a point
+		 *
+		 * @param x
+		 *            x value
+		 * @param y
+		 *            y value
+		 * @param z
+		 *            z value
+		 * @param m
+		 *            m value
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void coordinates(double x, double y, double z, double m)
+				throws IOException {
+			number(x);
+			out.append(' ');
+			number(y);
+			if (hasZ[depth - 1]) {
+				out.append(' ');
+				number(z);
+			}
+			if (hasM[depth - 1]) {
+				out.append(' ');
+				number(m);
+			}
+		}
+
+		/**
+		 * Write a number
+		 *
+		 * @param value
+		 *            finite value
+		 * @throws IOException
+		 *             upon failure to write
+		 */
+		private void number(double value) throws IOException {
+			if (!Double.isFinite(value)) {
+				throw new SFException(
+						"Well-known text requires finite coordinates: "
+								+ value);
+			}
+			DecimalText.append(out, value, scale);
+		}
+
+	}
+
+}
@@ -0,0 +1,94 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Lossless XOR encoding of double values against the previous value in the
+ * style of Gorilla, aligned to bytes. Neighboring coordinates share sign,
+ * exponent, and high order mantissa bits, leaving leading zero bytes in the
+ * XOR which are not written.
+ *
+ * <pre>
+ * identical:  0x00
+ * otherwise:  0x80 | leading zero bytes &lt;&lt; 3 | trailing zero bytes
+ *             | significant XOR bytes, most significant first
+ * </pre>
+ *
+ * @since 2.2.4
+ */
+class XorDoubles {
+
+	/**
+	 * Control byte flag for a changed value
+	 */
+	private static final int CHANGED = 0x80;
+
+	/**
+	 * Write the value as the XOR of the previous value
+	 *
+	 * @param writer
+	 *            byte writer
+	 * @param previous
+	 *            previous value bits
+	 * @param value
+	 *            value
+	 * @return value bits
+	 * @throws IOException
+	 *             upon failure to write
+	 */
+	static long write(ByteWriter writer, long previous, double value)
+			throws IOException {
+		long bits = Double.doubleToRawLongBits(value);
+		long xor = previous ^ bits;
+		if (xor == 0) {
+			writer.writeByte((byte) 0);
+		} else {
+			int leading = Long.numberOfLeadingZeros(xor) >>> 3;
+			int trailing = Long.numberOfTrailingZeros(xor) >>> 3;
+			writer.writeByte((byte) (CHANGED | (leading << 3) | trailing));
+			int lastShift = trailing * 8;
+			for (int shift = (7 - leading) * 8; shift >= lastShift; shift -= 8) {
+				writer.writeByte((byte) (xor >>> shift));
+			}
+		}
+		return bits;
+	}
+
+	/**
+	 * Read the value bits from the XOR of the previous value
+	 *
+	 * @param reader
+	 *            byte reader
+	 * @param previous
+	 *            previous value bits
+	 * @return value bits
+	 * @throws IOException
+	 *             upon failure to read
+	 */
+	static long read(ByteReader reader, long previous) throws IOException {
+		int control = reader.readByte() & 0xFF;
+		long bits = previous;
+		if (control != 0) {
+			int leading = (control >>> 3) & 0x07;
+			int trailing = control & 0x07;
+			int significant = 8 - leading - trailing;
+			if ((control & CHANGED) == 0 || (control & 0x40) != 0
+					|| significant < 1) {
+				throw new SFException(
+						"Invalid XOR encoded double control byte: "
+								+ control);
+			}
+			long xor = 0;
+			for (int i = 0; i < significant; i++) {
+				xor = (xor << 8) | (reader.readByte() & 0xFF);
+			}
+			bits ^= xor << (trailing * 8);
+		}
+		return bits;
+	}
+
+}
@@ -0,0 +1,95 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.filter.FiniteFilterType;
+import mil.nga.sf.util.filter.PointFiniteFilter;
+
+/**
+ * Test Compact Geometries
+ */
+public class CompactGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 100;
+
+	/**
+	 * Test lossless round trips matching well-known binary
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+			testGeometry(geometry);
+		}
+		testGeometry(WKBTestUtils.createMultiCurve());
+		testGeometry(WKBTestUtils.createMultiSurface());
+		testGeometry(
+				WKBTestUtils.createMultiLineStringWithCircularStrings(true,
+						true));
+
+	}
+
+	/**
+	 * Test neighboring coordinates compact below well-known binary
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testCompaction() throws IOException {
+
+		LineString lineString = new LineString(true, false);
+		for (int i = 0; i < 1000; i++) {
+			lineString.addPoint(new Point(-77.0365 + i * 0.0001,
+					38.8977 + i * 0.00005, 100.0));
+		}
+		lineString.addPoint(new Point(Double.NaN, 0.0, 100.0));
+
+		byte[] bytes = CompactGeometryWriter.writeGeometry(lineString);
+		byte[] wkb = GeometryWriter.writeGeometry(lineString);
+		TestCase.assertTrue(bytes.length < wkb.length * 0.8);
+
+		testGeometry(lineString);
+
+		PointFiniteFilter filter = new PointFiniteFilter(
+				FiniteFilterType.FINITE);
+		LineString filtered = CompactGeometryReader.readGeometry(bytes,
+				filter, LineString.class);
+		TestCase.assertEquals(lineString.numPoints() - 1,
+				filtered.numPoints());
+
+	}
+
+	/**
+	 * Test the geometry round trips equal to a well-known binary round trip
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testGeometry(Geometry geometry) throws IOException {
+
+		Geometry expected = GeometryReader
+				.readGeometry(GeometryWriter.writeGeometry(geometry));
+		Geometry actual = CompactGeometryReader
+				.readGeometry(CompactGeometryWriter.writeGeometry(geometry));
+		WKBTestUtils.compareGeometries(expected, actual);
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(expected),
+				GeometryWriter.writeGeometry(actual));
+	}
+
+}
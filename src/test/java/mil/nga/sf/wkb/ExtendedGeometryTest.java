@@ -0,0 +1,124 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.Point;
+
+/**
+ * Test Extended Well Known Binary (PostGIS EWKB) Geometries
+ */
+public class ExtendedGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test against known encodings
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownEncodings() throws IOException {
+
+		// SRID=4326;POINT(1 2)
+		Point point = new Point(1, 2);
+		byte[] pointBytes = new byte[] { 0x01, 0x01, 0x00, 0x00, 0x20,
+				(byte) 0xE6, 0x10, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, (byte) 0xF0, 0x3F, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00,
+				0x00, 0x40 };
+		WKBTestUtils.compareByteArrays(pointBytes, GeometryWriter
+				.writeGeometry(point, 4326, ByteOrder.LITTLE_ENDIAN));
+
+		SRIDGeometry sridGeometry = GeometryReader
+				.readSRIDGeometry(pointBytes);
+		TestCase.assertTrue(sridGeometry.hasSrid());
+		TestCase.assertEquals(4326, sridGeometry.getSrid().intValue());
+		TestCase.assertEquals(point, sridGeometry.getGeometry());
+		TestCase.assertEquals(point, GeometryReader.readGeometry(pointBytes));
+
+		// POINT ZM without a SRID
+		Point pointZM = new Point(true, true, 1, 2);
+		pointZM.setZ(3.0);
+		pointZM.setM(4.0);
+		GeometryWriter writer = new GeometryWriter(ByteOrder.BIG_ENDIAN);
+		byte[] pointZMBytes;
+		try {
+			writer.setExtended(true);
+			writer.write(pointZM);
+			pointZMBytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		TestCase.assertEquals((byte) 0xC0, pointZMBytes[1]);
+		TestCase.assertEquals(0x01, pointZMBytes[4]);
+
+		sridGeometry = GeometryReader.readSRIDGeometry(pointZMBytes);
+		TestCase.assertFalse(sridGeometry.hasSrid());
+		TestCase.assertEquals(pointZM, sridGeometry.getGeometry());
+
+	}
+
+	/**
+	 * Test reading and writing geometries with a SRID
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+		for (int i = 0; i < geometries.size(); i++) {
+
+			Geometry geometry = geometries.get(i);
+			ByteOrder byteOrder = i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, 3857 + i,
+					byteOrder);
+			concatenated.write(bytes);
+			TestCase.assertEquals(
+					GeometryWriter.writeGeometry(geometry).length + 4,
+					bytes.length);
+
+			SRIDGeometry sridGeometry = GeometryReader.readSRIDGeometry(bytes);
+			TestCase.assertEquals(3857 + i, sridGeometry.getSrid().intValue());
+
+			Geometry expected = GeometryReader
+					.readGeometry(GeometryWriter.writeGeometry(geometry));
+			WKBTestUtils.compareGeometries(expected,
+					sridGeometry.getGeometry());
+			WKBTestUtils.compareByteArrays(
+					GeometryWriter.writeGeometry(expected),
+					GeometryWriter.writeGeometry(sridGeometry.getGeometry()));
+		}
+
+		try (GeometryRecordReader recordReader = new GeometryRecordReader(
+				new ByteArrayInputStream(concatenated.toByteArray()))) {
+			for (int i = 0; i < geometries.size(); i++) {
+				ByteOrder byteOrder = i % 2 == 0 ? ByteOrder.BIG_ENDIAN
+						: ByteOrder.LITTLE_ENDIAN;
+				WKBTestUtils.compareByteArrays(
+						GeometryWriter.writeGeometry(geometries.get(i),
+								3857 + i, byteOrder),
+						recordReader.readRecord());
+			}
+			TestCase.assertNull(recordReader.readRecord());
+		}
+
+	}
+
+}
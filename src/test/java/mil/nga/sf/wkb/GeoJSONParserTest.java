@@ -0,0 +1,202 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test GeoJSON to Well Known Binary parsing
+ */
+public class GeoJSONParserTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test parsing known GeoJSON
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownGeoJSON() throws IOException {
+
+		testGeoJSON(new Point(1, 2),
+				"{\"type\":\"Point\",\"coordinates\":[1,2]}");
+		testGeoJSON(new Point(1, 2),
+				"{ \"coordinates\" : [ 1.0 , 2e0 ], \"bbox\": [1, 2, 1, 2],"
+						+ " \"type\" : \"Point\" }");
+
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(3.0);
+		testGeoJSON(pointZ,
+				"{\"type\":\"Point\",\"coordinates\":[1,2,3]}");
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(5, 5));
+		testGeoJSON(lineString,
+				"{\"type\":\"LineString\",\"coordinates\":[[1,1],[5,5]]}");
+		testGeoJSON(new LineString(),
+				"{\"type\":\"LineString\",\"coordinates\":[]}");
+
+		Polygon polygon = new Polygon();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(10, 0));
+		ring.addPoint(new Point(10, 10));
+		ring.addPoint(new Point(0, 0));
+		polygon.addRing(ring);
+		testGeoJSON(polygon,
+				"{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[10,0],[10,10],[0,0]]]}");
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(3, 4));
+		testGeoJSON(multiPoint,
+				"{\"type\":\"MultiPoint\",\"coordinates\":[[1,2],[3,4]]}");
+
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(new Point(1, 2));
+		collection.addGeometry(lineString);
+		testGeoJSON(collection,
+				"{\"type\":\"GeometryCollection\",\"geometries\":["
+						+ "{\"type\":\"Point\",\"coordinates\":[1,2]},"
+						+ "{\"coordinates\":[[1,1],[5,5]],\"type\":\"LineString\"}]}");
+
+		testGeoJSON(new Point(1, 2),
+				"{\"type\":\"Feature\",\"properties\":{\"name\":\"a \\\"b\\\" [c]\"},"
+						+ "\"geometry\":{\"type\":\"Point\",\"coordinates\":[1,2]},"
+						+ "\"id\":7}");
+
+	}
+
+	/**
+	 * Test parsing a feature collection to well-known binary per feature and
+	 * parse errors
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFeaturesAndErrors() throws IOException {
+
+		String json = "{\"type\":\"FeatureCollection\",\"features\":["
+				+ "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[1,2]},\"properties\":null},"
+				+ "{\"type\":\"Feature\",\"geometry\":null,\"properties\":{}},"
+				+ "{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[3,4]},\"properties\":{}}"
+				+ "]}";
+		List<byte[]> features = GeoJSONParser.toFeatureWKB(json,
+				ByteOrder.LITTLE_ENDIAN);
+		TestCase.assertEquals(3, features.size());
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+				new Point(1, 2), ByteOrder.LITTLE_ENDIAN), features.get(0));
+		TestCase.assertNull(features.get(1));
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+				new Point(3, 4), ByteOrder.LITTLE_ENDIAN), features.get(2));
+
+		TestCase.assertTrue(GeoJSONParser
+				.toFeatureWKB("{\"type\":\"FeatureCollection\",\"features\":[]}")
+				.isEmpty());
+
+		String feature = "{\"type\":\"Feature\",\"geometry\":null}";
+		TestCase.assertNull(GeoJSONParser.toWKB(feature));
+		features = GeoJSONParser.toFeatureWKB(feature);
+		TestCase.assertEquals(1, features.size());
+		TestCase.assertNull(features.get(0));
+
+		String point = "{\"type\":\"Point\",\"coordinates\":[1,2]}";
+		features = GeoJSONParser.toFeatureWKB(point);
+		TestCase.assertEquals(1, features.size());
+		WKBTestUtils.compareByteArrays(GeoJSONParser.toWKB(point),
+				features.get(0));
+
+		try {
+			GeoJSONParser.toWKB(json);
+			TestCase.fail("Expected feature collection error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		String[] invalid = { "", "{}", "{\"type\":\"Point\"}",
+				"{\"type\":\"Circle\",\"coordinates\":[1,2]}",
+				"{\"type\":\"Point\",\"coordinates\":[1]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2}",
+				"{\"type\":\"LineString\",\"coordinates\":[[1,2],]}",
+				"{\"type\":\"Point\",\"coordinates\":[1,2]} x",
+				"{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"FeatureCollection\",\"features\":[]}]}" };
+		for (String text : invalid) {
+			try {
+				GeoJSONParser.toFeatureWKB(text);
+				TestCase.fail("Expected parse error: " + text);
+			} catch (SFException e) {
+				// Expected
+			}
+		}
+
+	}
+
+	/**
+	 * Test round trips through GeoJSON match well-known binary
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		int tested = 0;
+		while (tested < GEOMETRIES_PER_TEST) {
+
+			Geometry geometry = WKBTestUtils
+					.createGeometry(WKBTestUtils.coinFlip(), false);
+			GeometryType geometryType = geometry.getGeometryType();
+			if (geometryType == GeometryType.COMPOUNDCURVE
+					|| geometryType == GeometryType.CURVEPOLYGON) {
+				continue;
+			}
+
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, byteOrder);
+
+			String json = GeoJSONTranscoder.toGeoJSON(bytes);
+			WKBTestUtils.compareByteArrays(bytes,
+					GeoJSONParser.toWKB(json, byteOrder));
+			tested++;
+		}
+
+	}
+
+	/**
+	 * Test the GeoJSON parses to the geometry bytes
+	 *
+	 * @param expected
+	 *            expected geometry
+	 * @param json
+	 *            GeoJSON
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testGeoJSON(Geometry expected, String json)
+			throws IOException {
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(expected),
+				GeoJSONParser.toWKB(json));
+	}
+
+}
@@ -0,0 +1,234 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.CompoundCurve;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary to GeoJSON transcoding
+ */
+public class GeoJSONTranscoderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test transcoding to known GeoJSON
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownGeoJSON() throws IOException {
+
+		testGeoJSON("{\"type\":\"Point\",\"coordinates\":[1,2]}",
+				new Point(1, 2));
+		testGeoJSON("{\"type\":\"Point\",\"coordinates\":[]}",
+				new Point(Double.NaN, Double.NaN));
+
+		Point pointZM = new Point(true, true, 1.5, -2);
+		pointZM.setZ(3.0);
+		pointZM.setM(4.0);
+		testGeoJSON("{\"type\":\"Point\",\"coordinates\":[1.5,-2,3]}",
+				pointZM);
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(5, 5));
+		testGeoJSON(
+				"{\"type\":\"LineString\",\"coordinates\":[[1,1],[5,5]]}",
+				lineString);
+
+		Polygon polygon = new Polygon();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(10, 0));
+		ring.addPoint(new Point(10, 10));
+		ring.addPoint(new Point(0, 0));
+		polygon.addRing(ring);
+		testGeoJSON(
+				"{\"type\":\"Polygon\",\"coordinates\":[[[0,0],[10,0],[10,10],[0,0]]]}",
+				polygon);
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(Double.NaN, Double.NaN));
+		multiPoint.addPoint(new Point(3, 4));
+		testGeoJSON(
+				"{\"type\":\"MultiPoint\",\"coordinates\":[[1,2],[3,4]]}",
+				multiPoint);
+
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(new Point(1, 2));
+		collection.addGeometry(lineString);
+		testGeoJSON("{\"type\":\"GeometryCollection\",\"geometries\":["
+				+ "{\"type\":\"Point\",\"coordinates\":[1,2]},"
+				+ "{\"type\":\"LineString\",\"coordinates\":[[1,1],[5,5]]}]}",
+				collection);
+		testGeoJSON("{\"type\":\"GeometryCollection\",\"geometries\":[]}",
+				new GeometryCollection<>());
+
+		// Compound curve of line strings is written exactly as a line string
+		CompoundCurve compoundCurve = new CompoundCurve();
+		compoundCurve.addLineString(lineString);
+		LineString next = new LineString();
+		next.addPoint(new Point(5, 5));
+		next.addPoint(new Point(9, 1));
+		compoundCurve.addLineString(next);
+		GeoJSONTranscoder transcoder = new GeoJSONTranscoder();
+		transcoder.setLinearizeCurves(false);
+		StringBuilder json = new StringBuilder();
+		transcoder.write(GeometryWriter.writeGeometry(compoundCurve), json);
+		TestCase.assertEquals(
+				"{\"type\":\"LineString\",\"coordinates\":[[1,1],[5,5],[9,1]]}",
+				json.toString());
+
+	}
+
+	/**
+	 * Test rounding to fraction digits, including values too large to scale
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFractionDigits() throws IOException {
+
+		GeoJSONTranscoder transcoder = new GeoJSONTranscoder(7);
+		StringBuilder json = new StringBuilder();
+		transcoder.write(
+				GeometryWriter.writeGeometry(new Point(1.123456789, -2)),
+				json);
+		TestCase.assertEquals(
+				"{\"type\":\"Point\",\"coordinates\":[1.1234568,-2]}",
+				json.toString());
+
+		json = new StringBuilder();
+		transcoder.write(GeometryWriter.writeGeometry(new Point(1e303, 1)),
+				json);
+		TestCase.assertEquals("{\"type\":\"Point\",\"coordinates\":[1"
+				+ "0".repeat(303) + ",1]}", json.toString());
+
+	}
+
+	/**
+	 * Test linearizing and rejecting circular strings
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testCurves() throws IOException {
+
+		CircularString circularString = new CircularString();
+		circularString.addPoint(new Point(0, 0));
+		circularString.addPoint(new Point(1, 1));
+		circularString.addPoint(new Point(2, 0));
+		byte[] bytes = GeometryWriter.writeGeometry(circularString);
+
+		GeoJSONTranscoder transcoder = new GeoJSONTranscoder(6);
+		transcoder.setSegmentsPerQuadrant(2);
+		StringBuilder json = new StringBuilder();
+		transcoder.write(bytes, json);
+		TestCase.assertEquals("{\"type\":\"LineString\",\"coordinates\":"
+				+ "[[0,0],[0.292893,0.707107],[1,1],[1.707107,0.707107],[2,0]]}",
+				json.toString());
+
+		// Default semicircle segments are on the circle
+		String text = GeoJSONTranscoder.toGeoJSON(bytes);
+		String coordinates = text.substring(text.indexOf("[[") + 2,
+				text.length() - 3);
+		String[] positions = coordinates.split("\\],\\[");
+		TestCase.assertEquals(
+				2 * GeoJSONTranscoder.DEFAULT_SEGMENTS_PER_QUADRANT + 1,
+				positions.length);
+		for (String position : positions) {
+			String[] values = position.split(",");
+			double x = Double.parseDouble(values[0]);
+			double y = Double.parseDouble(values[1]);
+			TestCase.assertEquals(1.0, Math.hypot(x - 1, y), 1e-12);
+		}
+
+		transcoder.setLinearizeCurves(false);
+		try {
+			transcoder.write(bytes, new StringBuilder());
+			TestCase.fail("Expected circular string rejection");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test transcoding geometries balances the JSON
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+			String json = GeoJSONTranscoder
+					.toGeoJSON(GeometryWriter.writeGeometry(geometry));
+			TestCase.assertTrue(json.startsWith("{\"type\":\""));
+			int objects = 0;
+			int arrays = 0;
+			for (int i = 0; i < json.length(); i++) {
+				switch (json.charAt(i)) {
+				case '{':
+					objects++;
+					break;
+				case '}':
+					objects--;
+					break;
+				case '[':
+					arrays++;
+					break;
+				case ']':
+					arrays--;
+					break;
+				default:
+				}
+				TestCase.assertTrue(objects >= 0 && arrays >= 0);
+			}
+			TestCase.assertEquals(0, objects);
+			TestCase.assertEquals(0, arrays);
+			TestCase.assertFalse(json.contains(",,"));
+			TestCase.assertFalse(json.contains("[,"));
+			TestCase.assertFalse(json.contains(",]"));
+		}
+
+	}
+
+	/**
+	 * Test the geometry transcodes to the GeoJSON
+	 *
+	 * @param expected
+	 *            expected GeoJSON
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testGeoJSON(String expected, Geometry geometry)
+			throws IOException {
+		TestCase.assertEquals(expected, GeoJSONTranscoder
+				.toGeoJSON(GeometryWriter.writeGeometry(geometry)));
+	}
+
+}
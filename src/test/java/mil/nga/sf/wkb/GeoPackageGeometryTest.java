@@ -0,0 +1,148 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test GeoPackage Geometries
+ */
+public class GeoPackageGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test against a known encoding
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownEncoding() throws IOException {
+
+		Point point = new Point(1, 2);
+		byte[] wkb = GeometryWriter.writeGeometry(point,
+				ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer expected = ByteBuffer.allocate(8 + 32 + wkb.length)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		expected.put(new byte[] { 0x47, 0x50, 0x00, 0x03 });
+		expected.putInt(4326);
+		expected.putDouble(1).putDouble(1).putDouble(2).putDouble(2);
+		expected.put(wkb);
+
+		byte[] bytes = new GeoPackageGeometryWriter(ByteOrder.LITTLE_ENDIAN)
+				.write(point, 4326);
+		WKBTestUtils.compareByteArrays(expected.array(), bytes);
+
+		SRIDGeometry sridGeometry = GeoPackageGeometryReader
+				.readSRIDGeometry(bytes);
+		TestCase.assertEquals(4326, sridGeometry.getSrid().intValue());
+		TestCase.assertEquals(point, sridGeometry.getGeometry());
+
+	}
+
+	/**
+	 * Test reading and writing geometries and header envelopes
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+
+			byte[] bytes = GeoPackageGeometryWriter.writeGeometry(geometry,
+					3857);
+
+			// Read from an offset buffer to verify in place reading
+			byte[] padded = new byte[bytes.length + 5];
+			System.arraycopy(bytes, 0, padded, 3, bytes.length);
+			GeoPackageGeometryReader reader = new GeoPackageGeometryReader(
+					ByteBuffer.wrap(padded, 3, bytes.length));
+
+			TestCase.assertEquals(3857, reader.getSrsId());
+			TestCase.assertFalse(reader.isEmpty());
+			TestCase.assertFalse(reader.isExtended());
+
+			GeometryEnvelope expected = geometry.getEnvelope();
+			GeometryEnvelope envelope = reader.getEnvelope();
+			TestCase.assertEquals(geometry.hasZ(), envelope.hasZ());
+			TestCase.assertEquals(geometry.hasM(), envelope.hasM());
+			TestCase.assertEquals(expected.getMinX(), envelope.getMinX());
+			TestCase.assertEquals(expected.getMaxX(), envelope.getMaxX());
+			TestCase.assertEquals(expected.getMinY(), envelope.getMinY());
+			TestCase.assertEquals(expected.getMaxY(), envelope.getMaxY());
+
+			Geometry read = reader.read();
+			WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+					GeometryReader.readGeometry(
+							GeometryWriter.writeGeometry(geometry))),
+					GeometryWriter.writeGeometry(read));
+		}
+
+	}
+
+	/**
+	 * Test headers without envelopes, empty geometries, and invalid bytes
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testHeaders() throws IOException {
+
+		LineString lineString = WKBTestUtils.createLineString(true, true);
+
+		GeoPackageGeometryWriter writer = new GeoPackageGeometryWriter(
+				ByteOrder.BIG_ENDIAN);
+		writer.setIncludeEnvelope(false);
+		byte[] bytes = writer.write(lineString, 0);
+		GeoPackageGeometryReader reader = new GeoPackageGeometryReader(bytes);
+		TestCase.assertNull(reader.getEnvelope());
+		TestCase.assertEquals(GeoPackageGeometry.ENVELOPE_NONE,
+				reader.getEnvelopeIndicator());
+		TestCase.assertEquals(ByteOrder.BIG_ENDIAN, reader.getByteOrder());
+		TestCase.assertEquals(GeoPackageGeometry.HEADER_SIZE,
+				reader.getHeaderSize());
+		TestCase.assertEquals(lineString, reader.read());
+
+		bytes = GeoPackageGeometryWriter.writeGeometry(lineString, 4326);
+		reader = new GeoPackageGeometryReader(bytes);
+		TestCase.assertEquals(GeoPackageGeometry.ENVELOPE_XYZM,
+				reader.getEnvelopeIndicator());
+		TestCase.assertEquals(lineString.getEnvelope().getMinZ(),
+				reader.getEnvelope().getMinZ());
+		TestCase.assertEquals(lineString.getEnvelope().getMaxM(),
+				reader.getEnvelope().getMaxM());
+
+		bytes = GeoPackageGeometryWriter.writeGeometry(new LineString(), 4326);
+		reader = new GeoPackageGeometryReader(bytes);
+		TestCase.assertTrue(reader.isEmpty());
+		TestCase.assertNull(reader.getEnvelope());
+		TestCase.assertTrue(reader.read().isEmpty());
+
+		try {
+			new GeoPackageGeometryReader(
+					GeometryWriter.writeGeometry(lineString));
+			TestCase.fail("Expected invalid GeoPackage geometry");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+package mil.nga.sf.wkb;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test asynchronous geometry reads and writes
+ */
+public class GeometryAsyncTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test asynchronous writes and reads
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testAsync() throws Exception {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+
+			List<CompletableFuture<byte[]>> writes = new ArrayList<>();
+			for (Geometry geometry : geometries) {
+				writes.add(GeometryWriter.writeGeometryAsync(geometry,
+						ByteOrder.LITTLE_ENDIAN, executor));
+			}
+
+			List<CompletableFuture<Geometry>> reads = new ArrayList<>();
+			for (int i = 0; i < geometries.size(); i++) {
+				byte[] bytes = writes.get(i).get();
+				WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+						geometries.get(i), ByteOrder.LITTLE_ENDIAN), bytes);
+				reads.add(GeometryReader.readGeometryAsync(bytes));
+			}
+
+			for (int i = 0; i < geometries.size(); i++) {
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						reads.get(i).get());
+			}
+
+		} finally {
+			executor.shutdown();
+		}
+
+		TestCase.assertNotNull(GeometryExecutors.getDefaultExecutor());
+		TestCase.assertSame(GeometryExecutors.getDefaultExecutor(),
+				GeometryExecutors.getDefaultExecutor());
+	}
+
+	/**
+	 * Test an asynchronous read failure
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testAsyncFailure() throws Exception {
+
+		CompletableFuture<Geometry> future = GeometryReader
+				.readGeometryAsync(new byte[] { 0, 0, 0, 0, 1, 0 });
+		try {
+			future.get();
+			TestCase.fail("Expected read failure");
+		} catch (ExecutionException e) {
+			TestCase.assertTrue(e.getCause() instanceof SFException);
+		}
+
+	}
+
+}
@@ -0,0 +1,121 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+
+/**
+ * Test the Geometry Block Container
+ */
+public class GeometryBlockContainerTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 500;
+
+	/**
+	 * Container file
+	 */
+	private Path file;
+
+	/**
+	 * Create the container file
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("geometries", ".wkbz");
+	}
+
+	/**
+	 * Delete the container file
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Test compressed block writes and random access reads
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testBlocks() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		long uncompressed = 0;
+		try (GeometryBlockContainerWriter writer = new GeometryBlockContainerWriter(
+				file, 4096, 6, 3)) {
+			for (Geometry geometry : geometries) {
+				byte[] bytes = GeometryWriter.writeGeometry(geometry);
+				uncompressed += bytes.length;
+				if (uncompressed % 2 == 0) {
+					writer.write(bytes);
+				} else {
+					writer.write(geometry);
+				}
+			}
+			TestCase.assertEquals(geometries.size(), writer.getCount());
+		}
+
+		try (GeometryBlockContainerReader reader = new GeometryBlockContainerReader(
+				file)) {
+			TestCase.assertEquals(geometries.size(), reader.getCount());
+			TestCase.assertTrue(reader.getBlockCount() > 1);
+			for (int i = 0; i < geometries.size(); i++) {
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						reader.read(i));
+			}
+			for (int i = geometries.size() - 1; i >= 0; i -= 7) {
+				WKBTestUtils.compareByteArrays(
+						GeometryWriter.writeGeometry(geometries.get(i)),
+						reader.readBytes(i));
+			}
+			try {
+				reader.read(-1);
+				TestCase.fail("Expected index out of bounds");
+			} catch (IndexOutOfBoundsException e) {
+				// Expected
+			}
+		}
+
+	}
+
+	/**
+	 * Test an empty container
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEmpty() throws IOException {
+
+		new GeometryBlockContainerWriter(file).close();
+
+		try (GeometryBlockContainerReader reader = new GeometryBlockContainerReader(
+				file)) {
+			TestCase.assertEquals(0, reader.getCount());
+			TestCase.assertEquals(0, reader.getBlockCount());
+		}
+
+	}
+
+}
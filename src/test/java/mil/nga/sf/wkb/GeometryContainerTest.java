@@ -0,0 +1,263 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.LineString;
+import mil.nga.sf.Point;
+
+/**
+ * Test the Geometry Container
+ */
+public class GeometryContainerTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 200;
+
+	/**
+	 * Container file
+	 */
+	private Path file;
+
+	/**
+	 * Create the container file
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Before
+	public void createFile() throws IOException {
+		file = Files.createTempFile("geometries", ".wkbc");
+	}
+
+	/**
+	 * Delete the container file
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * Test random access reads
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRandomAccess() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		try (GeometryContainerWriter writer = new GeometryContainerWriter(
+				file)) {
+			for (Geometry geometry : geometries) {
+				writer.write(geometry);
+			}
+			TestCase.assertEquals(geometries.size(), writer.getCount());
+		}
+
+		try (GeometryContainerReader reader = new GeometryContainerReader(
+				file)) {
+			TestCase.assertEquals(geometries.size(), reader.getCount());
+			TestCase.assertFalse(reader.hasEnvelopes());
+			for (int i = geometries.size() - 1; i >= 0; i -= 3) {
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						reader.read(i));
+				WKBTestUtils.compareByteArrays(
+						GeometryWriter.writeGeometry(geometries.get(i)),
+						reader.readBytes(i));
+				TestCase.assertNull(reader.getEnvelope(i));
+			}
+			try {
+				reader.read(geometries.size());
+				TestCase.fail("Expected index out of bounds");
+			} catch (IndexOutOfBoundsException e) {
+				// Expected
+			}
+		}
+
+	}
+
+	/**
+	 * Test index envelopes
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testEnvelopes() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		try (GeometryContainerWriter writer = new GeometryContainerWriter(
+				file, true)) {
+			for (int i = 0; i < geometries.size(); i++) {
+				if (i % 2 == 0) {
+					writer.write(geometries.get(i));
+				} else {
+					writer.write(
+							GeometryWriter.writeGeometry(geometries.get(i)));
+				}
+			}
+		}
+
+		try (GeometryContainerReader reader = new GeometryContainerReader(
+				file)) {
+			TestCase.assertTrue(reader.hasEnvelopes());
+			for (int i = 0; i < geometries.size(); i++) {
+				GeometryEnvelope expected = geometries.get(i).getEnvelope();
+				GeometryEnvelope envelope = reader.getEnvelope(i);
+				TestCase.assertEquals(expected.getMinX(), envelope.getMinX());
+				TestCase.assertEquals(expected.getMinY(), envelope.getMinY());
+				TestCase.assertEquals(expected.getMaxX(), envelope.getMaxX());
+				TestCase.assertEquals(expected.getMaxY(), envelope.getMaxY());
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						reader.read(i));
+			}
+		}
+
+	}
+
+	/**
+	 * Test appending to a container and streaming records in parallel
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testAppendAndStream() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST * 5);
+		int split = geometries.size() / 3;
+
+		try (GeometryContainerWriter writer = new GeometryContainerWriter(
+				file, true)) {
+			for (Geometry geometry : geometries.subList(0, split)) {
+				writer.write(geometry);
+			}
+		}
+
+		try (GeometryContainerWriter writer = GeometryContainerWriter
+				.append(file)) {
+			TestCase.assertEquals(split, writer.getCount());
+			TestCase.assertTrue(writer.hasEnvelopes());
+			for (Geometry geometry : geometries.subList(split,
+					geometries.size())) {
+				writer.write(geometry);
+			}
+		}
+
+		try (GeometryContainerReader reader = new GeometryContainerReader(
+				file)) {
+			TestCase.assertEquals(geometries.size(), reader.getCount());
+			TestCase.assertNotNull(reader.getEnvelope(0));
+			TestCase.assertNotNull(reader.getEnvelope(geometries.size() - 1));
+
+			List<Geometry> streamed = reader.stream(true)
+					.collect(Collectors.toList());
+			TestCase.assertEquals(geometries.size(), streamed.size());
+			for (int i = 0; i < geometries.size(); i++) {
+				WKBTestUtils.compareGeometries(geometries.get(i),
+						streamed.get(i));
+			}
+
+			TestCase.assertEquals(geometries.size(),
+					reader.stream(false).count());
+		}
+
+	}
+
+	/**
+	 * Test a failed append restores the original container
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFailedAppend() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		try (GeometryContainerWriter writer = new GeometryContainerWriter(
+				file)) {
+			for (Geometry geometry : geometries) {
+				writer.write(geometry);
+			}
+		}
+		byte[] original = Files.readAllBytes(file);
+
+		// A large record flushes the buffer, interrupted to fail the write
+		LineString lineString = new LineString();
+		for (int i = 0; i < 10000; i++) {
+			lineString.addPoint(new Point(i, i));
+		}
+		GeometryContainerWriter writer = GeometryContainerWriter.append(file);
+		try {
+			writer.write(geometries.get(0));
+			Thread.currentThread().interrupt();
+			try {
+				writer.write(lineString);
+				TestCase.fail("Expected interrupted write");
+			} catch (IOException e) {
+				// Expected
+			} finally {
+				Thread.interrupted();
+			}
+			try {
+				writer.write(geometries.get(0));
+				TestCase.fail("Expected failed writer");
+			} catch (IOException e) {
+				// Expected
+			}
+		} finally {
+			writer.close();
+		}
+
+		WKBTestUtils.compareByteArrays(original, Files.readAllBytes(file));
+		try (GeometryContainerReader reader = new GeometryContainerReader(
+				file)) {
+			TestCase.assertEquals(geometries.size(), reader.getCount());
+			WKBTestUtils.compareGeometries(geometries.get(0), reader.read(0));
+		}
+
+		// Appended records follow the intact previous trailer
+		try (GeometryContainerWriter appender = GeometryContainerWriter
+				.append(file)) {
+			appender.write(lineString);
+		}
+		byte[] appended = Files.readAllBytes(file);
+		for (int i = 0; i < original.length; i++) {
+			TestCase.assertEquals(original[i], appended[i]);
+		}
+		try (GeometryContainerReader reader = new GeometryContainerReader(
+				file)) {
+			TestCase.assertEquals(geometries.size() + 1, reader.getCount());
+			WKBTestUtils.compareGeometries(lineString,
+					reader.read(geometries.size()));
+			WKBTestUtils.compareGeometries(
+					geometries.get(geometries.size() - 1),
+					reader.read(geometries.size() - 1));
+		}
+
+	}
+
+}
@@ -0,0 +1,200 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteWriter;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test alternate geometry coordinate encodings
+ */
+public class GeometryCoordinateTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test float32 coordinates
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFloat32() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+		for (Geometry geometry : geometries) {
+
+			byte[] bytes = writeFloat32(geometry);
+			concatenated.write(bytes);
+			TestCase.assertTrue(
+					bytes.length < WKBTestUtils.writeBytes(geometry).length);
+
+			Geometry read = GeometryReader.readGeometry(bytes);
+			TestCase.assertEquals(geometry.getGeometryType(),
+					read.getGeometryType());
+			TestCase.assertEquals(geometry.hasZ(), read.hasZ());
+			TestCase.assertEquals(geometry.hasM(), read.hasM());
+
+			GeometryEnvelope expected = geometry.getEnvelope();
+			GeometryEnvelope actual = read.getEnvelope();
+			TestCase.assertEquals(expected.getMinX(), actual.getMinX(),
+					Math.ulp((float) expected.getMinX()));
+			TestCase.assertEquals(expected.getMaxY(), actual.getMaxY(),
+					Math.ulp((float) expected.getMaxY()));
+
+			// Float32 values are written exactly once rounded
+			WKBTestUtils.compareByteArrays(bytes, writeFloat32(read));
+		}
+
+		try (GeometryRecordReader recordReader = new GeometryRecordReader(
+				new ByteArrayInputStream(concatenated.toByteArray()))) {
+			for (Geometry geometry : geometries) {
+				WKBTestUtils.compareByteArrays(writeFloat32(geometry),
+						recordReader.readRecord());
+			}
+			TestCase.assertNull(recordReader.readRecord());
+		}
+
+	}
+
+	/**
+	 * Test fixed point coordinates
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFixedPoint() throws IOException {
+
+		double originX = -180.0;
+		double originY = -90.0;
+		double scale = 1e6;
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+
+		ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+		for (Geometry geometry : geometries) {
+
+			byte[] bytes = writeFixedPoint(geometry, originX, originY, scale);
+			concatenated.write(bytes);
+
+			GeometryReader reader = new GeometryReader(bytes);
+			reader.setFixedPoint(originX, originY, scale);
+			Geometry read;
+			try {
+				read = reader.read();
+			} finally {
+				reader.close();
+			}
+			TestCase.assertEquals(geometry.getGeometryType(),
+					read.getGeometryType());
+			TestCase.assertEquals(geometry.hasZ(), read.hasZ());
+			TestCase.assertEquals(geometry.hasM(), read.hasM());
+
+			GeometryEnvelope expected = geometry.getEnvelope();
+			GeometryEnvelope actual = read.getEnvelope();
+			TestCase.assertEquals(expected.getMinX(), actual.getMinX(),
+					0.5 / scale + 1e-9);
+			TestCase.assertEquals(expected.getMaxY(), actual.getMaxY(),
+					0.5 / scale + 1e-9);
+			if (geometry.hasZ()) {
+				TestCase.assertEquals(expected.getMinZ(), actual.getMinZ());
+			}
+
+			WKBTestUtils.compareByteArrays(bytes,
+					writeFixedPoint(read, originX, originY, scale));
+
+			try {
+				GeometryReader.readGeometry(bytes);
+				TestCase.fail("Expected missing fixed point origin and scale");
+			} catch (SFException e) {
+				// Expected
+			}
+		}
+
+		try (GeometryRecordReader recordReader = new GeometryRecordReader(
+				new ByteArrayInputStream(concatenated.toByteArray()))) {
+			for (Geometry geometry : geometries) {
+				WKBTestUtils.compareByteArrays(
+						writeFixedPoint(geometry, originX, originY, scale),
+						recordReader.readRecord());
+			}
+			TestCase.assertNull(recordReader.readRecord());
+		}
+
+		try {
+			writeFixedPoint(new Point(originX + 3000, originY), originX,
+					originY, scale);
+			TestCase.fail("Expected fixed point range failure");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Write the geometry with float32 coordinates
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] writeFloat32(Geometry geometry) throws IOException {
+		GeometryWriter writer = new GeometryWriter(
+				ByteWriter.DEFAULT_BYTE_ORDER);
+		try {
+			writer.setFloat32(true);
+			writer.write(geometry);
+			return writer.getBytes();
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Write the geometry with fixed point coordinates
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param originX
+	 *            origin x
+	 * @param originY
+	 *            origin y
+	 * @param scale
+	 *            scale
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] writeFixedPoint(Geometry geometry, double originX,
+			double originY, double scale) throws IOException {
+		GeometryWriter writer = new GeometryWriter(
+				ByteWriter.DEFAULT_BYTE_ORDER);
+		try {
+			writer.setFixedPoint(originX, originY, scale);
+			writer.write(geometry);
+			return writer.getBytes();
+		} finally {
+			writer.close();
+		}
+	}
+
+}
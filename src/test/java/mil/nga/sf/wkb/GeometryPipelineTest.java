@@ -0,0 +1,122 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test the Geometry Pipeline
+ */
+public class GeometryPipelineTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 100;
+
+	/**
+	 * Test decoding in order on multiple threads
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testPipeline() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+
+		try (GeometryPipeline pipeline = new GeometryPipeline(
+				new ByteArrayInputStream(bytes), 3, 4)) {
+			int count = 0;
+			while (pipeline.hasNext()) {
+				WKBTestUtils.compareGeometries(geometries.get(count++),
+						pipeline.next());
+			}
+			TestCase.assertEquals(geometries.size(), count);
+			TestCase.assertNull(pipeline.read());
+		}
+
+	}
+
+	/**
+	 * Test a truncated record
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testTruncated() throws IOException {
+
+		List<Geometry> geometries = WKBTestUtils.createGeometries(2);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+		bytes = Arrays.copyOf(bytes, bytes.length - 1);
+
+		try (GeometryPipeline pipeline = new GeometryPipeline(
+				new ByteArrayInputStream(bytes), 2)) {
+			WKBTestUtils.compareGeometries(geometries.get(0), pipeline.read());
+			try {
+				pipeline.read();
+				TestCase.fail("Expected truncated record failure");
+			} catch (SFException e) {
+				// Expected
+			}
+			TestCase.assertNull(pipeline.read());
+		}
+
+	}
+
+	/**
+	 * Test closing the pipeline wakes a consumer waiting for a geometry
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testCloseWakesConsumer() throws Exception {
+
+		PipedOutputStream output = new PipedOutputStream();
+		PipedInputStream input = new PipedInputStream(output);
+		final GeometryPipeline pipeline = new GeometryPipeline(input, 2);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Boolean> hasNext = executor
+					.submit(new Callable<Boolean>() {
+						@Override
+						public Boolean call() {
+							return pipeline.hasNext();
+						}
+					});
+			try {
+				hasNext.get(100, TimeUnit.MILLISECONDS);
+				TestCase.fail("Expected consumer waiting for a geometry");
+			} catch (TimeoutException e) {
+				// Expected
+			}
+			pipeline.close();
+			TestCase.assertFalse(hasNext.get(10, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+			pipeline.close();
+			output.close();
+		}
+
+	}
+
+}
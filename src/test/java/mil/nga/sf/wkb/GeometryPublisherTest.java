@@ -0,0 +1,214 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+
+/**
+ * Test the Geometry Publisher
+ */
+public class GeometryPublisherTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 25;
+
+	/**
+	 * Test publishing from bytes, one geometry requested at a time
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testBytes() throws Exception {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+
+		TestSubscriber subscriber = new TestSubscriber(1);
+		new GeometryPublisher(bytes).subscribe(subscriber);
+		subscriber.await();
+
+		compare(geometries, subscriber);
+	}
+
+	/**
+	 * Test publishing from a buffer on an executor, requesting in batches
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testBufferExecutor() throws Exception {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			TestSubscriber subscriber = new TestSubscriber(4);
+			new GeometryPublisher(ByteBuffer.wrap(bytes), executor)
+					.subscribe(subscriber);
+			subscriber.await();
+
+			compare(geometries, subscriber);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * Test publishing from an input stream
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testInputStream() throws Exception {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+
+		TestSubscriber subscriber = new TestSubscriber(3);
+		new GeometryPublisher(new ByteArrayInputStream(bytes))
+				.subscribe(subscriber);
+		subscriber.await();
+
+		compare(geometries, subscriber);
+	}
+
+	/**
+	 * Test that decoding only occurs upon request
+	 *
+	 * @throws Exception
+	 *             upon error
+	 */
+	@Test
+	public void testBackpressure() throws Exception {
+
+		List<Geometry> geometries = WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST);
+		byte[] bytes = WKBTestUtils.writeConcatenated(geometries);
+
+		TestSubscriber subscriber = new TestSubscriber(0);
+		new GeometryPublisher(bytes).subscribe(subscriber);
+		TestCase.assertTrue(subscriber.geometries.isEmpty());
+
+		subscriber.subscription.request(2);
+		TestCase.assertEquals(2, subscriber.geometries.size());
+		TestCase.assertFalse(subscriber.complete);
+
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(2);
+		TestCase.assertEquals(2, subscriber.geometries.size());
+		TestCase.assertFalse(subscriber.complete);
+		TestCase.assertNull(subscriber.error);
+
+		TestSubscriber second = new TestSubscriber(1);
+		new GeometryPublisher(bytes).subscribe(second);
+		second.await();
+		TestCase.assertTrue(second.complete);
+
+		TestSubscriber invalid = new TestSubscriber(0);
+		new GeometryPublisher(bytes).subscribe(invalid);
+		invalid.subscription.request(0);
+		TestCase.assertTrue(
+				invalid.error instanceof IllegalArgumentException);
+	}
+
+	/**
+	 * Compare the expected geometries to the subscriber results
+	 *
+	 * @param geometries
+	 *            expected geometries
+	 * @param subscriber
+	 *            subscriber
+	 */
+	private void compare(List<Geometry> geometries,
+			TestSubscriber subscriber) {
+		TestCase.assertNull(subscriber.error);
+		TestCase.assertTrue(subscriber.complete);
+		TestCase.assertEquals(geometries.size(),
+				subscriber.geometries.size());
+		for (int i = 0; i < geometries.size(); i++) {
+			WKBTestUtils.compareGeometries(geometries.get(i),
+					subscriber.geometries.get(i));
+		}
+	}
+
+	/**
+	 * Test subscriber requesting a batch of geometries after each batch is
+	 * received
+	 */
+	private static class TestSubscriber
+			implements Flow.Subscriber<Geometry> {
+
+		private final int batch;
+
+		private final List<Geometry> geometries = new ArrayList<>();
+
+		private final CountDownLatch latch = new CountDownLatch(1);
+
+		private Flow.Subscription subscription;
+
+		private int received = 0;
+
+		private volatile boolean complete = false;
+
+		private volatile Throwable error;
+
+		TestSubscriber(int batch) {
+			this.batch = batch;
+		}
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+			if (batch > 0) {
+				subscription.request(batch);
+			}
+		}
+
+		@Override
+		public void onNext(Geometry geometry) {
+			geometries.add(geometry);
+			if (batch > 0 && ++received == batch) {
+				received = 0;
+				subscription.request(batch);
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			error = throwable;
+			latch.countDown();
+		}
+
+		@Override
+		public void onComplete() {
+			complete = true;
+			latch.countDown();
+		}
+
+		void await() throws InterruptedException {
+			TestCase.assertTrue(latch.await(30, TimeUnit.SECONDS));
+		}
+
+	}
+
+}
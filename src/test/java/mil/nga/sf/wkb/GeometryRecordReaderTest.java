@@ -0,0 +1,77 @@
+package mil.nga.sf.wkb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test the Geometry Record Reader
+ */
+public class GeometryRecordReaderTest {
+
+	/**
+	 * Test malformed records with huge point counts fail without reading
+	 * the counted bytes into memory
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testHugeCounts() throws IOException {
+
+		byte[] point = GeometryWriter.writeGeometry(new Point(1, 2));
+
+		// Point bytes overflowing the maximum record size
+		testMalformed(point, new byte[] { 0x00, 0x00, 0x00, 0x00, 0x02, 0x10,
+				0x00, 0x00, 0x00 });
+
+		// Point bytes of about a gigabyte, truncated
+		testMalformed(point, new byte[] { 0x00, 0x00, 0x00, 0x00, 0x02, 0x04,
+				0x00, 0x00, 0x00 });
+
+		// Truncated within the points
+		byte[] lineString = { 0x00, 0x00, 0x00, 0x00, 0x02, 0x00, 0x00, 0x00,
+				0x02, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00 };
+		testMalformed(point, lineString);
+
+	}
+
+	/**
+	 * Test a valid record followed by a malformed record
+	 *
+	 * @param valid
+	 *            valid record
+	 * @param malformed
+	 *            malformed record
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testMalformed(byte[] valid, byte[] malformed)
+			throws IOException {
+
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(valid);
+		stream.write(malformed);
+
+		try (GeometryRecordReader reader = new GeometryRecordReader(
+				new ByteArrayInputStream(stream.toByteArray()))) {
+			WKBTestUtils.compareByteArrays(valid, reader.readRecord());
+			try {
+				reader.readRecord();
+				TestCase.fail("Expected malformed record failure");
+			} catch (SFException e) {
+				TestCase.assertTrue(e.getMessage(),
+						e.getMessage().contains("record 2"));
+			}
+			TestCase.assertEquals(1, reader.getCount());
+		}
+
+	}
+
+}
@@ -0,0 +1,122 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Hex Well Known Binary Geometries
+ */
+public class HexGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test against a known hex extended well-known binary encoding
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownEncoding() throws IOException {
+
+		// SRID=4326;POINT(1 2)
+		String hex = "0101000020E6100000000000000000F03F0000000000000040";
+		Point point = new Point(1, 2);
+
+		StringBuilder builder = new StringBuilder();
+		GeometryWriter.writeHex(point, 4326, ByteOrder.LITTLE_ENDIAN,
+				builder);
+		TestCase.assertEquals(hex, builder.toString());
+
+		String line = "7,\"" + hex.toLowerCase() + "\",name";
+		SRIDGeometry sridGeometry = GeometryReader.readHexSRIDGeometry(line,
+				3, 3 + hex.length());
+		TestCase.assertEquals(4326, sridGeometry.getSrid().intValue());
+		TestCase.assertEquals(point, sridGeometry.getGeometry());
+
+		try {
+			GeometryReader.readHex(hex.replace('E', 'G'));
+			TestCase.fail("Expected invalid hex digit");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			GeometryReader.readHex(hex, 0, hex.length() - 1);
+			TestCase.fail("Expected odd number of hex digits");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			GeometryReader.readHex(hex + "00");
+			TestCase.fail("Expected trailing hex characters");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			GeometryReader.readHexSRIDGeometry(line, 3, 5 + hex.length());
+			TestCase.fail("Expected trailing characters");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test hex round trips match well-known binary
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, byteOrder);
+
+			StringWriter writer = new StringWriter();
+			GeometryWriter.writeHex(geometry, byteOrder, writer);
+			String hex = writer.toString();
+			TestCase.assertEquals(toHex(bytes), hex);
+
+			Geometry read = GeometryReader.readHex(hex);
+			WKBTestUtils.compareByteArrays(bytes,
+					GeometryWriter.writeGeometry(read, byteOrder));
+		}
+
+	}
+
+	/**
+	 * Convert bytes to upper case hex
+	 *
+	 * @param bytes
+	 *            bytes
+	 * @return hex
+	 */
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : bytes) {
+			hex.append(String.format("%02X", b));
+		}
+		return hex.toString();
+	}
+
+}
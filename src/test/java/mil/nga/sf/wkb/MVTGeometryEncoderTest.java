@@ -0,0 +1,342 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Mapbox Vector Tile geometry command encoding
+ */
+public class MVTGeometryEncoderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test the specification example encodings, with tile bounds matching the
+	 * extent so only the y axis is flipped
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSpecificationExamples() throws IOException {
+
+		MVTGeometryEncoder encoder = new MVTGeometryEncoder(0, 0, 4096, 4096);
+
+		testCommands(encoder, new int[] { 9, 50, 34 }, MVTGeometryEncoder.POINT,
+				tilePoint(25, 17));
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(tilePoint(5, 7));
+		multiPoint.addPoint(tilePoint(3, 2));
+		testCommands(encoder, new int[] { 17, 10, 14, 3, 9 },
+				MVTGeometryEncoder.POINT, multiPoint);
+
+		LineString lineString = new LineString();
+		lineString.addPoint(tilePoint(2, 2));
+		lineString.addPoint(tilePoint(2, 10));
+		lineString.addPoint(tilePoint(10, 10));
+		testCommands(encoder, new int[] { 9, 4, 4, 18, 0, 16, 16, 0 },
+				MVTGeometryEncoder.LINESTRING, lineString);
+
+		Polygon polygon = new Polygon();
+		polygon.addRing(ring(tilePoint(3, 6), tilePoint(8, 12),
+				tilePoint(20, 34)));
+		testCommands(encoder, new int[] { 9, 6, 12, 18, 10, 12, 24, 44, 15 },
+				MVTGeometryEncoder.POLYGON, polygon);
+
+		// Reversed exterior ring is rewound
+		Polygon reversed = new Polygon();
+		reversed.addRing(ring(tilePoint(3, 6), tilePoint(20, 34),
+				tilePoint(8, 12)));
+		int[] commands = encoder.encode(GeometryWriter.writeGeometry(reversed));
+		TestCase.assertTrue(areas(commands)[0] > 0);
+
+	}
+
+	/**
+	 * Test clipping to the tile extent and buffer
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testClipping() throws IOException {
+
+		MVTGeometryEncoder encoder = new MVTGeometryEncoder(0, 0, 4096, 4096);
+
+		LineString lineString = new LineString();
+		lineString.addPoint(tilePoint(-100, 2048));
+		lineString.addPoint(tilePoint(5000, 2048));
+		testCommands(encoder, new int[] { 9, 0, 4096, 10, 8192, 0 },
+				MVTGeometryEncoder.LINESTRING, lineString);
+
+		encoder.setBuffer(64);
+		testCommands(encoder, new int[] { 9, 127, 4096, 10, 8448, 0 },
+				MVTGeometryEncoder.LINESTRING, lineString);
+		encoder.setBuffer(0);
+
+		// A line leaving and reentering the tile splits into two parts
+		LineString reentering = new LineString();
+		reentering.addPoint(tilePoint(100, 100));
+		reentering.addPoint(tilePoint(100, 5000));
+		reentering.addPoint(tilePoint(200, 5000));
+		reentering.addPoint(tilePoint(200, 100));
+		commands(encoder, reentering);
+		TestCase.assertEquals(2, count(encoder, 1));
+
+		testCommands(encoder, new int[0], MVTGeometryEncoder.POINT,
+				tilePoint(5000, 10));
+
+		// A polygon covering the tile clips to the tile square
+		Polygon polygon = new Polygon();
+		polygon.addRing(ring(tilePoint(-10, -10), tilePoint(5000, -10),
+				tilePoint(5000, 5000), tilePoint(-10, 5000)));
+		int[] commands = commands(encoder, polygon);
+		TestCase.assertEquals(MVTGeometryEncoder.POLYGON,
+				encoder.getGeometryType());
+		long[] areas = areas(commands);
+		TestCase.assertEquals(1, areas.length);
+		TestCase.assertEquals(2L * 4096 * 4096, areas[0]);
+
+		// Interior rings are wound opposite the exterior ring
+		Polygon hole = new Polygon();
+		hole.addRing(ring(tilePoint(-10, -10), tilePoint(5000, -10),
+				tilePoint(5000, 5000), tilePoint(-10, 5000)));
+		hole.addRing(ring(tilePoint(10, 10), tilePoint(20, 10),
+				tilePoint(20, 20), tilePoint(10, 20)));
+		areas = areas(commands(encoder, hole));
+		TestCase.assertEquals(2, areas.length);
+		TestCase.assertTrue(areas[0] > 0);
+		TestCase.assertEquals(-200L, areas[1]);
+
+		try {
+			CircularString circularString = new CircularString();
+			circularString.addPoint(new Point(0, 0));
+			circularString.addPoint(new Point(1, 1));
+			circularString.addPoint(new Point(2, 0));
+			commands(encoder, circularString);
+			TestCase.fail("Expected unsupported circular string");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test encoding random geometries produces well formed commands within
+	 * the clip bounds
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		MVTGeometryEncoder encoder = new MVTGeometryEncoder(-90, -45, 90, 45,
+				512);
+		encoder.setBuffer(8);
+
+		int tested = 0;
+		while (tested < GEOMETRIES_PER_TEST) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			GeometryType geometryType = geometry.getGeometryType();
+			if (geometryType == GeometryType.GEOMETRYCOLLECTION
+					|| geometryType == GeometryType.COMPOUNDCURVE
+					|| geometryType == GeometryType.CURVEPOLYGON) {
+				continue;
+			}
+
+			int[] commands = commands(encoder, geometry);
+			int x = 0;
+			int y = 0;
+			int i = 0;
+			while (i < commands.length) {
+				int id = commands[i] & 0x7;
+				int count = commands[i] >>> 3;
+				i++;
+				TestCase.assertTrue(id == 1 || id == 2 || id == 7);
+				TestCase.assertTrue(count > 0);
+				if (id != 7) {
+					for (int j = 0; j < count; j++) {
+						x += unZigZag(commands[i++]);
+						y += unZigZag(commands[i++]);
+						TestCase.assertTrue(x >= -8 && x <= 520);
+						TestCase.assertTrue(y >= -8 && y <= 520);
+					}
+				}
+			}
+			TestCase.assertEquals(commands.length, i);
+			tested++;
+		}
+
+	}
+
+	/**
+	 * Create a point from tile coordinates, flipping the y axis for tile
+	 * bounds matching the default extent
+	 *
+	 * @param x
+	 *            tile x
+	 * @param y
+	 *            tile y
+	 * @return point
+	 */
+	private static Point tilePoint(double x, double y) {
+		return new Point(x, MVTGeometryEncoder.DEFAULT_EXTENT - y);
+	}
+
+	/**
+	 * Create a closed ring
+	 *
+	 * @param points
+	 *            ring points
+	 * @return ring
+	 */
+	private static LineString ring(Point... points) {
+		LineString ring = new LineString();
+		for (Point point : points) {
+			ring.addPoint(point);
+		}
+		ring.addPoint(points[0]);
+		return ring;
+	}
+
+	/**
+	 * Encode a geometry
+	 *
+	 * @param encoder
+	 *            encoder
+	 * @param geometry
+	 *            geometry
+	 * @return commands
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static int[] commands(MVTGeometryEncoder encoder,
+			Geometry geometry) throws IOException {
+		return encoder.encode(GeometryWriter.writeGeometry(geometry));
+	}
+
+	/**
+	 * Test the geometry encodes to the commands
+	 *
+	 * @param encoder
+	 *            encoder
+	 * @param expected
+	 *            expected commands
+	 * @param geometryType
+	 *            expected encoded geometry type
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static void testCommands(MVTGeometryEncoder encoder,
+			int[] expected, int geometryType, Geometry geometry)
+			throws IOException {
+		int[] commands = commands(encoder, geometry);
+		TestCase.assertEquals(Arrays.toString(expected),
+				Arrays.toString(commands));
+		TestCase.assertEquals(geometryType, encoder.getGeometryType());
+		TestCase.assertEquals(commands.length, encoder.size());
+	}
+
+	/**
+	 * Count the commands of an id in the last encoding
+	 *
+	 * @param encoder
+	 *            encoder
+	 * @param id
+	 *            command id
+	 * @return count
+	 */
+	private static int count(MVTGeometryEncoder encoder, int id) {
+		int count = 0;
+		int[] commands = encoder.getCommands();
+		int i = 0;
+		while (i < encoder.size()) {
+			int commandId = commands[i] & 0x7;
+			int commandCount = commands[i] >>> 3;
+			i++;
+			if (commandId == id) {
+				count++;
+			}
+			if (commandId != 7) {
+				i += 2 * commandCount;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Calculate the doubled surveyor's formula areas of the encoded rings
+	 *
+	 * @param commands
+	 *            polygon commands
+	 * @return doubled ring areas
+	 */
+	private static long[] areas(int[] commands) {
+		long[] areas = new long[0];
+		int[] ring = new int[0];
+		int x = 0;
+		int y = 0;
+		int i = 0;
+		while (i < commands.length) {
+			int id = commands[i] & 0x7;
+			int count = commands[i] >>> 3;
+			i++;
+			if (id == 1) {
+				ring = new int[0];
+			}
+			if (id == 7) {
+				long area = 0;
+				int points = ring.length / 2;
+				for (int j = 0; j < points; j++) {
+					int k = (j + 1) % points;
+					area += (long) ring[2 * j] * ring[2 * k + 1]
+							- (long) ring[2 * k] * ring[2 * j + 1];
+				}
+				areas = Arrays.copyOf(areas, areas.length + 1);
+				areas[areas.length - 1] = area;
+			} else {
+				for (int j = 0; j < count; j++) {
+					x += unZigZag(commands[i++]);
+					y += unZigZag(commands[i++]);
+					ring = Arrays.copyOf(ring, ring.length + 2);
+					ring[ring.length - 2] = x;
+					ring[ring.length - 1] = y;
+				}
+			}
+		}
+		return areas;
+	}
+
+	/**
+	 * Decode a zig-zag parameter
+	 *
+	 * @param value
+	 *            encoded value
+	 * @return value
+	 */
+	private static int unZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+}
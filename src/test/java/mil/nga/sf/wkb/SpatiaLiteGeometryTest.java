@@ -0,0 +1,223 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryEnvelope;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test SpatiaLite Geometries
+ */
+public class SpatiaLiteGeometryTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Test against a known encoding
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownEncoding() throws IOException {
+
+		Point point = new Point(1, 2);
+		ByteBuffer expected = ByteBuffer.allocate(60)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		expected.put((byte) 0x00).put((byte) 0x01).putInt(4326);
+		expected.putDouble(1).putDouble(2).putDouble(1).putDouble(2);
+		expected.put((byte) 0x7C).putInt(1).putDouble(1).putDouble(2);
+		expected.put((byte) 0xFE);
+
+		byte[] bytes = new SpatiaLiteGeometryWriter(ByteOrder.LITTLE_ENDIAN)
+				.write(point, 4326);
+		WKBTestUtils.compareByteArrays(expected.array(), bytes);
+
+		SRIDGeometry sridGeometry = SpatiaLiteGeometryReader
+				.readSRIDGeometry(bytes);
+		TestCase.assertEquals(4326, sridGeometry.getSrid().intValue());
+		TestCase.assertEquals(point, sridGeometry.getGeometry());
+
+		bytes[1] = 0x02;
+		try {
+			SpatiaLiteGeometryReader.readGeometry(bytes);
+			TestCase.fail("Expected invalid byte order");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test reading and writing geometries of all SpatiaLite types
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			testGeometry(WKBTestUtils.createPoint(hasZ, hasM));
+			testGeometry(WKBTestUtils.createLineString(hasZ, hasM));
+			testGeometry(WKBTestUtils.createPolygon(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+
+			GeometryCollection<Geometry> geometryCollection = new GeometryCollection<>(
+					hasZ, hasM);
+			geometryCollection
+					.addGeometry(WKBTestUtils.createPoint(hasZ, hasM));
+			geometryCollection
+					.addGeometry(WKBTestUtils.createLineString(hasZ, hasM));
+			geometryCollection
+					.addGeometry(WKBTestUtils.createPolygon(hasZ, hasM));
+			testGeometry(geometryCollection);
+		}
+
+		try {
+			SpatiaLiteGeometryWriter.writeGeometry(
+					WKBTestUtils.createCircularString(false, false), 0);
+			TestCase.fail("Expected unsupported geometry type");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		GeometryCollection<Geometry> nested = new GeometryCollection<>();
+		nested.addGeometry(WKBTestUtils.createMultiPoint(false, false));
+		try {
+			SpatiaLiteGeometryWriter.writeGeometry(nested, 0);
+			TestCase.fail("Expected unsupported nested collection");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test compressed line strings and polygons
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testCompressed() throws IOException {
+
+		LineString lineString = new LineString(true, true);
+		for (int i = 0; i < 1000; i++) {
+			Point point = new Point(true, true, -77.0365 + i * 0.0001,
+					38.8977 + i * 0.00005);
+			point.setZ(100.0 + i);
+			point.setM((double) i);
+			lineString.addPoint(point);
+		}
+
+		SpatiaLiteGeometryWriter writer = new SpatiaLiteGeometryWriter();
+		writer.setCompressed(true);
+		byte[] bytes = writer.write(lineString, 4326);
+		TestCase.assertTrue(bytes.length < SpatiaLiteGeometryWriter
+				.writeGeometry(lineString, 4326).length);
+
+		LineString read = (LineString) SpatiaLiteGeometryReader
+				.readGeometry(bytes);
+		TestCase.assertEquals(lineString.numPoints(), read.numPoints());
+		for (int i = 0; i < lineString.numPoints(); i++) {
+			Point expected = lineString.getPoint(i);
+			Point actual = read.getPoint(i);
+			TestCase.assertEquals(expected.getX(), actual.getX(), 1e-5);
+			TestCase.assertEquals(expected.getY(), actual.getY(), 1e-5);
+			TestCase.assertEquals(expected.getZ(), actual.getZ(), 1e-3);
+			TestCase.assertEquals(expected.getM(), actual.getM());
+		}
+		TestCase.assertEquals(lineString.endPoint(), read.endPoint());
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			MultiPolygon compressed = (MultiPolygon) SpatiaLiteGeometryReader
+					.readGeometry(writer.write(multiPolygon, 0));
+			TestCase.assertEquals(multiPolygon.numPolygons(),
+					compressed.numPolygons());
+			for (int j = 0; j < multiPolygon.numPolygons(); j++) {
+				Polygon polygon = multiPolygon.getPolygon(j);
+				Polygon compressedPolygon = compressed.getPolygon(j);
+				TestCase.assertEquals(polygon.numRings(),
+						compressedPolygon.numRings());
+				for (int k = 0; k < polygon.numRings(); k++) {
+					LineString ring = polygon.getRing(k);
+					LineString compressedRing = compressedPolygon.getRing(k);
+					TestCase.assertEquals(ring.numPoints(),
+							compressedRing.numPoints());
+					for (int l = 0; l < ring.numPoints(); l++) {
+						Point expected = ring.getPoint(l);
+						Point actual = compressedRing.getPoint(l);
+						TestCase.assertEquals(expected.getX(), actual.getX(),
+								1e-4);
+						TestCase.assertEquals(expected.getY(), actual.getY(),
+								1e-4);
+						TestCase.assertEquals(expected.hasZ(), actual.hasZ());
+						if (expected.hasZ()) {
+							TestCase.assertEquals(expected.getZ(),
+									actual.getZ(), 1e-4);
+						}
+						TestCase.assertEquals(expected.hasM(), actual.hasM());
+						if (expected.hasM()) {
+							TestCase.assertEquals(expected.getM(),
+									actual.getM(), 1e-4);
+						}
+					}
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Test the geometry round trips and the header envelope
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testGeometry(Geometry geometry) throws IOException {
+
+		ByteOrder byteOrder = WKBTestUtils.coinFlip() ? ByteOrder.BIG_ENDIAN
+				: ByteOrder.LITTLE_ENDIAN;
+		byte[] bytes = new SpatiaLiteGeometryWriter(byteOrder).write(geometry,
+				3857);
+
+		SpatiaLiteGeometryReader reader = new SpatiaLiteGeometryReader(bytes);
+		TestCase.assertEquals(byteOrder, reader.getByteOrder());
+		TestCase.assertEquals(3857, reader.getSrid());
+
+		GeometryEnvelope expected = geometry.getEnvelope();
+		GeometryEnvelope envelope = SpatiaLiteGeometryReader
+				.readEnvelope(bytes);
+		TestCase.assertEquals(expected.getMinX(), envelope.getMinX());
+		TestCase.assertEquals(expected.getMinY(), envelope.getMinY());
+		TestCase.assertEquals(expected.getMaxX(), envelope.getMaxX());
+		TestCase.assertEquals(expected.getMaxY(), envelope.getMaxY());
+
+		Geometry read = reader.read();
+		WKBTestUtils.compareGeometries(geometry, read);
+	}
+
+}
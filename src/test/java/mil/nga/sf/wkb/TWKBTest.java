@@ -0,0 +1,287 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Tiny Well Known Binary Geometries
+ */
+public class TWKBTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 10;
+
+	/**
+	 * Test against known encodings
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownEncodings() throws IOException {
+
+		Point point = new Point(1, 2);
+		byte[] pointBytes = new byte[] { 0x01, 0x00, 0x02, 0x04 };
+		WKBTestUtils.compareByteArrays(pointBytes,
+				TWKBWriter.writeGeometry(point, 0));
+		TestCase.assertEquals(point, TWKBReader.readGeometry(pointBytes));
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(5, 5));
+		byte[] lineStringBytes = new byte[] { 0x02, 0x00, 0x02, 0x02, 0x02,
+				0x08, 0x08 };
+		WKBTestUtils.compareByteArrays(lineStringBytes,
+				TWKBWriter.writeGeometry(lineString, 0));
+		TestCase.assertEquals(lineString,
+				TWKBReader.readGeometry(lineStringBytes, LineString.class));
+
+	}
+
+	/**
+	 * Test reading and writing geometries of all TWKB types
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			testGeometry(WKBTestUtils.createPoint(hasZ, hasM));
+			testGeometry(WKBTestUtils.createLineString(hasZ, hasM));
+			testGeometry(WKBTestUtils.createPolygon(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiPoint(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiLineString(hasZ, hasM));
+			testGeometry(WKBTestUtils.createMultiPolygon(hasZ, hasM));
+			testGeometry(WKBTestUtils.createGeometryCollection(hasZ, hasM));
+		}
+
+	}
+
+	/**
+	 * Test the bounding box, size, and id list headers
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testHeaders() throws IOException {
+
+		MultiPoint multiPoint = WKBTestUtils.createMultiPoint(true, false);
+		long[] ids = new long[multiPoint.numPoints()];
+		for (int i = 0; i < ids.length; i++) {
+			ids[i] = i * 10 - 5;
+		}
+
+		TWKBWriter writer = new TWKBWriter(5);
+		writer.setIncludeBoundingBox(true);
+		writer.setIncludeSize(true);
+		byte[] bytes;
+		try {
+			writer.write(multiPoint, ids);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+
+		TestCase.assertEquals(TWKBWriter.BOUNDING_BOX_FLAG
+				| TWKBWriter.SIZE_FLAG | TWKBWriter.ID_LIST_FLAG
+				| TWKBWriter.EXTENDED_PRECISION_FLAG, bytes[1]);
+
+		TWKBReader reader = new TWKBReader(bytes);
+		try {
+			MultiPoint read = reader.read(MultiPoint.class);
+			TestCase.assertEquals(multiPoint.numPoints(), read.numPoints());
+			long[] readIds = reader.getIds();
+			TestCase.assertNotNull(readIds);
+			for (int i = 0; i < ids.length; i++) {
+				TestCase.assertEquals(ids[i], readIds[i]);
+			}
+			comparePoints(multiPoint, read, 1e-5);
+		} finally {
+			reader.close();
+		}
+
+		GeometryCollection<Geometry> empty = new GeometryCollection<>();
+		TestCase.assertTrue(TWKBReader
+				.readGeometry(TWKBWriter.writeGeometry(empty, 3)).isEmpty());
+
+		// Collections of only empty geometries have no bounding box
+		GeometryCollection<Geometry> emptyMembers = new GeometryCollection<>();
+		emptyMembers.addGeometry(new LineString());
+		byte[] emptyMembersBytes = writeHeaders(emptyMembers);
+		WKBTestUtils.compareByteArrays(
+				new byte[] { 0x07, TWKBWriter.SIZE_FLAG, 0x03, 0x01, 0x02,
+						TWKBWriter.EMPTY_FLAG },
+				emptyMembersBytes);
+		GeometryCollection<?> readEmptyMembers = TWKBReader.readGeometry(
+				emptyMembersBytes, GeometryCollection.class);
+		TestCase.assertEquals(1, readEmptyMembers.numGeometries());
+		TestCase.assertTrue(readEmptyMembers.getGeometry(0).isEmpty());
+
+		// Empty members do not expand the bounding box
+		emptyMembers.addGeometry(new Point(1, 2));
+		byte[] mixedBytes = writeHeaders(emptyMembers);
+		TestCase.assertEquals(
+				TWKBWriter.BOUNDING_BOX_FLAG | TWKBWriter.SIZE_FLAG,
+				mixedBytes[1]);
+		WKBTestUtils.compareByteArrays(new byte[] { 0x02, 0x00, 0x04, 0x00 },
+				Arrays.copyOfRange(mixedBytes, 3, 7));
+		comparePoints(emptyMembers, TWKBReader.readGeometry(mixedBytes),
+				0.0);
+
+		try {
+			TWKBWriter.writeGeometry(
+					WKBTestUtils.createCircularString(false, false), 3);
+			TestCase.fail("Expected unsupported geometry type");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Write a geometry with zero precision and the bounding box and size
+	 * headers
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return TWKB bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private byte[] writeHeaders(Geometry geometry) throws IOException {
+		byte[] bytes;
+		TWKBWriter writer = new TWKBWriter(0);
+		try {
+			writer.setIncludeBoundingBox(true);
+			writer.setIncludeSize(true);
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Test the geometry round trips within the precision and that written
+	 * bytes are stable once quantized
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testGeometry(Geometry geometry) throws IOException {
+
+		byte[] bytes = TWKBWriter.writeGeometry(geometry, 6, 3, 3);
+		TestCase.assertTrue(bytes.length < WKBTestUtils
+				.writeBytes(geometry).length);
+
+		Geometry read = TWKBReader.readGeometry(bytes);
+		TestCase.assertEquals(geometry.getGeometryType(),
+				read.getGeometryType());
+		TestCase.assertEquals(geometry.hasZ(), read.hasZ());
+		TestCase.assertEquals(geometry.hasM(), read.hasM());
+		comparePoints(geometry, read, 1e-3);
+
+		WKBTestUtils.compareByteArrays(bytes,
+				TWKBWriter.writeGeometry(read, 6, 3, 3));
+	}
+
+	/**
+	 * Compare the structure and every point value of the geometries within
+	 * the tolerance
+	 *
+	 * @param expected
+	 *            expected geometry
+	 * @param actual
+	 *            actual geometry
+	 * @param tolerance
+	 *            tolerance
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void comparePoints(Geometry expected, Geometry actual,
+			double tolerance) throws IOException {
+
+		TestCase.assertEquals(WKBTestUtils.writeBytes(expected).length,
+				WKBTestUtils.writeBytes(actual).length);
+
+		List<double[]> expectedPoints = points(expected);
+		List<double[]> actualPoints = points(actual);
+		TestCase.assertEquals(expectedPoints.size(), actualPoints.size());
+		for (int i = 0; i < expectedPoints.size(); i++) {
+			double[] expectedPoint = expectedPoints.get(i);
+			double[] actualPoint = actualPoints.get(i);
+			for (int j = 0; j < expectedPoint.length; j++) {
+				TestCase.assertEquals(expectedPoint[j], actualPoint[j],
+						tolerance);
+			}
+		}
+	}
+
+	/**
+	 * Traverse the points of a geometry
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @return x, y, z, and m values of each point in traversal order
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static List<double[]> points(Geometry geometry)
+			throws IOException {
+		final List<double[]> points = new ArrayList<>();
+		new GeometryReader(new ByteReader(WKBTestUtils.writeBytes(geometry)))
+				.traverse(new GeometryHandler() {
+
+					@Override
+					public void startGeometry(GeometryType geometryType,
+							boolean hasZ, boolean hasM,
+							GeometryType containingType) {
+					}
+
+					@Override
+					public void startList(int count) {
+					}
+
+					@Override
+					public void point(double x, double y, double z,
+							double m) {
+						points.add(new double[] { x, y, z, m });
+					}
+
+					@Override
+					public void endList() {
+					}
+
+					@Override
+					public void endGeometry() {
+					}
+
+				});
+		return points;
+	}
+
+}
@@ -0,0 +1,213 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary byte order conversion
+ */
+public class WKBByteOrderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test converting random geometries in place and to a target array
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+
+			byte[] bigEndian = GeometryWriter.writeGeometry(geometry,
+					ByteOrder.BIG_ENDIAN);
+			byte[] littleEndian = GeometryWriter.writeGeometry(geometry,
+					ByteOrder.LITTLE_ENDIAN);
+
+			byte[] bytes = Arrays.copyOf(bigEndian, bigEndian.length);
+			TestCase.assertEquals(ByteOrder.BIG_ENDIAN,
+					WKBByteOrder.getByteOrder(bytes));
+			TestCase.assertEquals(bytes.length,
+					WKBByteOrder.convert(bytes, ByteOrder.LITTLE_ENDIAN));
+			WKBTestUtils.compareByteArrays(littleEndian, bytes);
+			TestCase.assertEquals(ByteOrder.LITTLE_ENDIAN,
+					WKBByteOrder.getByteOrder(bytes));
+
+			WKBByteOrder.convert(bytes, ByteOrder.LITTLE_ENDIAN);
+			WKBTestUtils.compareByteArrays(littleEndian, bytes);
+
+			WKBByteOrder.convert(bytes, ByteOrder.BIG_ENDIAN);
+			WKBTestUtils.compareByteArrays(bigEndian, bytes);
+
+			byte[] target = new byte[littleEndian.length + 7];
+			TestCase.assertEquals(bigEndian.length, WKBByteOrder.convert(
+					bigEndian, 0, target, 3, ByteOrder.LITTLE_ENDIAN));
+			WKBTestUtils.compareByteArrays(littleEndian, Arrays
+					.copyOfRange(target, 3, 3 + littleEndian.length));
+		}
+
+	}
+
+	/**
+	 * Test converting extended, float32, and fixed point geometries
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testExtendedAndCompact() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+
+			byte[] bigEndian = GeometryWriter.writeGeometry(geometry, 4326,
+					ByteOrder.BIG_ENDIAN);
+			byte[] littleEndian = GeometryWriter.writeGeometry(geometry, 4326,
+					ByteOrder.LITTLE_ENDIAN);
+			WKBByteOrder.convert(bigEndian, ByteOrder.LITTLE_ENDIAN);
+			WKBTestUtils.compareByteArrays(littleEndian, bigEndian);
+
+			bigEndian = write(geometry, ByteOrder.BIG_ENDIAN, true, false);
+			littleEndian = write(geometry, ByteOrder.LITTLE_ENDIAN, true,
+					false);
+			WKBByteOrder.convert(littleEndian, ByteOrder.BIG_ENDIAN);
+			WKBTestUtils.compareByteArrays(bigEndian, littleEndian);
+
+			boolean float32 = WKBTestUtils.coinFlip();
+			bigEndian = write(geometry, ByteOrder.BIG_ENDIAN, float32, true);
+			littleEndian = write(geometry, ByteOrder.LITTLE_ENDIAN, float32,
+					true);
+			WKBByteOrder.convert(littleEndian, ByteOrder.BIG_ENDIAN);
+			WKBTestUtils.compareByteArrays(bigEndian, littleEndian);
+		}
+
+	}
+
+	/**
+	 * Test converting nested geometries of mixed byte orders
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testMixedByteOrders() throws IOException {
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(3, 4));
+		multiPoint.addPoint(new Point(5, 6));
+		byte[] bigEndian = GeometryWriter.writeGeometry(multiPoint,
+				ByteOrder.BIG_ENDIAN);
+
+		// Convert the middle point to little endian
+		byte[] mixed = Arrays.copyOf(bigEndian, bigEndian.length);
+		TestCase.assertEquals(21,
+				WKBByteOrder.convert(mixed, 30, ByteOrder.LITTLE_ENDIAN));
+		TestCase.assertFalse(Arrays.equals(bigEndian, mixed));
+		WKBTestUtils.compareGeometries(multiPoint,
+				WKBTestUtils.readGeometry(mixed));
+
+		WKBByteOrder.convert(mixed, ByteOrder.BIG_ENDIAN);
+		WKBTestUtils.compareByteArrays(bigEndian, mixed);
+
+	}
+
+	/**
+	 * Test conversion errors
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testErrors() throws IOException {
+
+		byte[] bytes = GeometryWriter.writeGeometry(new Point(1, 2));
+
+		byte[] overlapping = Arrays.copyOf(bytes, bytes.length + 8);
+		try {
+			WKBByteOrder.convert(overlapping, 0, overlapping, 8,
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.fail("Expected overlapping range error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			WKBByteOrder.convert(Arrays.copyOf(bytes, bytes.length - 1),
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.fail("Expected truncated geometry error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			WKBByteOrder.convert(bytes, 0, new byte[bytes.length - 1], 0,
+					ByteOrder.LITTLE_ENDIAN);
+			TestCase.fail("Expected short target error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		byte[] invalid = Arrays.copyOf(bytes, bytes.length);
+		invalid[0] = 2;
+		try {
+			WKBByteOrder.convert(invalid, ByteOrder.LITTLE_ENDIAN);
+			TestCase.fail("Expected byte order error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Write a geometry with float32 or fixed point coordinates
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @param float32
+	 *            true for float32 coordinates
+	 * @param fixedPoint
+	 *            true for fixed point x and y coordinates
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] write(Geometry geometry, ByteOrder byteOrder,
+			boolean float32, boolean fixedPoint) throws IOException {
+		byte[] bytes = null;
+		GeometryWriter writer = new GeometryWriter(byteOrder);
+		try {
+			writer.setFloat32(float32);
+			if (fixedPoint) {
+				writer.setFixedPoint(-180.0, -90.0, 1000.0);
+			}
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,211 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiLineString;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary geometry type code normalization
+ */
+public class WKBCodeNormalizerTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test normalizing known geometry type codes
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownCodes() throws IOException {
+
+		Point point = new Point(true, true, 1, 2);
+		point.setZ(3.0);
+		point.setM(4.0);
+		byte[] bytes = GeometryWriter.writeGeometry(point);
+		TestCase.assertEquals(3001, WKBLayout.getCode(bytes, 0));
+
+		byte[] extended = WKBCodeNormalizer.normalize(bytes,
+				WKBCodeNormalizer.EXTENDED);
+		TestCase.assertEquals(
+				1 | GeometryCodes.EWKB_Z_FLAG | GeometryCodes.EWKB_M_FLAG,
+				WKBLayout.getCode(extended, 0));
+		WKBTestUtils.compareByteArrays(bytes,
+				WKBCodeNormalizer.normalize(extended, WKBCodeNormalizer.ISO));
+
+		try {
+			WKBCodeNormalizer.normalize(bytes, WKBCodeNormalizer.OGC);
+			TestCase.fail("Expected unsupported m values");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(3.0);
+		byte[] ogc = WKBCodeNormalizer.normalize(
+				GeometryWriter.writeGeometry(pointZ), WKBCodeNormalizer.OGC);
+		TestCase.assertEquals(0x80000001, WKBLayout.getCode(ogc, 0));
+		TestCase.assertEquals(1001,
+				WKBLayout.getCode(WKBCodeNormalizer.normalize(ogc,
+						WKBCodeNormalizer.ISO), 0));
+
+		// Extended SRIDs are kept only by the extended flavor
+		byte[] srid = GeometryWriter.writeGeometry(pointZ, 4326);
+		WKBTestUtils.compareByteArrays(srid, WKBCodeNormalizer
+				.normalize(srid, WKBCodeNormalizer.EXTENDED));
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(pointZ),
+				WKBCodeNormalizer.normalize(srid, WKBCodeNormalizer.ISO));
+		WKBTestUtils.compareByteArrays(ogc,
+				WKBCodeNormalizer.normalize(srid, WKBCodeNormalizer.OGC));
+
+		// Multi curves of line strings are OGC multi line strings
+		MultiLineString multiLineString = new MultiLineString();
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(2, 2));
+		multiLineString.addLineString(lineString);
+		byte[] multiCurve = GeometryWriter.writeGeometry(multiLineString);
+		multiCurve[4] = (byte) GeometryCodes
+				.getCode(GeometryType.MULTICURVE);
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(multiLineString),
+				WKBCodeNormalizer.normalize(multiCurve,
+						WKBCodeNormalizer.OGC));
+
+		CircularString circularString = new CircularString();
+		circularString.addPoint(new Point(0, 0));
+		circularString.addPoint(new Point(1, 1));
+		circularString.addPoint(new Point(2, 0));
+		multiLineString.addLineString(circularString);
+		try {
+			WKBCodeNormalizer.normalize(
+					GeometryWriter.writeGeometry(multiLineString),
+					WKBCodeNormalizer.OGC);
+			TestCase.fail("Expected unsupported multi curve");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			WKBCodeNormalizer.normalize(bytes, 3);
+			TestCase.fail("Expected unsupported flavor");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test normalizing random geometries between the ISO and extended flavors
+	 * matches the geometry writer
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+
+			byte[] iso = GeometryWriter.writeGeometry(geometry, byteOrder);
+			byte[] extended = writeExtended(geometry, byteOrder);
+
+			WKBTestUtils.compareByteArrays(extended, WKBCodeNormalizer
+					.normalize(iso, WKBCodeNormalizer.EXTENDED));
+			WKBTestUtils.compareByteArrays(iso, WKBCodeNormalizer
+					.normalize(extended, WKBCodeNormalizer.ISO));
+			WKBTestUtils.compareByteArrays(iso,
+					WKBCodeNormalizer.normalize(iso, WKBCodeNormalizer.ISO));
+
+			// In place, dropping the SRID
+			byte[] srid = GeometryWriter.writeGeometry(geometry, 4326,
+					byteOrder);
+			int length = WKBCodeNormalizer.normalize(srid, 0, srid, 0,
+					WKBCodeNormalizer.ISO);
+			WKBTestUtils.compareByteArrays(iso,
+					Arrays.copyOf(srid, length));
+		}
+
+	}
+
+	/**
+	 * Test normalizing random geometries to the OGC flavor matches the
+	 * extended flavor without m values
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testOGCGeometries() throws IOException {
+
+		int tested = 0;
+		while (tested < GEOMETRIES_PER_TEST) {
+
+			Geometry geometry = WKBTestUtils
+					.createGeometry(WKBTestUtils.coinFlip(), false);
+			GeometryType geometryType = geometry.getGeometryType();
+			if (geometryType == GeometryType.GEOMETRYCOLLECTION
+					|| geometryType == GeometryType.COMPOUNDCURVE
+					|| geometryType == GeometryType.CURVEPOLYGON) {
+				continue;
+			}
+
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			WKBTestUtils.compareByteArrays(writeExtended(geometry, byteOrder),
+					WKBCodeNormalizer.normalize(
+							GeometryWriter.writeGeometry(geometry, byteOrder),
+							WKBCodeNormalizer.OGC));
+			tested++;
+		}
+
+	}
+
+	/**
+	 * Write a geometry with extended geometry type codes
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] writeExtended(Geometry geometry,
+			ByteOrder byteOrder) throws IOException {
+		byte[] bytes = null;
+		GeometryWriter writer = new GeometryWriter(byteOrder);
+		try {
+			writer.setExtended(true);
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+}
@@ -0,0 +1,195 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+
+/**
+ * Test Well Known Binary collecting
+ */
+public class WKBCollectorTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test collecting known geometries
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownGeometries() throws IOException {
+
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(new GeometryCollection<>()),
+				WKBCollector.collect());
+
+		// Members with more dimensions are transcoded to the shared
+		// dimensions
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(3.0);
+		Point pointZM = new Point(true, true, 5, 6);
+		pointZM.setZ(7.0);
+		pointZM.setM(8.0);
+		MultiPoint expectedZ = new MultiPoint(true, false);
+		expectedZ.addPoint(pointZ);
+		Point pointZM2 = new Point(true, false, 5, 6);
+		pointZM2.setZ(7.0);
+		expectedZ.addPoint(pointZM2);
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(expectedZ),
+				WKBCollector.collect(GeometryWriter.writeGeometry(pointZ),
+						GeometryWriter.writeGeometry(pointZM,
+								ByteOrder.LITTLE_ENDIAN)));
+
+		MultiPoint expected = new MultiPoint();
+		expected.addPoint(new Point(1, 2));
+		expected.addPoint(new Point(5, 6));
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(expected,
+						ByteOrder.LITTLE_ENDIAN),
+				WKBCollector.collect(
+						GeometryWriter.writeGeometry(pointZ,
+								ByteOrder.LITTLE_ENDIAN),
+						GeometryWriter.writeGeometry(new Point(5, 6))));
+
+		// Mixed types are collected as a geometry collection
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(2, 2));
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(new Point(1, 2));
+		collection.addGeometry(lineString);
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(collection),
+				WKBCollector.collect(
+						GeometryWriter.writeGeometry(new Point(1, 2)),
+						GeometryWriter.writeGeometry(lineString)));
+
+		// Line strings and circular strings are collected as a multi curve
+		CircularString circularString = new CircularString();
+		circularString.addPoint(new Point(0, 0));
+		circularString.addPoint(new Point(1, 1));
+		circularString.addPoint(new Point(2, 0));
+		byte[] multiCurve = WKBCollector.collect(
+				GeometryWriter.writeGeometry(lineString),
+				GeometryWriter.writeGeometry(circularString));
+		TestCase.assertEquals(
+				GeometryCodes.getCode(GeometryType.MULTICURVE),
+				WKBLayout.getCode(multiCurve, 0));
+		TestCase.assertEquals(multiCurve.length,
+				WKBLayout.skip(multiCurve, 0));
+
+	}
+
+	/**
+	 * Test collecting members with extended SRIDs
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSrids() throws IOException {
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(3, 4));
+
+		// A shared SRID moves to the collection header
+		byte[] collected = WKBCollector.collect(
+				GeometryWriter.writeGeometry(new Point(1, 2), 4326),
+				GeometryWriter.writeGeometry(new Point(3, 4), 4326,
+						ByteOrder.LITTLE_ENDIAN));
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(multiPoint, 4326), collected);
+		SRIDGeometry sridGeometry = GeometryReader
+				.readSRIDGeometry(collected);
+		TestCase.assertEquals(Integer.valueOf(4326), sridGeometry.getSrid());
+		WKBTestUtils.compareGeometries(multiPoint,
+				sridGeometry.getGeometry());
+
+		// Differing SRIDs are kept on the members
+		byte[] first = GeometryWriter.writeGeometry(new Point(1, 2), 4326);
+		byte[] second = GeometryWriter.writeGeometry(new Point(3, 4), 3857);
+		collected = WKBCollector.collect(first, second);
+		TestCase.assertFalse(
+				WKBLayout.hasSrid(WKBLayout.getCode(collected, 0)));
+		TestCase.assertEquals(9 + first.length + second.length,
+				collected.length);
+		sridGeometry = GeometryReader.readSRIDGeometry(collected);
+		TestCase.assertNull(sridGeometry.getSrid());
+		WKBTestUtils.compareGeometries(multiPoint,
+				sridGeometry.getGeometry());
+
+		// As are SRIDs not shared by all members
+		collected = WKBCollector.collect(first,
+				GeometryWriter.writeGeometry(new Point(3, 4)));
+		TestCase.assertFalse(
+				WKBLayout.hasSrid(WKBLayout.getCode(collected, 0)));
+		TestCase.assertNull(
+				GeometryReader.readSRIDGeometry(collected).getSrid());
+
+	}
+
+	/**
+	 * Test collecting the members of random multi geometries in random byte
+	 * orders matches writing the multi geometries
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			GeometryCollection<?> multiGeometry;
+			switch (i % 3) {
+			case 0:
+				multiGeometry = WKBTestUtils.createMultiPoint(hasZ, hasM);
+				break;
+			case 1:
+				multiGeometry = WKBTestUtils.createMultiLineString(hasZ,
+						hasM);
+				break;
+			default:
+				multiGeometry = WKBTestUtils.createMultiPolygon(hasZ, hasM);
+			}
+
+			List<byte[]> members = new ArrayList<>();
+			for (Geometry member : multiGeometry.getGeometries()) {
+				members.add(GeometryWriter.writeGeometry(member,
+						WKBTestUtils.coinFlip() ? ByteOrder.BIG_ENDIAN
+								: ByteOrder.LITTLE_ENDIAN));
+			}
+			ByteOrder byteOrder = WKBByteOrder.getByteOrder(members.get(0));
+
+			WKBTestUtils.compareByteArrays(
+					GeometryWriter.writeGeometry(multiGeometry, byteOrder),
+					WKBCollector.collect(members));
+			WKBTestUtils.compareByteArrays(
+					GeometryWriter.writeGeometry(multiGeometry,
+							ByteOrder.LITTLE_ENDIAN),
+					WKBCollector.collect(members, ByteOrder.LITTLE_ENDIAN));
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary dimension transcoding
+ */
+public class WKBDimensionTranscoderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test dropping dimensions of known geometries
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownGeometries() throws IOException {
+
+		Point point = new Point(true, true, 1, 2);
+		point.setZ(3.0);
+		point.setM(4.0);
+		byte[] bytes = GeometryWriter.writeGeometry(point);
+
+		WKBTestUtils.compareByteArrays(
+				GeometryWriter.writeGeometry(new Point(1, 2)),
+				WKBDimensionTranscoder.toXY(bytes));
+
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(3.0);
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(pointZ),
+				WKBDimensionTranscoder.transcode(bytes, true, false));
+
+		Point pointM = new Point(false, true, 1, 2);
+		pointM.setM(4.0);
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(pointM),
+				WKBDimensionTranscoder.transcode(bytes, false, true));
+
+		WKBTestUtils.compareByteArrays(bytes,
+				WKBDimensionTranscoder.transcode(bytes, true, true));
+
+		// Extended codes keep the extended flavor and the SRID
+		byte[] extended = GeometryWriter.writeGeometry(point, 4326);
+		byte[] xy = WKBDimensionTranscoder.toXY(extended);
+		TestCase.assertEquals(
+				GeometryCodes.getCode(GeometryType.POINT)
+						| GeometryCodes.EWKB_SRID_FLAG,
+				WKBLayout.getCode(xy, 0));
+		TestCase.assertEquals(4326, WKBLayout.getInt(xy, 5, true));
+		TestCase.assertEquals(9 + 16, xy.length);
+
+		extended = GeometryWriter.writeGeometry(pointZ, 4326);
+		TestCase.assertEquals(
+				GeometryCodes.getCode(GeometryType.POINT)
+						| GeometryCodes.EWKB_Z_FLAG
+						| GeometryCodes.EWKB_SRID_FLAG,
+				WKBLayout.getCode(WKBDimensionTranscoder.transcode(
+						extended, true, true), 0));
+
+	}
+
+	/**
+	 * Test dropping dimensions of random geometries matches writing the
+	 * geometries with the kept dimensions
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, byteOrder);
+
+			boolean hasZ = WKBTestUtils.coinFlip();
+			boolean hasM = WKBTestUtils.coinFlip();
+			byte[] expected = expected(bytes, byteOrder, hasZ, hasM);
+			WKBTestUtils.compareByteArrays(expected,
+					WKBDimensionTranscoder.transcode(bytes, hasZ, hasM));
+
+			// In place, shifting toward the start of the bytes
+			byte[] shifted = new byte[bytes.length + 10];
+			System.arraycopy(bytes, 0, shifted, 10, bytes.length);
+			int length = WKBDimensionTranscoder.transcode(shifted, 10,
+					shifted, 0, hasZ, hasM);
+			WKBTestUtils.compareByteArrays(expected,
+					Arrays.copyOf(shifted, length));
+
+			length = WKBDimensionTranscoder.transcode(bytes, 0, bytes, 0,
+					hasZ, hasM);
+			WKBTestUtils.compareByteArrays(expected,
+					Arrays.copyOf(bytes, length));
+		}
+
+	}
+
+	/**
+	 * Test transcoding errors
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testErrors() throws IOException {
+
+		Point point = new Point(true, false, 1, 2);
+		point.setZ(3.0);
+		byte[] bytes = GeometryWriter.writeGeometry(point);
+
+		byte[] overlapping = Arrays.copyOf(bytes, bytes.length + 8);
+		try {
+			WKBDimensionTranscoder.transcode(overlapping, 0, overlapping, 8,
+					false, false);
+			TestCase.fail("Expected overlapping range error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			WKBDimensionTranscoder.transcode(bytes, 0, new byte[20], 0,
+					false, false);
+			TestCase.fail("Expected short target error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		try {
+			WKBDimensionTranscoder
+					.toXY(Arrays.copyOf(bytes, bytes.length - 1));
+			TestCase.fail("Expected truncated geometry error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Write the expected bytes by traversing the geometry and writing only
+	 * the kept dimensions
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @param byteOrder
+	 *            byte order
+	 * @param hasZ
+	 *            true to keep z values
+	 * @param hasM
+	 *            true to keep m values
+	 * @return expected bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] expected(byte[] bytes, ByteOrder byteOrder,
+			final boolean hasZ, final boolean hasM) throws IOException {
+		WKBGeometryHandler handler = new WKBGeometryHandler(byteOrder) {
+			@Override
+			public void startGeometry(GeometryType geometryType,
+					boolean geometryZ, boolean geometryM,
+					GeometryType containingType) throws IOException {
+				super.startGeometry(geometryType, geometryZ && hasZ,
+						geometryM && hasM, containingType);
+			}
+		};
+		new GeometryReader(new ByteReader(bytes)).traverse(handler);
+		return handler.getBytes();
+	}
+
+}
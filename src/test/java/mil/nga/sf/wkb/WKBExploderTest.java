@@ -0,0 +1,182 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary exploding
+ */
+public class WKBExploderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test exploding random geometries matches writing each member
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, byteOrder);
+
+			List<byte[]> members = WKBExploder.explode(bytes);
+			List<ByteBuffer> views = WKBExploder.explodeViews(bytes);
+			TestCase.assertEquals(members.size(), views.size());
+
+			if (geometry instanceof GeometryCollection) {
+				List<?> geometries = ((GeometryCollection<?>) geometry)
+						.getGeometries();
+				TestCase.assertEquals(geometries.size(), members.size());
+				for (int j = 0; j < geometries.size(); j++) {
+					WKBTestUtils.compareByteArrays(
+							GeometryWriter.writeGeometry(
+									(Geometry) geometries.get(j), byteOrder),
+							members.get(j));
+				}
+			} else {
+				TestCase.assertEquals(1, members.size());
+				WKBTestUtils.compareByteArrays(bytes, members.get(0));
+			}
+
+			for (int j = 0; j < members.size(); j++) {
+				ByteBuffer view = views.get(j);
+				TestCase.assertSame(bytes, view.array());
+				TestCase.assertEquals(byteOrder, view.order());
+				byte[] viewBytes = new byte[view.remaining()];
+				view.duplicate().get(viewBytes);
+				WKBTestUtils.compareByteArrays(members.get(j), viewBytes);
+			}
+		}
+
+	}
+
+	/**
+	 * Test exploding and collecting multi polygons round trips the bytes
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testCollectRoundTrip() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			byte[] bytes = GeometryWriter.writeGeometry(multiPolygon);
+			WKBTestUtils.compareByteArrays(bytes,
+					WKBCollector.collect(WKBExploder.explode(bytes)));
+		}
+
+	}
+
+	/**
+	 * Test exploding geometries with an extended SRID
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testSrid() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(multiPolygon, 4326,
+					byteOrder);
+			TestCase.assertEquals(Integer.valueOf(4326),
+					WKBExploder.getSrid(bytes, 0));
+
+			// Copies include the collection SRID
+			List<byte[]> members = WKBExploder.explode(bytes);
+			TestCase.assertEquals(multiPolygon.numPolygons(), members.size());
+			for (int j = 0; j < members.size(); j++) {
+				WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+						multiPolygon.getPolygon(j), 4326, byteOrder),
+						members.get(j));
+				TestCase.assertEquals(Integer.valueOf(4326), GeometryReader
+						.readSRIDGeometry(members.get(j)).getSrid());
+			}
+
+			// Views are the members as written within the collection
+			int[] offsets = WKBExploder.getOffsets(bytes, 0);
+			List<ByteBuffer> views = WKBExploder.explodeViews(bytes);
+			for (int j = 0; j < views.size(); j++) {
+				TestCase.assertEquals(offsets[j + 1] - offsets[j],
+						views.get(j).remaining());
+				TestCase.assertEquals(members.get(j).length - 4,
+						views.get(j).remaining());
+				TestCase.assertNull(WKBExploder.getSrid(bytes, offsets[j]));
+			}
+
+			WKBTestUtils.compareByteArrays(bytes,
+					WKBCollector.collect(members));
+		}
+
+		byte[] point = GeometryWriter.writeGeometry(new Point(1, 2), 3857);
+		TestCase.assertEquals(Integer.valueOf(3857),
+				WKBExploder.getSrid(point, 0));
+		WKBTestUtils.compareByteArrays(point,
+				WKBExploder.explode(point).get(0));
+		TestCase.assertNull(WKBExploder.getSrid(
+				GeometryWriter.writeGeometry(new Point(1, 2)), 0));
+
+	}
+
+	/**
+	 * Test member offsets and errors
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testOffsets() throws IOException {
+
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(new Point(1, 2));
+		collection.addGeometry(new Point(3, 4));
+		byte[] bytes = GeometryWriter.writeGeometry(collection, 4326);
+
+		int[] offsets = WKBExploder.getOffsets(bytes, 0);
+		TestCase.assertEquals(3, offsets.length);
+		TestCase.assertEquals(13, offsets[0]);
+		TestCase.assertEquals(34, offsets[1]);
+		TestCase.assertEquals(bytes.length, offsets[2]);
+
+		try {
+			WKBExploder.explode(Arrays.copyOf(bytes, 40));
+			TestCase.fail("Expected truncated geometry error");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+}
@@ -0,0 +1,354 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPolygon;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.ByteReader;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary point editing
+ */
+public class WKBPointEditorTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test editing a point in place
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testPoint() throws IOException {
+
+		Point point = new Point(true, true, 1, 2);
+		point.setZ(3.0);
+		point.setM(4.0);
+		byte[] bytes = GeometryWriter.writeGeometry(point,
+				ByteOrder.LITTLE_ENDIAN);
+
+		WKBPointEditor editor = new WKBPointEditor(bytes);
+		TestCase.assertFalse(editor.isLocated());
+		editor.locate(0);
+		TestCase.assertEquals(5, editor.getPosition());
+		TestCase.assertTrue(editor.hasZ());
+		TestCase.assertTrue(editor.hasM());
+		TestCase.assertEquals(1.0, editor.getX());
+		TestCase.assertEquals(2.0, editor.getY());
+		TestCase.assertEquals(3.0, editor.getZ());
+		TestCase.assertEquals(4.0, editor.getM());
+
+		editor.setXY(-77.5, 38.25);
+		editor.setZ(100.0);
+		editor.setM(5.0);
+		Point expected = new Point(true, true, -77.5, 38.25);
+		expected.setZ(100.0);
+		expected.setM(5.0);
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(expected,
+				ByteOrder.LITTLE_ENDIAN), bytes);
+
+		editor.locatePath();
+		TestCase.assertEquals(-77.5, editor.getX());
+
+		// Array backed buffer at a position, with an extended SRID
+		byte[] srid = GeometryWriter.writeGeometry(new Point(1, 2), 4326);
+		ByteBuffer buffer = ByteBuffer.allocate(srid.length + 4);
+		buffer.position(4);
+		buffer.put(srid);
+		buffer.position(4);
+		editor.setBuffer(buffer);
+		editor.locate(0);
+		TestCase.assertEquals(13, editor.getPosition());
+		editor.setY(7.0);
+		TestCase.assertEquals(7.0, buffer.getDouble(4 + 17));
+		TestCase.assertFalse(editor.hasZ());
+		try {
+			editor.setZ(1.0);
+			TestCase.fail("Expected missing z value");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Test locating points by path
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testPaths() throws IOException {
+
+		for (int i = 0; i < GEOMETRIES_PER_TEST; i++) {
+
+			MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			byte[] bytes = GeometryWriter.writeGeometry(multiPolygon);
+
+			int polygonIndex = (int) (Math.random()
+					* multiPolygon.numPolygons());
+			Polygon polygon = multiPolygon.getPolygon(polygonIndex);
+			int ringIndex = (int) (Math.random() * polygon.numRings());
+			LineString ring = polygon.getRing(ringIndex);
+			int pointIndex = (int) (Math.random() * ring.numPoints());
+			Point point = ring.getPoint(pointIndex);
+
+			WKBPointEditor editor = new WKBPointEditor(bytes);
+			editor.locatePath(polygonIndex, ringIndex, pointIndex);
+			TestCase.assertEquals(point.getX(), editor.getX());
+			TestCase.assertEquals(point.getY(), editor.getY());
+
+			List<double[]> points = points(bytes);
+			editor.setXY(point.getX() + 1.0, point.getY() - 1.0);
+			if (point.hasZ()) {
+				editor.setZ(-1.0);
+			}
+			if (point.hasM()) {
+				editor.setM(-2.0);
+			}
+
+			// Only the located point is edited
+			List<double[]> edited = points(bytes);
+			int changed = 0;
+			for (int j = 0; j < points.size(); j++) {
+				if (points.get(j)[0] != edited.get(j)[0]) {
+					double[] editedPoint = edited.get(j);
+					TestCase.assertEquals(point.getX() + 1.0,
+							editedPoint[0]);
+					TestCase.assertEquals(point.getY() - 1.0,
+							editedPoint[1]);
+					TestCase.assertEquals(point.hasZ() ? -1.0 : Double.NaN,
+							editedPoint[2]);
+					TestCase.assertEquals(point.hasM() ? -2.0 : Double.NaN,
+							editedPoint[3]);
+					changed++;
+				}
+			}
+			TestCase.assertEquals(1, changed);
+		}
+
+		MultiPolygon multiPolygon = WKBTestUtils.createMultiPolygon(false,
+				false);
+		WKBPointEditor editor = new WKBPointEditor(
+				GeometryWriter.writeGeometry(multiPolygon));
+		int[][] invalid = { {}, { 0 }, { 0, 0 }, { 0, 0, 0, 0 },
+				{ multiPolygon.numPolygons(), 0, 0 }, { -1, 0, 0 } };
+		for (int[] path : invalid) {
+			try {
+				editor.locatePath(path);
+				TestCase.fail("Expected invalid path");
+			} catch (SFException e) {
+				TestCase.assertFalse(editor.isLocated());
+			}
+		}
+
+	}
+
+	/**
+	 * Test locating points by index in random geometries matches the
+	 * traversal order, and that edits only change the located point
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		int tested = 0;
+		while (tested < GEOMETRIES_PER_TEST) {
+
+			Geometry geometry = WKBTestUtils.createGeometry(
+					WKBTestUtils.coinFlip(), WKBTestUtils.coinFlip());
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			boolean float32 = WKBTestUtils.coinFlip();
+			byte[] bytes = write(geometry, byteOrder, float32);
+
+			List<double[]> points = points(bytes);
+			if (points.isEmpty()) {
+				continue;
+			}
+
+			WKBPointEditor editor = new WKBPointEditor(bytes);
+			int index = (int) (Math.random() * points.size());
+			editor.locate(index);
+			double[] point = points.get(index);
+			TestCase.assertEquals(point[0], editor.getX());
+			TestCase.assertEquals(point[1], editor.getY());
+			TestCase.assertEquals(!Double.isNaN(point[2]), editor.hasZ());
+			TestCase.assertEquals(!Double.isNaN(point[3]), editor.hasM());
+
+			editor.setXY(0.5, -0.5);
+			point[0] = 0.5;
+			point[1] = -0.5;
+			if (editor.hasZ()) {
+				editor.setZ(8.0);
+				point[2] = 8.0;
+			}
+			if (editor.hasM()) {
+				editor.setM(9.0);
+				point[3] = 9.0;
+			}
+
+			List<double[]> edited = points(bytes);
+			TestCase.assertEquals(points.size(), edited.size());
+			for (int i = 0; i < points.size(); i++) {
+				for (int j = 0; j < 4; j++) {
+					TestCase.assertEquals(points.get(i)[j],
+							edited.get(i)[j]);
+				}
+			}
+
+			try {
+				editor.locate(points.size());
+				TestCase.fail("Expected index past the points");
+			} catch (SFException e) {
+				TestCase.assertFalse(editor.isLocated());
+			}
+
+			tested++;
+		}
+
+	}
+
+	/**
+	 * Test editing fixed point values
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFixedPoint() throws IOException {
+
+		Point point = new Point(true, false, -77.0, 38.0);
+		point.setZ(10.0);
+		byte[] bytes = null;
+		GeometryWriter writer = new GeometryWriter();
+		try {
+			writer.setFixedPoint(-180.0, -90.0, 100.0);
+			writer.write(point);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+
+		WKBPointEditor editor = new WKBPointEditor(bytes);
+		try {
+			editor.locate(0);
+			TestCase.fail("Expected missing fixed point origin and scale");
+		} catch (SFException e) {
+			// Expected
+		}
+
+		editor.setFixedPoint(-180.0, -90.0, 100.0);
+		editor.locate(0);
+		TestCase.assertEquals(-77.0, editor.getX(), 0.0000001);
+		TestCase.assertEquals(38.0, editor.getY(), 0.0000001);
+		TestCase.assertEquals(10.0, editor.getZ());
+
+		editor.setXY(-76.99, 38.01);
+		editor.setZ(11.0);
+		GeometryReader reader = new GeometryReader(new ByteReader(bytes));
+		reader.setFixedPoint(-180.0, -90.0, 100.0);
+		Point read = (Point) reader.read();
+		TestCase.assertEquals(-76.99, read.getX(), 0.0000001);
+		TestCase.assertEquals(38.01, read.getY(), 0.0000001);
+		TestCase.assertEquals(11.0, read.getZ());
+
+		try {
+			editor.setX(1.0e9);
+			TestCase.fail("Expected value outside of the fixed point range");
+		} catch (SFException e) {
+			// Expected
+		}
+
+	}
+
+	/**
+	 * Write a geometry
+	 *
+	 * @param geometry
+	 *            geometry
+	 * @param byteOrder
+	 *            byte order
+	 * @param float32
+	 *            true for float32 values
+	 * @return bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static byte[] write(Geometry geometry, ByteOrder byteOrder,
+			boolean float32) throws IOException {
+		byte[] bytes = null;
+		GeometryWriter writer = new GeometryWriter(byteOrder);
+		try {
+			writer.setFloat32(float32);
+			writer.write(geometry);
+			bytes = writer.getBytes();
+		} finally {
+			writer.close();
+		}
+		return bytes;
+	}
+
+	/**
+	 * Traverse the points of well-known binary
+	 *
+	 * @param bytes
+	 *            well-known binary
+	 * @return x, y, z, and m values of each point in traversal order
+	 * @throws IOException
+	 *             upon error
+	 */
+	private static List<double[]> points(byte[] bytes) throws IOException {
+		final List<double[]> points = new ArrayList<>();
+		new GeometryReader(new ByteReader(bytes))
+				.traverse(new GeometryHandler() {
+
+					@Override
+					public void startGeometry(GeometryType geometryType,
+							boolean hasZ, boolean hasM,
+							GeometryType containingType) {
+					}
+
+					@Override
+					public void startList(int count) {
+					}
+
+					@Override
+					public void point(double x, double y, double z,
+							double m) {
+						points.add(new double[] { x, y, z, m });
+					}
+
+					@Override
+					public void endList() {
+					}
+
+					@Override
+					public void endGeometry() {
+					}
+
+				});
+		return points;
+	}
+
+}
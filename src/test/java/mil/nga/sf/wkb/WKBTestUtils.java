@@ -1,7 +1,10 @@
 package mil.nga.sf.wkb;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 
 import junit.framework.TestCase;
 import mil.nga.sf.CircularString;
@@ -993,6 +996,88 @@ public class WKBTestUtils {
 		return multiSurface;
 	}
 
+	/**
+	 * Create a random geometry of a random type
+	 * 
+	 * @param hasZ
+	 *            has z
+	 * @param hasM
+	 *            has m
+	 * @return geometry
+	 */
+	public static Geometry createGeometry(boolean hasZ, boolean hasM) {
+
+		Geometry geometry = null;
+		int randomGeometry = (int) (Math.random() * 9);
+
+		switch (randomGeometry) {
+		case 0:
+			geometry = createPoint(hasZ, hasM);
+			break;
+		case 1:
+			geometry = createLineString(hasZ, hasM);
+			break;
+		case 2:
+			geometry = createPolygon(hasZ, hasM);
+			break;
+		case 3:
+			geometry = createMultiPoint(hasZ, hasM);
+			break;
+		case 4:
+			geometry = createMultiLineString(hasZ, hasM);
+			break;
+		case 5:
+			geometry = createMultiPolygon(hasZ, hasM);
+			break;
+		case 6:
+			geometry = createGeometryCollection(hasZ, hasM);
+			break;
+		case 7:
+			geometry = createCompoundCurve(hasZ, hasM);
+			break;
+		case 8:
+			geometry = createCurvePolygon(hasZ, hasM);
+			break;
+		}
+
+		return geometry;
+	}
+
+	/**
+	 * Create random geometries of random types
+	 * 
+	 * @param count
+	 *            number of geometries
+	 * @return geometries
+	 */
+	public static List<Geometry> createGeometries(int count) {
+		List<Geometry> geometries = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			geometries.add(createGeometry(coinFlip(), coinFlip()));
+		}
+		return geometries;
+	}
+
+	/**
+	 * Write the geometries as concatenated well-known bytes
+	 * 
+	 * @param geometries
+	 *            geometries
+	 * @return concatenated bytes
+	 * @throws IOException
+	 *             upon error
+	 */
+	public static byte[] writeConcatenated(List<Geometry> geometries)
+			throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (Geometry geometry : geometries) {
+			bytes.write(GeometryWriter.writeGeometry(geometry,
+					coinFlip() ? ByteOrder.BIG_ENDIAN
+							: ByteOrder.LITTLE_ENDIAN));
+		}
+		return bytes.toByteArray();
+	}
+
 	/**
 	 * Randomly return true or false
 	 * 
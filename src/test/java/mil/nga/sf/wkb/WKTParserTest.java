@@ -0,0 +1,153 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Text to Well Known Binary parsing
+ */
+public class WKTParserTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test parsing known text
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownText() throws IOException {
+
+		testText(new Point(1, 2), "POINT (1 2)");
+		testText(new Point(1, 2), " point(1 2) ");
+		testText(new Point(1e-7, -2.5e10), "POINT (1E-7 -25000000000)");
+
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(3.0);
+		testText(pointZ, "POINT Z (1 2 3)");
+		testText(pointZ, "POINT (1 2 3)");
+
+		Point pointM = new Point(false, true, 1, 2);
+		pointM.setM(4.0);
+		testText(pointM, "POINT M (1 2 4)");
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(5, 5));
+		testText(lineString, "LINESTRING (1 1, 5 5)");
+		testText(new LineString(), "LINESTRING EMPTY");
+
+		Polygon polygon = new Polygon();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(10, 0));
+		ring.addPoint(new Point(10, 10));
+		ring.addPoint(new Point(0, 0));
+		polygon.addRing(ring);
+		testText(polygon, "POLYGON((0 0,10 0,10 10,0 0))");
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(3, 4));
+		testText(multiPoint, "MULTIPOINT ((1 2), (3 4))");
+		testText(multiPoint, "MULTIPOINT (1 2, 3 4)");
+
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(new Point(1, 2));
+		collection.addGeometry(lineString);
+		testText(collection,
+				"GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (1 1, 5 5))");
+		testText(new GeometryCollection<>(), "GEOMETRYCOLLECTION EMPTY");
+
+		// Members inherit the collection dimensions
+		MultiPoint multiPointZ = new MultiPoint(true, false);
+		multiPointZ.addPoint(pointZ);
+		testText(multiPointZ, "MULTIPOINT Z ((1 2 3))");
+
+	}
+
+	/**
+	 * Test parsing a range of text and parse errors
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testRangesAndErrors() throws IOException {
+
+		String wkt = "POINT (1 2)";
+		String line = "7,\"" + wkt + "\",name";
+		byte[] bytes = WKTParser.toWKB(line, 3, 3 + wkt.length(),
+				ByteOrder.LITTLE_ENDIAN);
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(
+				new Point(1, 2), ByteOrder.LITTLE_ENDIAN), bytes);
+
+		String[] invalid = { "", "POINT", "POINT (1)", "POINT (1 2",
+				"POINT (1 2) x", "CIRCLE (1 2)", "GEOMETRYCOLLECTION ((1 2))",
+				"LINESTRING (1 2, )", "POINT (1 2e)" };
+		for (String text : invalid) {
+			try {
+				WKTParser.toWKB(text);
+				TestCase.fail("Expected parse error: " + text);
+			} catch (SFException e) {
+				// Expected
+			}
+		}
+
+	}
+
+	/**
+	 * Test round trips through well-known text match well-known binary
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+
+			ByteOrder byteOrder = WKBTestUtils.coinFlip()
+					? ByteOrder.BIG_ENDIAN
+					: ByteOrder.LITTLE_ENDIAN;
+			byte[] bytes = GeometryWriter.writeGeometry(geometry, byteOrder);
+
+			String text = WKTTranscoder.toWKT(bytes);
+			WKBTestUtils.compareByteArrays(bytes,
+					WKTParser.toWKB(text, byteOrder));
+		}
+
+	}
+
+	/**
+	 * Test the text parses to the geometry bytes
+	 *
+	 * @param expected
+	 *            expected geometry
+	 * @param text
+	 *            well-known text
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testText(Geometry expected, String text) throws IOException {
+		WKBTestUtils.compareByteArrays(GeometryWriter.writeGeometry(expected),
+				WKTParser.toWKB(text));
+	}
+
+}
@@ -0,0 +1,217 @@
+package mil.nga.sf.wkb;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import junit.framework.TestCase;
+import mil.nga.sf.CircularString;
+import mil.nga.sf.Geometry;
+import mil.nga.sf.GeometryCollection;
+import mil.nga.sf.GeometryType;
+import mil.nga.sf.LineString;
+import mil.nga.sf.MultiPoint;
+import mil.nga.sf.Point;
+import mil.nga.sf.Polygon;
+import mil.nga.sf.util.SFException;
+
+/**
+ * Test Well Known Binary to Well Known Text transcoding
+ */
+public class WKTTranscoderTest {
+
+	/**
+	 * Number of random geometries to create for each test
+	 */
+	private static final int GEOMETRIES_PER_TEST = 50;
+
+	/**
+	 * Test transcoding to known text
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testKnownText() throws IOException {
+
+		Point point = new Point(1, 2);
+		testText("POINT (1 2)", point);
+
+		Point pointZM = new Point(true, true, 1.5, -2);
+		pointZM.setZ(3.0);
+		pointZM.setM(4.25);
+		testText("POINT ZM (1.5 -2 3 4.25)", pointZM);
+
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(1, 1));
+		lineString.addPoint(new Point(5, 5));
+		testText("LINESTRING (1 1, 5 5)", lineString);
+
+		Polygon polygon = new Polygon();
+		LineString ring = new LineString();
+		ring.addPoint(new Point(0, 0));
+		ring.addPoint(new Point(10, 0));
+		ring.addPoint(new Point(10, 10));
+		ring.addPoint(new Point(0, 0));
+		polygon.addRing(ring);
+		polygon.addRing(ring);
+		testText("POLYGON ((0 0, 10 0, 10 10, 0 0), (0 0, 10 0, 10 10, 0 0))",
+				polygon);
+
+		MultiPoint multiPoint = new MultiPoint();
+		multiPoint.addPoint(new Point(1, 2));
+		multiPoint.addPoint(new Point(Double.NaN, Double.NaN));
+		testText("MULTIPOINT ((1 2), EMPTY)", multiPoint);
+
+		GeometryCollection<Geometry> collection = new GeometryCollection<>();
+		collection.addGeometry(point);
+		collection.addGeometry(lineString);
+		collection.addGeometry(new LineString());
+		testText(
+				"GEOMETRYCOLLECTION (POINT (1 2), LINESTRING (1 1, 5 5), LINESTRING EMPTY)",
+				collection);
+		testText("GEOMETRYCOLLECTION EMPTY", new GeometryCollection<>());
+
+		testText("POINT (20037508.342789244 0.0000001)",
+				new Point(20037508.342789244, 1e-7));
+
+		GeometryCollection<Geometry> curves = curves();
+		testText(
+				"GEOMETRYCOLLECTION (LINESTRING (0 0, 1 1), CIRCULARSTRING (0 0, 1 1, 2 0))",
+				curves);
+
+		// Re-code the big endian collection as a multi curve
+		byte[] bytes = GeometryWriter.writeGeometry(curves);
+		bytes[4] = (byte) GeometryCodes.getCode(GeometryType.MULTICURVE);
+		TestCase.assertEquals(
+				"MULTICURVE ((0 0, 1 1), CIRCULARSTRING (0 0, 1 1, 2 0))",
+				WKTTranscoder.toWKT(bytes));
+
+	}
+
+	/**
+	 * Test rounding to a maximum number of fraction digits
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testFractionDigits() throws IOException {
+
+		WKTTranscoder transcoder = new WKTTranscoder(3);
+		StringBuilder text = new StringBuilder();
+		transcoder.write(GeometryWriter.writeGeometry(
+				new Point(1.23456, -0.0001)), text);
+		TestCase.assertEquals("POINT (1.235 0)", text.toString());
+
+		transcoder.setMaximumFractionDigits(0);
+		text = new StringBuilder();
+		transcoder.write(GeometryWriter.writeGeometry(
+				new Point(20037508.7, 7.5)), text);
+		TestCase.assertEquals("POINT (20037509 8)", text.toString());
+
+		// Values too large to scale are written unrounded
+		transcoder.setMaximumFractionDigits(6);
+		text = new StringBuilder();
+		transcoder.write(GeometryWriter.writeGeometry(new Point(1e305, 1)),
+				text);
+		TestCase.assertEquals("POINT (1" + "0".repeat(305) + " 1)",
+				text.toString());
+
+	}
+
+	/**
+	 * Test non-finite coordinates are rejected
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testNonFinite() throws IOException {
+
+		Point pointZ = new Point(true, false, 1, 2);
+		pointZ.setZ(Double.NaN);
+		Geometry[] geometries = { new Point(Double.POSITIVE_INFINITY, 1),
+				new Point(1, Double.NEGATIVE_INFINITY),
+				new Point(Double.NaN, 1), pointZ };
+		for (Geometry geometry : geometries) {
+			try {
+				WKTTranscoder.toWKT(GeometryWriter.writeGeometry(geometry));
+				TestCase.fail("Expected non-finite coordinate error");
+			} catch (SFException e) {
+				// Expected
+			}
+		}
+
+		TestCase.assertEquals("POINT EMPTY",
+				WKTTranscoder.toWKT(GeometryWriter
+						.writeGeometry(new Point(Double.NaN, Double.NaN))));
+
+	}
+
+	/**
+	 * Test transcoding geometries balances the text
+	 *
+	 * @throws IOException
+	 *             upon error
+	 */
+	@Test
+	public void testGeometries() throws IOException {
+
+		for (Geometry geometry : WKBTestUtils
+				.createGeometries(GEOMETRIES_PER_TEST)) {
+			String text = WKTTranscoder
+					.toWKT(GeometryWriter.writeGeometry(geometry));
+			TestCase.assertTrue(text.startsWith(GeometryCodes
+					.getWKBGeometryType(geometry).name()));
+			int open = 0;
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				if (c == '(') {
+					open++;
+				} else if (c == ')') {
+					open--;
+					TestCase.assertTrue(open >= 0);
+				}
+			}
+			TestCase.assertEquals(0, open);
+		}
+
+	}
+
+	/**
+	 * Create a multi curve of a line string and circular string
+	 *
+	 * @return multi curve
+	 */
+	private static GeometryCollection<Geometry> curves() {
+		GeometryCollection<Geometry> multiCurve = new GeometryCollection<>();
+		LineString lineString = new LineString();
+		lineString.addPoint(new Point(0, 0));
+		lineString.addPoint(new Point(1, 1));
+		multiCurve.addGeometry(lineString);
+		CircularString circularString = new CircularString();
+		circularString.addPoint(new Point(0, 0));
+		circularString.addPoint(new Point(1, 1));
+		circularString.addPoint(new Point(2, 0));
+		multiCurve.addGeometry(circularString);
+		return multiCurve;
+	}
+
+	/**
+	 * Test the geometry transcodes to the text
+	 *
+	 * @param expected
+	 *            expected text
+	 * @param geometry
+	 *            geometry
+	 * @throws IOException
+	 *             upon error
+	 */
+	private void testText(String expected, Geometry geometry)
+			throws IOException {
+		TestCase.assertEquals(expected,
+				WKTTranscoder.toWKT(GeometryWriter.writeGeometry(geometry)));
+	}
+
+}